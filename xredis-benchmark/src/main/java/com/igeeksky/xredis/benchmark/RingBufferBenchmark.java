@@ -0,0 +1,178 @@
+package com.igeeksky.xredis.benchmark;
+
+import com.igeeksky.xredis.common.flow.MpmcRingBuffer;
+import com.igeeksky.xtool.core.collection.RingBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据池缓冲区基准测试
+ * <p>
+ * 对比 xtool {@link RingBuffer}（逐个获取）、{@link MpmcRingBuffer}（每次获取 1 个）
+ * 及 {@link MpmcRingBuffer}（批量获取）在 4 个生产者，1、4、16 个消费者时的吞吐量。
+ * <p>
+ * 运行：{@code mvn -P benchmark -pl xredis-benchmark -am package && java -jar xredis-benchmark/target/benchmarks.jar}
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RingBufferBenchmark {
+
+    private static final Integer ELEMENT = 1;
+
+    /**
+     * 生产者与消费者共享的缓冲区
+     */
+    @State(Scope.Group)
+    public static class Shared {
+
+        @Param({"xtool", "mpmc", "mpmc-drain"})
+        public String impl;
+
+        @Param({"1024"})
+        public int capacity;
+
+        Buffer buffer;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            this.buffer = switch (impl) {
+                case "xtool" -> new XtoolBuffer(capacity);
+                case "mpmc" -> new MpmcBuffer(capacity, false);
+                case "mpmc-drain" -> new MpmcBuffer(capacity, true);
+                default -> throw new IllegalArgumentException("unknown impl: " + impl);
+            };
+        }
+
+    }
+
+    /**
+     * 消费者本地批次
+     */
+    @State(Scope.Thread)
+    public static class Batch {
+
+        final List<Integer> list = new ArrayList<>(16);
+
+    }
+
+    @Benchmark
+    @Group("c1")
+    @GroupThreads(4)
+    public boolean c1_offer(Shared shared) {
+        return shared.buffer.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("c1")
+    @GroupThreads(1)
+    public int c1_poll(Shared shared, Batch batch, Blackhole bh) {
+        return shared.buffer.consume(batch.list, bh);
+    }
+
+    @Benchmark
+    @Group("c4")
+    @GroupThreads(4)
+    public boolean c4_offer(Shared shared) {
+        return shared.buffer.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("c4")
+    @GroupThreads(4)
+    public int c4_poll(Shared shared, Batch batch, Blackhole bh) {
+        return shared.buffer.consume(batch.list, bh);
+    }
+
+    @Benchmark
+    @Group("c16")
+    @GroupThreads(4)
+    public boolean c16_offer(Shared shared) {
+        return shared.buffer.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("c16")
+    @GroupThreads(16)
+    public int c16_poll(Shared shared, Batch batch, Blackhole bh) {
+        return shared.buffer.consume(batch.list, bh);
+    }
+
+    /**
+     * 被测缓冲区
+     */
+    interface Buffer {
+
+        boolean offer(Integer element);
+
+        /**
+         * 消费元素
+         *
+         * @return {@code int} – 本次消费的元素数量
+         */
+        int consume(List<Integer> batch, Blackhole bh);
+
+    }
+
+    static final class XtoolBuffer implements Buffer {
+
+        private final RingBuffer<Integer> buffer;
+
+        XtoolBuffer(int capacity) {
+            this.buffer = new RingBuffer<>(capacity);
+        }
+
+        @Override
+        public boolean offer(Integer element) {
+            return buffer.offer(element);
+        }
+
+        @Override
+        public int consume(List<Integer> batch, Blackhole bh) {
+            Integer element = buffer.poll();
+            if (element == null) {
+                return 0;
+            }
+            bh.consume(element);
+            return 1;
+        }
+
+    }
+
+    static final class MpmcBuffer implements Buffer {
+
+        private final boolean drain;
+        private final MpmcRingBuffer<Integer> buffer;
+
+        MpmcBuffer(int capacity, boolean drain) {
+            this.drain = drain;
+            this.buffer = new MpmcRingBuffer<>(capacity);
+        }
+
+        @Override
+        public boolean offer(Integer element) {
+            return buffer.offer(element);
+        }
+
+        @Override
+        public int consume(List<Integer> batch, Blackhole bh) {
+            batch.clear();
+            int n = buffer.drainTo(batch, drain ? 16 : 1);
+            for (int i = 0; i < n; i++) {
+                bh.consume(batch.get(i));
+            }
+            return n;
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.igeeksky.xredis.common;
+
+import java.util.List;
+
+/**
+ * 失败的子批次
+ *
+ * @param index    子批次序号（从 0 开始）
+ * @param keys     子批次包含的键
+ * @param attempts 已尝试次数（含首次提交）
+ * @param error    最后一次失败的异常
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record BatchFailure(int index, List<byte[]> keys, int attempts, Throwable error) {
+}
@@ -0,0 +1,42 @@
+package com.igeeksky.xredis.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量操作执行报告
+ * <p>
+ * 记录每个子批次的执行结果，调用者可仅针对失败的子批次进行补偿，而无需重新提交全部数据。
+ *
+ * @param batches  子批次总数
+ * @param entries  数据总量
+ * @param retries  重试总次数
+ * @param failures 重试后仍失败的子批次（按子批次序号排序）
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record BatchReport(int batches, int entries, int retries, List<BatchFailure> failures) {
+
+    /**
+     * 是否全部成功
+     *
+     * @return {@code boolean} – 如所有子批次均执行成功，返回 {@code true}；否则返回 {@code false}
+     */
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * 获取失败子批次包含的全部键
+     *
+     * @return {@code List<byte[]>} – 失败子批次包含的全部键
+     */
+    public List<byte[]> failedKeys() {
+        List<byte[]> keys = new ArrayList<>();
+        for (BatchFailure failure : failures) {
+            keys.addAll(failure.keys());
+        }
+        return keys;
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.igeeksky.xredis.common;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.util.function.Predicate;
+
+/**
+ * 批量操作子批次重试策略
+ * <p>
+ * 仅用于幂等的批量写操作（如：mset、psetex），子批次失败后按指数退避重试，重试次数有上限。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class BatchRetryPolicy {
+
+    private final int maxRetries;
+
+    private final long backoffMillis;
+
+    private final long maxBackoffMillis;
+
+    private final Predicate<Throwable> retryable;
+
+    /**
+     * 私有构造器
+     *
+     * @param builder {@link Builder}
+     */
+    private BatchRetryPolicy(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.backoffMillis = builder.backoffMillis;
+        this.maxBackoffMillis = Math.max(builder.backoffMillis, builder.maxBackoffMillis);
+        this.retryable = builder.retryable;
+    }
+
+    /**
+     * 单个子批次最大重试次数（不含首次提交）
+     *
+     * @return {@code int} – 最大重试次数
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * 首次重试的退避时长（毫秒）
+     *
+     * @return {@code long} – 首次重试的退避时长
+     */
+    public long getBackoffMillis() {
+        return backoffMillis;
+    }
+
+    /**
+     * 最大退避时长（毫秒）
+     *
+     * @return {@code long} – 最大退避时长
+     */
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * 判断异常是否可重试
+     *
+     * @return {@code Predicate<Throwable>} – 异常判断（如未设置，返回 {@code null}，由实现类决定可重试的异常）
+     */
+    public Predicate<Throwable> getRetryable() {
+        return retryable;
+    }
+
+    /**
+     * 计算第 N 次重试前的退避时长（指数退避）
+     *
+     * @param retry 第几次重试（从 1 开始）
+     * @return {@code long} – 退避时长（毫秒）
+     */
+    public long backoff(int retry) {
+        int shift = Math.min(retry - 1, 30);
+        long delay = this.backoffMillis << shift;
+        if (delay < 0 || delay > this.maxBackoffMillis) {
+            return this.maxBackoffMillis;
+        }
+        return delay;
+    }
+
+    /**
+     * 计算同步等待的最大时长：每次提交的等待时长与所有退避时长之和
+     * <p>
+     * 即：{@code timeout × (maxRetries + 1) + backoff(1) + … + backoff(maxRetries)}，溢出时返回 {@link Long#MAX_VALUE}
+     * <p>
+     * <b>注意：</b>同步等待时长随单次提交的等待时长成倍增长。
+     * 默认策略为 {@code 4 × timeout + 700} 毫秒，如 timeout 为 60000 毫秒，同步调用最长将阻塞约 4 分钟；
+     * 同步调用时建议减小 timeout 或 maxRetries，或改用异步方法。
+     *
+     * @param timeout 单次提交的最大等待时长（毫秒）
+     * @return {@code long} – 同步等待的最大时长（毫秒）
+     */
+    public long maxWait(long timeout) {
+        try {
+            long total = Math.multiplyExact(timeout, (long) this.maxRetries + 1);
+            // 第 31 次及之后的退避时长均相同
+            int growing = Math.min(this.maxRetries, 31);
+            for (int retry = 1; retry <= growing; retry++) {
+                total = Math.addExact(total, this.backoff(retry));
+            }
+            if (this.maxRetries > growing) {
+                total = Math.addExact(total, Math.multiplyExact(this.backoff(32), (long) this.maxRetries - growing));
+            }
+            return total;
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 创建 BatchRetryPolicy-builder
+     *
+     * @return {@link BatchRetryPolicy.Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * BatchRetryPolicy-builder
+     */
+    public static class Builder {
+
+        private int maxRetries = 3;
+        private long backoffMillis = 100;
+        private long maxBackoffMillis = 2000;
+        private Predicate<Throwable> retryable;
+
+        /**
+         * 私有构造器
+         */
+        private Builder() {
+        }
+
+        /**
+         * 设置：单个子批次最大重试次数（不含首次提交），默认值：3
+         *
+         * @param maxRetries 最大重试次数，必须大于等于 0
+         * @return {@link Builder}
+         */
+        public Builder maxRetries(int maxRetries) {
+            Assert.isTrue(maxRetries >= 0, "maxRetries must be greater than or equal to 0");
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * 设置：首次重试的退避时长（单位：毫秒），默认值：100
+         * <p>
+         * 之后每次重试的退避时长翻倍，直至达到最大退避时长。
+         *
+         * @param backoffMillis 首次重试的退避时长，必须大于等于 0
+         * @return {@link Builder}
+         */
+        public Builder backoffMillis(long backoffMillis) {
+            Assert.isTrue(backoffMillis >= 0, "backoffMillis must be greater than or equal to 0");
+            this.backoffMillis = backoffMillis;
+            return this;
+        }
+
+        /**
+         * 设置：最大退避时长（单位：毫秒），默认值：2000
+         *
+         * @param maxBackoffMillis 最大退避时长，必须大于等于 0
+         * @return {@link Builder}
+         */
+        public Builder maxBackoffMillis(long maxBackoffMillis) {
+            Assert.isTrue(maxBackoffMillis >= 0, "maxBackoffMillis must be greater than or equal to 0");
+            this.maxBackoffMillis = maxBackoffMillis;
+            return this;
+        }
+
+        /**
+         * 设置：判断异常是否可重试
+         * <p>
+         * 如未设置，由 {@link RedisOperatorProxy} 实现类决定可重试的异常
+         * （一般为超时、连接断开，以及集群迁移期间的 MOVED、ASK、TRYAGAIN、CLUSTERDOWN 和 LOADING）。
+         *
+         * @param retryable 异常判断
+         * @return {@link Builder}
+         */
+        public Builder retryable(Predicate<Throwable> retryable) {
+            this.retryable = retryable;
+            return this;
+        }
+
+        /**
+         * 根据已设置参数创建 {@link BatchRetryPolicy}
+         *
+         * @return {@link BatchRetryPolicy}
+         */
+        public BatchRetryPolicy build() {
+            return new BatchRetryPolicy(this);
+        }
+
+    }
+
+}
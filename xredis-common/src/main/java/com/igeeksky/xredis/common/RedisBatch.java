@@ -0,0 +1,176 @@
+package com.igeeksky.xredis.common;
+
+import com.igeeksky.xtool.core.KeyValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 批量命令构建器
+ * <p>
+ * 先添加多个不同类型的命令（仅记录，不发送），调用 {@link #executeAsync()} 时再一次性写入管道连接并统一提交，
+ * 从而将多个命令合并为一次网络写入，减少网络往返。
+ * <p>
+ * <b>注意：</b><br>
+ * 1. 添加命令时返回的 {@link CompletableFuture} 在调用 {@link #executeAsync()} 之后才会完成；<br>
+ * 2. 每个 {@link RedisBatch} 对象仅能执行一次，非线程安全，请勿在多个线程间共享；<br>
+ * 3. 单个命令执行失败不影响其它命令，但汇总结果将以异常结束。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public interface RedisBatch {
+
+    /**
+     * Redis-String：获取键对应的值
+     *
+     * @param key 键
+     * @return {@code CompletableFuture<byte[]>} – 值
+     */
+    CompletableFuture<byte[]> get(byte[] key);
+
+    /**
+     * Redis-String：设置键对应的值
+     *
+     * @param key   键
+     * @param value 值
+     * @return {@code CompletableFuture<String>} – 如果命令执行成功，则返回 OK
+     */
+    CompletableFuture<String> set(byte[] key, byte[] value);
+
+    /**
+     * Redis-String：设置键对应的值和过期时间
+     *
+     * @param key          键
+     * @param milliseconds 过期时间（毫秒）
+     * @param value        值
+     * @return {@code CompletableFuture<String>} – 如果命令执行成功，则返回 OK
+     */
+    CompletableFuture<String> psetex(byte[] key, long milliseconds, byte[] value);
+
+    /**
+     * Redis-Key：删除键
+     *
+     * @param keys 键
+     * @return {@code CompletableFuture<Long>} – 删除数量
+     */
+    CompletableFuture<Long> del(byte[]... keys);
+
+    /**
+     * Redis-Hash：获取字段对应的值
+     *
+     * @param key   键
+     * @param field 字段
+     * @return {@code CompletableFuture<byte[]>} – 值
+     */
+    CompletableFuture<byte[]> hget(byte[] key, byte[] field);
+
+    /**
+     * Redis-Hash：批量获取字段对应的值
+     *
+     * @param key    键
+     * @param fields 字段列表
+     * @return {@code CompletableFuture<List<KeyValue<byte[], byte[]>>>} – 字段值对列表
+     */
+    CompletableFuture<List<KeyValue<byte[], byte[]>>> hmget(byte[] key, byte[]... fields);
+
+    /**
+     * Redis-Hash：设置字段对应的值
+     *
+     * @param key   键
+     * @param field 字段
+     * @param value 值
+     * @return {@code CompletableFuture<Boolean>} – 如果字段为新增，返回 {@code true}；如果字段已存在并更新值，返回 {@code false}
+     */
+    CompletableFuture<Boolean> hset(byte[] key, byte[] field, byte[] value);
+
+    /**
+     * Redis-Hash：批量设置字段对应的值
+     *
+     * @param key         键
+     * @param fieldValues 字段值对集合
+     * @return {@code CompletableFuture<String>} – 如果命令执行成功，则返回 OK
+     */
+    CompletableFuture<String> hmset(byte[] key, Map<byte[], byte[]> fieldValues);
+
+    /**
+     * Redis-Hash：删除字段
+     *
+     * @param key    键
+     * @param fields 字段列表
+     * @return {@code CompletableFuture<Long>} – 删除数量
+     */
+    CompletableFuture<Long> hdel(byte[] key, byte[]... fields);
+
+    /**
+     * Redis-SortedSet：添加成员
+     *
+     * @param key    键
+     * @param score  分值
+     * @param member 成员
+     * @return {@code CompletableFuture<Long>} – 新增成员数量
+     */
+    CompletableFuture<Long> zadd(byte[] key, double score, byte[] member);
+
+    /**
+     * Redis-SortedSet：获取成员数量
+     *
+     * @param key 键
+     * @return {@code CompletableFuture<Long>} – 成员数量
+     */
+    CompletableFuture<Long> zcard(byte[] key);
+
+    /**
+     * Redis-SortedSet：删除成员
+     *
+     * @param key     键
+     * @param members 成员列表
+     * @return {@code CompletableFuture<Long>} – 删除数量
+     */
+    CompletableFuture<Long> zrem(byte[] key, byte[]... members);
+
+    /**
+     * Redis-SortedSet：获取分值范围内的成员
+     *
+     * @param key   键
+     * @param range 分值范围
+     * @return {@code CompletableFuture<List<byte[]>>} – 成员列表
+     */
+    CompletableFuture<List<byte[]>> zrangebyscore(byte[] key, Range<? extends Number> range);
+
+    /**
+     * Redis-SortedSet：获取分值范围内的成员（分页）
+     *
+     * @param key   键
+     * @param range 分值范围
+     * @param limit 分页参数
+     * @return {@code CompletableFuture<List<byte[]>>} – 成员列表
+     */
+    CompletableFuture<List<byte[]>> zrangebyscore(byte[] key, Range<? extends Number> range, Limit limit);
+
+    /**
+     * 已添加的命令数量
+     *
+     * @return {@code int} – 已添加的命令数量
+     */
+    int size();
+
+    /**
+     * 一次性写入并提交所有已添加的命令（异步）
+     * <p>
+     * 汇总结果在所有命令完成后完成；如任一命令失败或超过 timeout 仍未完成，汇总结果以异常结束。<br>
+     * 超过 timeout 仍未完成的各命令结果同样以异常结束。
+     *
+     * @return {@code CompletableFuture<Void>} – 汇总结果
+     */
+    CompletableFuture<Void> executeAsync();
+
+    /**
+     * 一次性写入并提交所有已添加的命令（同步）
+     * <p>
+     * 阻塞等待所有命令完成；如任一命令失败或超过 timeout 仍未完成，抛出异常。
+     */
+    void execute();
+
+}
@@ -114,6 +114,10 @@ public final class RedisHelper {
     }
 
     private static RuntimeException convert(ExecutionException e) {
+        // 客户端快速拒绝（如：熔断器打开），直接抛出原异常，以便调用者按类型执行降级逻辑
+        if (e.getCause() instanceof RedisRejectedException rejected) {
+            return rejected;
+        }
         return new RedisOperationException("Redis:Execution:" + e.getMessage(), e.getCause());
     }
 
@@ -1,6 +1,11 @@
 package com.igeeksky.xredis.common;
 
 
+import com.igeeksky.xredis.common.breaker.CircuitBreaker;
+import com.igeeksky.xredis.common.breaker.CircuitBreakerOpenException;
+import com.igeeksky.xredis.common.limiter.CommandLimiter;
+import com.igeeksky.xredis.common.limiter.LimitPolicy;
+import com.igeeksky.xredis.common.limiter.Priority;
 import com.igeeksky.xtool.core.AsyncCloseable;
 import com.igeeksky.xtool.core.ExpiryKeyValue;
 import com.igeeksky.xtool.core.KeyValue;
@@ -71,6 +76,46 @@ public interface RedisOperatorProxy extends AsyncCloseable {
      */
     long getTimeout();
 
+    /**
+     * 获取在途命令并发限制器
+     * <p>
+     * 如设置了并发限制器，每次调用需先获取许可才会发送命令，命令完成后释放许可。
+     *
+     * @return {@link CommandLimiter} – 在途命令并发限制器（如未设置，返回 {@code null}）
+     */
+    CommandLimiter getLimiter();
+
+    /**
+     * 获取熔断器
+     * <p>
+     * 如设置了熔断器，熔断器打开时所有命令均不会发送到 RedisServer，
+     * 而是直接以 {@link CircuitBreakerOpenException} 异常结束。
+     *
+     * @return {@link CircuitBreaker} – 熔断器（如未设置，返回 {@code null}）
+     */
+    CircuitBreaker getCircuitBreaker();
+
+    /**
+     * 获取使用指定优先级发送命令的 RedisOperatorProxy
+     * <p>
+     * 返回的对象与当前对象共享底层连接、并发限制器及熔断器，仅命令优先级不同。<br>
+     * 优先级仅当并发限制器的处理策略为 {@link LimitPolicy#SHED} 时有效。
+     *
+     * @param priority 命令优先级（不能为空）
+     * @return {@link RedisOperatorProxy} – 使用指定优先级发送命令的 RedisOperatorProxy
+     */
+    RedisOperatorProxy withPriority(Priority priority);
+
+    /**
+     * 创建批量命令构建器
+     * <p>
+     * 可添加多个不同类型的命令，执行时一次性写入管道连接并统一提交（一次网络写入）。<br>
+     * 如未设置管道连接，命令将通过普通连接逐个发送。
+     *
+     * @return {@link RedisBatch} – 批量命令构建器
+     */
+    RedisBatch batch();
+
     /**
      * 获取 RedisServer 信息（异步）
      *
@@ -265,6 +310,32 @@ public interface RedisOperatorProxy extends AsyncCloseable {
      */
     String mset(Map<byte[], byte[]> keyValues);
 
+    /**
+     * Redis-String：批量设置键的值，仅重试失败的子批次（异步）
+     * <p>
+     * 按 batchSize 切分为多个子批次提交，某个子批次失败时，按重试策略仅重试该子批次；
+     * 重试后仍失败的子批次记录于返回的执行报告中，不会导致整体失败。
+     *
+     * @param keyValues 键值对集合
+     * @param policy    子批次重试策略（不能为空）
+     * @return {@code CompletableFuture<BatchReport>} – 执行报告
+     */
+    CompletableFuture<BatchReport> msetAsync(Map<byte[], byte[]> keyValues, BatchRetryPolicy policy);
+
+    /**
+     * Redis-String：批量设置键的值，仅重试失败的子批次（同步）
+     * <p>
+     * 按 batchSize 切分为多个子批次提交，某个子批次失败时，按重试策略仅重试该子批次；
+     * 重试后仍失败的子批次记录于返回的执行报告中，不会导致整体失败。
+     * <p>
+     * 同步等待的最大时长由 timeout 及重试策略计算得出（默认策略约为 timeout 的 4 倍），见 {@link BatchRetryPolicy#maxWait(long)}。
+     *
+     * @param keyValues 键值对集合
+     * @param policy    子批次重试策略（不能为空）
+     * @return {@link BatchReport} – 执行报告
+     */
+    BatchReport mset(Map<byte[], byte[]> keyValues, BatchRetryPolicy policy);
+
     /**
      * Redis-String：批量获取键对应的值（异步）
      * <p>
@@ -325,6 +396,29 @@ public interface RedisOperatorProxy extends AsyncCloseable {
      */
     String psetex(List<ExpiryKeyValue<byte[], byte[]>> expiryKeyValues);
 
+    /**
+     * Redis-String：批量设置键值及各自的过期时间，仅重试失败的子批次（异步）
+     * <p>
+     * 按 batchSize 切分为多个子批次提交，某个子批次失败时，按重试策略仅重试该子批次；
+     * 重试后仍失败的子批次记录于返回的执行报告中，不会导致整体失败。
+     *
+     * @param expiryKeyValues 键值对集合（含过期时间，单位：毫秒）
+     * @param policy          子批次重试策略（不能为空）
+     * @return {@code CompletableFuture<BatchReport>} – 执行报告
+     */
+    CompletableFuture<BatchReport> psetexAsync(List<ExpiryKeyValue<byte[], byte[]>> expiryKeyValues,
+                                               BatchRetryPolicy policy);
+
+    /**
+     * Redis-String：批量设置键值及各自的过期时间，仅重试失败的子批次（同步）
+     *
+     * @param expiryKeyValues 键值对集合（含过期时间，单位：毫秒）
+     * @param policy          子批次重试策略（不能为空）
+     * @return {@link BatchReport} – 执行报告
+     * @see #psetexAsync(List, BatchRetryPolicy)
+     */
+    BatchReport psetex(List<ExpiryKeyValue<byte[], byte[]>> expiryKeyValues, BatchRetryPolicy policy);
+
     /**
      * Redis-String：批量设置键对应的值和过期时间（异步）
      * <p>
@@ -347,6 +441,31 @@ public interface RedisOperatorProxy extends AsyncCloseable {
      */
     String psetex(List<KeyValue<byte[], byte[]>> keyValues, long milliseconds);
 
+    /**
+     * Redis-String：批量设置键值及相同的过期时间，仅重试失败的子批次（异步）
+     * <p>
+     * 按 batchSize 切分为多个子批次提交，某个子批次失败时，按重试策略仅重试该子批次；
+     * 重试后仍失败的子批次记录于返回的执行报告中，不会导致整体失败。
+     *
+     * @param keyValues    键值对集合
+     * @param milliseconds 过期时间（毫秒）
+     * @param policy       子批次重试策略（不能为空）
+     * @return {@code CompletableFuture<BatchReport>} – 执行报告
+     */
+    CompletableFuture<BatchReport> psetexAsync(List<KeyValue<byte[], byte[]>> keyValues, long milliseconds,
+                                               BatchRetryPolicy policy);
+
+    /**
+     * Redis-String：批量设置键值及相同的过期时间，仅重试失败的子批次（同步）
+     *
+     * @param keyValues    键值对集合
+     * @param milliseconds 过期时间（毫秒）
+     * @param policy       子批次重试策略（不能为空）
+     * @return {@link BatchReport} – 执行报告
+     * @see #psetexAsync(List, long, BatchRetryPolicy)
+     */
+    BatchReport psetex(List<KeyValue<byte[], byte[]>> keyValues, long milliseconds, BatchRetryPolicy policy);
+
     // -------------------------- string command end -------------------------
 
 
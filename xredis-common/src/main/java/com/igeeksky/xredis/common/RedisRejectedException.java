@@ -0,0 +1,34 @@
+package com.igeeksky.xredis.common;
+
+/**
+ * Redis 命令被拒绝执行异常
+ * <p>
+ * 命令并未发送到 RedisServer，而是在客户端被快速拒绝（如：并发许可不足）。
+ * <p>
+ * 调用者捕获此异常后，可以直接执行降级逻辑（如：查询数据库），而无需等待超时。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class RedisRejectedException extends RedisOperationException {
+
+    /**
+     * 带参构造
+     *
+     * @param message 异常信息
+     */
+    public RedisRejectedException(String message) {
+        super(message);
+    }
+
+    /**
+     * 带参构造
+     *
+     * @param message 异常信息
+     * @param cause   异常
+     */
+    public RedisRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
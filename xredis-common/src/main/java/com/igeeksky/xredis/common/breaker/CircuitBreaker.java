@@ -0,0 +1,350 @@
+package com.igeeksky.xredis.common.breaker;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 熔断器
+ * <p>
+ * 基于最近 N 次调用（计数滑动窗口）统计失败率与慢调用率：<br>
+ * 1. {@link CircuitState#CLOSED}：放行所有请求，失败率或慢调用率达到阈值时转为打开状态；<br>
+ * 2. {@link CircuitState#OPEN}：快速拒绝所有请求（抛出 {@link CircuitBreakerOpenException}），
+ * 持续设定时长后转为半开状态；<br>
+ * 3. {@link CircuitState#HALF_OPEN}：仅放行有限数量的试探请求，全部成功则关闭，任一失败则重新打开。
+ * <p>
+ * RedisServer 故障转移期间，调用者无需阻塞至超时，可立即执行降级逻辑（如：查询数据库）。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class CircuitBreaker {
+
+    private static final int FAILURE = 1;
+    private static final int SLOW = 2;
+
+    private final String name;
+    private final long openNanos;
+    private final long slowCallNanos;
+    private final CircuitBreakerConfig config;
+    private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final byte[] window;
+    private int index;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private long epoch;
+    private long openedAt;
+    private int halfOpenPermitted;
+    private int halfOpenSucceeded;
+
+    /**
+     * 创建熔断器
+     *
+     * @param name   熔断器名称（不能为空）
+     * @param config 熔断器配置（不能为空）
+     */
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        Assert.hasText(name, "name must not be empty");
+        Assert.notNull(config, "config must not be null");
+        this.name = name;
+        this.config = config;
+        this.window = new byte[config.getWindowSize()];
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenMillis());
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallMillis());
+    }
+
+    /**
+     * 添加状态变更监听器
+     *
+     * @param listener 状态变更监听器
+     */
+    public void addListener(CircuitBreakerListener listener) {
+        Assert.notNull(listener, "listener must not be null");
+        this.listeners.add(listener);
+    }
+
+    /**
+     * 经由熔断器执行命令
+     * <p>
+     * 如熔断器拒绝执行，返回的 {@link CompletableFuture} 将以 {@link CircuitBreakerOpenException} 异常完成，命令不会被执行。
+     *
+     * @param command 待执行的命令
+     * @param <T>     结果类型
+     * @return {@link CompletableFuture} – 命令执行结果
+     */
+    public <T> CompletableFuture<T> execute(Supplier<? extends CompletionStage<T>> command) {
+        return this.execute(call -> call.get().toCompletableFuture(), command);
+    }
+
+    /**
+     * 经由熔断器及门控（如：并发限制器）执行命令
+     * <p>
+     * 熔断器放行后，由门控决定何时执行命令：调用耗时从门控实际执行命令时开始计算（不含排队等待时长）；
+     * 如门控未执行命令即返回（如：拒绝执行），则不记录调用结果，并归还半开状态的试探许可。
+     *
+     * @param gate    门控（接收实际执行命令的函数，返回命令执行结果）
+     * @param command 待执行的命令
+     * @param <T>     结果类型
+     * @return {@link CompletableFuture} – 命令执行结果
+     */
+    public <T> CompletableFuture<T> execute(Function<Supplier<CompletionStage<T>>, CompletableFuture<T>> gate,
+                                            Supplier<? extends CompletionStage<T>> command) {
+        long permit = this.tryAcquire();
+        if (permit < 0) {
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException("Redis:CircuitBreaker:[" + name + "] is " + state));
+        }
+        Call<T> call = new Call<>(command);
+        CompletableFuture<T> future;
+        try {
+            future = gate.apply(call);
+        } catch (Throwable e) {
+            this.onComplete(permit, call, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((r, t) -> this.onComplete(permit, call, t));
+    }
+
+    /**
+     * 尝试获取执行许可
+     *
+     * @return 如允许执行，返回当前状态周期（大于等于 0）；否则返回 -1
+     */
+    private long tryAcquire() {
+        CircuitState from, to;
+        long permit;
+        synchronized (this) {
+            from = this.state;
+            if (from == CircuitState.OPEN) {
+                if (System.nanoTime() - this.openedAt < this.openNanos) {
+                    return -1;
+                }
+                this.transition(CircuitState.HALF_OPEN);
+            }
+            to = this.state;
+            if (to == CircuitState.HALF_OPEN) {
+                if (this.halfOpenPermitted >= this.config.getHalfOpenCalls()) {
+                    permit = -1;
+                } else {
+                    this.halfOpenPermitted++;
+                    permit = this.epoch;
+                }
+            } else {
+                permit = this.epoch;
+            }
+        }
+        this.notify(from, to);
+        return permit;
+    }
+
+    /**
+     * 记录调用结果（命令未执行则仅归还许可）
+     *
+     * @param permit 获取许可时的状态周期
+     * @param call   调用
+     * @param error  异常（如调用成功，则为 {@code null}）
+     */
+    private void onComplete(long permit, Call<?> call, Throwable error) {
+        if (!call.started) {
+            this.release(permit);
+            return;
+        }
+        this.onComplete(permit, call.start, error);
+    }
+
+    /**
+     * 归还半开状态的试探许可（命令未执行，不影响状态转换）
+     *
+     * @param permit 获取许可时的状态周期
+     */
+    private synchronized void release(long permit) {
+        if (permit == this.epoch && this.state == CircuitState.HALF_OPEN && this.halfOpenPermitted > 0) {
+            this.halfOpenPermitted--;
+        }
+    }
+
+    /**
+     * 记录调用结果
+     *
+     * @param permit 获取许可时的状态周期
+     * @param start  调用开始时间（纳秒）
+     * @param error  异常（如调用成功，则为 {@code null}）
+     */
+    private void onComplete(long permit, long start, Throwable error) {
+        int outcome = 0;
+        if (error != null && this.config.getRecordFailure().test(unwrap(error))) {
+            outcome |= FAILURE;
+        }
+        if (System.nanoTime() - start >= this.slowCallNanos) {
+            outcome |= SLOW;
+        }
+        CircuitState from, to;
+        synchronized (this) {
+            // 状态已变更，忽略之前周期发出的调用结果
+            if (permit != this.epoch) {
+                return;
+            }
+            from = this.state;
+            if (from == CircuitState.HALF_OPEN) {
+                if (outcome != 0) {
+                    this.transition(CircuitState.OPEN);
+                } else if (++this.halfOpenSucceeded >= this.config.getHalfOpenCalls()) {
+                    this.transition(CircuitState.CLOSED);
+                }
+            } else if (from == CircuitState.CLOSED) {
+                this.record(outcome);
+                if (this.calls >= this.config.getMinimumCalls()
+                        && (this.failures >= this.config.getFailureRateThreshold() * this.calls
+                        || this.slowCalls >= this.config.getSlowCallRateThreshold() * this.calls)) {
+                    this.transition(CircuitState.OPEN);
+                }
+            }
+            to = this.state;
+        }
+        this.notify(from, to);
+    }
+
+    private void record(int outcome) {
+        if (this.calls == this.window.length) {
+            int old = this.window[this.index];
+            if ((old & FAILURE) != 0) {
+                this.failures--;
+            }
+            if ((old & SLOW) != 0) {
+                this.slowCalls--;
+            }
+        } else {
+            this.calls++;
+        }
+        this.window[this.index] = (byte) outcome;
+        if ((outcome & FAILURE) != 0) {
+            this.failures++;
+        }
+        if ((outcome & SLOW) != 0) {
+            this.slowCalls++;
+        }
+        if (++this.index == this.window.length) {
+            this.index = 0;
+        }
+    }
+
+    /**
+     * 状态转换（调用者须持有锁）
+     *
+     * @param to 目标状态
+     */
+    private void transition(CircuitState to) {
+        this.epoch++;
+        this.state = to;
+        this.halfOpenPermitted = 0;
+        this.halfOpenSucceeded = 0;
+        if (to == CircuitState.OPEN) {
+            this.openedAt = System.nanoTime();
+        } else if (to == CircuitState.CLOSED) {
+            this.index = 0;
+            this.calls = 0;
+            this.failures = 0;
+            this.slowCalls = 0;
+        }
+    }
+
+    private void notify(CircuitState from, CircuitState to) {
+        if (from == to) {
+            return;
+        }
+        for (CircuitBreakerListener listener : this.listeners) {
+            listener.onStateChange(this.name, from, to);
+        }
+    }
+
+    /**
+     * 重置熔断器为关闭状态，并清空统计数据
+     */
+    public void reset() {
+        CircuitState from;
+        synchronized (this) {
+            from = this.state;
+            this.transition(CircuitState.CLOSED);
+        }
+        this.notify(from, CircuitState.CLOSED);
+    }
+
+    /**
+     * 获取熔断器名称
+     *
+     * @return 熔断器名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取熔断器当前状态
+     *
+     * @return {@link CircuitState} – 熔断器当前状态
+     */
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * 获取当前滑动窗口内的失败率
+     *
+     * @return 失败率（如窗口内无调用记录，返回 0）
+     */
+    public synchronized double getFailureRate() {
+        return this.calls == 0 ? 0 : (double) this.failures / this.calls;
+    }
+
+    /**
+     * 获取当前滑动窗口内的慢调用率
+     *
+     * @return 慢调用率（如窗口内无调用记录，返回 0）
+     */
+    public synchronized double getSlowCallRate() {
+        return this.calls == 0 ? 0 : (double) this.slowCalls / this.calls;
+    }
+
+    /**
+     * 调用：记录命令实际开始执行的时间
+     *
+     * @param <T> 结果类型
+     */
+    private static final class Call<T> implements Supplier<CompletionStage<T>> {
+
+        private final Supplier<? extends CompletionStage<T>> command;
+        private volatile boolean started;
+        private volatile long start;
+
+        private Call(Supplier<? extends CompletionStage<T>> command) {
+            this.command = command;
+        }
+
+        @Override
+        public CompletionStage<T> get() {
+            this.start = System.nanoTime();
+            this.started = true;
+            return this.command.get();
+        }
+
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+}
@@ -0,0 +1,272 @@
+package com.igeeksky.xredis.common.breaker;
+
+import com.igeeksky.xredis.common.RedisRejectedException;
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.util.function.Predicate;
+
+/**
+ * 熔断器配置
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class CircuitBreakerConfig {
+
+    private final int windowSize;
+
+    private final int minimumCalls;
+
+    private final double failureRateThreshold;
+
+    private final double slowCallRateThreshold;
+
+    private final long slowCallMillis;
+
+    private final long openMillis;
+
+    private final int halfOpenCalls;
+
+    private final Predicate<Throwable> recordFailure;
+
+    /**
+     * 私有构造器
+     *
+     * @param builder {@link Builder}
+     */
+    private CircuitBreakerConfig(Builder builder) {
+        Assert.isTrue(builder.minimumCalls <= builder.windowSize, "minimumCalls must be less than or equal to windowSize");
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallMillis = builder.slowCallMillis;
+        this.openMillis = builder.openMillis;
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.recordFailure = builder.recordFailure;
+    }
+
+    /**
+     * 滑动窗口大小（最近调用次数）
+     *
+     * @return {@code int} – 滑动窗口大小
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * 计算失败率所需的最少调用次数
+     *
+     * @return {@code int} – 最少调用次数
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * 失败率阈值
+     *
+     * @return {@code double} – 失败率阈值
+     */
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * 慢调用率阈值
+     *
+     * @return {@code double} – 慢调用率阈值
+     */
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * 慢调用时长阈值（毫秒）
+     *
+     * @return {@code long} – 慢调用时长阈值
+     */
+    public long getSlowCallMillis() {
+        return slowCallMillis;
+    }
+
+    /**
+     * 打开状态持续时长（毫秒）
+     *
+     * @return {@code long} – 打开状态持续时长
+     */
+    public long getOpenMillis() {
+        return openMillis;
+    }
+
+    /**
+     * 半开状态允许的试探请求数
+     *
+     * @return {@code int} – 试探请求数
+     */
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    /**
+     * 判断异常是否记为失败
+     *
+     * @return {@code Predicate<Throwable>} – 异常判断
+     */
+    public Predicate<Throwable> getRecordFailure() {
+        return recordFailure;
+    }
+
+    /**
+     * 创建 CircuitBreakerConfig-builder
+     *
+     * @return {@link CircuitBreakerConfig.Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * CircuitBreakerConfig-builder
+     */
+    public static class Builder {
+
+        private int windowSize = 100;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 1.0;
+        private long slowCallMillis = 3000;
+        private long openMillis = 10000;
+        private int halfOpenCalls = 3;
+        private Predicate<Throwable> recordFailure = e -> !(e instanceof RedisRejectedException);
+
+        /**
+         * 私有构造器
+         */
+        private Builder() {
+        }
+
+        /**
+         * 设置：滑动窗口大小（统计最近多少次调用），默认值：100
+         *
+         * @param windowSize 滑动窗口大小，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder windowSize(int windowSize) {
+            Assert.isTrue(windowSize > 0, "windowSize must be greater than 0");
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * 设置：计算失败率所需的最少调用次数，默认值：20
+         * <p>
+         * 窗口内调用次数小于此值时，不会打开熔断器。
+         *
+         * @param minimumCalls 最少调用次数，必须大于 0 且小于等于 windowSize
+         * @return {@link Builder}
+         */
+        public Builder minimumCalls(int minimumCalls) {
+            Assert.isTrue(minimumCalls > 0, "minimumCalls must be greater than 0");
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * 设置：失败率阈值，默认值：0.5
+         * <p>
+         * 失败率大于等于此值时，打开熔断器。
+         *
+         * @param failureRateThreshold 失败率阈值，取值范围：(0, 1]
+         * @return {@link Builder}
+         */
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 1, "failureRateThreshold must be in (0, 1]");
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * 设置：慢调用率阈值，默认值：1.0
+         * <p>
+         * 慢调用率大于等于此值时，打开熔断器。
+         *
+         * @param slowCallRateThreshold 慢调用率阈值，取值范围：(0, 1]
+         * @return {@link Builder}
+         */
+        public Builder slowCallRateThreshold(double slowCallRateThreshold) {
+            Assert.isTrue(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1, "slowCallRateThreshold must be in (0, 1]");
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /**
+         * 设置：慢调用时长阈值（单位：毫秒），默认值：3000
+         * <p>
+         * 调用耗时大于等于此值时，记为慢调用。
+         *
+         * @param slowCallMillis 慢调用时长阈值，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder slowCallMillis(long slowCallMillis) {
+            Assert.isTrue(slowCallMillis > 0, "slowCallMillis must be greater than 0");
+            this.slowCallMillis = slowCallMillis;
+            return this;
+        }
+
+        /**
+         * 设置：打开状态持续时长（单位：毫秒），默认值：10000
+         * <p>
+         * 超过此时长后，熔断器转为半开状态。
+         *
+         * @param openMillis 打开状态持续时长，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder openMillis(long openMillis) {
+            Assert.isTrue(openMillis > 0, "openMillis must be greater than 0");
+            this.openMillis = openMillis;
+            return this;
+        }
+
+        /**
+         * 设置：半开状态允许的试探请求数，默认值：3
+         * <p>
+         * 试探请求全部成功，熔断器关闭；任一试探请求失败，熔断器重新打开。
+         *
+         * @param halfOpenCalls 试探请求数，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            Assert.isTrue(halfOpenCalls > 0, "halfOpenCalls must be greater than 0");
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * 设置：判断异常是否记为失败
+         * <p>
+         * 默认：除 {@link RedisRejectedException} 外的所有异常均记为失败。<br>
+         * 如仅需统计连接异常与超时异常，可自定义此判断（如：排除 WRONGTYPE 等命令错误）。
+         *
+         * @param recordFailure 异常判断（不能为空）
+         * @return {@link Builder}
+         */
+        public Builder recordFailure(Predicate<Throwable> recordFailure) {
+            Assert.notNull(recordFailure, "recordFailure must not be null");
+            this.recordFailure = recordFailure;
+            return this;
+        }
+
+        /**
+         * 根据已设置参数创建 {@link CircuitBreakerConfig}
+         *
+         * @return {@link CircuitBreakerConfig}
+         */
+        public CircuitBreakerConfig build() {
+            return new CircuitBreakerConfig(this);
+        }
+
+    }
+
+}
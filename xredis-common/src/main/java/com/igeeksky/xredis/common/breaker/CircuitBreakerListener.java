@@ -0,0 +1,23 @@
+package com.igeeksky.xredis.common.breaker;
+
+/**
+ * 熔断器状态变更监听器
+ * <p>
+ * 回调在触发状态变更的线程中同步执行（可能是 Netty 事件循环线程），请勿执行阻塞操作。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+
+    /**
+     * 熔断器状态变更
+     *
+     * @param name 熔断器名称
+     * @param from 变更前状态
+     * @param to   变更后状态
+     */
+    void onStateChange(String name, CircuitState from, CircuitState to);
+
+}
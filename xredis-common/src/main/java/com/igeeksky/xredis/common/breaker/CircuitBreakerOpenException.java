@@ -0,0 +1,24 @@
+package com.igeeksky.xredis.common.breaker;
+
+import com.igeeksky.xredis.common.RedisRejectedException;
+
+/**
+ * 熔断器打开异常
+ * <p>
+ * 熔断器处于打开状态（或半开状态且试探请求数已满）时，命令不会发送到 RedisServer，而是直接抛出此异常。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class CircuitBreakerOpenException extends RedisRejectedException {
+
+    /**
+     * 带参构造
+     *
+     * @param message 异常信息
+     */
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+
+}
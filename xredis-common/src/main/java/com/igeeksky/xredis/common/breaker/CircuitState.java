@@ -0,0 +1,26 @@
+package com.igeeksky.xredis.common.breaker;
+
+/**
+ * 熔断器状态
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public enum CircuitState {
+
+    /**
+     * 关闭：正常放行所有请求，并统计失败率与慢调用率
+     */
+    CLOSED,
+
+    /**
+     * 打开：快速拒绝所有请求，直到达到设定的打开时长
+     */
+    OPEN,
+
+    /**
+     * 半开：仅放行有限数量的试探请求，根据试探结果决定关闭或重新打开
+     */
+    HALF_OPEN
+
+}
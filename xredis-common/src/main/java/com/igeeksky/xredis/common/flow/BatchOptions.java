@@ -0,0 +1,39 @@
+package com.igeeksky.xredis.common.flow;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+/**
+ * 批量消费选项
+ *
+ * @param maxSize 批次最大元素数量 {@code maxSize > 0}
+ *                <p>
+ *                超过数据池容量时，以数据池容量为准。
+ * @param linger  批次最大等待时长（单位：毫秒） {@code linger >= 0}
+ *                <p>
+ *                批次元素数量未达到 maxSize 时，最多等待此时长以凑齐批次；
+ *                为 0 时不等待，数据池中有多少元素即推送多少元素。
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record BatchOptions(int maxSize, long linger) {
+
+    /**
+     * 参数校验
+     */
+    public BatchOptions {
+        Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+        Assert.isTrue(linger >= 0, "linger must be greater than or equal to 0");
+    }
+
+    /**
+     * 创建 {@link BatchOptions}
+     *
+     * @param maxSize 批次最大元素数量
+     * @param linger  批次最大等待时长（单位：毫秒）
+     * @return {@link BatchOptions}
+     */
+    public static BatchOptions from(int maxSize, long linger) {
+        return new BatchOptions(maxSize, linger);
+    }
+
+}
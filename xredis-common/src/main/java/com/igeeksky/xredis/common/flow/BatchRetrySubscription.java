@@ -0,0 +1,30 @@
+package com.igeeksky.xredis.common.flow;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 可重试的批量订阅关系维护接口
+ *
+ * @param <E> 元素类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public interface BatchRetrySubscription<E> extends Subscription {
+
+    /**
+     * 立即重试
+     *
+     * @param batch 需重试的消息（可以是原批次的子集，不能为空）
+     */
+    void retry(List<E> batch);
+
+    /**
+     * 延迟重试
+     *
+     * @param batch 需重试的消息（可以是原批次的子集，不能为空）
+     * @param delay 延迟时间
+     */
+    void retry(List<E> batch, Duration delay);
+
+}
@@ -0,0 +1,48 @@
+package com.igeeksky.xredis.common.flow;
+
+import java.util.List;
+
+/**
+ * 批量订阅者
+ * <p>
+ * 每次接收一个批次的消息，批次大小及等待时长由 {@link BatchOptions} 决定，
+ * 适用于写入数据库、消息队列等可批量执行的下游操作。
+ *
+ * @param <E> 数据类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public interface BatchSubscriber<E> {
+
+    /**
+     * 处理接收到的批次消息
+     *
+     * @param batch 批次消息（不为空，且至少包含一个元素）
+     */
+    void onNext(List<E> batch);
+
+    /**
+     * 上游异常处理
+     * <p>
+     * 譬如：RedisServer 连接异常，数据序列化异常……等.
+     *
+     * @param t 错误
+     * @param s 订阅关系维护
+     */
+    void onError(Throwable t, Subscription s);
+
+    /**
+     * 消费异常处理
+     * <p>
+     * 如果批次中部分消息已处理成功，可仅将处理失败的消息传给 {@link BatchRetrySubscription#retry}，
+     * 已处理成功的消息不再重复推送（部分确认）；
+     * 如不调用 {@link BatchRetrySubscription#retry}，则丢弃该批次，继续推送后续批次。
+     *
+     * @param t        错误
+     * @param batch    批次消息
+     * @param attempts 批次消费失败次数
+     * @param s        可重试的批量订阅关系维护
+     */
+    void onError(Throwable t, List<E> batch, int attempts, BatchRetrySubscription<E> s);
+
+}
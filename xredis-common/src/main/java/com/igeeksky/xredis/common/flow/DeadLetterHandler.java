@@ -0,0 +1,27 @@
+package com.igeeksky.xredis.common.flow;
+
+/**
+ * 死信处理
+ * <p>
+ * 消费失败次数达到 {@link RetryOptions#maxAttempts()} 时调用，该元素不再推送给订阅者。
+ * <p>
+ * 譬如：将消息写入死信流、记录日志或发送告警；对于消费者组，也可以在处理后确认（ack）该消息，
+ * 避免其再次被待处理消息恢复任务认领。
+ *
+ * @param <E> 数据类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface DeadLetterHandler<E> {
+
+    /**
+     * 处理死信
+     *
+     * @param element  数据元素
+     * @param cause    最后一次消费失败的异常
+     * @param attempts 消费失败次数
+     */
+    void onDeadLetter(E element, Throwable cause, int attempts);
+
+}
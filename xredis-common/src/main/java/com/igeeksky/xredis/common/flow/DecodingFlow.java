@@ -0,0 +1,427 @@
+package com.igeeksky.xredis.common.flow;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 解码数据流
+ * <p>
+ * 将原始数据流转换为指定类型的数据流：数据池仍缓存原始元素，由消费任务在推送给订阅者之前解码，
+ * 因此解码操作不占用拉取线程。
+ * <p>
+ * 每个元素仅解码一次：订阅者处理失败时，解码后的元素随 {@code onError} 传递给订阅者；
+ * 订阅者要求重试时，数据池重新推送原始元素，消费任务直接使用此前解码后的元素，不再重新解码。
+ * <p>
+ * 解码失败的元素不会推送给 {@code onNext}，而是调用 {@code onError(Throwable, Subscription)}，然后丢弃该元素。
+ * <p>
+ * 注意：分区订阅需在写入数据池时（拉取线程）提取分区键，为避免在拉取线程解码，
+ * 仅支持从原始元素提取分区键，详见 {@link #subscribeByRawKey(Subscriber, Function, int)}。
+ *
+ * @param <E> 原始数据类型
+ * @param <T> 解码后的数据类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class DecodingFlow<E, T> implements Flow<T> {
+
+    private final Flow<E> flow;
+
+    private final Function<? super E, ? extends T> decoder;
+
+    /**
+     * 构造函数
+     *
+     * @param flow    原始数据流（不能为空）
+     * @param decoder 解码函数（不能为空）
+     */
+    public DecodingFlow(Flow<E> flow, Function<? super E, ? extends T> decoder) {
+        Assert.notNull(flow, "flow must not be null");
+        Assert.notNull(decoder, "decoder must not be null");
+        this.flow = flow;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public void cancel() {
+        this.flow.cancel();
+    }
+
+    @Override
+    public Disposable subscribe(Subscriber<T> subscriber, int parallelism) {
+        return this.flow.subscribe(this.decoding(subscriber), parallelism);
+    }
+
+    @Override
+    public Disposable subscribe(BatchSubscriber<T> subscriber, BatchOptions options, int parallelism) {
+        Assert.notNull(subscriber, "subscriber must not be null");
+        return this.flow.subscribe(new DecodingBatchSubscriber<>(subscriber, new Decoder<>(this.decoder)),
+                options, parallelism);
+    }
+
+    /**
+     * 不支持从解码后的元素提取分区键
+     * <p>
+     * 分区键在写入数据池时（拉取线程）提取，使用解码后的元素提取分区键将导致在拉取线程解码，
+     * 请使用 {@link #subscribeByRawKey(Subscriber, Function, int)} 从原始元素提取分区键。
+     *
+     * @param subscriber   订阅者
+     * @param keyExtractor 键提取函数
+     * @param lanes        分区数量
+     * @return 无返回值，始终抛出异常
+     * @throws UnsupportedOperationException 始终抛出
+     */
+    @Override
+    public Disposable subscribe(Subscriber<T> subscriber, Function<? super T, ?> keyExtractor, int lanes) {
+        throw new UnsupportedOperationException("DecodingFlow: use subscribeByRawKey to extract key from raw element");
+    }
+
+    /**
+     * 分区订阅（从原始元素提取分区键）
+     * <p>
+     * 根据 {@code keyExtractor} 从原始元素提取的键将消息分配到 {@code lanes} 个分区之一，每个分区仅有一个消费任务：
+     * 相同键的消息按顺序处理（包括失败重试），不同分区的消息并行处理。
+     * <p>
+     * 提取分区键时不解码，解码依然由消费任务执行。
+     *
+     * @param subscriber   订阅者（不能为空）
+     * @param keyExtractor 键提取函数，参数为原始元素（不能为空）
+     * @param lanes        分区数量，即并行度（需大于 0）
+     * @return {@link Disposable}
+     */
+    public Disposable subscribeByRawKey(Subscriber<T> subscriber, Function<? super E, ?> keyExtractor, int lanes) {
+        Assert.notNull(keyExtractor, "keyExtractor must not be null");
+        return this.flow.subscribe(this.decoding(subscriber), keyExtractor, lanes);
+    }
+
+    @Override
+    public Disposable subscribe(Subscriber<T> subscriber, ElasticOptions options) {
+        return this.flow.subscribe(this.decoding(subscriber), options);
+    }
+
+    private Subscriber<E> decoding(Subscriber<T> subscriber) {
+        Assert.notNull(subscriber, "subscriber must not be null");
+        return new DecodingSubscriber<>(subscriber, new Decoder<>(this.decoder));
+    }
+
+    /**
+     * 解码异常（用于区分解码失败与订阅者处理失败）
+     */
+    private static final class DecodeException extends RuntimeException {
+
+        private DecodeException(Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+
+    }
+
+    /**
+     * 按对象引用比较的键（原始元素可能重写 equals，且内容相同的元素也需区分）
+     *
+     * @param element 原始元素
+     * @param <E>     原始数据类型
+     */
+    private record Identity<E>(E element) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity<?> other && other.element == this.element;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.element);
+        }
+
+    }
+
+    /**
+     * 解码器：缓存待重试元素的解码结果，重新推送时直接使用
+     *
+     * @param <E> 原始数据类型
+     * @param <T> 解码后的数据类型
+     */
+    private static final class Decoder<E, T> {
+
+        private final Function<? super E, ? extends T> decoder;
+
+        /**
+         * 待重试的原始元素 → 解码后的元素
+         */
+        private final ConcurrentHashMap<Identity<E>, T> retrying = new ConcurrentHashMap<>();
+
+        private Decoder(Function<? super E, ? extends T> decoder) {
+            this.decoder = decoder;
+        }
+
+        /**
+         * 解码（待重试的元素直接返回此前的解码结果）
+         *
+         * @param element 原始元素
+         * @return {@code T} – 解码后的元素
+         * @throws DecodeException 解码失败
+         */
+        private T decode(E element) {
+            if (!this.retrying.isEmpty()) {
+                T value = this.retrying.remove(new Identity<>(element));
+                if (value != null) {
+                    return value;
+                }
+            }
+            try {
+                return this.decoder.apply(element);
+            } catch (RuntimeException e) {
+                throw new DecodeException(e);
+            }
+        }
+
+        /**
+         * 登记待重试的元素
+         *
+         * @param original 原始元素
+         * @param value    解码后的元素
+         */
+        private void retry(E original, T value) {
+            this.retrying.put(new Identity<>(original), value);
+        }
+
+    }
+
+    /**
+     * 处理失败的元素（{@code onNext} 抛出异常后，数据池在同一线程立即回调 {@code onError}）
+     *
+     * @param element 原始元素
+     * @param value   解码后的元素
+     */
+    private record Failure<E, T>(E element, T value) {
+    }
+
+    /**
+     * 解码订阅者：解码后推送给实际订阅者
+     */
+    private static final class DecodingSubscriber<E, T> implements Subscriber<E> {
+
+        private final Subscriber<T> subscriber;
+
+        private final Decoder<E, T> decoder;
+
+        private final ThreadLocal<Failure<E, T>> failure = new ThreadLocal<>();
+
+        private DecodingSubscriber(Subscriber<T> subscriber, Decoder<E, T> decoder) {
+            this.subscriber = subscriber;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public void onNext(E element) {
+            T value = this.decoder.decode(element);
+            try {
+                this.subscriber.onNext(value);
+            } catch (Throwable t) {
+                this.failure.set(new Failure<>(element, value));
+                throw t;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t, Subscription s) {
+            this.subscriber.onError(t, s);
+        }
+
+        @Override
+        public void onError(Throwable t, E element, int attempts, RetrySubscription<E> s) {
+            if (t instanceof DecodeException) {
+                this.subscriber.onError(t.getCause(), s);
+                return;
+            }
+            Failure<E, T> failed = this.failure.get();
+            this.failure.remove();
+            T value = (failed != null && failed.element() == element) ? failed.value() : this.decoder.decode(element);
+            this.subscriber.onError(t, value, attempts, new DecodedRetrySubscription<>(s, element, this.decoder));
+        }
+
+    }
+
+    /**
+     * 处理失败的批次
+     *
+     * @param batch     原始批次
+     * @param values    解码后的批次
+     * @param originals 解码后元素与原始元素的对应关系
+     * @param errors    解码失败的异常
+     */
+    private record BatchFailure<E, T>(List<E> batch, List<T> values, Map<T, E> originals,
+                                      List<RuntimeException> errors) {
+    }
+
+    /**
+     * 解码批量订阅者：解码后推送给实际订阅者，解码失败的元素从批次中剔除
+     */
+    private static final class DecodingBatchSubscriber<E, T> implements BatchSubscriber<E> {
+
+        private final BatchSubscriber<T> subscriber;
+
+        private final Decoder<E, T> decoder;
+
+        private final ThreadLocal<BatchFailure<E, T>> failure = new ThreadLocal<>();
+
+        private DecodingBatchSubscriber(BatchSubscriber<T> subscriber, Decoder<E, T> decoder) {
+            this.subscriber = subscriber;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public void onNext(List<E> batch) {
+            BatchFailure<E, T> decoded = this.decode(batch);
+            if (!decoded.values().isEmpty()) {
+                try {
+                    this.subscriber.onNext(decoded.values());
+                } catch (Throwable t) {
+                    this.failure.set(decoded);
+                    throw t;
+                }
+            }
+            // 解码成功的元素已处理完成，仅需通知解码失败，无需重试
+            if (!decoded.errors().isEmpty()) {
+                throw new DecodeException(decoded.errors().getLast());
+            }
+        }
+
+        /**
+         * 解码批次，并记录解码后元素与原始元素的对应关系（以支持部分重试）
+         *
+         * @param batch 原始批次
+         * @return {@link BatchFailure} – 解码结果
+         */
+        private BatchFailure<E, T> decode(List<E> batch) {
+            Map<T, E> originals = new IdentityHashMap<>(batch.size());
+            List<T> values = new ArrayList<>(batch.size());
+            List<RuntimeException> errors = new ArrayList<>(0);
+            for (E element : batch) {
+                try {
+                    T value = this.decoder.decode(element);
+                    originals.put(value, element);
+                    values.add(value);
+                } catch (DecodeException e) {
+                    errors.add((RuntimeException) e.getCause());
+                }
+            }
+            return new BatchFailure<>(batch, values, originals, errors);
+        }
+
+        @Override
+        public void onError(Throwable t, Subscription s) {
+            this.subscriber.onError(t, s);
+        }
+
+        @Override
+        public void onError(Throwable t, List<E> batch, int attempts, BatchRetrySubscription<E> s) {
+            if (t instanceof DecodeException) {
+                this.subscriber.onError(t.getCause(), s);
+                return;
+            }
+            BatchFailure<E, T> failed = this.failure.get();
+            this.failure.remove();
+            if (failed == null || failed.batch() != batch) {
+                failed = this.decode(batch);
+            }
+            for (RuntimeException e : failed.errors()) {
+                this.subscriber.onError(e, s);
+            }
+            if (!failed.values().isEmpty()) {
+                this.subscriber.onError(t, failed.values(), attempts,
+                        new DecodedBatchRetrySubscription<>(s, failed.originals(), this.decoder));
+            }
+        }
+
+    }
+
+    /**
+     * 重试时推送原始元素，并登记解码后的元素（重新推送时不再解码）
+     */
+    private record DecodedRetrySubscription<E, T>(RetrySubscription<E> s, E original,
+                                                  Decoder<E, T> decoder) implements RetrySubscription<T> {
+
+        @Override
+        public void retry(T element) {
+            this.decoder.retry(this.original, element);
+            this.s.retry(this.original);
+        }
+
+        @Override
+        public void retry(T element, Duration delay) {
+            this.decoder.retry(this.original, element);
+            this.s.retry(this.original, delay);
+        }
+
+        @Override
+        public void cancel() {
+            this.s.cancel();
+        }
+
+        @Override
+        public void pausePull(Duration pauseTime) {
+            this.s.pausePull(pauseTime);
+        }
+
+        @Override
+        public void pausePush(Duration pauseTime) {
+            this.s.pausePush(pauseTime);
+        }
+
+    }
+
+    /**
+     * 重试时将解码后的元素转换为原始元素，并登记解码后的元素（重新推送时不再解码）
+     */
+    private record DecodedBatchRetrySubscription<E, T>(BatchRetrySubscription<E> s, Map<T, E> originals,
+                                                       Decoder<E, T> decoder) implements BatchRetrySubscription<T> {
+
+        @Override
+        public void retry(List<T> batch) {
+            this.s.retry(this.originals(batch));
+        }
+
+        @Override
+        public void retry(List<T> batch, Duration delay) {
+            this.s.retry(this.originals(batch), delay);
+        }
+
+        @Override
+        public void cancel() {
+            this.s.cancel();
+        }
+
+        @Override
+        public void pausePull(Duration pauseTime) {
+            this.s.pausePull(pauseTime);
+        }
+
+        @Override
+        public void pausePush(Duration pauseTime) {
+            this.s.pausePush(pauseTime);
+        }
+
+        private List<E> originals(List<T> batch) {
+            Assert.notNull(batch, "batch must not be null");
+            List<E> list = new ArrayList<>(batch.size());
+            for (T value : batch) {
+                E original = this.originals.get(value);
+                Assert.notNull(original, "element must be one of the failed batch");
+                list.add(original);
+            }
+            for (int i = 0; i < list.size(); i++) {
+                this.decoder.retry(list.get(i), batch.get(i));
+            }
+            return list;
+        }
+
+    }
+
+}
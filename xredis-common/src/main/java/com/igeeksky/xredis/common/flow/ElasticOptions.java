@@ -0,0 +1,53 @@
+package com.igeeksky.xredis.common.flow;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+/**
+ * 弹性并行度选项
+ * <p>
+ * 每次启动消费任务（{@link RetrySink#run()}）时评估数据池填充率及单个元素的平均处理时长，
+ * 在 [minParallelism, maxParallelism] 之间增减消费任务：<br>
+ * 1. 填充率不低于 scaleUpRatio：按积压元素数量与平均处理时长估算所需的消费任务数（至少增加 1 个）；<br>
+ * 2. 填充率不高于 scaleDownRatio：减少 1 个消费任务；<br>
+ * 3. 两次调整的间隔不小于 cooldown。
+ * <p>
+ * 扩容与缩容使用不同的阈值，并限制调整间隔，避免并行度在阈值附近来回震荡。
+ *
+ * @param minParallelism 最小并行度 {@code minParallelism > 0}
+ * @param maxParallelism 最大并行度 {@code maxParallelism >= minParallelism}
+ * @param scaleUpRatio   扩容阈值（数据池填充率） {@code scaleDownRatio < scaleUpRatio <= 1}
+ * @param scaleDownRatio 缩容阈值（数据池填充率） {@code 0 <= scaleDownRatio < scaleUpRatio}
+ * @param cooldown       两次调整的最小间隔（单位：毫秒） {@code cooldown >= 0}
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record ElasticOptions(int minParallelism, int maxParallelism, double scaleUpRatio, double scaleDownRatio,
+                             long cooldown) {
+
+    /**
+     * 参数校验
+     */
+    public ElasticOptions {
+        Assert.isTrue(minParallelism > 0, "minParallelism must be greater than 0");
+        Assert.isTrue(maxParallelism >= minParallelism, "maxParallelism must be greater than or equal to minParallelism");
+        Assert.isTrue(scaleUpRatio > 0 && scaleUpRatio <= 1, "scaleUpRatio must be in (0, 1]");
+        Assert.isTrue(scaleDownRatio >= 0 && scaleDownRatio < scaleUpRatio, "scaleDownRatio must be in [0, scaleUpRatio)");
+        Assert.isTrue(cooldown >= 0, "cooldown must be greater than or equal to 0");
+    }
+
+    /**
+     * 创建 {@link ElasticOptions}
+     *
+     * @param minParallelism 最小并行度
+     * @param maxParallelism 最大并行度
+     * @param scaleUpRatio   扩容阈值（数据池填充率）
+     * @param scaleDownRatio 缩容阈值（数据池填充率）
+     * @param cooldown       两次调整的最小间隔（单位：毫秒）
+     * @return {@link ElasticOptions}
+     */
+    public static ElasticOptions from(int minParallelism, int maxParallelism, double scaleUpRatio,
+                                      double scaleDownRatio, long cooldown) {
+        return new ElasticOptions(minParallelism, maxParallelism, scaleUpRatio, scaleDownRatio, cooldown);
+    }
+
+}
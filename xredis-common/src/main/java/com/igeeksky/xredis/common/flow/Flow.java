@@ -1,5 +1,7 @@
 package com.igeeksky.xredis.common.flow;
 
+import java.util.function.Function;
+
 /**
  * 数据流
  *
@@ -23,4 +25,56 @@ public interface Flow<E> {
      */
     Disposable subscribe(Subscriber<E> subscriber, int parallelism);
 
+    /**
+     * 批量订阅
+     * <p>
+     * 消息按批次推送，批次大小及等待时长由 {@link BatchOptions} 决定。
+     *
+     * @param subscriber  批量订阅者（不能为空）
+     * @param options     批量消费选项（不能为空）
+     * @param parallelism 并行度（需大于 0）
+     * @return {@link Disposable}
+     * @throws UnsupportedOperationException 默认实现：不支持批量订阅
+     * @since 1.1.0
+     */
+    default Disposable subscribe(BatchSubscriber<E> subscriber, BatchOptions options, int parallelism) {
+        throw new UnsupportedOperationException("batch subscribe is not supported");
+    }
+
+    /**
+     * 分区订阅
+     * <p>
+     * 根据 {@code keyExtractor} 提取的键将消息分配到 {@code lanes} 个分区之一，每个分区仅有一个消费任务：
+     * 相同键的消息按顺序处理（包括失败重试），不同分区的消息并行处理。
+     * <p>
+     * 适用于需按实体保序处理、但仍需并行消费的场景。
+     *
+     * @param subscriber   订阅者（不能为空）
+     * @param keyExtractor 键提取函数（不能为空）
+     * @param lanes        分区数量，即并行度（需大于 0）
+     * @return {@link Disposable}
+     * @throws UnsupportedOperationException 默认实现：不支持分区订阅
+     * @since 1.1.0
+     */
+    default Disposable subscribe(Subscriber<E> subscriber, Function<? super E, ?> keyExtractor, int lanes) {
+        throw new UnsupportedOperationException("lane subscribe is not supported");
+    }
+
+    /**
+     * 弹性订阅
+     * <p>
+     * 并行度根据数据池填充率及单个元素的平均处理时长，在 [minParallelism, maxParallelism] 之间自动调整，
+     * 适用于流量随时间大幅波动的场景，详见 {@link ElasticOptions}。
+     * <p>
+     * 默认实现：不支持自动调整，以最大并行度订阅。
+     *
+     * @param subscriber 订阅者（不能为空）
+     * @param options    弹性并行度选项（不能为空）
+     * @return {@link Disposable}
+     * @since 1.1.0
+     */
+    default Disposable subscribe(Subscriber<E> subscriber, ElasticOptions options) {
+        return this.subscribe(subscriber, options.maxParallelism());
+    }
+
 }
@@ -0,0 +1,177 @@
+package com.igeeksky.xredis.common.flow;
+
+import com.igeeksky.xtool.core.lang.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 哈希时间轮
+ * <p>
+ * 用于延迟重试：大量延迟任务共享一个周期性的调度任务，添加任务的时间复杂度为 O(1)，
+ * 到期任务的执行精度为一个刻度（tick）。
+ * <p>
+ * 新任务先写入无锁队列，由调度线程在每个刻度转移到对应的槽位并执行到期任务，槽位仅由调度线程访问。
+ * 到期任务在调度线程中执行，因此任务应当尽快完成（如：将元素放回数据池）。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public final class HashedTimerWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    private final int mask;
+    private final long tickNanos;
+    private final long startTime;
+    private final ArrayDeque<Timeout>[] wheel;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Timeout> timeouts = new ConcurrentLinkedQueue<>();
+
+    private long tick;
+    private volatile boolean stopped;
+    private final ScheduledFuture<?> future;
+
+    /**
+     * 创建并启动时间轮
+     *
+     * @param scheduler 调度器（不能为空）
+     * @param tick      刻度时长（单位：毫秒） {@code tick > 0}
+     * @param wheelSize 槽位数量（向上取整为 2 的幂次） {@code 0 < wheelSize <= (1 << 20)}
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(ScheduledExecutorService scheduler, long tick, int wheelSize) {
+        Assert.notNull(scheduler, "scheduler must not be null");
+        Assert.isTrue(tick > 0, "tick must be greater than 0");
+        Assert.isTrue(wheelSize > 0 && wheelSize <= (1 << 20), "wheelSize must be between 1 and 1048576");
+        int size = (wheelSize == 1) ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.mask = size - 1;
+        this.wheel = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            this.wheel[i] = new ArrayDeque<>();
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tick);
+        this.startTime = System.nanoTime();
+        this.future = scheduler.scheduleAtFixedRate(this::advance, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 添加延迟任务
+     *
+     * @param task  任务（不能为空）
+     * @param delay 延迟时长（不能为空）
+     * @return {@code true} – 添加成功；{@code false} – 时间轮已停止
+     */
+    public boolean schedule(Runnable task, Duration delay) {
+        Assert.notNull(task, "task must not be null");
+        Assert.notNull(delay, "delay must not be null");
+        if (this.stopped) {
+            return false;
+        }
+        long deadline = System.nanoTime() - this.startTime + Math.max(0, delay.toNanos());
+        this.pending.incrementAndGet();
+        this.timeouts.offer(new Timeout(task, deadline));
+        return true;
+    }
+
+    /**
+     * 等待执行的任务数量
+     *
+     * @return {@code int} – 等待执行的任务数量
+     */
+    public int pending() {
+        return this.pending.get();
+    }
+
+    /**
+     * 停止时间轮（未到期的任务将被丢弃）
+     */
+    public void stop() {
+        this.stopped = true;
+        this.future.cancel(false);
+        this.timeouts.clear();
+        this.pending.set(0);
+    }
+
+    /**
+     * 推进时间轮，执行所有到期的刻度（调度线程执行）
+     */
+    private void advance() {
+        if (this.stopped) {
+            return;
+        }
+        try {
+            long now = System.nanoTime() - this.startTime;
+            // 调度延迟时可能需要推进多个刻度
+            while (!this.stopped && (this.tick + 1) * this.tickNanos <= now) {
+                this.transfer();
+                this.expire(this.wheel[(int) (this.tick & this.mask)]);
+                this.tick++;
+            }
+        } catch (Throwable e) {
+            log.error("HashedTimerWheel: advance has error. {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 将新任务转移到对应槽位
+     */
+    private void transfer() {
+        Timeout timeout;
+        while ((timeout = this.timeouts.poll()) != null) {
+            long expected = timeout.deadline / this.tickNanos;
+            timeout.rounds = (expected - this.tick) / this.wheel.length;
+            // 已过期的任务放到当前槽位，本刻度执行
+            long ticks = Math.max(expected, this.tick);
+            this.wheel[(int) (ticks & this.mask)].add(timeout);
+        }
+    }
+
+    /**
+     * 执行槽位中的到期任务
+     *
+     * @param bucket 槽位
+     */
+    private void expire(ArrayDeque<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                continue;
+            }
+            iterator.remove();
+            this.pending.decrementAndGet();
+            try {
+                timeout.task.run();
+            } catch (Throwable e) {
+                log.error("HashedTimerWheel: task has error. {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 延迟任务
+     */
+    private static final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long rounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+    }
+
+}
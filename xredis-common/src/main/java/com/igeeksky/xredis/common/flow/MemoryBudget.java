@@ -0,0 +1,114 @@
+package com.igeeksky.xredis.common.flow;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * 内存预算
+ * <p>
+ * 多个数据池共享同一个内存预算：元素写入数据池时占用预算，从数据池取出时释放预算，
+ * 占用量按 {@code weigher} 估算的元素字节数累计。
+ * <p>
+ * 已占用量达到上限时，数据池拒绝写入新元素，且共享此预算的所有数据池暂停拉取消息，
+ * 直至消费者取出元素释放预算，从而限制单个容器缓存的消息总量。
+ *
+ * @param <E> 元素类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public final class MemoryBudget<E> {
+
+    private final long maxBytes;
+    private final ToLongFunction<? super E> weigher;
+    private final AtomicLong used = new AtomicLong();
+
+    /**
+     * 最近一次被拒绝写入的元素字节数（写入成功后清零）
+     */
+    private volatile long rejected;
+
+    /**
+     * 构造函数
+     *
+     * @param maxBytes 最大字节数 {@code maxBytes > 0}
+     * @param weigher  元素字节数估算函数（不能为空；同一元素的多次估算结果须相同）
+     */
+    public MemoryBudget(long maxBytes, ToLongFunction<? super E> weigher) {
+        Assert.isTrue(maxBytes > 0, "maxBytes must be greater than 0");
+        Assert.notNull(weigher, "weigher must not be null");
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+    }
+
+    /**
+     * 尝试占用元素所需的预算
+     * <p>
+     * 预算未被占用时，总是允许占用（即使单个元素超过上限），避免超大元素永远无法写入。
+     *
+     * @param element 元素
+     * @return {@code true} – 占用成功；{@code false} – 预算不足
+     */
+    public boolean tryAcquire(E element) {
+        long weight = this.weigh(element);
+        while (true) {
+            long current = this.used.get();
+            if (current > 0 && current + weight > this.maxBytes) {
+                this.rejected = weight;
+                return false;
+            }
+            if (this.used.compareAndSet(current, current + weight)) {
+                if (this.rejected != 0) {
+                    this.rejected = 0;
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放元素占用的预算
+     *
+     * @param element 元素
+     */
+    public void release(E element) {
+        this.used.addAndGet(-this.weigh(element));
+    }
+
+    /**
+     * 预算是否已耗尽
+     * <p>
+     * 与 {@link #tryAcquire(Object)} 的判断保持一致：已占用量达到上限，
+     * 或剩余预算不足以写入最近一次被拒绝的元素时，视为已耗尽。
+     *
+     * @return {@code true} – 预算已耗尽；{@code false} – 仍有可用预算
+     */
+    public boolean isExhausted() {
+        long current = this.used.get();
+        return current >= this.maxBytes || (current > 0 && current + this.rejected > this.maxBytes);
+    }
+
+    /**
+     * 已占用的字节数
+     *
+     * @return {@code long} – 已占用的字节数
+     */
+    public long used() {
+        return this.used.get();
+    }
+
+    /**
+     * 最大字节数
+     *
+     * @return {@code long} – 最大字节数
+     */
+    public long maxBytes() {
+        return this.maxBytes;
+    }
+
+    private long weigh(E element) {
+        return Math.max(0, this.weigher.applyAsLong(element));
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.igeeksky.xredis.common.flow;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+
+/**
+ * 无锁有界环形缓冲区（多生产者 – 多消费者）
+ * <p>
+ * 基于每个槽位的序号实现（Vyukov bounded MPMC queue）：
+ * 生产者和消费者各自通过 CAS 推进写指针与读指针，槽位序号用于判断槽位是否可写或可读，
+ * 生产者之间、消费者之间仅在竞争同一指针时重试，生产者与消费者之间无竞争。
+ * <p>
+ * 读写指针分别填充至独立的缓存行，避免伪共享；
+ * {@link #drainTo(Collection, int)} 一次 CAS 占用多个连续槽位，减少批量读取时的指针竞争。
+ * <p>
+ * 仅提供 {@link RetrySink} 所需的操作：生产者逐个添加（以便逐条处理拒绝），消费者批量获取。
+ *
+ * @param <E> 元素类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public final class MpmcRingBuffer<E> {
+
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int capacity;
+    private final int mask;
+    private final long[] sequences;
+    private final Object[] elements;
+
+    /**
+     * 写指针（下一个待写入的位置）
+     */
+    private final PaddedCounter tail = new PaddedCounter();
+
+    /**
+     * 读指针（下一个待读取的位置）
+     */
+    private final PaddedCounter head = new PaddedCounter();
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 容量（容量为 2 的幂次时使用位运算计算槽位）
+     */
+    public MpmcRingBuffer(int capacity) {
+        Assert.isTrue(capacity > 0, "capacity must be greater than 0");
+        this.capacity = capacity;
+        this.mask = (Integer.bitCount(capacity) == 1) ? capacity - 1 : -1;
+        this.sequences = new long[capacity];
+        this.elements = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.sequences[i] = i;
+        }
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param element 元素（不能为空）
+     * @return {@code true} – 添加成功；{@code false} – 缓冲区已满
+     */
+    public boolean offer(E element) {
+        Assert.notNull(element, "element must not be null");
+        long pos = tail.getVolatile();
+        while (true) {
+            int index = this.index(pos);
+            long diff = sequence(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    this.elements[index] = element;
+                    SEQUENCES.setRelease(this.sequences, index, pos + 1);
+                    return true;
+                }
+                pos = tail.getVolatile();
+            } else if (diff < 0) {
+                // 槽位尚未被消费者释放：缓冲区已满
+                return false;
+            } else {
+                pos = tail.getVolatile();
+            }
+        }
+    }
+
+    /**
+     * 批量获取并移除元素
+     *
+     * @param collection 用于接收元素的集合
+     * @param max        最大获取数量
+     * @return {@code int} – 实际获取的元素数量
+     */
+    public int drainTo(Collection<? super E> collection, int max) {
+        Assert.notNull(collection, "collection must not be null");
+        int total = 0;
+        while (total < max) {
+            long pos = head.getVolatile();
+            int n = this.readable(pos, max - total);
+            if (n == 0) {
+                return total;
+            }
+            if (n < 0 || !head.compareAndSet(pos, pos + n)) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                collection.add(this.take(this.index(pos + i), pos + i));
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * 元素数量（近似值）
+     * <p>
+     * 仅读取读写指针，并发读写时结果可能略有偏差，但不会小于 0 或大于容量。
+     *
+     * @return {@code int} – 元素数量
+     */
+    public int size() {
+        long h = head.getVolatile();
+        long t = tail.getVolatile();
+        return (int) Math.clamp(t - h, 0, this.capacity);
+    }
+
+    /**
+     * 是否为空（近似值）
+     *
+     * @return {@code true} – 为空；{@code false} – 不为空
+     */
+    public boolean isEmpty() {
+        return tail.getVolatile() <= head.getVolatile();
+    }
+
+    /**
+     * 容量
+     *
+     * @return {@code int} – 容量
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 从 pos 开始连续可读的槽位数量
+     *
+     * @param pos 读指针
+     * @param max 最大数量
+     * @return {@code int} – 可读数量；{@code -1} 表示读指针已被其它消费者推进
+     */
+    private int readable(long pos, int max) {
+        int n = 0;
+        while (n < max) {
+            long diff = sequence(this.index(pos + n)) - (pos + n + 1);
+            if (diff == 0) {
+                n++;
+            } else if (diff < 0) {
+                break;
+            } else {
+                return (n == 0) ? -1 : n;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * 取出槽位元素，并释放槽位给下一轮写入
+     */
+    @SuppressWarnings("unchecked")
+    private E take(int index, long pos) {
+        E element = (E) this.elements[index];
+        this.elements[index] = null;
+        SEQUENCES.setRelease(this.sequences, index, pos + this.capacity);
+        return element;
+    }
+
+    private long sequence(int index) {
+        return (long) SEQUENCES.getAcquire(this.sequences, index);
+    }
+
+    private int index(long pos) {
+        return (this.mask >= 0) ? (int) (pos & this.mask) : (int) (pos % this.capacity);
+    }
+
+    /**
+     * 左侧填充（避免与前一对象的字段共享缓存行）
+     */
+    abstract static class LhsPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    /**
+     * 计数值
+     */
+    abstract static class Value extends LhsPadding {
+        volatile long value;
+    }
+
+    /**
+     * 缓存行填充的计数器
+     */
+    static final class PaddedCounter extends Value {
+
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        long getVolatile() {
+            return this.value;
+        }
+
+        boolean compareAndSet(long expect, long update) {
+            return VALUE.compareAndSet(this, expect, update);
+        }
+
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.igeeksky.xredis.common.flow;
 
+import java.util.function.Function;
+
 /**
  * 可重试的无限流
  *
@@ -11,24 +13,59 @@ public class RetryFlow<E> implements Flow<E> {
 
     private final Sink<E> sink;
 
+    private final Runnable onCancel;
+
     /**
      * 构造函数
      *
      * @param sink 数据池
      */
     public RetryFlow(Sink<E> sink) {
+        this(sink, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param sink     数据池
+     * @param onCancel 取消订阅后的回调（可以为空）
+     * @since 1.1.0
+     */
+    public RetryFlow(Sink<E> sink, Runnable onCancel) {
         this.sink = sink;
+        this.onCancel = onCancel;
     }
 
     @Override
     public void cancel() {
         this.sink.cancel();
+        if (this.onCancel != null) {
+            this.onCancel.run();
+        }
     }
 
     @Override
     public Disposable subscribe(Subscriber<E> subscriber, int parallelism) {
         this.sink.subscribe(subscriber, parallelism);
-        return new DefaultDisposable(sink);
+        return new DefaultDisposable(this);
+    }
+
+    @Override
+    public Disposable subscribe(BatchSubscriber<E> subscriber, BatchOptions options, int parallelism) {
+        this.sink.subscribe(subscriber, options, parallelism);
+        return new DefaultDisposable(this);
+    }
+
+    @Override
+    public Disposable subscribe(Subscriber<E> subscriber, Function<? super E, ?> keyExtractor, int lanes) {
+        this.sink.subscribe(subscriber, keyExtractor, lanes);
+        return new DefaultDisposable(this);
+    }
+
+    @Override
+    public Disposable subscribe(Subscriber<E> subscriber, ElasticOptions options) {
+        this.sink.subscribe(subscriber, options);
+        return new DefaultDisposable(this);
     }
 
     /**
@@ -36,21 +73,21 @@ public class RetryFlow<E> implements Flow<E> {
      */
     private static class DefaultDisposable implements Disposable {
 
-        private volatile Sink<?> sink;
+        private volatile Flow<?> flow;
 
-        public DefaultDisposable(Sink<?> sink) {
-            this.sink = sink;
+        public DefaultDisposable(Flow<?> flow) {
+            this.flow = flow;
         }
 
         @Override
         public void dispose() {
-            sink.cancel();
-            sink = null;
+            flow.cancel();
+            flow = null;
         }
 
         @Override
         public boolean isDisposed() {
-            return sink == null;
+            return flow == null;
         }
 
     }
@@ -0,0 +1,47 @@
+package com.igeeksky.xredis.common.flow;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+/**
+ * 重试选项
+ *
+ * @param timer       延迟重试的时间轮（可以为空）
+ *                    <p>
+ *                    不为空时，延迟重试的元素放入时间轮，到期后再交回原消费任务，消费任务无需等待即可继续消费后续元素；
+ *                    为空时，消费任务暂停至延迟结束后再重试。
+ * @param maxAttempts 最大消费失败次数 {@code maxAttempts >= 0}
+ *                    <p>
+ *                    失败次数达到此值时，将元素交给 {@code deadLetter} 处理，不再回调订阅者的 {@code onError}；
+ *                    为 0 时不限制，由订阅者决定是否重试。
+ * @param deadLetter  死信处理（{@code maxAttempts > 0} 时不能为空）
+ * @param <E>         数据类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record RetryOptions<E>(HashedTimerWheel timer, int maxAttempts, DeadLetterHandler<? super E> deadLetter) {
+
+    /**
+     * 参数校验
+     */
+    public RetryOptions {
+        Assert.isTrue(maxAttempts >= 0, "maxAttempts must be greater than or equal to 0");
+        if (maxAttempts > 0) {
+            Assert.notNull(deadLetter, "deadLetter must not be null when maxAttempts is greater than 0");
+        }
+    }
+
+    /**
+     * 创建 {@link RetryOptions}
+     *
+     * @param timer       延迟重试的时间轮（可以为空）
+     * @param maxAttempts 最大消费失败次数（0 表示不限制）
+     * @param deadLetter  死信处理（{@code maxAttempts > 0} 时不能为空）
+     * @param <E>         数据类型
+     * @return {@link RetryOptions}
+     */
+    public static <E> RetryOptions<E> from(HashedTimerWheel timer, int maxAttempts,
+                                           DeadLetterHandler<? super E> deadLetter) {
+        return new RetryOptions<>(timer, maxAttempts, deadLetter);
+    }
+
+}
@@ -1,21 +1,55 @@
 package com.igeeksky.xredis.common.flow;
 
-import com.igeeksky.xtool.core.collection.RingBuffer;
 import com.igeeksky.xtool.core.concurrent.Futures;
 import com.igeeksky.xtool.core.lang.Assert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * 可重试的 Sink
+ * <p>
+ * 支持两种消费任务启动方式：<br>
+ * 1. 定时启动（默认）：由外部定时调用 {@link #run()} 启动消费任务，消费任务在数据池为空时退出；<br>
+ * 2. 信号唤醒：订阅后立即启动消费任务，消费任务在数据池为空时暂停，
+ * {@link #next(Object)} 接收到新消息后直接唤醒暂停的消费任务，无需等待定时任务。
+ * <p>
+ * 信号唤醒模式下，消费任务常驻执行器，因此执行器须为虚拟线程执行器。
+ * <p>
+ * 支持逐条订阅（{@link Subscriber}）和批量订阅（{@link BatchSubscriber}），两者只能选其一。
+ * 批量订阅时，每个消费任务独立凑批，因此已取出但未确认的消息最多为 {@code parallelism * maxSize}。
+ * <p>
+ * 分区订阅时，根据消息的键将消息分配到固定的分区（lane），每个分区有独立的缓冲区及唯一的消费任务，
+ * 同一个键的消息按接收顺序依次处理，不同分区的消息并行处理。
+ * <p>
+ * 配置 {@link RetryOptions} 后，逐条订阅的延迟重试由时间轮调度（消费任务不再暂停等待），
+ * 失败次数达到上限的元素交给死信处理；分区订阅时，为保证相同键的元素按序处理，重试元素到期前暂停消费该分区的后续元素。
+ * <p>
+ * 弹性订阅时，根据数据池填充率及单个元素的平均处理时长，在最小与最大并行度之间增减消费任务，详见 {@link ElasticOptions}。
+ * <p>
+ * 共享缓冲区在接收到首个元素时才创建，空闲（为空且无新元素写入）超过一定时长后释放，再次接收元素时重新创建；
+ * 配置 {@link MemoryBudget} 后，写入元素需占用预算，预算耗尽时拒绝写入并暂停拉取。
+ * <p>
+ * 设置消费完成监听器后，元素完成消费时回调监听器（如：非消费者组的流在消息消费完成后才记录读偏移）；
+ * 优雅关闭时，可通过 {@link #isDrained()} 判断缓冲区中的元素是否均已消费完成，再取消订阅。
  *
  * @param <E> 数据类型
  * @author Patrick.Lau
@@ -25,9 +59,38 @@ public class RetrySink<E> implements Sink<E>, Runnable {
 
     private static final Logger log = LoggerFactory.getLogger(RetrySink.class);
 
+    /**
+     * 信号唤醒模式下消费任务的最大暂停时长（纳秒），超时后重新检查数据池
+     */
+    private static final long MAX_PARK_NANOS = 1_000_000_000L;
+
+    /**
+     * 定时启动模式下凑批等待的检查间隔（纳秒）
+     */
+    private static final long LINGER_STEP_NANOS = 1_000_000L;
+
+    /**
+     * 消费任务单次从数据池批量获取的最大元素数量
+     */
+    private static final int DRAIN_BATCH = 16;
+
+    /**
+     * 共享缓冲区空闲多长时间后释放（纳秒）
+     */
+    private static final long IDLE_RELEASE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
     private final Lock lock = new ReentrantLock();
 
+    /**
+     * 缓冲区创建与释放锁：写入元素时持有读锁，释放空闲缓冲区及取消订阅时持有写锁
+     */
+    private final ReentrantReadWriteLock bufferLock = new ReentrantReadWriteLock();
+
     private final int count;
+    private final boolean signalling;
+    private final RetryOptions<E> retryOptions;
+    private final MemoryBudget<E> budget;
+    private final AtomicInteger waiters = new AtomicInteger();
     private final ExecutorService executor;
     private final Subscription subscription;
 
@@ -35,10 +98,37 @@ public class RetrySink<E> implements Sink<E>, Runnable {
     private volatile long restartPullTime;
     private volatile long restartPushTime;
     private volatile Subscriber<E> subscriber;
+    private volatile BatchSubscriber<E> batchSubscriber;
+    private volatile BatchOptions batchOptions;
+    private volatile Function<? super E, ?> keyExtractor;
+    private volatile ElasticOptions elasticOptions;
+    private volatile Consumer<? super E> completeListener;
+
+    /**
+     * 已从缓冲区取出但尚未完成消费的元素数量（含待重试的元素）
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 当前并行度（弹性订阅时动态调整）
+     */
+    private volatile int active;
+    private long lastScaleTime;
+    private long lastEvaluateTime;
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder processed = new LongAdder();
 
     private volatile Future<?>[] futures;
-    private volatile ConsumeTask<?>[] tasks;
-    private volatile RingBuffer<E> buffer;
+    private volatile AbstractConsumeTask<?>[] tasks;
+    private volatile MpmcRingBuffer<E> buffer;
+    private volatile MpmcRingBuffer<E>[] lanes;
+
+    /**
+     * 写入计数（用于判断缓冲区是否空闲，并发写入时允许少计）
+     */
+    private volatile long writes;
+    private long lastWrites;
+    private long idleSince;
 
     /**
      * 构造函数
@@ -47,8 +137,52 @@ public class RetrySink<E> implements Sink<E>, Runnable {
      * @param count    单次拉取消息的最大数量，缓冲区大小为 {@code count * 2}
      */
     public RetrySink(ExecutorService executor, int count) {
+        this(executor, count, false);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param executor   虚拟线程池
+     * @param count      单次拉取消息的最大数量，缓冲区大小为 {@code count * 2}
+     * @param signalling 是否使用信号唤醒模式：{@code true} – 接收到新消息后直接唤醒消费任务；
+     *                   {@code false} – 由定时任务调用 {@link #run()} 启动消费任务
+     * @since 1.1.0
+     */
+    public RetrySink(ExecutorService executor, int count, boolean signalling) {
+        this(executor, count, signalling, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param executor     虚拟线程池
+     * @param count        单次拉取消息的最大数量，缓冲区大小为 {@code count * 2}
+     * @param signalling   是否使用信号唤醒模式
+     * @param retryOptions 重试选项（可以为空）
+     * @since 1.1.0
+     */
+    public RetrySink(ExecutorService executor, int count, boolean signalling, RetryOptions<E> retryOptions) {
+        this(executor, count, signalling, retryOptions, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param executor     虚拟线程池
+     * @param count        单次拉取消息的最大数量，缓冲区大小为 {@code count * 2}
+     * @param signalling   是否使用信号唤醒模式
+     * @param retryOptions 重试选项（可以为空）
+     * @param budget       内存预算（可以为空，多个数据池可共享同一预算）
+     * @since 1.1.0
+     */
+    public RetrySink(ExecutorService executor, int count, boolean signalling, RetryOptions<E> retryOptions,
+                     MemoryBudget<E> budget) {
+        this.budget = budget;
         this.count = count;
         this.executor = executor;
+        this.signalling = signalling;
+        this.retryOptions = retryOptions;
         this.subscription = new DefaultSubscription<>(this);
     }
 
@@ -56,10 +190,39 @@ public class RetrySink<E> implements Sink<E>, Runnable {
     public void subscribe(Subscriber<E> subscriber, int parallelism) {
         Assert.notNull(subscriber, "subscriber must not be null.");
         Assert.isTrue(parallelism > 0, "parallelism must be greater than 0.");
+        this.doSubscribe(subscriber, null, null, null, null, parallelism);
+    }
+
+    @Override
+    public void subscribe(Subscriber<E> subscriber, ElasticOptions options) {
+        Assert.notNull(subscriber, "subscriber must not be null.");
+        Assert.notNull(options, "options must not be null.");
+        this.doSubscribe(subscriber, null, null, null, options, options.maxParallelism());
+    }
+
+    @Override
+    public void subscribe(Subscriber<E> subscriber, Function<? super E, ?> keyExtractor, int lanes) {
+        Assert.notNull(subscriber, "subscriber must not be null.");
+        Assert.notNull(keyExtractor, "keyExtractor must not be null.");
+        Assert.isTrue(lanes > 0, "lanes must be greater than 0.");
+        this.doSubscribe(subscriber, null, null, keyExtractor, null, lanes);
+    }
+
+    @Override
+    public void subscribe(BatchSubscriber<E> subscriber, BatchOptions options, int parallelism) {
+        Assert.notNull(subscriber, "subscriber must not be null.");
+        Assert.notNull(options, "options must not be null.");
+        Assert.isTrue(parallelism > 0, "parallelism must be greater than 0.");
+        this.doSubscribe(null, subscriber, options, null, null, parallelism);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void doSubscribe(Subscriber<E> subscriber, BatchSubscriber<E> batchSubscriber, BatchOptions options,
+                             Function<? super E, ?> keyExtractor, ElasticOptions elastic, int parallelism) {
         if (this.isCancelled()) {
             return;
         }
-        if (this.subscriber != null) {
+        if (!this.isNotReady()) {
             throw new IllegalStateException("subscriber already set.");
         }
         lock.lock();
@@ -67,19 +230,43 @@ public class RetrySink<E> implements Sink<E>, Runnable {
             if (this.isCancelled()) {
                 return;
             }
-            if (this.subscriber != null) {
+            if (!this.isNotReady()) {
                 throw new IllegalStateException("subscriber already set.");
             }
-            this.buffer = new RingBuffer<>(this.count << 1);
-            this.subscriber = subscriber;
-            this.tasks = new ConsumeTask[parallelism];
-            for (int i = 0; i < parallelism; i++) {
-                this.tasks[i] = new ConsumeTask<>(this);
+            this.tasks = new AbstractConsumeTask[parallelism];
+            if (keyExtractor != null) {
+                // 分区模式：每个分区独立缓冲区（容量与共享缓冲区相同），且仅有一个消费任务
+                this.lanes = new MpmcRingBuffer[parallelism];
+                for (int i = 0; i < parallelism; i++) {
+                    this.lanes[i] = new MpmcRingBuffer<>(this.count << 1);
+                    this.tasks[i] = new ConsumeTask<>(this, i, i);
+                }
+                this.keyExtractor = keyExtractor;
+            } else {
+                // 共享缓冲区：接收到首个元素时才创建
+                for (int i = 0; i < parallelism; i++) {
+                    this.tasks[i] = (subscriber != null) ? new ConsumeTask<>(this, -1, i) : new BatchConsumeTask<>(this);
+                }
             }
             this.futures = new Future[parallelism];
+            this.batchOptions = options;
+            // 弹性模式：预先创建最大并行度的消费任务，仅启动序号小于当前并行度的任务
+            this.elasticOptions = elastic;
+            this.active = (elastic != null) ? elastic.minParallelism() : parallelism;
+            this.lastScaleTime = this.lastEvaluateTime = this.idleSince = System.nanoTime();
+            // 最后设置订阅者：订阅者不为空即表示已就绪
+            if (subscriber != null) {
+                this.subscriber = subscriber;
+            } else {
+                this.batchSubscriber = batchSubscriber;
+            }
         } finally {
             lock.unlock();
         }
+        if (this.signalling) {
+            // 信号唤醒模式：立即启动常驻的消费任务
+            this.run();
+        }
     }
 
     @Override
@@ -113,15 +300,142 @@ public class RetrySink<E> implements Sink<E>, Runnable {
                 Futures.cancelAll(futures1, false);
                 this.futures = null;
             }
+            AbstractConsumeTask<?>[] tasks1 = this.tasks;
             this.tasks = null;
-            this.buffer = null;
+            this.releaseBuffers();
             this.subscriber = null;
+            this.batchSubscriber = null;
             this.cancelled = true;
+            // 唤醒暂停的消费任务，使其退出
+            if (tasks1 != null) {
+                for (AbstractConsumeTask<?> task : tasks1) {
+                    task.unpark();
+                }
+            }
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * 释放所有缓冲区，并归还缓冲区中的元素占用的预算（取消订阅时调用）
+     */
+    private void releaseBuffers() {
+        bufferLock.writeLock().lock();
+        try {
+            List<E> remaining = new ArrayList<>();
+            MpmcRingBuffer<E> buf = this.buffer;
+            if (buf != null) {
+                buf.drainTo(remaining, buf.capacity());
+            }
+            MpmcRingBuffer<E>[] lanes1 = this.lanes;
+            if (lanes1 != null) {
+                for (MpmcRingBuffer<E> lane : lanes1) {
+                    lane.drainTo(remaining, lane.capacity());
+                }
+            }
+            this.buffer = null;
+            this.lanes = null;
+            this.release(remaining);
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 归还已从缓冲区取出的元素占用的预算
+     *
+     * @param elements 已从缓冲区取出的元素
+     */
+    private void release(Collection<E> elements) {
+        MemoryBudget<E> budget1 = this.budget;
+        if (budget1 != null) {
+            for (E element : elements) {
+                budget1.release(element);
+            }
+        }
+    }
+
+    /**
+     * 记录已从缓冲区取出的元素：计入未完成消费的元素数量，并归还占用的预算
+     *
+     * @param elements 已从缓冲区取出的元素
+     */
+    private void taken(Collection<E> elements) {
+        this.inFlight.addAndGet(elements.size());
+        this.release(elements);
+    }
+
+    /**
+     * 元素完成消费：推送成功、交给死信处理，或消费失败且订阅者未要求重试
+     *
+     * @param element 完成消费的元素
+     */
+    private void complete(E element) {
+        this.inFlight.decrementAndGet();
+        Consumer<? super E> listener = this.completeListener;
+        if (listener != null) {
+            try {
+                listener.accept(element);
+            } catch (Throwable e) {
+                log.error("RetrySink: complete listener has error. {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 批次中的元素均完成消费
+     *
+     * @param elements 完成消费的元素
+     */
+    private void completeAll(Collection<E> elements) {
+        for (E element : elements) {
+            this.complete(element);
+        }
+    }
+
+    /**
+     * 设置消费完成监听器
+     * <p>
+     * 元素推送给订阅者成功、交给死信处理，或消费失败且订阅者未在 {@code onError} 中要求重试时，回调监听器；
+     * 取消订阅时，缓冲区中被丢弃的元素不会回调。
+     * <p>
+     * 注意：回调在消费任务中执行，多个消费任务可能并发回调，且完成顺序可能与写入顺序不同。
+     *
+     * @param listener 消费完成监听器（为空则不回调）
+     * @since 1.1.0
+     */
+    public void setCompleteListener(Consumer<? super E> listener) {
+        this.completeListener = listener;
+    }
+
+    /**
+     * 是否已排空：缓冲区为空，且已取出的元素均已完成消费
+     * <p>
+     * 停止写入后，可以等待排空再取消订阅，避免丢弃已写入但尚未消费的元素。
+     *
+     * @return {@code true} – 已排空；{@code false} – 仍有未完成消费的元素
+     * @since 1.1.0
+     */
+    public boolean isDrained() {
+        if (this.inFlight.get() > 0) {
+            return false;
+        }
+        MpmcRingBuffer<E> buf = this.buffer;
+        if (buf != null && !buf.isEmpty()) {
+            return false;
+        }
+        MpmcRingBuffer<E>[] lanes1 = this.lanes;
+        if (lanes1 != null) {
+            for (MpmcRingBuffer<E> lane : lanes1) {
+                if (!lane.isEmpty()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * 是否已经取消订阅
      *
@@ -137,15 +451,20 @@ public class RetrySink<E> implements Sink<E>, Runnable {
      * @return {@code true} 已就绪； {@code false} 未就绪
      */
     public boolean isNotReady() {
-        return (this.subscriber == null);
+        return (this.subscriber == null && this.batchSubscriber == null);
     }
 
     /**
      * 是否处于暂停状态
+     * <p>
+     * 调用 {@link #pausePull(Duration)} 暂停，或内存预算已耗尽（共享同一预算的所有数据池均暂停拉取）。
      *
      * @return {@code true} 处于暂停状态； {@code false} 未处于暂停状态
      */
     public boolean isPullPaused() {
+        if (this.budget != null && this.budget.isExhausted()) {
+            return true;
+        }
         return this.restartPullTime > System.currentTimeMillis();
     }
 
@@ -155,21 +474,200 @@ public class RetrySink<E> implements Sink<E>, Runnable {
      * @return {@code true} 空间不足； {@code false} 空间充足
      */
     public boolean isNotEnoughSpace() {
-        return this.buffer.size() > this.count;
+        MpmcRingBuffer<E>[] lanes1 = this.lanes;
+        if (lanes1 != null) {
+            for (MpmcRingBuffer<E> lane : lanes1) {
+                if (lane.size() > this.count) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        MpmcRingBuffer<E> buf = this.buffer;
+        return buf != null && buf.size() > this.count;
+    }
+
+    /**
+     * 读取额度（数据池空闲容量）
+     * <p>
+     * 消费者消费消息后，空闲容量随之恢复。
+     * 分区模式下，为各分区空闲容量的最小值（即使新读取的消息全部属于同一分区，也不会超出该分区容量）。
+     *
+     * @return {@code int} – 数据池空闲容量（未订阅或已取消时返回 0）
+     * @since 1.1.0
+     */
+    public int credits() {
+        MpmcRingBuffer<E>[] lanes1 = this.lanes;
+        if (lanes1 != null) {
+            int min = Integer.MAX_VALUE;
+            for (MpmcRingBuffer<E> lane : lanes1) {
+                min = Math.min(min, lane.capacity() - lane.size());
+            }
+            return Math.max(0, min);
+        }
+        if (this.cancelled || this.isNotReady()) {
+            return 0;
+        }
+        MpmcRingBuffer<E> buf = this.buffer;
+        if (buf == null) {
+            // 缓冲区尚未创建（或已释放）：全部容量可用
+            return this.count << 1;
+        }
+        return Math.max(0, buf.capacity() - buf.size());
     }
 
     @Override
     public boolean next(E element) {
-        return this.buffer.offer(element);
+        bufferLock.readLock().lock();
+        try {
+            if (this.cancelled || this.isNotReady()) {
+                return false;
+            }
+            if (this.budget != null && !this.budget.tryAcquire(element)) {
+                return false;
+            }
+            boolean offered = this.offer(element);
+            if (!offered && this.budget != null) {
+                this.budget.release(element);
+            }
+            return offered;
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 写入元素（持有读锁时调用）
+     *
+     * @param element 元素
+     * @return {@code true} – 写入成功；{@code false} – 缓冲区已满
+     */
+    private boolean offer(E element) {
+        MpmcRingBuffer<E>[] lanes1 = this.lanes;
+        if (lanes1 != null) {
+            return this.nextLane(lanes1, element);
+        }
+        this.writes++;
+        MpmcRingBuffer<E> buf = this.buffer;
+        if (buf == null) {
+            buf = this.createBuffer();
+        }
+        boolean offered = buf.offer(element);
+        if (offered && this.signalling && this.waiters.get() > 0) {
+            this.signal();
+        }
+        return offered;
+    }
+
+    /**
+     * 创建共享缓冲区（多个写入线程同时创建时，仅有一个生效）
+     *
+     * @return {@link MpmcRingBuffer} – 共享缓冲区
+     */
+    private MpmcRingBuffer<E> createBuffer() {
+        synchronized (this.bufferLock) {
+            MpmcRingBuffer<E> buf = this.buffer;
+            if (buf == null) {
+                buf = new MpmcRingBuffer<>(this.count << 1);
+                this.buffer = buf;
+            }
+            return buf;
+        }
+    }
+
+    /**
+     * 释放空闲的共享缓冲区（持有锁时调用）
+     * <p>
+     * 缓冲区为空且超过 {@link #IDLE_RELEASE_NANOS} 无新元素写入时释放；
+     * 写锁被占用（正在写入）时跳过，下次再检查。
+     */
+    private void releaseIfIdle() {
+        MpmcRingBuffer<E> buf = this.buffer;
+        if (buf == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long w = this.writes;
+        if (w != this.lastWrites || !buf.isEmpty()) {
+            this.lastWrites = w;
+            this.idleSince = now;
+            return;
+        }
+        if (now - this.idleSince < IDLE_RELEASE_NANOS) {
+            return;
+        }
+        if (bufferLock.writeLock().tryLock()) {
+            try {
+                if (this.buffer == buf && buf.isEmpty()) {
+                    this.buffer = null;
+                }
+            } finally {
+                bufferLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 分区模式：根据键将消息写入对应分区，并唤醒该分区的消费任务
+     *
+     * @param lanes1  分区缓冲区
+     * @param element 消息元素
+     * @return {@code true} – 写入成功；{@code false} – 分区已满
+     */
+    private boolean nextLane(MpmcRingBuffer<E>[] lanes1, E element) {
+        int lane = lane(this.keyExtractor.apply(element), lanes1.length);
+        boolean offered = lanes1[lane].offer(element);
+        if (offered && this.signalling && this.waiters.get() > 0) {
+            AbstractConsumeTask<?>[] tasks1 = this.tasks;
+            if (tasks1 != null && tasks1[lane].parked) {
+                tasks1[lane].unpark();
+            }
+        }
+        return offered;
+    }
+
+    /**
+     * 计算键所属分区
+     *
+     * @param key   键
+     * @param lanes 分区数量
+     * @return {@code int} – 分区序号
+     */
+    static int lane(Object key, int lanes) {
+        int h = Objects.hashCode(key);
+        return Math.floorMod(h ^ (h >>> 16), lanes);
+    }
+
+    /**
+     * 唤醒一个暂停的消费任务
+     */
+    private void signal() {
+        AbstractConsumeTask<?>[] tasks1 = this.tasks;
+        if (tasks1 == null) {
+            return;
+        }
+        for (AbstractConsumeTask<?> task : tasks1) {
+            if (task.parked) {
+                task.unpark();
+                return;
+            }
+        }
     }
 
     @Override
     public void error(Throwable t) {
+        if (this.cancelled) {
+            return;
+        }
         Subscriber<E> s = this.subscriber;
-        if (this.cancelled || s == null) {
+        if (s != null) {
+            s.onError(t, this.subscription);
             return;
         }
-        s.onError(t, this.subscription);
+        BatchSubscriber<E> bs = this.batchSubscriber;
+        if (bs != null) {
+            bs.onError(t, this.subscription);
+        }
     }
 
     /**
@@ -177,15 +675,24 @@ public class RetrySink<E> implements Sink<E>, Runnable {
      */
     @Override
     public void run() {
-        if (this.cancelled || this.subscriber == null) {
+        if (this.cancelled || this.isNotReady()) {
             return;
         }
         lock.lock();
         try {
-            if (this.cancelled || this.subscriber == null) {
+            if (this.cancelled || this.isNotReady()) {
                 return;
             }
+            if (this.elasticOptions != null) {
+                this.scale(this.elasticOptions);
+            }
+            this.releaseIfIdle();
+            int n = this.active;
             for (int i = 0; i < this.futures.length; i++) {
+                // 已缩容的任务，仅在仍有待重试元素时启动
+                if (i >= n && this.tasks[i].isIdle()) {
+                    continue;
+                }
                 Future<?> future = this.futures[i];
                 if (future == null || future.isDone()) {
                     this.futures[i] = this.executor.submit(this.tasks[i]);
@@ -198,25 +705,108 @@ public class RetrySink<E> implements Sink<E>, Runnable {
         }
     }
 
-    private static class ConsumeTask<E> implements RetrySubscription<E>, Runnable {
+    /**
+     * 弹性调整并行度（持有锁时调用）
+     *
+     * @param options 弹性并行度选项
+     */
+    private void scale(ElasticOptions options) {
+        long now = System.nanoTime();
+        long elapsed = now - this.lastEvaluateTime;
+        long busy = this.busyNanos.sumThenReset();
+        long count = this.processed.sumThenReset();
+        this.lastEvaluateTime = now;
+        if (now - this.lastScaleTime < TimeUnit.MILLISECONDS.toNanos(options.cooldown())) {
+            return;
+        }
+        MpmcRingBuffer<E> buf = this.buffer;
+        if (buf == null) {
+            return;
+        }
+        int size = buf.size();
+        double fill = (double) size / buf.capacity();
+        int current = this.active;
+        int next = current;
+        if (fill >= options.scaleUpRatio() && current < options.maxParallelism()) {
+            next = current + 1;
+            if (count > 0 && elapsed > 0) {
+                // 按平均处理时长估算：在一个评估周期内处理完积压元素所需的消费任务数
+                double avgNanos = (double) busy / count;
+                next = Math.max(next, (int) Math.ceil(size * avgNanos / elapsed));
+            }
+            next = Math.min(next, options.maxParallelism());
+        } else if (fill <= options.scaleDownRatio() && current > options.minParallelism()) {
+            next = current - 1;
+        }
+        if (next == current) {
+            return;
+        }
+        this.active = next;
+        this.lastScaleTime = now;
+        if (next < current) {
+            // 唤醒被缩容的任务，使其尽快退出
+            for (int i = next; i < current; i++) {
+                this.tasks[i].unpark();
+            }
+        }
+        log.debug("RetrySink: parallelism changed from {} to {}. fill: {}", current, next, fill);
+    }
 
-        private final RetrySink<E> sink;
-        private final AtomicInteger attempts = new AtomicInteger(0);
+    /**
+     * 当前并行度
+     * <p>
+     * 弹性订阅时为动态调整后的并行度，其它订阅方式为订阅时指定的并行度。
+     *
+     * @return {@code int} – 当前并行度（未订阅时返回 0）
+     * @since 1.1.0
+     */
+    public int parallelism() {
+        return this.isNotReady() ? 0 : this.active;
+    }
 
-        private volatile E element;
-        private volatile long delayNanos;
-        private volatile boolean retry;
+    /**
+     * 记录单个元素的处理时长（仅弹性订阅）
+     *
+     * @param nanos 处理时长（纳秒）
+     */
+    private void record(long nanos) {
+        this.busyNanos.add(nanos);
+        this.processed.increment();
+    }
+
+    /**
+     * 消费任务
+     * <p>
+     * 负责暂停推送、失败重试、信号唤醒等公共逻辑，由子类实现具体的消费方式。
+     *
+     * @param <E> 数据类型
+     */
+    private abstract static class AbstractConsumeTask<E> implements Subscription, Runnable {
+
+        protected final RetrySink<E> sink;
+        protected final int lane;
+        protected final AtomicInteger attempts = new AtomicInteger(0);
 
-        public ConsumeTask(RetrySink<E> sink) {
+        protected volatile long delayNanos;
+        protected volatile boolean retry;
+        private volatile boolean parked;
+        private volatile Thread thread;
+
+        /**
+         * @param sink 数据池
+         * @param lane 分区序号（小于 0 表示消费共享缓冲区）
+         */
+        AbstractConsumeTask(RetrySink<E> sink, int lane) {
             this.sink = sink;
+            this.lane = lane;
         }
 
         @Override
         public void run() {
+            this.thread = Thread.currentThread();
             try {
                 while (true) {
-                    Subscriber<E> s = this.sink.subscriber;
-                    if (this.sink.cancelled || s == null) {
+                    if (this.sink.cancelled || this.sink.isNotReady()) {
                         return;
                     }
                     long sleepMillis = sink.restartPushTime - System.currentTimeMillis();
@@ -228,50 +818,314 @@ public class RetrySink<E> implements Sink<E>, Runnable {
                         continue;
                     }
                     if (this.retry) {
-                        this.processFailed(s);
+                        this.processFailed();
                         continue;
                     }
-                    RingBuffer<E> buf = this.sink.buffer;
-                    if (buf == null) {
+                    if (this.isRetired()) {
                         return;
                     }
-                    E element = buf.poll();
-                    if (element == null) {
+                    // 缓冲区可能尚未创建或已释放（为空），此时仍需处理待重试元素
+                    MpmcRingBuffer<E> buf = this.buffer();
+                    if (!this.consume(buf)) {
+                        if (this.sink.signalling) {
+                            this.await(buf, MAX_PARK_NANOS);
+                            continue;
+                        }
                         return;
                     }
-                    try {
-                        s.onNext(element);
-                    } catch (Throwable t) {
-                        s.onError(t, element, attempts.incrementAndGet(), this);
-                    }
                 }
             } catch (Throwable t) {
                 log.error(t.getMessage(), t);
+            } finally {
+                this.thread = null;
             }
         }
 
         /**
-         * 失败重试
+         * 获取本任务消费的缓冲区
+         *
+         * @return {@link MpmcRingBuffer} – 共享缓冲区或所属分区的缓冲区（未创建、已释放或已取消订阅时返回 {@code null}）
          */
-        private void processFailed(Subscriber<E> s) {
-            E e1 = this.element;
-            if (e1 == null) {
-                return;
+        private MpmcRingBuffer<E> buffer() {
+            if (this.lane < 0) {
+                return this.sink.buffer;
             }
+            MpmcRingBuffer<E>[] lanes1 = this.sink.lanes;
+            return (lanes1 != null) ? lanes1[this.lane] : null;
+        }
+
+        /**
+         * 从数据池获取消息并推送给订阅者
+         *
+         * @param buf 数据池缓冲区（可能为空）
+         * @return {@code true} – 已推送消息；{@code false} – 无可推送的消息
+         */
+        abstract boolean consume(MpmcRingBuffer<E> buf);
+
+        /**
+         * 失败重试
+         */
+        abstract void processFailed();
+
+        /**
+         * 延迟重试前等待
+         *
+         * @return {@code true} – 可以继续重试；{@code false} – 已取消订阅
+         */
+        protected boolean awaitRetry() {
             long delay = this.delayNanos;
             if (delay > 0) {
                 LockSupport.parkNanos(delay);
-                if (this.sink.cancelled) {
-                    return;
+                return !this.sink.cancelled;
+            }
+            return true;
+        }
+
+        /**
+         * 数据池为空时暂停，直到 {@link RetrySink#next(Object)} 唤醒、取消订阅或超过暂停时长
+         *
+         * @param buf   数据池缓冲区（可能为空）
+         * @param nanos 最大暂停时长（纳秒）
+         */
+        protected void await(MpmcRingBuffer<E> buf, long nanos) {
+            // 先登记再检查缓冲区：生产者先写入再检查登记数，两者至少有一方能观察到对方，不会丢失唤醒信号
+            // 缓冲区可能已被释放或重新创建，因此登记后需重新读取当前缓冲区
+            this.parked = true;
+            this.sink.waiters.incrementAndGet();
+            try {
+                MpmcRingBuffer<E> current = this.buffer();
+                boolean empty = this.isBlocked() || (isEmpty(buf) && isEmpty(current));
+                if (empty && this.isIdle() && !this.sink.cancelled) {
+                    LockSupport.parkNanos(this, nanos);
+                }
+            } finally {
+                this.sink.waiters.decrementAndGet();
+                this.parked = false;
+            }
+        }
+
+        private static boolean isEmpty(MpmcRingBuffer<?> buf) {
+            return buf == null || buf.isEmpty();
+        }
+
+        /**
+         * 是否已被缩容（弹性订阅）
+         *
+         * @return {@code true} – 已被缩容，且无本任务独占的待消费元素，任务可以退出；{@code false} – 继续消费
+         */
+        protected boolean isRetired() {
+            return false;
+        }
+
+        /**
+         * 是否暂停消费数据池中的元素
+         *
+         * @return {@code true} – 暂停消费数据池中的元素；{@code false} – 可以消费数据池中的元素
+         */
+        protected boolean isBlocked() {
+            return false;
+        }
+
+        /**
+         * 除数据池外，是否无其它待消费的元素
+         *
+         * @return {@code true} – 无其它待消费的元素；{@code false} – 有其它待消费的元素
+         */
+        protected boolean isIdle() {
+            return true;
+        }
+
+        /**
+         * 唤醒暂停的消费任务
+         */
+        protected void unpark() {
+            Thread t = this.thread;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            this.sink.cancel();
+        }
+
+        @Override
+        public void pausePull(Duration pauseTime) {
+            this.sink.pausePull(pauseTime);
+        }
+
+        @Override
+        public void pausePush(Duration pauseTime) {
+            this.sink.pausePush(pauseTime);
+        }
+
+    }
+
+    /**
+     * 逐条消费任务
+     *
+     * @param <E> 数据类型
+     */
+    private static class ConsumeTask<E> extends AbstractConsumeTask<E> implements RetrySubscription<E> {
+
+        private final int index;
+        private final ArrayDeque<E> batch = new ArrayDeque<>(DRAIN_BATCH);
+
+        /**
+         * 时间轮到期交回的延迟重试元素
+         */
+        private final ConcurrentLinkedQueue<Retrying<E>> due = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 已放入时间轮但尚未到期的延迟重试元素数量
+         */
+        private final AtomicInteger scheduled = new AtomicInteger();
+
+        private volatile E element;
+
+        /**
+         * 订阅者是否在 {@code onError} 中要求重试
+         */
+        private boolean retried;
+
+        /**
+         * @param sink  数据池
+         * @param lane  分区序号（小于 0 表示消费共享缓冲区）
+         * @param index 任务序号
+         */
+        public ConsumeTask(RetrySink<E> sink, int lane, int index) {
+            super(sink, lane);
+            this.index = index;
+        }
+
+        @Override
+        boolean consume(MpmcRingBuffer<E> buf) {
+            Subscriber<E> s = this.sink.subscriber;
+            if (s == null) {
+                return true;
+            }
+            E element;
+            Retrying<E> retrying = this.due.poll();
+            if (retrying != null) {
+                element = retrying.element();
+                this.attempts.set(retrying.attempts());
+            } else {
+                if (this.isBlocked()) {
+                    return false;
+                }
+                element = this.next(buf);
+                if (element == null) {
+                    return false;
+                }
+                this.attempts.set(0);
+            }
+            long start = System.nanoTime();
+            try {
+                s.onNext(element);
+                this.sink.complete(element);
+            } catch (Throwable t) {
+                this.fail(s, t, element);
+            } finally {
+                if (this.sink.elasticOptions != null) {
+                    this.sink.record(System.nanoTime() - start);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected boolean isRetired() {
+            return this.lane < 0 && this.index >= this.sink.active && this.batch.isEmpty() && this.due.isEmpty()
+                    && this.scheduled.get() == 0;
+        }
+
+        /**
+         * 消费失败：失败次数达到上限时交给死信处理，否则回调订阅者
+         *
+         * @param s       订阅者
+         * @param t       异常
+         * @param element 消费失败的元素
+         */
+        private void fail(Subscriber<E> s, Throwable t, E element) {
+            int failures = this.attempts.incrementAndGet();
+            RetryOptions<E> options = this.sink.retryOptions;
+            if (options != null && options.maxAttempts() > 0 && failures >= options.maxAttempts()) {
+                this.reset();
+                try {
+                    options.deadLetter().onDeadLetter(element, t, failures);
+                } catch (Throwable e) {
+                    log.error("RetrySink: dead letter handler has error. {}", e.getMessage(), e);
                 }
+                this.sink.complete(element);
+                return;
+            }
+            this.retried = false;
+            s.onError(t, element, failures, this);
+            if (!this.retried) {
+                this.sink.complete(element);
+            }
+        }
+
+        @Override
+        protected boolean isIdle() {
+            return this.due.isEmpty();
+        }
+
+        /**
+         * 分区模式下，同一分区有延迟重试的元素尚未到期时，暂停消费该分区的后续元素，以保证相同键的元素按序处理
+         *
+         * @return {@code true} – 仅可消费到期的重试元素；{@code false} – 可以消费后续元素
+         */
+        @Override
+        protected boolean isBlocked() {
+            return this.lane >= 0 && this.scheduled.get() > 0;
+        }
+
+        /**
+         * 获取下一个待消费元素
+         * <p>
+         * 本地批次为空时，从数据池批量获取，以减少读指针竞争；
+         * 批量获取数量按消费任务数均分数据池中的元素，避免单个任务独占元素而其它任务空闲。
+         *
+         * @param buf 数据池缓冲区
+         * @return {@code E} – 待消费元素；如本地批次与数据池均为空，返回 {@code null}
+         */
+        private E next(MpmcRingBuffer<E> buf) {
+            E element = this.batch.poll();
+            if (element != null) {
+                return element;
+            }
+            if (buf == null) {
+                return null;
+            }
+            int parallelism = (this.lane < 0) ? Math.max(1, this.sink.active) : 1;
+            int max = Math.clamp(buf.size() / parallelism, 1, DRAIN_BATCH);
+            if (buf.drainTo(this.batch, max) == 0) {
+                return null;
+            }
+            this.sink.taken(this.batch);
+            return this.batch.poll();
+        }
+
+        @Override
+        void processFailed() {
+            Subscriber<E> s = this.sink.subscriber;
+            E e1 = this.element;
+            if (s == null || e1 == null) {
+                return;
+            }
+            if (!this.awaitRetry()) {
+                return;
             }
             try {
                 s.onNext(e1);
                 this.reset();
+                this.sink.complete(e1);
             } catch (Throwable t) {
                 this.retry = false;
                 this.element = null;
-                s.onError(t, e1, attempts.incrementAndGet(), this);
+                this.fail(s, t, e1);
             }
         }
 
@@ -284,6 +1138,7 @@ public class RetrySink<E> implements Sink<E>, Runnable {
         @Override
         public void retry(E element) {
             Assert.notNull(element, "retry element must not be null.");
+            this.retried = true;
             this.element = element;
             this.delayNanos = 0;
             this.retry = true;
@@ -295,24 +1150,194 @@ public class RetrySink<E> implements Sink<E>, Runnable {
             Assert.notNull(delay, "delay must not be null.");
             long nanos = delay.toNanos();
             Assert.isTrue(nanos > 0, "delay must be greater than 0.");
+            this.retried = true;
+            RetryOptions<E> options = this.sink.retryOptions;
+            HashedTimerWheel timer = (options != null) ? options.timer() : null;
+            if (timer != null) {
+                // 放入时间轮，到期后再交回本任务：
+                // 共享缓冲区模式下，消费任务继续消费后续元素；分区模式下，到期前暂停消费该分区的后续元素
+                Retrying<E> retrying = new Retrying<>(element, this.attempts.get());
+                this.scheduled.incrementAndGet();
+                if (timer.schedule(() -> this.redeliver(retrying), delay)) {
+                    return;
+                }
+                this.scheduled.decrementAndGet();
+            }
             this.element = element;
             this.delayNanos = nanos;
             this.retry = true;
         }
 
+        /**
+         * 延迟重试到期：交回本任务（分区模式下仍由同一分区处理）
+         *
+         * @param retrying 延迟重试的元素
+         */
+        private void redeliver(Retrying<E> retrying) {
+            if (this.sink.cancelled) {
+                this.scheduled.decrementAndGet();
+                return;
+            }
+            // 先交回再减少计数：消费任务观察到计数归零时，必然能取到该元素
+            this.due.offer(retrying);
+            this.scheduled.decrementAndGet();
+            if (this.sink.signalling) {
+                this.unpark();
+            }
+        }
+
+    }
+
+    /**
+     * 延迟重试的元素
+     *
+     * @param element  元素
+     * @param attempts 已失败次数
+     * @param <E>      数据类型
+     */
+    private record Retrying<E>(E element, int attempts) {
+    }
+
+    /**
+     * 批量消费任务
+     * <p>
+     * 从数据池获取消息直至达到批次最大元素数量，或超过批次最大等待时长，然后推送给批量订阅者。
+     *
+     * @param <E> 数据类型
+     */
+    private static class BatchConsumeTask<E> extends AbstractConsumeTask<E> implements BatchRetrySubscription<E> {
+
+        private volatile List<E> failed;
+
+        /**
+         * 订阅者是否在 {@code onError} 中要求重试
+         */
+        private boolean retried;
+
+        public BatchConsumeTask(RetrySink<E> sink) {
+            super(sink, -1);
+        }
+
         @Override
-        public void cancel() {
-            this.sink.cancel();
+        boolean consume(MpmcRingBuffer<E> buf) {
+            BatchSubscriber<E> s = this.sink.batchSubscriber;
+            BatchOptions options = this.sink.batchOptions;
+            if (s == null || options == null) {
+                return true;
+            }
+            List<E> batch = this.collect(buf, options);
+            if (batch == null) {
+                return false;
+            }
+            this.attempts.set(0);
+            try {
+                s.onNext(batch);
+                this.sink.completeAll(batch);
+            } catch (Throwable t) {
+                this.fail(s, t, batch);
+            }
+            return true;
+        }
+
+        /**
+         * 消费失败：回调订阅者，订阅者未要求重试时，批次中的元素视为完成消费
+         *
+         * @param s     批量订阅者
+         * @param t     异常
+         * @param batch 消费失败的批次
+         */
+        private void fail(BatchSubscriber<E> s, Throwable t, List<E> batch) {
+            this.retried = false;
+            s.onError(t, batch, attempts.incrementAndGet(), this);
+            if (!this.retried) {
+                this.sink.completeAll(batch);
+            }
+        }
+
+        /**
+         * 凑批
+         *
+         * @param buf     数据池缓冲区
+         * @param options 批量消费选项
+         * @return {@code List<E>} – 批次消息；如数据池为空，返回 {@code null}
+         */
+        private List<E> collect(MpmcRingBuffer<E> buf, BatchOptions options) {
+            if (buf == null || buf.isEmpty()) {
+                return null;
+            }
+            int max = Math.min(options.maxSize(), buf.capacity());
+            List<E> batch = new ArrayList<>(Math.min(max, Math.max(1, buf.size())));
+            if (buf.drainTo(batch, max) == 0) {
+                return null;
+            }
+            this.sink.taken(batch);
+            long linger = TimeUnit.MILLISECONDS.toNanos(options.linger());
+            if (linger <= 0) {
+                return batch;
+            }
+            long deadline = System.nanoTime() + linger;
+            while (batch.size() < max) {
+                int size = batch.size();
+                if (buf.drainTo(batch, max - size) > 0) {
+                    this.sink.taken(batch.subList(size, batch.size()));
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || this.sink.cancelled) {
+                    break;
+                }
+                // 信号唤醒模式下由新消息唤醒，否则按固定间隔检查数据池
+                this.await(buf, this.sink.signalling ? remaining : Math.min(remaining, LINGER_STEP_NANOS));
+            }
+            return batch;
         }
 
         @Override
-        public void pausePull(Duration pauseTime) {
-            this.sink.pausePull(pauseTime);
+        void processFailed() {
+            BatchSubscriber<E> s = this.sink.batchSubscriber;
+            List<E> b1 = this.failed;
+            if (s == null || b1 == null) {
+                return;
+            }
+            if (!this.awaitRetry()) {
+                return;
+            }
+            try {
+                s.onNext(b1);
+                this.reset();
+                this.sink.completeAll(b1);
+            } catch (Throwable t) {
+                this.retry = false;
+                this.failed = null;
+                this.fail(s, t, b1);
+            }
+        }
+
+        private void reset() {
+            this.retry = false;
+            this.failed = null;
+            this.attempts.set(0);
         }
 
         @Override
-        public void pausePush(Duration pauseTime) {
-            this.sink.pausePush(pauseTime);
+        public void retry(List<E> batch) {
+            Assert.notEmpty(batch, "retry batch must not be empty.");
+            this.retried = true;
+            this.failed = batch;
+            this.delayNanos = 0;
+            this.retry = true;
+        }
+
+        @Override
+        public void retry(List<E> batch, Duration delay) {
+            Assert.notEmpty(batch, "retry batch must not be empty.");
+            Assert.notNull(delay, "delay must not be null.");
+            long nanos = delay.toNanos();
+            Assert.isTrue(nanos > 0, "delay must be greater than 0.");
+            this.retried = true;
+            this.failed = batch;
+            this.delayNanos = nanos;
+            this.retry = true;
         }
 
     }
@@ -1,6 +1,7 @@
 package com.igeeksky.xredis.common.flow;
 
 import java.time.Duration;
+import java.util.function.Function;
 
 /**
  * 数据池
@@ -19,6 +20,45 @@ public interface Sink<E> {
      */
     void subscribe(Subscriber<E> subscriber, int parallelism);
 
+    /**
+     * 批量订阅
+     *
+     * @param subscriber  批量订阅者
+     * @param options     批量消费选项
+     * @param parallelism 并行度
+     * @throws UnsupportedOperationException 默认实现：不支持批量订阅
+     * @since 1.1.0
+     */
+    default void subscribe(BatchSubscriber<E> subscriber, BatchOptions options, int parallelism) {
+        throw new UnsupportedOperationException("batch subscribe is not supported");
+    }
+
+    /**
+     * 分区订阅
+     *
+     * @param subscriber   订阅者
+     * @param keyExtractor 键提取函数（相同键的消息分配到相同分区）
+     * @param lanes        分区数量（即并行度）
+     * @throws UnsupportedOperationException 默认实现：不支持分区订阅
+     * @since 1.1.0
+     */
+    default void subscribe(Subscriber<E> subscriber, Function<? super E, ?> keyExtractor, int lanes) {
+        throw new UnsupportedOperationException("lane subscribe is not supported");
+    }
+
+    /**
+     * 弹性订阅
+     * <p>
+     * 默认实现：不支持自动调整，以最大并行度订阅。
+     *
+     * @param subscriber 订阅者
+     * @param options    弹性并行度选项
+     * @since 1.1.0
+     */
+    default void subscribe(Subscriber<E> subscriber, ElasticOptions options) {
+        this.subscribe(subscriber, options.maxParallelism());
+    }
+
     /**
      * 传递上游异常
      * <p>
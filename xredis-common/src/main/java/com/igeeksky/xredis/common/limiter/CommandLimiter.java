@@ -0,0 +1,310 @@
+package com.igeeksky.xredis.common.limiter;
+
+import com.igeeksky.xredis.common.RedisRejectedException;
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 在途命令并发限制器
+ * <p>
+ * 使用许可限制同时发往 RedisServer 且尚未返回结果的命令数量（准入控制），
+ * 避免流量突增时 Lettuce 请求队列堆积导致的时延崩溃。
+ * <p>
+ * 获取许可后执行命令，命令完成（成功或失败）后释放许可；许可不足时按 {@link LimitPolicy} 处理。
+ * <p>
+ * <b>注意：</b><br>
+ * 获取许可不会阻塞调用线程：需排队等待的调用按先后顺序进入等待队列，
+ * 由释放许可的线程（通常为 Netty 事件循环线程）获取许可并执行命令；超过最大等待时长则以异常结束。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class CommandLimiter {
+
+    private final int permits;
+    private final boolean weighted;
+    private final long maxWaitNanos;
+    private final LimitPolicy policy;
+
+    /**
+     * 已占用许可数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 等待队列（队首获取许可后，后续调用才能获取许可）
+     */
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 等待队列处理标记：保证同一时刻仅有一个线程处理等待队列
+     */
+    private final AtomicInteger draining = new AtomicInteger();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitedNanos = new AtomicLong();
+
+    /**
+     * 创建并发限制器（不按批次加权）
+     *
+     * @param permits       许可总数（最大在途命令数），必须大于 0
+     * @param policy        许可不足时的处理策略（不能为空）
+     * @param maxWaitMillis 最大排队等待时长（单位：毫秒），必须大于等于 0
+     */
+    public CommandLimiter(int permits, LimitPolicy policy, long maxWaitMillis) {
+        this(permits, policy, maxWaitMillis, false);
+    }
+
+    /**
+     * 创建并发限制器
+     *
+     * @param permits       许可总数（最大在途命令数），必须大于 0
+     * @param policy        许可不足时的处理策略（不能为空）
+     * @param maxWaitMillis 最大排队等待时长（单位：毫秒），必须大于等于 0
+     * @param weighted      是否按批次加权 <br>
+     *                      {@code true}：一次调用占用的许可数为其实际发送的命令数（如：分 10 批次提交则占用 10 个许可）；<br>
+     *                      {@code false}：每次调用仅占用 1 个许可。
+     */
+    public CommandLimiter(int permits, LimitPolicy policy, long maxWaitMillis, boolean weighted) {
+        Assert.isTrue(permits > 0, "permits must be greater than 0");
+        Assert.notNull(policy, "policy must not be null");
+        Assert.isTrue(maxWaitMillis >= 0, "maxWaitMillis must be greater than or equal to 0");
+        this.permits = permits;
+        this.policy = policy;
+        this.weighted = weighted;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    /**
+     * 获取许可并执行命令，命令完成后自动释放许可
+     * <p>
+     * 如能立即获取许可，在调用线程执行命令；如需排队等待，则立即返回，获取许可后再执行命令。<br>
+     * 如未能获取许可，返回的 {@link CompletableFuture} 将以 {@link RedisRejectedException} 异常完成，命令不会被执行。
+     *
+     * @param commands 此次调用实际发送的命令数
+     * @param priority 优先级（仅当 {@link LimitPolicy#SHED} 时有效）
+     * @param command  待执行的命令
+     * @param <T>      结果类型
+     * @return {@link CompletableFuture} – 命令执行结果
+     */
+    public <T> CompletableFuture<T> execute(int commands, Priority priority,
+                                            Supplier<? extends CompletionStage<T>> command) {
+        int weight = this.weight(commands, priority);
+        int limit = (this.policy == LimitPolicy.SHED) ? this.limit(priority) : this.permits;
+        // 等待队列非空时，WAIT 策略的调用需排队，避免插队导致队首的加权调用长时间无法获取许可
+        if ((this.policy != LimitPolicy.WAIT || this.waiters.isEmpty()) && this.tryAcquire(weight, limit)) {
+            this.acquired.increment();
+            return this.run(weight, command);
+        }
+        if (this.policy == LimitPolicy.FAIL_FAST) {
+            return CompletableFuture.failedFuture(
+                    this.reject("Redis:Rejected: no available permits. permits:[" + permits + "]"));
+        }
+        if (limit < this.permits) {
+            return CompletableFuture.failedFuture(
+                    this.reject("Redis:Rejected: shed by priority:[" + priority + "], limit:[" + limit + "]"));
+        }
+        if (this.maxWaitNanos == 0) {
+            return CompletableFuture.failedFuture(this.reject(this.timeoutMessage()));
+        }
+        return this.enqueue(weight, limit).thenCompose(ignored -> this.run(weight, command));
+    }
+
+    /**
+     * 执行命令，命令完成后释放许可（调用前须已获取许可）
+     *
+     * @param weight  已占用的许可数
+     * @param command 待执行的命令
+     * @param <T>     结果类型
+     * @return {@link CompletableFuture} – 命令执行结果
+     */
+    private <T> CompletableFuture<T> run(int weight, Supplier<? extends CompletionStage<T>> command) {
+        CompletableFuture<T> future;
+        try {
+            future = command.get().toCompletableFuture();
+        } catch (Throwable e) {
+            this.release(weight);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((r, t) -> this.release(weight));
+    }
+
+    /**
+     * 计算此次调用需占用的许可数
+     *
+     * @param commands 此次调用实际发送的命令数
+     * @param priority 优先级
+     * @return 需占用的许可数
+     */
+    private int weight(int commands, Priority priority) {
+        if (!weighted || commands <= 1) {
+            return 1;
+        }
+        // 单次调用最多占用全部许可（SHED 策略下最多占用该优先级的许可上限），否则永远无法获取许可
+        int max = (this.policy == LimitPolicy.SHED) ? this.limit(priority) : this.permits;
+        return Math.min(commands, max);
+    }
+
+    /**
+     * 尝试获取许可（判断上限与占用许可为同一原子操作）
+     *
+     * @param weight 需占用的许可数
+     * @param limit  可占用的许可上限
+     * @return 如获取许可成功，返回 {@code true}；否则返回 {@code false}
+     */
+    private boolean tryAcquire(int weight, int limit) {
+        for (; ; ) {
+            int current = this.inFlight.get();
+            if (current + weight > limit) {
+                return false;
+            }
+            if (this.inFlight.compareAndSet(current, current + weight)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放许可，并唤醒等待队列中的调用
+     *
+     * @param weight 释放的许可数
+     */
+    private void release(int weight) {
+        this.inFlight.addAndGet(-weight);
+        if (!this.waiters.isEmpty()) {
+            this.drain();
+        }
+    }
+
+    /**
+     * 加入等待队列
+     *
+     * @param weight 需占用的许可数
+     * @param limit  可占用的许可上限
+     * @return {@code CompletableFuture<Void>} – 获取许可后完成；超过最大等待时长则以 {@link RedisRejectedException} 异常完成
+     */
+    private CompletableFuture<Void> enqueue(int weight, int limit) {
+        Waiter waiter = new Waiter(weight, limit, System.nanoTime(), new CompletableFuture<>());
+        this.waiting.incrementAndGet();
+        // 先更新统计信息，再执行后续操作
+        CompletableFuture<Void> future = waiter.future.whenComplete((r, t) -> {
+            long elapsed = System.nanoTime() - waiter.start;
+            this.waiting.decrementAndGet();
+            this.waited.increment();
+            this.totalWaitNanos.add(elapsed);
+            this.maxWaitedNanos.accumulateAndGet(elapsed, Math::max);
+            if (t == null) {
+                this.acquired.increment();
+            } else {
+                this.rejected.increment();
+            }
+        });
+        this.waiters.offer(waiter);
+        CompletableFuture.delayedExecutor(this.maxWaitNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (!waiter.future.isDone()
+                    && waiter.future.completeExceptionally(new RedisRejectedException(this.timeoutMessage()))) {
+                this.waiters.remove(waiter);
+                // 超时的调用可能位于队首，移除后需唤醒后续调用
+                this.drain();
+            }
+        });
+        // 入队前许可可能已全部释放，需主动处理一次等待队列，避免无线程唤醒
+        this.drain();
+        return future;
+    }
+
+    /**
+     * 按先后顺序为等待队列中的调用获取许可
+     */
+    private void drain() {
+        if (this.draining.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            Waiter head;
+            while ((head = this.waiters.peek()) != null) {
+                if (head.future.isDone()) {
+                    this.waiters.remove(head);
+                    continue;
+                }
+                if (!this.tryAcquire(head.weight, head.limit)) {
+                    break;
+                }
+                this.waiters.remove(head);
+                if (!head.future.complete(null)) {
+                    // 获取许可的同时已超时，归还许可
+                    this.inFlight.addAndGet(-head.weight);
+                }
+            }
+        } while (this.draining.decrementAndGet() != 0);
+    }
+
+    private String timeoutMessage() {
+        return "Redis:Rejected: wait permits timeout:[" + maxWaitNanos / 1000000 + "ms]";
+    }
+
+    private RedisRejectedException reject(String message) {
+        this.rejected.increment();
+        return new RedisRejectedException(message);
+    }
+
+    private int limit(Priority priority) {
+        if (priority == null) {
+            priority = Priority.NORMAL;
+        }
+        return Math.max(1, (int) Math.ceil(this.permits * priority.getShare()));
+    }
+
+    /**
+     * 获取许可总数
+     *
+     * @return 许可总数
+     */
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * 获取许可不足时的处理策略
+     *
+     * @return 许可不足时的处理策略
+     */
+    public LimitPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * 获取统计信息（快照）
+     *
+     * @return {@link LimiterStats} – 统计信息
+     */
+    public LimiterStats stats() {
+        return new LimiterStats(permits, inFlight.get(), waiting.get(),
+                acquired.sum(), rejected.sum(), waited.sum(), totalWaitNanos.sum(), maxWaitedNanos.get());
+    }
+
+    /**
+     * 排队等待许可的调用
+     *
+     * @param weight 需占用的许可数
+     * @param limit  可占用的许可上限
+     * @param start  开始等待的时间（纳秒）
+     * @param future 获取许可后完成
+     */
+    private record Waiter(int weight, int limit, long start, CompletableFuture<Void> future) {
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.igeeksky.xredis.common.limiter;
+
+/**
+ * 并发许可不足时的处理策略
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public enum LimitPolicy {
+
+    /**
+     * 排队等待（不阻塞调用线程），直到获取许可或超过最大等待时长（超时则拒绝）
+     */
+    WAIT,
+
+    /**
+     * 不等待，立即拒绝
+     */
+    FAIL_FAST,
+
+    /**
+     * 按优先级卸载负载
+     * <p>
+     * 每个优先级仅能使用一定比例的许可（见 {@link Priority#getShare()}），
+     * 超出比例的命令立即拒绝（判断比例与获取许可为同一原子操作）；
+     * 可使用全部许可的命令（{@link Priority#HIGH}）在许可不足时排队等待，直到获取许可或超过最大等待时长。
+     * <p>
+     * 因此，当负载升高时，低优先级命令先被拒绝，从而为高优先级命令保留许可。
+     */
+    SHED
+
+}
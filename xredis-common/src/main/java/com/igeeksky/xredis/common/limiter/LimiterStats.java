@@ -0,0 +1,45 @@
+package com.igeeksky.xredis.common.limiter;
+
+/**
+ * 并发限制器统计信息（快照）
+ *
+ * @param permits        许可总数
+ * @param inFlight       已占用许可数（正在执行的命令权重之和）
+ * @param waiting        正在排队等待许可的调用数
+ * @param acquired       累计获取许可成功次数
+ * @param rejected       累计拒绝次数
+ * @param waited         累计排队等待次数（未能立即获取许可的调用）
+ * @param totalWaitNanos 累计排队等待时长（纳秒）
+ * @param maxWaitNanos   最大排队等待时长（纳秒）
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record LimiterStats(int permits, int inFlight, int waiting, long acquired, long rejected,
+                           long waited, long totalWaitNanos, long maxWaitNanos) {
+
+    /**
+     * 平均排队等待时长（毫秒）
+     *
+     * @return 平均排队等待时长（仅统计排队等待的调用）
+     */
+    public double averageWaitMillis() {
+        if (waited == 0) {
+            return 0;
+        }
+        return totalWaitNanos / (double) waited / 1000000;
+    }
+
+    /**
+     * 拒绝率
+     *
+     * @return 拒绝次数 / (获取许可成功次数 + 拒绝次数)
+     */
+    public double rejectedRatio() {
+        long total = acquired + rejected;
+        if (total == 0) {
+            return 0;
+        }
+        return rejected / (double) total;
+    }
+
+}
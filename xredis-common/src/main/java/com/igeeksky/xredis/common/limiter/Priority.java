@@ -0,0 +1,43 @@
+package com.igeeksky.xredis.common.limiter;
+
+/**
+ * 命令优先级
+ * <p>
+ * 仅当 {@link LimitPolicy#SHED} 时有效。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public enum Priority {
+
+    /**
+     * 高优先级：可使用全部许可
+     */
+    HIGH(1.0),
+
+    /**
+     * 普通优先级：可使用 80% 的许可
+     */
+    NORMAL(0.8),
+
+    /**
+     * 低优先级：可使用 50% 的许可
+     */
+    LOW(0.5);
+
+    private final double share;
+
+    Priority(double share) {
+        this.share = share;
+    }
+
+    /**
+     * 获取此优先级可使用的许可比例
+     *
+     * @return 许可比例 {@code 0 < share <= 1}
+     */
+    public double getShare() {
+        return share;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.igeeksky.xredis.common.stream;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+/**
+ * 批量发布选项
+ *
+ * @param batchSize 批量大小：待发布的消息数量达到此值时，立即合并发送 {@code batchSize > 0}
+ * @param linger    最大等待时长（单位：毫秒）：定时发送所有待发布的消息 {@code linger > 0}
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record BatchPublishOptions(int batchSize, long linger) {
+
+    /**
+     * 参数校验
+     */
+    public BatchPublishOptions {
+        Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+        Assert.isTrue(linger > 0, "linger must be greater than 0");
+    }
+
+    /**
+     * 创建 {@link BatchPublishOptions}
+     *
+     * @param batchSize 批量大小
+     * @param linger    最大等待时长（单位：毫秒）
+     * @return {@link BatchPublishOptions}
+     */
+    public static BatchPublishOptions from(int batchSize, long linger) {
+        return new BatchPublishOptions(batchSize, linger);
+    }
+
+}
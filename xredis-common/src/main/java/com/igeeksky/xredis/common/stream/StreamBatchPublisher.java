@@ -0,0 +1,247 @@
+package com.igeeksky.xredis.common.stream;
+
+import com.igeeksky.xredis.common.RedisOperationException;
+import com.igeeksky.xtool.core.lang.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 流消息批量发布者（异步）
+ * <p>
+ * 发布时在调用线程编码消息并放入队列，立即返回该消息的 {@link CompletableFuture}；
+ * 队列中的消息按以下规则合并为一次 {@link StreamOperator#xaddAllAsync} 批量发送：<br>
+ * 1. 待发布的消息数量达到 {@link BatchPublishOptions#batchSize()} 时立即发送；<br>
+ * 2. 每隔 {@link BatchPublishOptions#linger()} 毫秒发送所有待发布的消息；<br>
+ * 3. 关闭时发送所有待发布的消息。
+ * <p>
+ * 各批次按入队顺序依次发送，同一发布者的消息在流中保持发布顺序。
+ * <p>
+ * 注意：发送之前进程异常退出，队列中未发送的消息将丢失。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @param <T> 原消息类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class StreamBatchPublisher<K, V, T> {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamBatchPublisher.class);
+
+    private final K stream;
+    private final int batchSize;
+    private final XAddOptions options;
+    private final StreamOperator<K, V> operator;
+    private final StreamCodec<K, V, T> streamCodec;
+
+    private final ScheduledFuture<?> scheduleFuture;
+
+    /**
+     * 发送锁：保证各批次按入队顺序发送
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final ConcurrentLinkedQueue<Pending<K, V>> queue = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * 构造器
+     *
+     * @param stream       流名称（不能为空）
+     * @param options      流消息添加选项（可以为空）
+     * @param operator     流操作（不能为空）
+     * @param streamCodec  流消息编解码器（不能为空）
+     * @param scheduler    定时任务调度器（不能为空）
+     * @param batchOptions 批量发布选项（不能为空）
+     */
+    public StreamBatchPublisher(K stream, XAddOptions options, StreamOperator<K, V> operator,
+                                StreamCodec<K, V, T> streamCodec, ScheduledExecutorService scheduler,
+                                BatchPublishOptions batchOptions) {
+        Assert.notNull(stream, "stream must not be null");
+        Assert.notNull(operator, "operator must not be null");
+        Assert.notNull(streamCodec, "streamCodec must not be null");
+        Assert.notNull(scheduler, "scheduler must not be null");
+        Assert.notNull(batchOptions, "batchOptions must not be null");
+        this.stream = stream;
+        this.options = options;
+        this.operator = operator;
+        this.streamCodec = streamCodec;
+        this.batchSize = batchOptions.batchSize();
+        long linger = batchOptions.linger();
+        this.scheduleFuture = scheduler.scheduleWithFixedDelay(this::flush, linger, linger, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 发布消息（异步）
+     *
+     * @param message 消息
+     * @return 消息ID（消息所在批次发送完成后完成）
+     */
+    public CompletableFuture<String> publish(T message) {
+        if (message == null) {
+            return CompletableFuture.failedFuture(new RedisOperationException("message must not be null."));
+        }
+        if (this.closed) {
+            return CompletableFuture.failedFuture(new RedisOperationException("publisher has been closed."));
+        }
+        Map<K, V> body = this.streamCodec.encodeMsg(message);
+        if (body == null) {
+            return CompletableFuture.failedFuture(new RedisOperationException("message convert to body failed."));
+        }
+        Pending<K, V> pending = new Pending<>(body, new CompletableFuture<>());
+        this.queue.offer(pending);
+        int pendings = this.size.incrementAndGet();
+        if (this.closed) {
+            // 与关闭并发：关闭时可能已取出队列中的所有消息，需确保此消息被发送
+            this.lock.lock();
+            try {
+                this.drain(null);
+            } finally {
+                this.lock.unlock();
+            }
+        } else if (pendings >= this.batchSize) {
+            this.flush();
+        }
+        return pending.future();
+    }
+
+    /**
+     * 发送所有待发布的消息
+     * <p>
+     * 如其它线程正在发送，则直接返回（由正在发送的线程继续发送后续消息，或等待下一次定时发送）。
+     */
+    public void flush() {
+        if (!this.lock.tryLock()) {
+            return;
+        }
+        try {
+            this.drain(null);
+        } catch (Throwable e) {
+            log.error("StreamBatchPublisher: flush has error. {}", e.getMessage(), e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 已发布成功的消息数量
+     *
+     * @return {@code long} – 已发布成功的消息数量
+     */
+    public long getPublished() {
+        return this.published.sum();
+    }
+
+    /**
+     * 已发送的批次数量
+     *
+     * @return {@code long} – 已发送的批次数量
+     */
+    public long getBatches() {
+        return this.batches.sum();
+    }
+
+    /**
+     * 停止定时任务，并发送所有待发布的消息（关闭后不再接收新消息）
+     *
+     * @return {@code CompletableFuture<Void>} – 所有待发布的消息发送完成后完成
+     */
+    public CompletableFuture<Void> closeAsync() {
+        this.closed = true;
+        this.scheduleFuture.cancel(false);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        this.lock.lock();
+        try {
+            this.drain(futures);
+        } finally {
+            this.lock.unlock();
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((v, t) -> null);
+    }
+
+    /**
+     * 按批次发送队列中的所有消息（持有锁时调用）
+     *
+     * @param futures 用于收集已发送消息的 Future（可以为空）
+     */
+    private void drain(List<CompletableFuture<String>> futures) {
+        List<Pending<K, V>> batch;
+        while ((batch = this.poll()) != null) {
+            this.send(batch);
+            if (futures != null) {
+                batch.forEach(pending -> futures.add(pending.future()));
+            }
+        }
+    }
+
+    /**
+     * 从队列取出一个批次
+     *
+     * @return {@code List<Pending>} – 待发布的消息；队列为空返回 {@code null}
+     */
+    private List<Pending<K, V>> poll() {
+        List<Pending<K, V>> batch = null;
+        Pending<K, V> pending;
+        while ((batch == null || batch.size() < this.batchSize) && (pending = this.queue.poll()) != null) {
+            if (batch == null) {
+                batch = new ArrayList<>(Math.min(this.batchSize, this.size.get() + 1));
+            }
+            batch.add(pending);
+        }
+        if (batch != null) {
+            this.size.addAndGet(-batch.size());
+        }
+        return batch;
+    }
+
+    private void send(List<Pending<K, V>> batch) {
+        List<Map<K, V>> bodies = new ArrayList<>(batch.size());
+        for (Pending<K, V> pending : batch) {
+            bodies.add(pending.body());
+        }
+        this.batches.increment();
+        List<CompletableFuture<String>> results;
+        try {
+            results = this.operator.xaddAllAsync(this.stream, this.options, bodies);
+        } catch (Throwable e) {
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<String> future = batch.get(i).future();
+            results.get(i).whenComplete((id, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                } else {
+                    this.published.increment();
+                    future.complete(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * 待发布的消息
+     *
+     * @param body   消息体
+     * @param future 消息ID
+     */
+    private record Pending<K, V>(Map<K, V> body, CompletableFuture<String> future) {
+    }
+
+}
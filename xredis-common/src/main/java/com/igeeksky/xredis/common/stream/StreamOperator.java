@@ -4,6 +4,7 @@ import com.igeeksky.xredis.common.ConnectionMode;
 import com.igeeksky.xredis.common.TimeConvertor;
 import com.igeeksky.xtool.core.AsyncCloseable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -138,6 +139,26 @@ public interface StreamOperator<K, V> extends ConnectionMode, AsyncCloseable {
      */
     String xadd(K key, XAddOptions options, Map<K, V> body);
 
+    /**
+     * 批量发布消息（异步）
+     * <p>
+     * 默认实现为逐条调用 {@link #xaddAsync(Object, XAddOptions, Map)}，
+     * 实现类可将所有 {@code xadd} 命令合并为一次网络写入，以减少逐条提交命令的开销。
+     *
+     * @param key     流名称
+     * @param options 消息发布选项（可以为空）
+     * @param bodies  消息体列表
+     * @return {@code List<CompletableFuture<String>>} – 与消息体一一对应的消息 ID
+     * @since 1.1.0
+     */
+    default List<CompletableFuture<String>> xaddAllAsync(K key, XAddOptions options, List<Map<K, V>> bodies) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(bodies.size());
+        for (Map<K, V> body : bodies) {
+            futures.add((options != null) ? this.xaddAsync(key, options, body) : this.xaddAsync(key, body));
+        }
+        return futures;
+    }
+
     /**
      * 认领消息（异步）
      *
@@ -160,6 +181,54 @@ public interface StreamOperator<K, V> extends ConnectionMode, AsyncCloseable {
      */
     List<XStreamMessage<K, V>> xclaim(K key, XGroupConsumer<K> groupConsumer, long minIdleTime, String... messageIds);
 
+    /**
+     * 自动认领空闲时间超过 minIdleTime 的待处理消息（异步）
+     *
+     * @param key           流名称
+     * @param groupConsumer 消费组信息（认领后消息归属于此消费者）
+     * @param minIdleTime   最小空闲时间（毫秒）
+     * @param startId       扫描起始 ID（首次扫描使用 {@link XAutoClaimResult#START_ID}）
+     * @param count         最大认领数量
+     * @return {@code CompletableFuture<XAutoClaimResult<K, V>>} – 认领结果
+     * @since 1.1.0
+     */
+    CompletableFuture<XAutoClaimResult<K, V>> xautoclaimAsync(K key, XGroupConsumer<K> groupConsumer,
+                                                              long minIdleTime, String startId, long count);
+
+    /**
+     * 自动认领空闲时间超过 minIdleTime 的待处理消息（同步）
+     *
+     * @param key           流名称
+     * @param groupConsumer 消费组信息（认领后消息归属于此消费者）
+     * @param minIdleTime   最小空闲时间（毫秒）
+     * @param startId       扫描起始 ID（首次扫描使用 {@link XAutoClaimResult#START_ID}）
+     * @param count         最大认领数量
+     * @return {@code XAutoClaimResult<K, V>} – 认领结果
+     * @since 1.1.0
+     */
+    XAutoClaimResult<K, V> xautoclaim(K key, XGroupConsumer<K> groupConsumer,
+                                      long minIdleTime, String startId, long count);
+
+    /**
+     * 获取消费组待处理列表概要（异步）
+     *
+     * @param key   流名称
+     * @param group 消费组名称
+     * @return {@code CompletableFuture<XPendingSummary>} – 待处理列表概要
+     * @since 1.1.0
+     */
+    CompletableFuture<XPendingSummary> xpendingAsync(K key, K group);
+
+    /**
+     * 获取消费组待处理列表概要（同步）
+     *
+     * @param key   流名称
+     * @param group 消费组名称
+     * @return {@link XPendingSummary} – 待处理列表概要
+     * @since 1.1.0
+     */
+    XPendingSummary xpending(K key, K group);
+
     /**
      * 删除消息（异步）
      *
@@ -354,4 +423,20 @@ public interface StreamOperator<K, V> extends ConnectionMode, AsyncCloseable {
      */
     List<XStreamMessage<K, V>> xreadgroup(XGroupConsumer<K> groupConsumer, XReadOptions options, XStreamOffset<K>... streams);
 
+    /**
+     * 获取流所属的哈希槽
+     * <p>
+     * 集群模式下，多流合并读取的命令须确保所有流位于同一哈希槽，否则 RedisServer 将返回 CROSSSLOT 错误，
+     * 因此流容器根据此方法的返回值对流进行分组，每个哈希槽分别发送读取命令。
+     * <p>
+     * 默认返回 0，即所有流视为同一哈希槽（适用于非集群连接）。
+     *
+     * @param key 流名称
+     * @return {@code int} – 哈希槽 {@code [0, 16383]}
+     * @since 1.1.0
+     */
+    default int slot(K key) {
+        return 0;
+    }
+
 }
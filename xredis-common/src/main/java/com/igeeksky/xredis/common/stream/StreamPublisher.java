@@ -3,6 +3,10 @@ package com.igeeksky.xredis.common.stream;
 
 import com.igeeksky.xredis.common.RedisOperationException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -68,4 +72,49 @@ public class StreamPublisher<K, V, T> {
         return operator.xaddAsync(stream, options, body).toCompletableFuture();
     }
 
+    /**
+     * 批量发布消息（使用公共的 XAddArgs）
+     *
+     * @param messages 消息集合
+     * @return 消息ID列表（与消息的迭代顺序一致；任一消息发布失败则以异常结束）
+     * @since 1.1.0
+     */
+    public CompletableFuture<List<String>> publishAll(Collection<T> messages) {
+        return this.publishAll(messages, this.options);
+    }
+
+    /**
+     * 批量发布消息（使用传入的 XAddArgs）
+     * <p>
+     * 所有 {@code xadd} 命令合并为一次网络写入（取决于 {@link StreamOperator#xaddAllAsync} 的实现），
+     * 以减少逐条提交命令的开销。
+     *
+     * @param messages 消息集合
+     * @param options  流消息添加选项
+     * @return 消息ID列表（与消息的迭代顺序一致；任一消息发布失败则以异常结束）
+     * @since 1.1.0
+     */
+    public CompletableFuture<List<String>> publishAll(Collection<T> messages, XAddOptions options) {
+        if (messages == null) {
+            return CompletableFuture.failedFuture(new RedisOperationException("messages must not be null."));
+        }
+        if (messages.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        List<Map<K, V>> bodies = new ArrayList<>(messages.size());
+        for (T message : messages) {
+            if (message == null) {
+                return CompletableFuture.failedFuture(new RedisOperationException("message must not be null."));
+            }
+            Map<K, V> body = streamCodec.encodeMsg(message);
+            if (body == null) {
+                return CompletableFuture.failedFuture(new RedisOperationException("message convert to body failed."));
+            }
+            bodies.add(body);
+        }
+        List<CompletableFuture<String>> futures = operator.xaddAllAsync(stream, options, bodies);
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
 }
\ No newline at end of file
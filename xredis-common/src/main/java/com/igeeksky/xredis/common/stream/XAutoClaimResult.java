@@ -0,0 +1,31 @@
+package com.igeeksky.xredis.common.stream;
+
+import java.util.List;
+
+/**
+ * 自动认领消息结果
+ *
+ * @param <K>      键类型
+ * @param <V>      值类型
+ * @param nextId   下一次扫描的起始 ID（{@code 0-0} 表示已扫描完整个待处理列表）
+ * @param messages 认领的消息列表
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record XAutoClaimResult<K, V>(String nextId, List<XStreamMessage<K, V>> messages) {
+
+    /**
+     * 扫描起始 ID（从待处理列表的头部开始扫描）
+     */
+    public static final String START_ID = "0-0";
+
+    /**
+     * 是否已扫描完整个待处理列表
+     *
+     * @return {@code boolean} – {@code true} 已扫描完毕，下一次从头开始扫描；{@code false} 未扫描完毕
+     */
+    public boolean finished() {
+        return nextId == null || START_ID.equals(nextId);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.igeeksky.xredis.common.stream;
+
+import java.util.Map;
+
+/**
+ * 消费组待处理列表（PEL）概要
+ *
+ * @param count     待处理消息数量
+ * @param lowestId  最小的待处理消息 ID（无待处理消息时为 {@code null}）
+ * @param highestId 最大的待处理消息 ID（无待处理消息时为 {@code null}）
+ * @param consumers 各消费者的待处理消息数量（key: 消费者名称；value: 待处理消息数量）
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record XPendingSummary(long count, String lowestId, String highestId, Map<String, Long> consumers) {
+
+}
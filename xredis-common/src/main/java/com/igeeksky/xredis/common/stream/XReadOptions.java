@@ -2,6 +2,8 @@ package com.igeeksky.xredis.common.stream;
 
 import com.igeeksky.xtool.core.lang.Assert;
 
+import java.util.Objects;
+
 /**
  * 消费者组读取消息选项
  *
@@ -63,6 +65,19 @@ public class XReadOptions {
         return noack;
     }
 
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof XReadOptions that)) return false;
+
+        return noack == that.noack && Objects.equals(block, that.block) && Objects.equals(count, that.count);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(block, count, noack);
+    }
+
     /**
      * 创建 XReadOptions-builder
      *
@@ -0,0 +1,18 @@
+package com.igeeksky.xredis.common.stream;
+
+/**
+ * 解码后的 Redis 流消息
+ * <p>
+ * 保留消息所在的流及消息 ID，消费者组订阅可据此确认消息（{@code xack}）。
+ *
+ * @param <K>    键类型
+ * @param <T>    解码后的消息类型
+ * @param stream Stream 名称
+ * @param id     Stream 元素的 ID
+ * @param value  解码后的消息
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record XStreamRecord<K, T>(K stream, String id, T value) {
+
+}
@@ -1,13 +1,30 @@
 package com.igeeksky.xredis.common.stream.container;
 
+import com.igeeksky.xredis.common.flow.DeadLetterHandler;
+import com.igeeksky.xredis.common.flow.DecodingFlow;
+import com.igeeksky.xredis.common.flow.Flow;
+import com.igeeksky.xredis.common.flow.HashedTimerWheel;
+import com.igeeksky.xredis.common.flow.MemoryBudget;
+import com.igeeksky.xredis.common.flow.RetryOptions;
+import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.stream.StreamCodec;
 import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.XReadOptions;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xredis.common.stream.XStreamOffset;
+import com.igeeksky.xredis.common.stream.XStreamRecord;
 import com.igeeksky.xtool.core.GracefulShutdown;
 import com.igeeksky.xtool.core.lang.Assert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /**
  * 流容器（抽象类）
@@ -21,6 +38,26 @@ public abstract class AbstractStreamContainer<K, V> implements GracefulShutdown
 
     private static final Logger log = LoggerFactory.getLogger(AbstractStreamContainer.class);
 
+    /**
+     * 估算消息字节数：消息对象（含 ID 字符串及 body 集合）的固定开销
+     */
+    private static final long MESSAGE_OVERHEAD = 96;
+
+    /**
+     * 估算消息字节数：body 中每个键值对的固定开销
+     */
+    private static final long ENTRY_OVERHEAD = 32;
+
+    /**
+     * 估算消息字节数：无法计算长度的对象的固定大小
+     */
+    private static final long OBJECT_OVERHEAD = 16;
+
+    /**
+     * 优雅关闭时检查数据池是否排空的间隔（纳秒）
+     */
+    private static final long DRAIN_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
     private final long timeout;
 
     private final long quietPeriod;
@@ -40,6 +77,51 @@ public abstract class AbstractStreamContainer<K, V> implements GracefulShutdown
      */
     protected volatile ScheduledFuture<?> scheduleConsumeFuture;
 
+    /**
+     * 阻塞读取循环（仅 {@link PullMode#BLOCKING_LOOP} 模式）
+     */
+    volatile StreamLoop streamLoop;
+
+    /**
+     * 自适应拉取调度（仅使用 {@link AdaptivePollPolicy} 创建的容器）
+     */
+    volatile AdaptivePoller adaptivePoller;
+
+    /**
+     * 批量确认（仅消费者组，调用 {@code ackAggregator} 方法后创建）
+     */
+    private volatile AckAggregator<K, V> ackAggregator;
+
+    /**
+     * 读偏移检查点（仅非消费者组，调用 {@code checkpointOffsets} 方法后创建）
+     */
+    private volatile OffsetCheckpointer<K> checkpointer;
+
+    /**
+     * 新订阅的数据池是否使用信号唤醒模式
+     */
+    volatile boolean signalling;
+
+    /**
+     * 新订阅的数据池使用的重试选项（调用 {@code startRetryTimer} 或 {@link #setDeadLetter} 方法后创建）
+     */
+    volatile RetryOptions<XStreamMessage<K, V>> retryOptions;
+
+    /**
+     * 新订阅的数据池共享的内存预算（调用 {@link #setMemoryBudget} 方法后创建）
+     */
+    volatile MemoryBudget<XStreamMessage<K, V>> memoryBudget;
+
+    /**
+     * 待处理消息恢复（仅消费者组，调用 {@code startRecovery} 方法后启动）
+     */
+    final StreamRecovery<K, V> recovery;
+
+    /**
+     * 已订阅的数据池（优雅关闭时取消订阅，使消费任务退出）
+     */
+    private final Queue<RetrySink<XStreamMessage<K, V>>> sinks = new ConcurrentLinkedQueue<>();
+
     /**
      * 构造函数
      *
@@ -50,16 +132,309 @@ public abstract class AbstractStreamContainer<K, V> implements GracefulShutdown
     public AbstractStreamContainer(StreamOperator<K, V> operator, long quietPeriod, long timeout) {
         Assert.notNull(operator, "operator must not be null");
         this.operator = operator;
+        this.recovery = new StreamRecovery<>(operator);
         this.quietPeriod = quietPeriod;
         this.timeout = timeout;
     }
 
+    /**
+     * 启动自适应拉取任务及消费任务
+     *
+     * @param puller    拉取函数（返回 {@code null} 表示无可读取的流）
+     * @param consumer  消费函数
+     * @param scheduler 定时任务调度器
+     * @param policy    自适应拉取策略
+     */
+    void startAdaptive(Supplier<CompletableFuture<PullResult>> puller, Runnable consumer,
+                       ScheduledExecutorService scheduler, AdaptivePollPolicy policy) {
+        AdaptivePoller poller = new AdaptivePoller(puller, scheduler, policy);
+        this.adaptivePoller = poller;
+        poller.start();
+        long delay = Math.max(1, policy.getMinPeriod() / 2);
+        this.scheduleConsumeFuture = scheduler.scheduleWithFixedDelay(consumer,
+                policy.getInitialPeriod(), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 创建批量确认
+     *
+     * @param scheduler 定时任务调度器
+     * @param options   批量确认选项（不能为空）
+     * @return {@link AckAggregator} – 批量确认
+     * @throws IllegalStateException 如果已创建
+     */
+    synchronized AckAggregator<K, V> createAckAggregator(ScheduledExecutorService scheduler, AckOptions options) {
+        if (this.ackAggregator != null) {
+            throw new IllegalStateException("ackAggregator already exists");
+        }
+        AckAggregator<K, V> aggregator = new AckAggregator<>(this.operator, scheduler, options);
+        this.ackAggregator = aggregator;
+        return aggregator;
+    }
+
+    /**
+     * 将原始消息流转换为解码后的消息流（由消费任务调用 {@link StreamCodec#decodeMsg} 解码消息体）
+     *
+     * @param flow  原始消息流
+     * @param codec 消息体编解码（不能为空）
+     * @param <T>   解码后的消息类型
+     * @return {@link DecodingFlow} – 解码后的消息流
+     */
+    static <K, V, T> DecodingFlow<XStreamMessage<K, V>, T> decode(Flow<XStreamMessage<K, V>> flow,
+                                                                  StreamCodec<K, V, T> codec) {
+        return new DecodingFlow<>(flow, message -> codec.decodeMsg(message.body()));
+    }
+
+    /**
+     * 将原始消息流转换为解码后的消息流，解码后的消息保留流名称及消息 ID（用于消费者组确认消息）
+     *
+     * @param flow  原始消息流
+     * @param codec 消息体编解码（不能为空）
+     * @param <T>   解码后的消息类型
+     * @return {@link DecodingFlow} – 解码后的消息流
+     */
+    static <K, V, T> DecodingFlow<XStreamMessage<K, V>, XStreamRecord<K, T>> decodeRecord(
+            Flow<XStreamMessage<K, V>> flow, StreamCodec<K, V, T> codec) {
+        return new DecodingFlow<>(flow, message ->
+                new XStreamRecord<>(message.stream(), message.id(), codec.decodeMsg(message.body())));
+    }
+
+    /**
+     * 创建读偏移检查点
+     *
+     * @param scheduler 定时任务调度器
+     * @param store     读偏移存储（不能为空）
+     * @param interval  保存间隔（单位：毫秒）
+     * @return {@link OffsetCheckpointer} – 读偏移检查点
+     * @throws IllegalStateException 如果已创建
+     */
+    synchronized OffsetCheckpointer<K> createCheckpointer(ScheduledExecutorService scheduler,
+                                                          OffsetStore<K> store, long interval) {
+        if (this.checkpointer != null) {
+            throw new IllegalStateException("checkpointer already exists");
+        }
+        OffsetCheckpointer<K> created = new OffsetCheckpointer<>(store, scheduler, interval);
+        this.checkpointer = created;
+        return created;
+    }
+
+    /**
+     * 使用容器当前配置（信号唤醒、重试选项、内存预算）创建数据池，并登记以便优雅关闭时取消订阅
+     *
+     * @param executor 虚拟线程执行器
+     * @param count    数据池容量
+     * @return {@link RetrySink} – 数据池
+     */
+    RetrySink<XStreamMessage<K, V>> createSink(ExecutorService executor, int count) {
+        RetrySink<XStreamMessage<K, V>> sink = new RetrySink<>(executor, count, this.signalling,
+                this.retryOptions, this.memoryBudget);
+        this.sinks.removeIf(RetrySink::isCancelled);
+        this.sinks.offer(sink);
+        return sink;
+    }
+
+    /**
+     * 创建非消费者组订阅的流信息：如已创建读偏移检查点，则恢复已保存的读偏移，并在读取后记录读偏移
+     *
+     * @param options 读选项
+     * @param offset  订阅时传入的读偏移（无已保存的读偏移时使用）
+     * @param sink    数据池
+     * @return {@link StreamInfo} – 流信息
+     */
+    StreamInfo<K, V> createStreamInfo(XReadOptions options, XStreamOffset<K> offset,
+                                      RetrySink<XStreamMessage<K, V>> sink) {
+        OffsetCheckpointer<K> checkpointer1 = this.checkpointer;
+        if (checkpointer1 == null) {
+            return new StreamInfo<>(options, offset, sink);
+        }
+        String id = checkpointer1.restore(offset.getKey());
+        XStreamOffset<K> restored = (id != null) ? XStreamOffset.from(offset.getKey(), id) : offset;
+        StreamInfo<K, V> info = new StreamInfo<>(options, restored, sink);
+        info.setCheckpointer(checkpointer1);
+        return info;
+    }
+
+    /**
+     * 创建延迟重试的时间轮
+     *
+     * @param scheduler 定时任务调度器
+     * @param tick      刻度时长（单位：毫秒）
+     * @param wheelSize 槽位数量
+     * @return {@link HashedTimerWheel} – 时间轮
+     * @throws IllegalStateException 如果已创建
+     */
+    synchronized HashedTimerWheel createRetryTimer(ScheduledExecutorService scheduler, long tick, int wheelSize) {
+        RetryOptions<XStreamMessage<K, V>> old = this.retryOptions;
+        if (old != null && old.timer() != null) {
+            throw new IllegalStateException("retryTimer already exists");
+        }
+        HashedTimerWheel timer = new HashedTimerWheel(scheduler, tick, wheelSize);
+        this.retryOptions = (old != null) ? RetryOptions.from(timer, old.maxAttempts(), old.deadLetter())
+                : RetryOptions.from(timer, 0, null);
+        return timer;
+    }
+
+    /**
+     * 设置死信处理
+     * <p>
+     * 消费失败次数达到 maxAttempts 时，将消息交给死信处理，不再回调订阅者的 {@code onError}。
+     * <p>
+     * 注意：仅对之后创建的订阅生效，且仅适用于逐条订阅（含分区订阅）。
+     *
+     * @param maxAttempts 最大消费失败次数（需大于 0）
+     * @param deadLetter  死信处理（不能为空）
+     * @since 1.1.0
+     */
+    public synchronized void setDeadLetter(int maxAttempts, DeadLetterHandler<XStreamMessage<K, V>> deadLetter) {
+        Assert.isTrue(maxAttempts > 0, "maxAttempts must be greater than 0");
+        Assert.notNull(deadLetter, "deadLetter must not be null");
+        RetryOptions<XStreamMessage<K, V>> old = this.retryOptions;
+        this.retryOptions = RetryOptions.from((old != null) ? old.timer() : null, maxAttempts, deadLetter);
+    }
+
+    /**
+     * 设置内存预算（按估算的消息字节数计算）
+     * <p>
+     * 所有数据池缓存的消息总字节数达到上限时，数据池拒绝写入，且容器暂停拉取所有流的消息，
+     * 直至消费者取出消息释放预算。
+     * <p>
+     * 注意：仅对之后创建的订阅生效。
+     *
+     * @param maxBytes 最大字节数（需大于 0）
+     * @return {@link MemoryBudget} – 内存预算
+     * @see #estimateBytes(XStreamMessage)
+     * @since 1.1.0
+     */
+    public MemoryBudget<XStreamMessage<K, V>> setMemoryBudget(long maxBytes) {
+        return this.setMemoryBudget(maxBytes, AbstractStreamContainer::estimateBytes);
+    }
+
+    /**
+     * 设置内存预算（使用自定义的消息字节数估算函数）
+     * <p>
+     * 注意：仅对之后创建的订阅生效。
+     *
+     * @param maxBytes 最大字节数（需大于 0）
+     * @param weigher  消息字节数估算函数（不能为空）
+     * @return {@link MemoryBudget} – 内存预算
+     * @since 1.1.0
+     */
+    public synchronized MemoryBudget<XStreamMessage<K, V>> setMemoryBudget(long maxBytes,
+                                                                        ToLongFunction<? super XStreamMessage<K, V>> weigher) {
+        MemoryBudget<XStreamMessage<K, V>> budget = new MemoryBudget<>(maxBytes, weigher);
+        this.memoryBudget = budget;
+        return budget;
+    }
+
+    /**
+     * 估算消息占用的字节数
+     * <p>
+     * 固定开销 + 消息 ID 长度 + 每个 field 和 value 的长度：
+     * {@code byte[]} 取数组长度，{@link CharSequence} 取字符数 × 2，{@link ByteBuffer} 取剩余字节数，
+     * 其它类型按固定大小估算。
+     *
+     * @param message 消息
+     * @return {@code long} – 估算的字节数
+     * @since 1.1.0
+     */
+    public static long estimateBytes(XStreamMessage<?, ?> message) {
+        long bytes = MESSAGE_OVERHEAD;
+        String id = message.id();
+        if (id != null) {
+            bytes += id.length();
+        }
+        Map<?, ?> body = message.body();
+        if (body != null) {
+            for (Map.Entry<?, ?> entry : body.entrySet()) {
+                bytes += ENTRY_OVERHEAD + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+        }
+        return bytes;
+    }
+
+    private static long estimateBytes(Object obj) {
+        return switch (obj) {
+            case null -> 0;
+            case byte[] bytes -> bytes.length;
+            case CharSequence chars -> (long) chars.length() << 1;
+            case ByteBuffer buffer -> buffer.remaining();
+            default -> OBJECT_OVERHEAD;
+        };
+    }
+
+    /**
+     * 发送指定 (流, 消费组) 所有待确认的消息（取消订阅时调用）
+     *
+     * @param stream 流名称
+     * @param group  消费组名
+     */
+    void flushAck(K stream, K group) {
+        AckAggregator<K, V> aggregator = this.ackAggregator;
+        if (aggregator != null) {
+            aggregator.flush(stream, group);
+        }
+    }
+
+    /**
+     * 获取批量确认
+     *
+     * @return {@link AckAggregator} – 批量确认；如未创建，返回 {@code null}
+     * @since 1.1.0
+     */
+    public AckAggregator<K, V> getAckAggregator() {
+        return this.ackAggregator;
+    }
+
+    /**
+     * 设置新订阅的数据池是否使用信号唤醒模式（默认 {@code false}）
+     * <p>
+     * 信号唤醒模式下，消费任务在数据池为空时暂停而非退出，数据池接收到新消息后直接唤醒消费任务，
+     * 无需等待定时的消费任务，从而降低消息推送延迟。
+     * <p>
+     * 注意：<br>
+     * 1. 仅对之后创建的订阅生效；<br>
+     * 2. 消费任务常驻执行器，因此执行器须为虚拟线程执行器。
+     *
+     * @param signalling {@code true} – 信号唤醒；{@code false} – 定时启动消费任务
+     * @since 1.1.0
+     */
+    public void setSignalling(boolean signalling) {
+        this.signalling = signalling;
+    }
+
+    /**
+     * 获取待处理消息恢复统计信息
+     * <p>
+     * 包括：待处理列表（PEL）大小、认领消息数量及平均每秒认领的消息数量等。
+     *
+     * @return {@link RecoveryStats} – 恢复统计信息（快照）；如未启动恢复任务，返回 {@code null}
+     * @since 1.1.0
+     */
+    public RecoveryStats getRecoveryStats() {
+        return this.recovery.stats();
+    }
+
+    /**
+     * 获取拉取统计信息
+     * <p>
+     * 包括：当前拉取间隔、命中率、平均每次拉取消息数等。
+     *
+     * @return {@link PollStats} – 拉取统计信息（快照）；如未使用 {@link AdaptivePollPolicy} 创建容器，返回 {@code null}
+     * @since 1.1.0
+     */
+    public PollStats getPollStats() {
+        AdaptivePoller poller = this.adaptivePoller;
+        return (poller != null) ? poller.stats() : null;
+    }
+
     /**
      * 使用配置参数优雅关闭 StreamContainer 对象
      * <p>
      * 1. 停止拉取任务（等待正在运行的任务完成）<br>
-     * 2. 停止消费任务（等待正在运行的任务完成）<br>
-     * 3. 关闭 Redis 连接。
+     * 2. 等待数据池中已拉取的消息消费完成（最多等待剩余关闭时长的一半），然后取消所有订阅<br>
+     * 3. 发送所有待确认的消息（如已创建 {@link AckAggregator}）<br>
+     * 4. 保存所有读偏移（如已创建 {@link OffsetCheckpointer}）<br>
+     * 5. 关闭 Redis 连接。
      *
      * @since 1.0.0
      */
@@ -72,8 +447,10 @@ public abstract class AbstractStreamContainer<K, V> implements GracefulShutdown
      * 使用传入参数优雅关闭 StreamContainer 对象
      * <p>
      * 1. 停止拉取任务（等待正在运行的任务完成）<br>
-     * 2. 停止消费任务（等待正在运行的任务完成）<br>
-     * 3. 关闭 Redis 连接。
+     * 2. 等待数据池中已拉取的消息消费完成（最多等待剩余关闭时长的一半），然后取消所有订阅<br>
+     * 3. 发送所有待确认的消息（如已创建 {@link AckAggregator}）<br>
+     * 4. 保存所有读偏移（如已创建 {@link OffsetCheckpointer}）<br>
+     * 5. 关闭 Redis 连接。
      *
      * @since 1.0.0
      */
@@ -91,8 +468,10 @@ public abstract class AbstractStreamContainer<K, V> implements GracefulShutdown
      * 使用配置参数优雅关闭 StreamContainer 对象（异步）
      * <p>
      * 1. 停止拉取任务（等待正在运行的任务完成）<br>
-     * 2. 停止消费任务（等待正在运行的任务完成）<br>
-     * 3. 关闭 Redis 连接。
+     * 2. 等待数据池中已拉取的消息消费完成（最多等待剩余关闭时长的一半），然后取消所有订阅<br>
+     * 3. 发送所有待确认的消息（如已创建 {@link AckAggregator}）<br>
+     * 4. 保存所有读偏移（如已创建 {@link OffsetCheckpointer}）<br>
+     * 5. 关闭 Redis 连接。
      *
      * @return {@link CompletableFuture}
      * @since 1.0.0
@@ -106,8 +485,10 @@ public abstract class AbstractStreamContainer<K, V> implements GracefulShutdown
      * 使用传入参数优雅关闭 StreamContainer 对象（异步）
      * <p>
      * 1. 停止拉取任务（等待正在运行的任务完成）<br>
-     * 2. 停止消费任务（等待正在运行的任务完成）<br>
-     * 3. 关闭 Redis 连接。
+     * 2. 等待数据池中已拉取的消息消费完成（最多等待剩余关闭时长的一半），然后取消所有订阅<br>
+     * 3. 发送所有待确认的消息（如已创建 {@link AckAggregator}）<br>
+     * 4. 保存所有读偏移（如已创建 {@link OffsetCheckpointer}）<br>
+     * 5. 关闭 Redis 连接。
      *
      * @return {@link CompletableFuture}
      * @since 1.0.0
@@ -122,12 +503,40 @@ public abstract class AbstractStreamContainer<K, V> implements GracefulShutdown
                     if (this.scheduleConsumeFuture != null) {
                         this.scheduleConsumeFuture.cancel(false);
                     }
+                    if (this.streamLoop != null) {
+                        this.streamLoop.stop();
+                    }
+                    if (this.adaptivePoller != null) {
+                        this.adaptivePoller.stop();
+                    }
+                    this.recovery.stop();
+                    RetryOptions<XStreamMessage<K, V>> options = this.retryOptions;
+                    if (options != null && options.timer() != null) {
+                        options.timer().stop();
+                    }
                     return null;
                 }).thenCompose(ignore -> {
                     if (this.quietPeriod > 0) {
                         LockSupport.parkNanos(timeUnit.toNanos(this.quietPeriod));
                     }
-                    return this.operator.closeAsync();
+                    // 先等待已拉取的消息消费完成，再取消订阅：取消订阅会丢弃缓冲区中的消息，
+                    // 而读偏移检查点仅记录已消费完成的消息，排空后保存才能使重启后的读取不重复也不遗漏
+                    this.awaitDrained(Math.max(0, timeUnit.toNanos(timeout - this.quietPeriod)) / 2);
+                    // 取消所有订阅：信号唤醒模式的消费任务不会自行退出，需唤醒并结束
+                    RetrySink<XStreamMessage<K, V>> sink;
+                    while ((sink = this.sinks.poll()) != null) {
+                        sink.cancel();
+                    }
+                    // 发送所有待确认的消息、保存所有读偏移后再关闭连接
+                    AckAggregator<K, V> aggregator = this.ackAggregator;
+                    OffsetCheckpointer<K> checkpointer1 = this.checkpointer;
+                    CompletableFuture<Void> future = (aggregator != null)
+                            ? aggregator.closeAsync().handle((v, t) -> null)
+                            : CompletableFuture.completedFuture(null);
+                    if (checkpointer1 != null) {
+                        future = future.thenCompose(v -> checkpointer1.closeAsync().handle((v1, t) -> null));
+                    }
+                    return future.thenCompose(v -> this.operator.closeAsync());
                 })
                 .whenComplete((v, t) -> {
                     if (t != null) {
@@ -138,4 +547,24 @@ public abstract class AbstractStreamContainer<K, V> implements GracefulShutdown
                 });
     }
 
+    /**
+     * 等待所有数据池排空（拉取任务已停止，消费任务继续消费缓冲区中的消息）
+     *
+     * @param nanos 最大等待时长（纳秒），超过后不再等待，未消费的消息将在取消订阅时丢弃
+     */
+    private void awaitDrained(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (RetrySink<XStreamMessage<K, V>> sink : this.sinks) {
+            while (!sink.isCancelled() && !sink.isDrained()) {
+                if (System.nanoTime() - deadline >= 0) {
+                    log.warn("Graceful shutdown: sink has not been drained, remaining messages will be discarded.");
+                    return;
+                }
+                // 定时启动模式的消费调度已停止，需主动启动消费任务
+                sink.run();
+                LockSupport.parkNanos(DRAIN_CHECK_NANOS);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,297 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.XReadOptions;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xredis.common.stream.XStreamOffset;
+import com.igeeksky.xtool.core.concurrent.Futures;
+import com.igeeksky.xtool.core.tuple.Tuple1;
+import com.igeeksky.xtool.core.tuple.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 流任务抽象类
+ * <p>
+ * 负责拉取及消费的公共逻辑：<br>
+ * 1. 拉取：等待上次分发完成；过滤已取消、未就绪、暂停拉取或无读取额度的流；
+ * 按分组键合并就绪的流（同一批次中流名称不能重复，重复的流分入不同批次），每个批次发送一个多流读取命令，
+ * 返回结果再按流拆分并分发给各自的数据池；阻塞读取时，多个命令中仅最后发送的命令阻塞。<br>
+ * 2. 消费：启动各数据池的消费任务，并移除已取消的流。
+ * <p>
+ * 子类仅需提供分组键，详见 {@link #groupKey(StreamInfo, int)}；分组键须包含读取额度档位，详见 {@link ReadCredits}。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public abstract class AbstractStreamTask<K, V> implements StreamTask<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractStreamTask.class);
+
+    private final Lock pullLock = new ReentrantLock();
+
+    private final ArrayList<Future<?>> dispatchFutures = new ArrayList<>();
+
+    /**
+     * 流信息列表
+     */
+    private final Queue<StreamInfo<K, V>> streams = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 流操作
+     */
+    protected final StreamOperator<K, V> operator;
+
+    /**
+     * 构造函数
+     *
+     * @param operator 流操作
+     */
+    protected AbstractStreamTask(StreamOperator<K, V> operator) {
+        this.operator = operator;
+    }
+
+    /**
+     * 添加流
+     *
+     * @param info 流相关信息
+     * @throws IllegalStateException 如果与未取消的流冲突，详见 {@link #conflicts(StreamInfo, StreamInfo)}
+     */
+    @Override
+    public void add(StreamInfo<K, V> info) {
+        info.setSlot(this.operator.slot(info.getOffset().getKey()));
+        synchronized (this.streams) {
+            for (StreamInfo<K, V> old : this.streams) {
+                if (!old.getSink().isCancelled() && this.conflicts(old, info)) {
+                    throw new IllegalStateException("The stream already exists");
+                }
+            }
+            this.streams.offer(info);
+        }
+    }
+
+    /**
+     * 新添加的流是否与已有的流冲突（默认允许重复订阅，重复的流分入不同批次读取）
+     *
+     * @param old  已有的流信息（未取消）
+     * @param info 新添加的流信息
+     * @return {@code true} – 冲突，拒绝添加；{@code false} – 不冲突
+     */
+    protected boolean conflicts(StreamInfo<K, V> old, StreamInfo<K, V> info) {
+        return false;
+    }
+
+    /**
+     * 分组键：分组键相同的就绪流合并到同一个多流读取命令
+     *
+     * @param info  流信息
+     * @param count 读取额度档位
+     * @return {@link Object} – 分组键
+     */
+    protected abstract Object groupKey(StreamInfo<K, V> info, int count);
+
+    /**
+     * 获取读取选项（默认为流信息的读取选项）
+     *
+     * @param info 流信息（批次中的首个流）
+     * @return {@link XReadOptions} – 读取选项
+     */
+    protected XReadOptions options(StreamInfo<K, V> info) {
+        return info.getOptions();
+    }
+
+    @Override
+    public void pull() {
+        try {
+            boolean locked = pullLock.tryLock();
+            if (locked) {
+                try {
+                    this.doPull();
+                } catch (Throwable e) {
+                    log.error("Error occurred during doPull: {}", e.getMessage(), e);
+                } finally {
+                    pullLock.unlock();
+                }
+            } else {
+                if (log.isWarnEnabled()) {
+                    log.warn("Failed to acquire lock for pull operation");
+                }
+            }
+        } catch (Throwable ignore) {
+        }
+    }
+
+    /**
+     * 拉取消息（阻塞读取循环模式及自适应拉取模式）
+     * <p>
+     * 发送读取命令，返回的 {@link CompletableFuture} 在所有消息分发完成后完成；如任一读取失败，则以异常结束。
+     *
+     * @return {@code CompletableFuture<PullResult>} – 拉取结果；如无可读取的流（数据池空间不足、暂停或无订阅者），返回 {@code null}
+     */
+    public CompletableFuture<PullResult> pullAsync() {
+        pullLock.lock();
+        try {
+            return this.doPull();
+        } finally {
+            pullLock.unlock();
+        }
+    }
+
+    private CompletableFuture<PullResult> doPull() {
+        // 需等待 StreamInfo 更新 offset：如果上次任务未完成，那么 offset 可能还未更新，会拉取到重复的消息
+        int size = dispatchFutures.size();
+        int last = Futures.checkAll(dispatchFutures);
+        if (last < size) {
+            if (log.isDebugEnabled()) {
+                log.debug("PullTask: dispatchFuture is not done.");
+            }
+            // 等待上次分发完成后再次拉取（仅 pullAsync 使用返回值；自适应拉取的间隔保持不变）
+            return CompletableFuture.allOf(dispatchFutures.stream()
+                    .map(future -> (CompletableFuture<?>) future)
+                    .toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> PullResult.BUSY);
+        }
+        dispatchFutures.clear();
+        if (streams.isEmpty()) {
+            return null;
+        }
+        // 按分组键合并就绪的流
+        Map<Object, List<Batch<K, V>>> groups = new HashMap<>();
+        Iterator<StreamInfo<K, V>> iterator = streams.iterator();
+        while (iterator.hasNext()) {
+            StreamInfo<K, V> info = iterator.next();
+            RetrySink<XStreamMessage<K, V>> sink = info.getSink();
+            if (sink.isCancelled()) {
+                iterator.remove();
+                continue;
+            }
+            if (sink.isNotReady() || sink.isPullPaused()) {
+                continue;
+            }
+            int credits = ReadCredits.of(info);
+            if (credits <= 0) {
+                continue;
+            }
+            int count = ReadCredits.bucket(info, credits);
+            List<Batch<K, V>> batches = groups.computeIfAbsent(this.groupKey(info, count), k -> new ArrayList<>(1));
+            if (!addToBatch(batches, info)) {
+                Batch<K, V> batch = new Batch<>(count);
+                batch.add(info);
+                batches.add(batch);
+            }
+        }
+        if (groups.isEmpty()) {
+            return null;
+        }
+        // 每个批次提交一个多流读取命令，统一等待结果并按流分发数据（阻塞读取时仅最后一个命令阻塞）
+        List<Batch<K, V>> reads = new ArrayList<>();
+        groups.values().forEach(reads::addAll);
+        ReadCredits.blockingLast(reads, batch -> this.options(batch.infos.getFirst()));
+        List<CompletableFuture<PullResult>> futures = new ArrayList<>(reads.size());
+        for (int i = 0; i < reads.size(); i++) {
+            Batch<K, V> batch = reads.get(i);
+            CompletableFuture<List<XStreamMessage<K, V>>> future = this.read(batch.infos, batch.count,
+                    i == reads.size() - 1);
+            CompletableFuture<PullResult> dispatchFuture = StreamDispatcher.dispatch(batch.infos, future,
+                    batch.count);
+            dispatchFutures.add(dispatchFuture);
+            futures.add(future.thenCombine(dispatchFuture, (messages, result) -> result));
+        }
+        return StreamDispatcher.combine(futures);
+    }
+
+    /**
+     * 添加到首个未包含该流的批次（同一批次中流名称不能重复，否则无法按流拆分读取结果）
+     *
+     * @param batches 批次列表
+     * @param info    流信息
+     * @return {@code boolean} – 添加成功返回 {@code true}；所有批次均已包含该流则返回 {@code false}
+     */
+    private static <K, V> boolean addToBatch(List<Batch<K, V>> batches, StreamInfo<K, V> info) {
+        for (Batch<K, V> batch : batches) {
+            if (batch.add(info)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void consume() {
+        try {
+            Iterator<StreamInfo<K, V>> iterator = streams.iterator();
+            while (iterator.hasNext()) {
+                StreamInfo<K, V> info = iterator.next();
+                RetrySink<XStreamMessage<K, V>> sink = info.getSink();
+                if (sink.isCancelled()) {
+                    iterator.remove();
+                    continue;
+                }
+                sink.run();
+            }
+        } catch (Throwable e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 发送多流读取命令（消费者组使用 {@code xreadgroup}，否则使用 {@code xread}）
+     *
+     * @param infos 合并读取的流信息
+     * @param count 读取额度档位
+     * @param block 是否保留 block 选项
+     * @return {@code CompletableFuture<List<XStreamMessage<K, V>>>} – 读取结果
+     */
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<List<XStreamMessage<K, V>>> read(List<StreamInfo<K, V>> infos, int count, boolean block) {
+        StreamInfo<K, V> first = infos.getFirst();
+        XReadOptions options = ReadCredits.withCount(this.options(first), count, block);
+        XStreamOffset<K>[] offsets = new XStreamOffset[infos.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = infos.get(i).getOffset();
+        }
+        if (first instanceof StreamGroupInfo<K, V> groupInfo) {
+            return this.operator.xreadgroupAsync(groupInfo.getConsumer(), options, offsets);
+        }
+        return this.operator.xreadAsync(options, offsets);
+    }
+
+    /**
+     * 合并读取批次
+     *
+     * @param <K> 键类型
+     * @param <V> 值类型
+     */
+    private static class Batch<K, V> {
+
+        private final int count;
+
+        private final List<StreamInfo<K, V>> infos = new ArrayList<>();
+
+        private final Set<Tuple1<K>> keys = new HashSet<>();
+
+        private Batch(int count) {
+            this.count = count;
+        }
+
+        private boolean add(StreamInfo<K, V> info) {
+            if (keys.add(Tuples.of(info.getOffset().getKey()))) {
+                infos.add(info);
+                return true;
+            }
+            return false;
+        }
+
+    }
+
+}
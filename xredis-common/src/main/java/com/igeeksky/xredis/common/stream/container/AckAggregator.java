@@ -0,0 +1,226 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xtool.core.lang.Assert;
+import com.igeeksky.xtool.core.tuple.Tuple2;
+import com.igeeksky.xtool.core.tuple.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 批量确认（消费者组）
+ * <p>
+ * 按 (流, 消费组) 收集已处理的消息 ID，合并为一个多 ID 的 {@code xack} 命令发送：<br>
+ * 1. 待确认的消息数量达到 {@link AckOptions#batchSize()} 时立即发送；<br>
+ * 2. 每隔 {@link AckOptions#maxDelay()} 毫秒发送所有待确认的消息；<br>
+ * 3. 取消订阅及关闭容器时发送所有待确认的消息；关闭之后确认的消息立即发送。
+ * <p>
+ * 注意：发送之前进程异常退出，未发送的消息将保留在待处理列表（PEL）中，可通过 {@code xclaim} 重新获取。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class AckAggregator<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(AckAggregator.class);
+
+    private final int batchSize;
+
+    private final StreamOperator<K, V> operator;
+
+    private final ScheduledFuture<?> scheduleFuture;
+
+    private final LongAdder acked = new LongAdder();
+
+    private final LongAdder commands = new LongAdder();
+
+    /**
+     * 待确认的消息（key: 流名称、消费组名；value: 待确认的消息 ID）
+     */
+    private final ConcurrentHashMap<Tuple2<K, K>, Pending> pendings = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    /**
+     * 构造函数
+     *
+     * @param operator  流操作
+     * @param scheduler 定时任务调度器（不能为空）
+     * @param options   批量确认选项（不能为空）
+     */
+    public AckAggregator(StreamOperator<K, V> operator, ScheduledExecutorService scheduler, AckOptions options) {
+        Assert.notNull(operator, "operator must not be null");
+        Assert.notNull(scheduler, "scheduler must not be null");
+        Assert.notNull(options, "options must not be null");
+        this.operator = operator;
+        this.batchSize = options.batchSize();
+        long delay = options.maxDelay();
+        this.scheduleFuture = scheduler.scheduleWithFixedDelay(this::flushAll, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 确认消息
+     *
+     * @param group   消费组名
+     * @param message 消息
+     */
+    public void ack(K group, XStreamMessage<K, V> message) {
+        Assert.notNull(message, "message must not be null");
+        this.ack(message.stream(), group, message.id());
+    }
+
+    /**
+     * 确认消息
+     *
+     * @param stream 流名称
+     * @param group  消费组名
+     * @param id     消息 ID
+     */
+    public void ack(K stream, K group, String id) {
+        Assert.notNull(stream, "stream must not be null");
+        Assert.notNull(group, "group must not be null");
+        Assert.notNull(id, "id must not be null");
+        Tuple2<K, K> key = Tuples.of(stream, group);
+        Pending pending = this.pendings.computeIfAbsent(key, k -> new Pending());
+        // 已关闭：定时任务已停止，且关闭时可能已发送所有待确认的消息，因此立即发送
+        if (pending.add(id) >= this.batchSize || this.closed) {
+            this.flush(key, pending);
+        }
+    }
+
+    /**
+     * 发送指定 (流, 消费组) 所有待确认的消息
+     *
+     * @param stream 流名称
+     * @param group  消费组名
+     * @return {@code CompletableFuture<Void>} – 所有 {@code xack} 命令完成后完成
+     */
+    public CompletableFuture<Void> flush(K stream, K group) {
+        Tuple2<K, K> key = Tuples.of(stream, group);
+        Pending pending = this.pendings.get(key);
+        if (pending == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.flush(key, pending);
+    }
+
+    /**
+     * 发送所有待确认的消息
+     *
+     * @return {@code CompletableFuture<Void>} – 所有 {@code xack} 命令完成后完成
+     */
+    public CompletableFuture<Void> flushAll() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(this.pendings.size());
+        for (Map.Entry<Tuple2<K, K>, Pending> entry : this.pendings.entrySet()) {
+            // 不移除空闲的 (流, 消费组)：数量受订阅数量限制，移除则可能与 ack 并发导致消息 ID 丢失
+            Pending pending = entry.getValue();
+            if (pending.size() > 0) {
+                futures.add(this.flush(entry.getKey(), pending));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private CompletableFuture<Void> flush(Tuple2<K, K> key, Pending pending) {
+        List<CompletableFuture<Long>> futures = new ArrayList<>(1);
+        String[] ids;
+        while ((ids = pending.drain(this.batchSize)) != null) {
+            String[] messageIds = ids;
+            this.commands.increment();
+            futures.add(this.operator.xackAsync(key.getT1(), key.getT2(), messageIds)
+                    .whenComplete((count, t) -> {
+                        if (t != null) {
+                            log.error("AckAggregator: xack has error. stream: {}, group: {}, size: {}. {}",
+                                    key.getT1(), key.getT2(), messageIds.length, t.getMessage(), t);
+                        } else if (count != null) {
+                            this.acked.add(count);
+                        }
+                    }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * 已确认的消息数量
+     *
+     * @return {@code long} – 已确认的消息数量（RedisServer 返回的确认数量之和）
+     */
+    public long getAcked() {
+        return this.acked.sum();
+    }
+
+    /**
+     * 已发送的 {@code xack} 命令数量
+     *
+     * @return {@code long} – 已发送的 {@code xack} 命令数量
+     */
+    public long getCommands() {
+        return this.commands.sum();
+    }
+
+    /**
+     * 停止定时任务，并发送所有待确认的消息
+     * <p>
+     * 关闭后调用 {@code ack} 确认的消息不再合并，立即发送。
+     *
+     * @return {@code CompletableFuture<Void>} – 所有 {@code xack} 命令完成后完成
+     */
+    public CompletableFuture<Void> closeAsync() {
+        this.closed = true;
+        this.scheduleFuture.cancel(false);
+        return this.flushAll();
+    }
+
+    /**
+     * 待确认的消息 ID
+     */
+    private static class Pending {
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final ConcurrentLinkedQueue<String> ids = new ConcurrentLinkedQueue<>();
+
+        private int add(String id) {
+            this.ids.offer(id);
+            return this.size.incrementAndGet();
+        }
+
+        private int size() {
+            return this.size.get();
+        }
+
+        /**
+         * 取出待确认的消息 ID
+         *
+         * @param max 最大数量
+         * @return {@code String[]} – 消息 ID；无待确认的消息返回 {@code null}
+         */
+        private String[] drain(int max) {
+            List<String> list = null;
+            String id;
+            while ((list == null || list.size() < max) && (id = this.ids.poll()) != null) {
+                if (list == null) {
+                    list = new ArrayList<>(Math.min(max, this.size.get() + 1));
+                }
+                list.add(id);
+            }
+            if (list == null) {
+                return null;
+            }
+            this.size.addAndGet(-list.size());
+            return list.toArray(new String[0]);
+        }
+
+    }
+
+}
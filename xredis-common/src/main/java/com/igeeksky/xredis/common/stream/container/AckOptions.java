@@ -0,0 +1,41 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+/**
+ * 批量确认选项
+ *
+ * @param batchSize 批量大小：同一 (流, 消费组) 待确认的消息数量达到此值时，立即发送 {@code xack} 命令
+ *                  {@code 0 < batchSize <= 65536}
+ * @param maxDelay  最大延迟（单位：毫秒）：定时发送所有待确认的消息 {@code maxDelay > 0}
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record AckOptions(int batchSize, long maxDelay) {
+
+    /**
+     * 单个 {@code xack} 命令最大确认数量(65536)
+     */
+    public static final int MAX_BATCH_SIZE = 65536;
+
+    /**
+     * 参数校验
+     */
+    public AckOptions {
+        Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+        Assert.isTrue(batchSize <= MAX_BATCH_SIZE, "batchSize must be less or equal " + MAX_BATCH_SIZE);
+        Assert.isTrue(maxDelay > 0, "maxDelay must be greater than 0");
+    }
+
+    /**
+     * 创建 {@link AckOptions}
+     *
+     * @param batchSize 批量大小
+     * @param maxDelay  最大延迟（单位：毫秒）
+     * @return {@link AckOptions}
+     */
+    public static AckOptions from(int batchSize, long maxDelay) {
+        return new AckOptions(batchSize, maxDelay);
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+/**
+ * 自适应拉取策略
+ * <p>
+ * 根据每次拉取的结果调整下一次拉取的间隔：<br>
+ * 1. 有流返回满批次消息（可能还有积压）：间隔除以 {@code multiplier}，直至 {@code minPeriod}；<br>
+ * 2. 未拉取到消息（或拉取失败）：间隔乘以 {@code multiplier}（指数退避），直至 {@code maxPeriod}；<br>
+ * 3. 拉取到部分消息：间隔保持不变。
+ * <p>
+ * 流繁忙时连续拉取以尽快消化积压消息，流空闲时逐步降低命令频率。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class AdaptivePollPolicy {
+
+    private final long minPeriod;
+
+    private final long maxPeriod;
+
+    private final long initialPeriod;
+
+    private final double multiplier;
+
+    /**
+     * 私有构造器
+     *
+     * @param builder {@link Builder}
+     */
+    private AdaptivePollPolicy(Builder builder) {
+        Assert.isTrue(builder.maxPeriod >= builder.minPeriod, "maxPeriod must be greater than or equal to minPeriod");
+        this.minPeriod = builder.minPeriod;
+        this.maxPeriod = builder.maxPeriod;
+        this.multiplier = builder.multiplier;
+        this.initialPeriod = Math.clamp(builder.initialPeriod, builder.minPeriod, builder.maxPeriod);
+    }
+
+    /**
+     * 最小拉取间隔（毫秒）
+     *
+     * @return {@code long} – 最小拉取间隔
+     */
+    public long getMinPeriod() {
+        return minPeriod;
+    }
+
+    /**
+     * 最大拉取间隔（毫秒）
+     *
+     * @return {@code long} – 最大拉取间隔
+     */
+    public long getMaxPeriod() {
+        return maxPeriod;
+    }
+
+    /**
+     * 初始拉取间隔（毫秒）
+     *
+     * @return {@code long} – 初始拉取间隔
+     */
+    public long getInitialPeriod() {
+        return initialPeriod;
+    }
+
+    /**
+     * 间隔调整倍数
+     *
+     * @return {@code double} – 间隔调整倍数
+     */
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * 根据拉取结果计算下一次拉取间隔
+     *
+     * @param period 当前拉取间隔（毫秒）
+     * @param result 拉取结果（{@code null} 表示拉取失败；{@link PullResult#BUSY} 表示未发送读取命令，间隔保持不变）
+     * @return {@code long} – 下一次拉取间隔（毫秒）
+     */
+    public long next(long period, PullResult result) {
+        if (result != null && result.isBusy()) {
+            return period;
+        }
+        if (result == null || result.messages() == 0) {
+            return Math.min(maxPeriod, Math.max(period + 1, (long) (period * multiplier)));
+        }
+        if (result.full()) {
+            return Math.max(minPeriod, (long) (period / multiplier));
+        }
+        return period;
+    }
+
+    /**
+     * 创建 AdaptivePollPolicy-builder
+     *
+     * @return {@link AdaptivePollPolicy.Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * AdaptivePollPolicy-builder
+     */
+    public static class Builder {
+
+        private long minPeriod = 1;
+        private long maxPeriod = 1000;
+        private long initialPeriod = 10;
+        private double multiplier = 2.0;
+
+        /**
+         * 私有构造器
+         */
+        private Builder() {
+        }
+
+        /**
+         * 设置：最小拉取间隔（毫秒），默认值：1
+         *
+         * @param minPeriod 最小拉取间隔，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder minPeriod(long minPeriod) {
+            Assert.isTrue(minPeriod > 0, "minPeriod must be greater than 0");
+            this.minPeriod = minPeriod;
+            return this;
+        }
+
+        /**
+         * 设置：最大拉取间隔（毫秒），默认值：1000
+         *
+         * @param maxPeriod 最大拉取间隔，必须大于 0，且不小于 minPeriod
+         * @return {@link Builder}
+         */
+        public Builder maxPeriod(long maxPeriod) {
+            Assert.isTrue(maxPeriod > 0, "maxPeriod must be greater than 0");
+            this.maxPeriod = maxPeriod;
+            return this;
+        }
+
+        /**
+         * 设置：初始拉取间隔（毫秒），默认值：10
+         * <p>
+         * 超出 [minPeriod, maxPeriod] 范围时取边界值。
+         *
+         * @param initialPeriod 初始拉取间隔，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder initialPeriod(long initialPeriod) {
+            Assert.isTrue(initialPeriod > 0, "initialPeriod must be greater than 0");
+            this.initialPeriod = initialPeriod;
+            return this;
+        }
+
+        /**
+         * 设置：间隔调整倍数，默认值：2.0
+         *
+         * @param multiplier 间隔调整倍数，必须大于 1
+         * @return {@link Builder}
+         */
+        public Builder multiplier(double multiplier) {
+            Assert.isTrue(multiplier > 1, "multiplier must be greater than 1");
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * 根据已设置参数创建 {@link AdaptivePollPolicy}
+         *
+         * @return {@link AdaptivePollPolicy}
+         */
+        public AdaptivePollPolicy build() {
+            return new AdaptivePollPolicy(this);
+        }
+
+    }
+
+}
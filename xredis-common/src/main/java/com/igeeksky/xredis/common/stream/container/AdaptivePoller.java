@@ -0,0 +1,139 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 自适应拉取调度
+ * <p>
+ * 每次拉取完成后，根据拉取结果及 {@link AdaptivePollPolicy} 计算下一次拉取间隔并重新调度。
+ * 所有数据池均不可读取（空间不足、暂停或无订阅者），或上次拉取的消息还在分发时，间隔保持不变。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+final class AdaptivePoller implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoller.class);
+
+    private final AdaptivePollPolicy policy;
+    private final ScheduledExecutorService scheduler;
+    private final Supplier<CompletableFuture<PullResult>> puller;
+
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fullPolls = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile long period;
+    private volatile boolean stopped;
+    private volatile ScheduledFuture<?> future;
+
+    /**
+     * 构造函数
+     *
+     * @param puller    拉取函数（返回 {@code null} 表示无可读取的流）
+     * @param scheduler 调度器
+     * @param policy    自适应拉取策略
+     */
+    AdaptivePoller(Supplier<CompletableFuture<PullResult>> puller, ScheduledExecutorService scheduler,
+                   AdaptivePollPolicy policy) {
+        this.puller = puller;
+        this.policy = policy;
+        this.scheduler = scheduler;
+        this.period = policy.getInitialPeriod();
+    }
+
+    /**
+     * 启动调度
+     */
+    void start() {
+        this.schedule();
+    }
+
+    @Override
+    public void run() {
+        if (this.stopped) {
+            return;
+        }
+        CompletableFuture<PullResult> pulled;
+        try {
+            pulled = this.puller.get();
+        } catch (Throwable e) {
+            log.error("AdaptivePoller: pull has error. {}", e.getMessage(), e);
+            this.complete(null, e);
+            return;
+        }
+        if (pulled == null) {
+            this.schedule();
+            return;
+        }
+        pulled.whenComplete(this::complete);
+    }
+
+    private void complete(PullResult result, Throwable error) {
+        try {
+            if (error == null && result != null && result.isBusy()) {
+                // 上次拉取的消息还在分发，本次未发送读取命令：不计入拉取次数，间隔保持不变
+                return;
+            }
+            this.polls.increment();
+            if (error != null) {
+                this.failures.increment();
+                result = null;
+            } else if (result != null && result.messages() > 0) {
+                this.hits.increment();
+                this.messages.add(result.messages());
+                if (result.full()) {
+                    this.fullPolls.increment();
+                }
+            } else {
+                result = PullResult.EMPTY;
+            }
+            this.period = this.policy.next(this.period, result);
+        } finally {
+            this.schedule();
+        }
+    }
+
+    private void schedule() {
+        if (this.stopped) {
+            return;
+        }
+        try {
+            this.future = this.scheduler.schedule(this, this.period, TimeUnit.MILLISECONDS);
+        } catch (Throwable e) {
+            // 调度器已关闭
+            log.error("AdaptivePoller: schedule has error. {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 停止调度（正在执行的拉取任务完成后不再调度）
+     */
+    void stop() {
+        this.stopped = true;
+        ScheduledFuture<?> f = this.future;
+        if (f != null) {
+            f.cancel(false);
+        }
+    }
+
+    /**
+     * 获取统计信息（快照）
+     *
+     * @return {@link PollStats} – 统计信息
+     */
+    PollStats stats() {
+        return new PollStats(period, polls.sum(), hits.sum(), fullPolls.sum(), messages.sum(), failures.sum());
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xtool.core.lang.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * 读偏移存储（本地内存映射文件）
+ * <p>
+ * 文件分为两个大小相同的区域，交替写入所有流的读偏移，每个区域的格式为：<br>
+ * {@code [version: long][length: int][crc: int][payload]}，
+ * payload 为 {@code [count: int]} 及 count 个 {@code [流名称长度: int][流名称][消息 ID 长度: int][消息 ID]}。
+ * <p>
+ * 保存时写入非当前区域并刷盘，加载时选择校验通过且版本号最大的区域，
+ * 因此写入过程中进程退出，仍可恢复上一次保存的读偏移。
+ * <p>
+ * 保存操作在调用线程中执行（通常为 {@link OffsetCheckpointer} 的调度线程）。
+ *
+ * @param <K> 键类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class MappedFileOffsetStore<K> implements OffsetStore<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedFileOffsetStore.class);
+
+    /**
+     * 区域头部长度：version(8) + length(4) + crc(4)
+     */
+    private static final int HEADER = 16;
+
+    private final int regionSize;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Function<? super K, String> keyMapper;
+
+    /**
+     * 所有流的读偏移（key: 流名称；value: 消息 ID）
+     */
+    private final Map<String, String> offsets = new HashMap<>();
+
+    private long version;
+
+    /**
+     * 构造函数
+     *
+     * @param file       文件路径（不能为空，不存在则创建）
+     * @param regionSize 单个区域的大小（单位：字节），需能容纳所有流的读偏移 {@code regionSize > 16}
+     * @param keyMapper  流名称转换函数（不能为空，不同的流须转换为不同的字符串）
+     * @throws UncheckedIOException 如果无法打开或映射文件
+     */
+    public MappedFileOffsetStore(Path file, int regionSize, Function<? super K, String> keyMapper) {
+        Assert.notNull(file, "file must not be null");
+        Assert.isTrue(regionSize > HEADER, "regionSize must be greater than 16");
+        Assert.notNull(keyMapper, "keyMapper must not be null");
+        this.regionSize = regionSize;
+        this.keyMapper = keyMapper;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) regionSize << 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("MappedFileOffsetStore: open file failed. " + file, e);
+        }
+        this.restore();
+    }
+
+    @Override
+    public synchronized String load(K stream) {
+        return this.offsets.get(this.keyMapper.apply(stream));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(Map<K, String> offsets) {
+        try {
+            this.save(offsets);
+            return CompletableFuture.completedFuture(null);
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> closeAsync() {
+        try {
+            this.buffer.force();
+            this.channel.close();
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private synchronized void save(Map<K, String> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        Map<String, String> merged = new HashMap<>(this.offsets);
+        updates.forEach((stream, id) -> merged.put(this.keyMapper.apply(stream), id));
+        byte[] payload = encode(merged);
+        if (HEADER + payload.length > this.regionSize) {
+            throw new IllegalStateException("MappedFileOffsetStore: regionSize is too small. required: "
+                    + (HEADER + payload.length) + ", regionSize: " + this.regionSize);
+        }
+        long next = this.version + 1;
+        int base = this.base(next);
+        // 先写入数据，最后写入版本号并刷盘：版本号或校验码不一致的区域在加载时将被忽略
+        this.buffer.put(base + HEADER, payload);
+        this.buffer.putInt(base + 8, payload.length);
+        this.buffer.putInt(base + 12, crc(payload));
+        this.buffer.putLong(base, next);
+        this.buffer.force(base, HEADER + payload.length);
+        this.version = next;
+        this.offsets.clear();
+        this.offsets.putAll(merged);
+    }
+
+    /**
+     * 加载校验通过且版本号最大的区域
+     */
+    private void restore() {
+        for (int i = 0; i < 2; i++) {
+            int base = i * this.regionSize;
+            long ver = this.buffer.getLong(base);
+            int length = this.buffer.getInt(base + 8);
+            if (ver <= this.version || length < 0 || HEADER + length > this.regionSize) {
+                continue;
+            }
+            byte[] payload = new byte[length];
+            this.buffer.get(base + HEADER, payload);
+            if (this.buffer.getInt(base + 12) != crc(payload)) {
+                log.warn("MappedFileOffsetStore: region {} checksum mismatch, skipped.", i);
+                continue;
+            }
+            try {
+                Map<String, String> decoded = decode(payload);
+                this.offsets.clear();
+                this.offsets.putAll(decoded);
+                this.version = ver;
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                log.warn("MappedFileOffsetStore: region {} is corrupted, skipped.", i);
+            }
+        }
+    }
+
+    private int base(long version) {
+        return (int) (version & 1) * this.regionSize;
+    }
+
+    private static byte[] encode(Map<String, String> offsets) {
+        int size = 4;
+        Map<byte[], byte[]> encoded = new HashMap<>(offsets.size());
+        for (Map.Entry<String, String> entry : offsets.entrySet()) {
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] id = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            encoded.put(key, id);
+            size += 8 + key.length + id.length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(encoded.size());
+        encoded.forEach((key, id) -> buf.putInt(key.length).put(key).putInt(id.length).put(id));
+        return buf.array();
+    }
+
+    private static Map<String, String> decode(byte[] payload) {
+        ByteBuffer buf = ByteBuffer.wrap(payload);
+        int count = buf.getInt();
+        Assert.isTrue(count >= 0, "count must not be negative");
+        Map<String, String> offsets = HashMap.newHashMap(count);
+        for (int i = 0; i < count; i++) {
+            offsets.put(readString(buf), readString(buf));
+        }
+        return offsets;
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        Assert.isTrue(length >= 0 && length <= buf.remaining(), "length out of range");
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+
+}
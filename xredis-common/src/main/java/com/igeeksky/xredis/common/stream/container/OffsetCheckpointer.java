@@ -0,0 +1,151 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xtool.core.lang.Assert;
+import com.igeeksky.xtool.core.tuple.Tuple1;
+import com.igeeksky.xtool.core.tuple.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 读偏移检查点（仅适用于非消费者组）
+ * <p>
+ * 消息消费完成后记录各个流的最新读偏移，每隔 {@code interval} 毫秒合并为一次批量写入 {@link OffsetStore}；
+ * 关闭容器时，等待数据池排空后保存所有未保存的读偏移。订阅时从 {@link OffsetStore} 恢复读偏移，从上次的位置继续读取。
+ * <p>
+ * 注意：<br>
+ * 1. 保存的是已消费完成的消息 ID（其之前推送的消息均已完成）：进程异常退出或关闭时未能排空数据池，
+ * 已推送但未消费完成的消息将被重新读取，请结合业务需要做好幂等处理；<br>
+ * 2. 写入失败的读偏移保留到下次保存时重试。
+ *
+ * @param <K> 键类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class OffsetCheckpointer<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(OffsetCheckpointer.class);
+
+    private final OffsetStore<K> store;
+
+    private final ScheduledFuture<?> scheduleFuture;
+
+    private final LongAdder saved = new LongAdder();
+
+    /**
+     * 未保存的读偏移（key: 流名称；value: 最后读取的消息 ID）
+     * <p>
+     * 流名称可能为 {@code byte[]}，因此使用 {@link Tuple1} 包装，按内容比较。
+     */
+    private final ConcurrentHashMap<Tuple1<K>, String> dirty = new ConcurrentHashMap<>();
+
+    /**
+     * 最后一次保存（保存操作串行执行，避免较早的读偏移覆盖较新的读偏移）
+     */
+    private CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+
+    /**
+     * 构造函数
+     *
+     * @param store     读偏移存储（不能为空）
+     * @param scheduler 定时任务调度器（不能为空）
+     * @param interval  保存间隔（单位：毫秒） {@code interval > 0}
+     */
+    public OffsetCheckpointer(OffsetStore<K> store, ScheduledExecutorService scheduler, long interval) {
+        Assert.notNull(store, "store must not be null");
+        Assert.notNull(scheduler, "scheduler must not be null");
+        Assert.isTrue(interval > 0, "interval must be greater than 0");
+        this.store = store;
+        this.scheduleFuture = scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录读偏移（仅更新内存，由定时任务批量保存）
+     *
+     * @param stream 流名称
+     * @param id     最后消费完成的消息 ID
+     */
+    public void mark(K stream, String id) {
+        this.dirty.put(Tuples.of(stream), id);
+    }
+
+    /**
+     * 恢复读偏移
+     * <p>
+     * 优先返回尚未保存的读偏移，其次为 {@link OffsetStore} 中已保存的读偏移；读取失败时返回 {@code null}。
+     *
+     * @param stream 流名称
+     * @return {@link String} – 最后读取的消息 ID（无记录则返回 {@code null}）
+     */
+    public String restore(K stream) {
+        String id = this.dirty.get(Tuples.of(stream));
+        if (id != null) {
+            return id;
+        }
+        try {
+            return this.store.load(stream);
+        } catch (Throwable e) {
+            log.error("OffsetCheckpointer: load offset has error. stream: {}. {}", stream, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存所有未保存的读偏移
+     *
+     * @return {@code CompletableFuture<Void>} – 保存完成后完成
+     */
+    public synchronized CompletableFuture<Void> flush() {
+        this.last = this.last.handle((v, t) -> null).thenCompose(ignored -> this.save());
+        return this.last;
+    }
+
+    private CompletableFuture<Void> save() {
+        if (this.dirty.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Map<Tuple1<K>, String> snapshot = new HashMap<>(this.dirty);
+        Map<K, String> offsets = HashMap.newHashMap(snapshot.size());
+        snapshot.forEach((key, id) -> offsets.put(key.getT1(), id));
+        CompletableFuture<Void> future;
+        try {
+            future = this.store.saveAsync(offsets);
+        } catch (Throwable e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((v, t) -> {
+            if (t != null) {
+                log.error("OffsetCheckpointer: save offsets has error. size: {}. {}",
+                        offsets.size(), t.getMessage(), t);
+                return;
+            }
+            // 仅移除未被更新的读偏移：保存期间记录的新偏移留待下次保存
+            snapshot.forEach(this.dirty::remove);
+            this.saved.add(offsets.size());
+        });
+    }
+
+    /**
+     * 已保存的读偏移数量
+     *
+     * @return {@code long} – 已保存的读偏移数量
+     */
+    public long getSaved() {
+        return this.saved.sum();
+    }
+
+    /**
+     * 停止定时任务，保存所有未保存的读偏移，并关闭存储
+     *
+     * @return {@code CompletableFuture<Void>} – 保存及关闭完成后完成
+     */
+    public CompletableFuture<Void> closeAsync() {
+        this.scheduleFuture.cancel(false);
+        return this.flush().handle((v, t) -> null).thenCompose(ignored -> this.store.closeAsync());
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 读偏移存储（仅适用于非消费者组）
+ * <p>
+ * 用于持久化非消费者组订阅的读偏移，订阅时恢复，从而在重启后从上次的位置继续读取。
+ *
+ * @param <K> 键类型
+ * @author Patrick.Lau
+ * @see OffsetCheckpointer
+ * @see RedisOffsetStore
+ * @see MappedFileOffsetStore
+ * @since 1.1.0
+ */
+public interface OffsetStore<K> {
+
+    /**
+     * 读取流的读偏移
+     *
+     * @param stream 流名称
+     * @return {@link String} – 已保存的消息 ID（未保存则返回 {@code null}）
+     */
+    String load(K stream);
+
+    /**
+     * 保存读偏移
+     *
+     * @param offsets 读偏移（key: 流名称；value: 最后读取的消息 ID）
+     * @return {@code CompletableFuture<Void>} – 保存完成后完成
+     */
+    CompletableFuture<Void> saveAsync(Map<K, String> offsets);
+
+    /**
+     * 关闭存储（释放存储占用的资源）
+     *
+     * @return {@code CompletableFuture<Void>} – 关闭完成后完成
+     */
+    default CompletableFuture<Void> closeAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.igeeksky.xredis.common.stream.container;
+
+/**
+ * 自适应拉取统计信息（快照）
+ *
+ * @param period    当前拉取间隔（毫秒）
+ * @param polls     拉取次数（发送读取命令的次数）
+ * @param hits      拉取到消息的次数
+ * @param fullPolls 返回满批次消息的次数
+ * @param messages  拉取到的消息总数
+ * @param failures  拉取失败的次数
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record PollStats(long period, long polls, long hits, long fullPolls, long messages, long failures) {
+
+    /**
+     * 命中率：拉取到消息的次数 / 拉取次数
+     *
+     * @return {@code double} – 命中率（无拉取记录时返回 0）
+     */
+    public double hitRatio() {
+        return polls == 0 ? 0 : (double) hits / polls;
+    }
+
+    /**
+     * 平均每次拉取的消息数量
+     *
+     * @return {@code double} – 平均每次拉取的消息数量（无拉取记录时返回 0）
+     */
+    public double messagesPerPoll() {
+        return polls == 0 ? 0 : (double) messages / polls;
+    }
+
+}
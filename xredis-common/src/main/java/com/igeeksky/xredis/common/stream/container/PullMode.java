@@ -0,0 +1,30 @@
+package com.igeeksky.xredis.common.stream.container;
+
+/**
+ * 流消息拉取模式
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public enum PullMode {
+
+    /**
+     * 定时拉取
+     * <p>
+     * 调度器按固定间隔发送读取命令，消息时延不低于拉取间隔，流无新消息时依然每个间隔发送一次命令。
+     */
+    SCHEDULED,
+
+    /**
+     * 阻塞读取循环
+     * <p>
+     * 独立的虚拟线程循环发送带 BLOCK 参数的读取命令，上一次读取返回后立即发送下一次读取命令：<br>
+     * 1. 有新消息到达时，RedisServer 立即返回，消息时延为毫秒级；<br>
+     * 2. 无新消息时，每个 BLOCK 时长仅发送一次命令；<br>
+     * 3. 所有数据池空间不足（或暂停拉取）时，暂停循环，待消费任务消费消息后恢复。
+     * <p>
+     * 注意：读取选项的 block 必须大于 0，且容器须使用独占连接（阻塞命令会阻塞连接上的其它命令）。
+     */
+    BLOCKING_LOOP
+
+}
@@ -0,0 +1,45 @@
+package com.igeeksky.xredis.common.stream.container;
+
+/**
+ * 单次拉取结果
+ *
+ * @param messages 拉取到的消息数量
+ * @param full     是否有流返回了满批次消息（消息数量达到读取选项的 count，表示流中可能还有积压的消息）
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record PullResult(int messages, boolean full) {
+
+    /**
+     * 无消息
+     */
+    public static final PullResult EMPTY = new PullResult(0, false);
+
+    /**
+     * 未发送读取命令：上次拉取的消息还在分发（与 {@link #EMPTY} 按引用区分）
+     */
+    public static final PullResult BUSY = new PullResult(0, false);
+
+    /**
+     * 是否因上次拉取的消息还在分发而未发送读取命令
+     *
+     * @return {@code boolean} – 如为 {@link #BUSY}，返回 {@code true}；否则返回 {@code false}
+     */
+    public boolean isBusy() {
+        return this == BUSY;
+    }
+
+    /**
+     * 合并拉取结果
+     *
+     * @param other 另一批次的拉取结果
+     * @return {@link PullResult} – 合并后的拉取结果
+     */
+    public PullResult merge(PullResult other) {
+        if (other == null) {
+            return this;
+        }
+        return new PullResult(messages + other.messages, full || other.full);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.stream.XReadOptions;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 读取额度（基于数据池空闲容量的流量控制）
+ * <p>
+ * 每次读取的数量不超过数据池的空闲容量，消费者消费消息后数据池的空闲容量随之恢复。<br>
+ * 多个流合并读取时，{@code count} 对命令中的每个流生效，因此按额度分档：
+ * 同一档位的流合并读取，{@code count} 取该档位的值，确保每个流的读取数量都不超过其额度。
+ * <p>
+ * 阻塞读取时，同一连接上的命令依次执行，阻塞命令会使其后的命令等待至阻塞超时；
+ * 因此一次拉取拆分为多个读取命令时，仅最后发送的命令保留 block 选项，其它命令去除 block 选项并先行发送。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+final class ReadCredits {
+
+    /**
+     * 私有构造方法
+     */
+    private ReadCredits() {
+    }
+
+    /**
+     * 获取流的读取额度
+     *
+     * @param info 流信息
+     * @return {@code int} – 读取额度：数据池空闲容量与读取选项 count 的较小值（{@code 0} 表示不可读取）
+     */
+    static int of(StreamInfo<?, ?> info) {
+        int credits = info.getSink().credits();
+        Long count = info.getOptions().getCount();
+        if (count != null && count < credits) {
+            return count.intValue();
+        }
+        return credits;
+    }
+
+    /**
+     * 额度分档
+     * <p>
+     * 额度达到读取选项的 count 为最高档（即 count）；否则为不超过额度的最大的 2 的幂。
+     *
+     * @param info    流信息
+     * @param credits 读取额度（必须大于 0）
+     * @return {@code int} – 档位（即合并读取时的 count）
+     */
+    static int bucket(StreamInfo<?, ?> info, int credits) {
+        Long count = info.getOptions().getCount();
+        if (count != null && credits >= count) {
+            return count.intValue();
+        }
+        return Integer.highestOneBit(credits);
+    }
+
+    /**
+     * 使用指定的读取数量创建读取选项
+     *
+     * @param options 原读取选项
+     * @param count   读取数量
+     * @return {@link XReadOptions} – 读取数量为 count 的读取选项（与原读取选项相同则直接返回原读取选项）
+     */
+    static XReadOptions withCount(XReadOptions options, int count) {
+        Long old = options.getCount();
+        if (old != null && old == count) {
+            return options;
+        }
+        return XReadOptions.builder().block(options.getBlock()).count((long) count).noack(options.isNoack()).build();
+    }
+
+    /**
+     * 使用指定的读取数量创建读取选项，并按需去除 block 选项
+     *
+     * @param options 原读取选项
+     * @param count   读取数量
+     * @param block   是否保留 block 选项
+     * @return {@link XReadOptions} – 读取选项
+     */
+    static XReadOptions withCount(XReadOptions options, int count, boolean block) {
+        if (block || !isBlocking(options)) {
+            return withCount(options, count);
+        }
+        return XReadOptions.builder().count((long) count).noack(options.isNoack()).build();
+    }
+
+    /**
+     * 是否为阻塞读取
+     *
+     * @param options 读取选项
+     * @return {@code true} – 阻塞读取；{@code false} – 非阻塞读取
+     */
+    static boolean isBlocking(XReadOptions options) {
+        Long block = options.getBlock();
+        return block != null && block >= 0;
+    }
+
+    /**
+     * 将阻塞读取的命令排到最后（稳定排序，非阻塞读取的命令保持原顺序）
+     * <p>
+     * 按此顺序发送命令，且仅最后一个命令保留 block 选项，非阻塞命令不会排在阻塞命令之后等待。
+     *
+     * @param reads   读取命令列表
+     * @param options 获取读取命令的读取选项
+     * @param <T>     读取命令类型
+     */
+    static <T> void blockingLast(List<T> reads, Function<T, XReadOptions> options) {
+        if (reads.size() > 1) {
+            reads.sort(Comparator.comparing(read -> isBlocking(options.apply(read))));
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+/**
+ * 待处理消息恢复选项
+ *
+ * @param period      两次恢复任务的时间间隔（单位：毫秒） {@code period > 0}
+ * @param minIdleTime 最小空闲时间（单位：毫秒）：仅认领空闲时间超过此值的待处理消息 {@code minIdleTime > 0}，
+ *                    须大于消息在数据池中的最长等待时长与本地重试的最长时长之和
+ * @param count       单次认领的最大数量 {@code 0 < count <= (1 << 29)}
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record RecoveryOptions(long period, long minIdleTime, int count) {
+
+    /**
+     * 参数校验
+     */
+    public RecoveryOptions {
+        Assert.isTrue(period > 0, "period must be greater than 0");
+        Assert.isTrue(minIdleTime > 0, "minIdleTime must be greater than 0");
+        Assert.isTrue(count > 0, "count must be greater than 0");
+        Assert.isTrue(count <= ReadOptions.MAX_COUNT, "count must be less or equal " + ReadOptions.MAX_COUNT);
+    }
+
+    /**
+     * 创建 {@link RecoveryOptions}
+     *
+     * @param period      两次恢复任务的时间间隔（单位：毫秒）
+     * @param minIdleTime 最小空闲时间（单位：毫秒）
+     * @param count       单次认领的最大数量
+     * @return {@link RecoveryOptions}
+     */
+    public static RecoveryOptions from(long period, long minIdleTime, int count) {
+        return new RecoveryOptions(period, minIdleTime, count);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.igeeksky.xredis.common.stream.container;
+
+/**
+ * 待处理消息恢复统计信息（快照）
+ *
+ * @param pending       待处理消息数量（各 (流, 消费组) 最近一次 {@code xpending} 结果之和）
+ * @param claimed       已认领的消息数量
+ * @param delivered     已推送给数据池的认领消息数量
+ * @param claims        已发送的 {@code xautoclaim} 命令数量
+ * @param failures      恢复失败的次数
+ * @param elapsedMillis 恢复任务已运行时长（毫秒）
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record RecoveryStats(long pending, long claimed, long delivered, long claims, long failures,
+                            long elapsedMillis) {
+
+    /**
+     * 平均每秒认领的消息数量
+     *
+     * @return {@code double} – 平均每秒认领的消息数量（运行时长为 0 时返回 0）
+     */
+    public double claimRate() {
+        return elapsedMillis <= 0 ? 0 : claimed * 1000.0 / elapsedMillis;
+    }
+
+}
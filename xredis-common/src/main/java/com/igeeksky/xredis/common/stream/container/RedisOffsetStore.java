@@ -0,0 +1,63 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.RedisOperatorProxy;
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 读偏移存储（Redis 哈希表）
+ * <p>
+ * 所有流的读偏移保存在同一个哈希表：field 为编码后的流名称，value 为最后读取的消息 ID；
+ * 批量保存时合并为一个 {@code hmset} 命令。
+ * <p>
+ * 注意：不会关闭传入的 {@link RedisOperatorProxy}。
+ *
+ * @param <K> 键类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class RedisOffsetStore<K> implements OffsetStore<K> {
+
+    private final byte[] key;
+    private final RedisOperatorProxy proxy;
+    private final Function<? super K, byte[]> fieldCodec;
+
+    /**
+     * 构造函数
+     *
+     * @param proxy      Redis 操作代理（不能为空）
+     * @param key        哈希表的键（不能为空）
+     * @param fieldCodec 流名称编码函数（不能为空）
+     */
+    public RedisOffsetStore(RedisOperatorProxy proxy, byte[] key, Function<? super K, byte[]> fieldCodec) {
+        Assert.notNull(proxy, "proxy must not be null");
+        Assert.notNull(key, "key must not be null");
+        Assert.notNull(fieldCodec, "fieldCodec must not be null");
+        this.key = key;
+        this.proxy = proxy;
+        this.fieldCodec = fieldCodec;
+    }
+
+    @Override
+    public String load(K stream) {
+        byte[] id = this.proxy.hget(this.key, this.fieldCodec.apply(stream));
+        return (id != null) ? new String(id, StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(Map<K, String> offsets) {
+        if (offsets.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Map<byte[], byte[]> fieldValues = HashMap.newHashMap(offsets.size());
+        offsets.forEach((stream, id) ->
+                fieldValues.put(this.fieldCodec.apply(stream), id.getBytes(StandardCharsets.UTF_8)));
+        return this.proxy.hmsetAsync(this.key, fieldValues).thenApply(ignored -> null);
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.igeeksky.xredis.common.stream.container;
 
 import com.igeeksky.xredis.common.flow.*;
+import com.igeeksky.xredis.common.stream.StreamCodec;
 import com.igeeksky.xredis.common.stream.StreamOperator;
 import com.igeeksky.xredis.common.stream.XReadOptions;
 import com.igeeksky.xredis.common.stream.XStreamMessage;
@@ -17,6 +18,11 @@ import java.util.concurrent.TimeUnit;
  * 使用定时任务拉取 Stream 消息并推送给消费者，
  * 拉取消息时所有 Stream 都使用公共的 {@link ReadOptions} 参数，
  * 并且将所有 Stream 合并到一个 {@code xread} 命令进行读取，以减少命令阻塞带来的时延。
+ * <p>
+ * 集群模式下，按哈希槽对 Stream 进行分组，每个分组并发发送一个 {@code xread} 命令，避免 CROSSSLOT 错误。
+ * <p>
+ * 支持两种拉取模式，详见 {@link PullMode}；
+ * 也可使用 {@link AdaptivePollPolicy} 根据拉取结果自动调整拉取间隔。
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -48,11 +54,62 @@ public class StreamContainer<K, V> extends AbstractStreamContainer<K, V> {
     public StreamContainer(StreamOperator<K, V> operator, ExecutorService executor,
                            ScheduledExecutorService scheduler, long quietPeriod, long timeout,
                            long period, ReadOptions options) {
+        this(operator, executor, scheduler, quietPeriod, timeout, period, options, PullMode.SCHEDULED);
+    }
+
+    /**
+     * 创建一个新的 StreamContainer 实例
+     *
+     * @param operator    RedisOperator（{@link PullMode#BLOCKING_LOOP} 模式须为独占连接）
+     * @param executor    虚拟线程执行器（不能为空）
+     * @param scheduler   定时任务调度器（不能为空）
+     * @param quietPeriod quietPeriod 优雅关闭（等待正在运行的任务完成，单位毫秒）
+     * @param timeout     timeout 优雅关闭（最大等待时间，单位毫秒）
+     * @param period      两次拉取消息的时间间隔，单位毫秒 {@code interval > 0}
+     *                    （{@link PullMode#BLOCKING_LOOP} 模式为循环暂停时的最大等待时长）
+     * @param options     读选项（不能为空，{@link PullMode#BLOCKING_LOOP} 模式 block 必须大于 0）
+     * @param mode        拉取模式（不能为空）
+     */
+    public StreamContainer(StreamOperator<K, V> operator, ExecutorService executor,
+                           ScheduledExecutorService scheduler, long quietPeriod, long timeout,
+                           long period, ReadOptions options, PullMode mode) {
+        this(operator, executor, scheduler, quietPeriod, timeout, period, options, mode, null);
+    }
+
+    /**
+     * 创建一个新的 StreamContainer 实例（自适应拉取间隔）
+     * <p>
+     * 拉取间隔根据拉取结果在 [minPeriod, maxPeriod] 之间自动调整，详见 {@link AdaptivePollPolicy}。
+     *
+     * @param operator    RedisOperator
+     * @param executor    虚拟线程执行器（不能为空）
+     * @param scheduler   定时任务调度器（不能为空）
+     * @param quietPeriod quietPeriod 优雅关闭（等待正在运行的任务完成，单位毫秒）
+     * @param timeout     timeout 优雅关闭（最大等待时间，单位毫秒）
+     * @param options     读选项（不能为空）
+     * @param policy      自适应拉取策略（不能为空）
+     * @since 1.1.0
+     */
+    public StreamContainer(StreamOperator<K, V> operator, ExecutorService executor,
+                           ScheduledExecutorService scheduler, long quietPeriod, long timeout,
+                           ReadOptions options, AdaptivePollPolicy policy) {
+        this(operator, executor, scheduler, quietPeriod, timeout,
+                minPeriod(policy), options, PullMode.SCHEDULED, policy);
+    }
+
+    private StreamContainer(StreamOperator<K, V> operator, ExecutorService executor,
+                            ScheduledExecutorService scheduler, long quietPeriod, long timeout,
+                            long period, ReadOptions options, PullMode mode, AdaptivePollPolicy policy) {
         super(operator, quietPeriod, timeout);
         Assert.notNull(executor, "executor must not be null");
         Assert.notNull(scheduler, "scheduler must not be null");
         Assert.notNull(options, "options must not be null");
+        Assert.notNull(mode, "mode must not be null");
         Assert.isTrue(period > 0, "interval must be greater than 0");
+        if (mode == PullMode.BLOCKING_LOOP) {
+            Assert.isTrue(options.block() != null && options.block() > 0,
+                    "block must be greater than 0 when mode is BLOCKING_LOOP");
+        }
 
         this.count = options.count();
         this.options = options.to();
@@ -60,10 +117,29 @@ public class StreamContainer<K, V> extends AbstractStreamContainer<K, V> {
         this.executor = executor;
         this.scheduler = scheduler;
         this.streamTask = new StreamContainerTask<>(operator, this.options);
-        this.start();
+        if (policy != null) {
+            this.startAdaptive(this.streamTask::pullAsync, this.streamTask::consume, scheduler, policy);
+        } else {
+            this.start(mode);
+        }
     }
 
-    private void start() {
+    private static long minPeriod(AdaptivePollPolicy policy) {
+        Assert.notNull(policy, "policy must not be null");
+        return policy.getMinPeriod();
+    }
+
+    private void start(PullMode mode) {
+        if (mode == PullMode.BLOCKING_LOOP) {
+            StreamLoop loop = new StreamLoop(this.streamTask::pullAsync, this.period);
+            this.streamLoop = loop;
+            this.executor.execute(loop);
+            this.scheduleConsumeFuture = this.scheduler.scheduleWithFixedDelay(() -> {
+                this.streamTask.consume();
+                loop.wakeup();
+            }, this.period, Math.max(1, this.period / 2), TimeUnit.MILLISECONDS);
+            return;
+        }
         this.schedulePullFuture = this.scheduler.scheduleWithFixedDelay(this.streamTask::pull,
                 this.period, this.period, TimeUnit.MILLISECONDS);
         this.scheduleConsumeFuture = this.scheduler.scheduleWithFixedDelay(this.streamTask::consume,
@@ -78,15 +154,71 @@ public class StreamContainer<K, V> extends AbstractStreamContainer<K, V> {
      * 如果已经订阅，再次订阅之前需先调用 {@link Flow#cancel()}（或调用 {@link Disposable#dispose()}}）
      * 取消原订阅，否则会抛出异常。
      *
-     * @param offset 读偏移（不能为空）
+     * @param offset 读偏移（不能为空；如已启动读偏移检查点且有已保存的读偏移，则使用已保存的读偏移）
      * @return {@link Flow} – 无限数据流（订阅之后除非取消，否则将一直拉取流消息并推送给 {@link Subscriber}）
      * @since 1.0.0
      */
     public Flow<XStreamMessage<K, V>> subscribe(XStreamOffset<K> offset) {
         Assert.notNull(offset, "offset must not be null");
-        RetrySink<XStreamMessage<K, V>> sink = new RetrySink<>(executor, count);
-        this.streamTask.add(new StreamInfo<>(options, offset, sink));
+        RetrySink<XStreamMessage<K, V>> sink = this.createSink(executor, count);
+        this.streamTask.add(this.createStreamInfo(options, offset, sink));
         return new RetryFlow<>(sink);
     }
 
+    /**
+     * 订阅流并解码消息（非 group）
+     * <p>
+     * 数据池缓存原始消息，由消费任务调用 {@link StreamCodec#decodeMsg} 解码后推送给订阅者，解码不占用拉取线程；
+     * 解码失败时回调 {@link Subscriber#onError(Throwable, Subscription)}，并丢弃该消息。
+     * <p>
+     * 分区订阅需从原始消息提取分区键，详见 {@link DecodingFlow#subscribeByRawKey}。
+     *
+     * @param offset   读偏移（不能为空）
+     * @param codec    消息体编解码（不能为空）
+     * @param <T>      解码后的消息类型
+     * @return {@link DecodingFlow} – 无限数据流（订阅之后除非取消，否则将一直拉取流消息并推送给 {@link Subscriber}）
+     * @see DecodingFlow
+     * @since 1.1.0
+     */
+    public <T> DecodingFlow<XStreamMessage<K, V>, T> subscribe(XStreamOffset<K> offset,
+                                                               StreamCodec<K, V, T> codec) {
+        Assert.notNull(codec, "codec must not be null");
+        return decode(this.subscribe(offset), codec);
+    }
+
+    /**
+     * 启动读偏移检查点（每个容器仅能启动一次）
+     * <p>
+     * 启动后新创建的订阅，优先从 {@link OffsetStore} 恢复已保存的读偏移（无记录则使用订阅时传入的读偏移），
+     * 消息消费完成后记录读偏移，每隔 interval 毫秒批量保存，关闭容器时等待数据池排空后保存所有未保存的读偏移。
+     * <p>
+     * 注意：应在订阅之前启动。
+     *
+     * @param store    读偏移存储（不能为空），如 {@link RedisOffsetStore}、{@link MappedFileOffsetStore}
+     * @param interval 保存间隔（单位：毫秒） {@code interval > 0}
+     * @return {@link OffsetCheckpointer} – 读偏移检查点
+     * @throws IllegalStateException 如果已启动
+     * @since 1.1.0
+     */
+    public OffsetCheckpointer<K> checkpointOffsets(OffsetStore<K> store, long interval) {
+        return this.createCheckpointer(this.scheduler, store, interval);
+    }
+
+    /**
+     * 启动延迟重试的时间轮（每个容器仅能启动一次）
+     * <p>
+     * 启动后新创建的订阅，消费失败后调用 {@link RetrySubscription#retry(Object, java.time.Duration)} 延迟重试时，
+     * 消息放入时间轮等待，消费任务继续消费后续消息，到期后再交回原消费任务重试。
+     * 关闭容器时，时间轮中未到期的消息将被丢弃。
+     *
+     * @param tick      刻度时长（单位：毫秒），即延迟重试的精度 {@code tick > 0}
+     * @param wheelSize 槽位数量 {@code 0 < wheelSize <= (1 << 20)}
+     * @return {@link HashedTimerWheel} – 时间轮
+     * @throws IllegalStateException 如果已启动
+     * @since 1.1.0
+     */
+    public HashedTimerWheel startRetryTimer(long tick, int wheelSize) {
+        return this.createRetryTimer(this.scheduler, tick, wheelSize);
+    }
+
 }
@@ -1,22 +1,8 @@
 package com.igeeksky.xredis.common.stream.container;
 
-import com.igeeksky.xredis.common.flow.RetrySink;
 import com.igeeksky.xredis.common.stream.StreamOperator;
 import com.igeeksky.xredis.common.stream.XReadOptions;
-import com.igeeksky.xredis.common.stream.XStreamMessage;
-import com.igeeksky.xredis.common.stream.XStreamOffset;
-import com.igeeksky.xtool.core.collection.CollectionUtils;
-import com.igeeksky.xtool.core.collection.Maps;
-import com.igeeksky.xtool.core.tuple.Tuple1;
 import com.igeeksky.xtool.core.tuple.Tuples;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 流处理任务
@@ -25,26 +11,22 @@ import java.util.concurrent.locks.ReentrantLock;
  * xread 命令带有 block 选项，当 block 大于等于 0 时，xread 命令会阻塞，直到有新消息或超过堵塞时长。<br>
  * 为了避免读取多个流时频繁堵塞，导致无法及时读取消息，
  * 这里采用公共参数，将多个流合并到一个 xread 命令进行读取，以减少网络请求次数及可能的堵塞时长。
+ * <p>
+ * 集群模式下，合并读取的流须位于同一哈希槽，因此按哈希槽对流进行分组，每个分组发送一个 xread 命令，
+ * 各分组的命令并发发送，由集群连接根据当前拓扑路由到哈希槽所在的节点。
+ * <p>
+ * 每个流的读取数量不超过其数据池的空闲容量，详见 {@link ReadCredits}；
+ * 阻塞读取时，多个分组的命令中仅最后发送的命令阻塞。
  *
  * @param <K> 键类型
  * @param <V> 值类型
  * @author Patrick.Lau
  * @since 1.0.0
  */
-public class StreamContainerTask<K, V> implements StreamTask<K, V> {
-
-    private static final Logger log = LoggerFactory.getLogger(StreamContainerTask.class);
-
-    private final Lock pullLock = new ReentrantLock();
+public class StreamContainerTask<K, V> extends AbstractStreamTask<K, V> {
 
     private final XReadOptions options;
 
-    private final StreamOperator<K, V> operator;
-
-    private CompletableFuture<Void> dispatchFuture;
-
-    private final ConcurrentHashMap<Tuple1<K>, StreamInfo<K, V>> streams = new ConcurrentHashMap<>();
-
     /**
      * 构造器
      *
@@ -52,170 +34,43 @@ public class StreamContainerTask<K, V> implements StreamTask<K, V> {
      * @param options  流读取选项
      */
     public StreamContainerTask(StreamOperator<K, V> operator, XReadOptions options) {
+        super(operator);
         this.options = options;
-        this.operator = operator;
-    }
-
-    @Override
-    public void add(StreamInfo<K, V> info) {
-        Tuple1<K> key = Tuples.of(info.getOffset().getKey());
-        StreamInfo<K, V> current = streams.compute(key, (k, old) -> {
-            if (old != null) {
-                RetrySink<XStreamMessage<K, V>> sink = old.getSink();
-                if (!sink.isCancelled()) {
-                    return old;
-                }
-            }
-            return info;
-        });
-        if (info != current) {
-            throw new IllegalStateException("The stream already exists");
-        }
-    }
-
-    @Override
-    public void pull() {
-        try {
-            boolean locked = pullLock.tryLock();
-            if (locked) {
-                try {
-                    this.doPull();
-                } catch (Throwable e) {
-                    log.error("Error occurred during doPull: {}", e.getMessage(), e);
-                } finally {
-                    pullLock.unlock();
-                }
-            } else {
-                if (log.isWarnEnabled()) {
-                    log.warn("Failed to acquire lock for pull operation");
-                }
-            }
-        } catch (Throwable ignore) {
-        }
-    }
-
-    private void doPull() {
-        // 需等待 StreamInfo 更新 offset：如果上次任务未完成，那么 offset 可能还未更新，会拉取到重复的消息
-        if (this.dispatchFuture != null && !this.dispatchFuture.isDone()) {
-            if (log.isDebugEnabled()) {
-                log.debug("PullTask: dispatchFuture is not done.");
-            }
-            return;
-        }
-        if (this.streams.isEmpty()) {
-            return;
-        }
-        List<XStreamOffset<K>> offsets = new ArrayList<>(this.streams.size());
-        List<RetrySink<XStreamMessage<K, V>>> sinks = new ArrayList<>(this.streams.size());
-        Iterator<Map.Entry<Tuple1<K>, StreamInfo<K, V>>> iterator = this.streams.entrySet().iterator();
-        while (iterator.hasNext()) {
-            StreamInfo<K, V> info = iterator.next().getValue();
-            RetrySink<XStreamMessage<K, V>> sink = info.getSink();
-            if (sink.isCancelled()) {
-                iterator.remove();
-                continue;
-            }
-            if (sink.isNotReady() || sink.isNotEnoughSpace() || sink.isPullPaused()) {
-                continue;
-            }
-            sinks.add(sink);
-            offsets.add(info.getOffset());
-        }
-        // 拉取消息 & 分发消息
-        this.dispatchFuture = this.dispatch(sinks, this.xread(offsets));
     }
 
     /**
-     * 分发消息
+     * 不支持重复订阅同一个流
      *
-     * @param sinks  数据池列表
-     * @param future 消息
+     * @param old  已有的流信息（未取消）
+     * @param info 新添加的流信息
+     * @return {@code true} – 流名称相同；{@code false} – 流名称不同
      */
-    private CompletableFuture<Void> dispatch(List<RetrySink<XStreamMessage<K, V>>> sinks,
-                                             CompletableFuture<List<XStreamMessage<K, V>>> future) {
-        return future.thenApply(this::merge)
-                .thenAccept(map -> map.forEach(this::push))
-                .exceptionally(t -> {
-                    sinks.forEach(sink -> {
-                        if (!sink.isCancelled()) {
-                            sink.error(t);
-                        }
-                    });
-                    return null;
-                });
+    @Override
+    protected boolean conflicts(StreamInfo<K, V> old, StreamInfo<K, V> info) {
+        return Tuples.of(old.getOffset().getKey()).equals(Tuples.of(info.getOffset().getKey()));
     }
 
     /**
-     * 合并消息
+     * 分组键：{@code (slot, count)}（非集群连接只按额度档位分组）
      *
-     * @param messages 消息
-     * @return {@code Map<Tuple1<K>, List<StreamMessage<K, V>>>} – key: 流 value: 消息列表
+     * @param info  流信息
+     * @param count 读取额度档位
+     * @return {@link Object} – 分组键
      */
-    private Map<Tuple1<K>, List<XStreamMessage<K, V>>> merge(List<XStreamMessage<K, V>> messages) {
-        if (CollectionUtils.isEmpty(messages)) {
-            return Collections.emptyMap();
-        }
-        Map<Tuple1<K>, List<XStreamMessage<K, V>>> map = Maps.newHashMap(this.streams.size());
-        for (XStreamMessage<K, V> message : messages) {
-            if (message != null) {
-                Tuple1<K> key = Tuples.of(message.stream());
-                map.computeIfAbsent(key, k -> new ArrayList<>()).add(message);
-            }
-        }
-        return map;
+    @Override
+    protected Object groupKey(StreamInfo<K, V> info, int count) {
+        return Tuples.of(info.getSlot(), count);
     }
 
     /**
-     * 推送消息
+     * 所有流使用公共的读取选项
      *
-     * @param key      流
-     * @param messages 消息
+     * @param info 流信息（批次中的首个流）
+     * @return {@link XReadOptions} – 公共的读取选项
      */
-    private void push(Tuple1<K> key, List<XStreamMessage<K, V>> messages) {
-        try {
-            // 获取流信息
-            StreamInfo<K, V> info = this.streams.get(key);
-            if (info == null) {
-                return;
-            }
-            // 获取数据池，如果已取消，则从订阅列表中移除
-            RetrySink<XStreamMessage<K, V>> sink = info.getSink();
-            if (sink.isCancelled()) {
-                this.streams.remove(key);
-                return;
-            }
-            // 分发数据
-            info.receive(messages);
-        } catch (Throwable e) {
-            log.error(e.getMessage(), e);
-        }
-    }
-
     @Override
-    public void consume() {
-        try {
-            Iterator<Map.Entry<Tuple1<K>, StreamInfo<K, V>>> iterator = this.streams.entrySet().iterator();
-            while (iterator.hasNext()) {
-                StreamInfo<K, V> info = iterator.next().getValue();
-                RetrySink<XStreamMessage<K, V>> sink = info.getSink();
-                if (sink.isCancelled()) {
-                    iterator.remove();
-                    continue;
-                }
-                sink.run();
-            }
-        } catch (Throwable e) {
-            log.error(e.getMessage(), e);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private CompletableFuture<List<XStreamMessage<K, V>>> xread(List<XStreamOffset<K>> offsets) {
-        // 无可用流
-        if (CollectionUtils.isEmpty(offsets)) {
-            return CompletableFuture.completedFuture(null);
-        }
-        return this.operator.xreadAsync(this.options, offsets.toArray(new XStreamOffset[0]));
+    protected XReadOptions options(StreamInfo<K, V> info) {
+        return this.options;
     }
 
 }
@@ -0,0 +1,125 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xtool.core.collection.CollectionUtils;
+import com.igeeksky.xtool.core.collection.Maps;
+import com.igeeksky.xtool.core.tuple.Tuple1;
+import com.igeeksky.xtool.core.tuple.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 多流合并读取结果分发
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+final class StreamDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamDispatcher.class);
+
+    /**
+     * 私有构造方法
+     */
+    private StreamDispatcher() {
+    }
+
+    /**
+     * 按流拆分合并读取的结果，并分发给各自的数据池
+     * <p>
+     * 每个参与读取的流都会调用 {@link StreamInfo#receive(List)}，无消息的流传入空列表，以便更新读偏移；
+     * 如读取失败，则通知所有参与读取的数据池。
+     *
+     * @param infos  参与读取的流信息（同一批次中流名称不能重复）
+     * @param future 合并读取的消息
+     * @param count  读取命令的 count（用于判断是否返回了满批次消息）
+     * @param <K>    键类型
+     * @param <V>    值类型
+     * @return {@code CompletableFuture<PullResult>} – 拉取结果（读取失败时为 {@link PullResult#EMPTY}）
+     */
+    static <K, V> CompletableFuture<PullResult> dispatch(List<? extends StreamInfo<K, V>> infos,
+                                                         CompletableFuture<List<XStreamMessage<K, V>>> future,
+                                                         int count) {
+        return future.thenApply(messages -> {
+                    Map<Tuple1<K>, List<XStreamMessage<K, V>>> map = merge(messages, infos.size());
+                    int total = 0;
+                    boolean full = false;
+                    for (StreamInfo<K, V> info : infos) {
+                        try {
+                            Tuple1<K> key = Tuples.of(info.getOffset().getKey());
+                            List<XStreamMessage<K, V>> list = map.getOrDefault(key, Collections.emptyList());
+                            total += list.size();
+                            full |= list.size() >= count;
+                            info.receive(list);
+                        } catch (Throwable e) {
+                            log.error(e.getMessage(), e);
+                        }
+                    }
+                    return new PullResult(total, full);
+                })
+                .exceptionally(t -> {
+                    infos.forEach(info -> {
+                        RetrySink<XStreamMessage<K, V>> sink = info.getSink();
+                        if (!sink.isCancelled()) {
+                            sink.error(t);
+                        }
+                    });
+                    return PullResult.EMPTY;
+                });
+    }
+
+    /**
+     * 合并多个批次的拉取结果
+     * <p>
+     * 所有批次完成后完成；如任一批次读取失败，则以异常结束。
+     *
+     * @param futures 各批次的拉取结果
+     * @return {@code CompletableFuture<PullResult>} – 合并后的拉取结果；如无批次，返回 {@code null}
+     */
+    static CompletableFuture<PullResult> combine(List<CompletableFuture<PullResult>> futures) {
+        if (futures.isEmpty()) {
+            return null;
+        }
+        if (futures.size() == 1) {
+            return futures.getFirst();
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    PullResult result = PullResult.EMPTY;
+                    for (CompletableFuture<PullResult> future : futures) {
+                        result = result.merge(future.join());
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * 按流合并消息
+     *
+     * @param messages 消息
+     * @param size     流数量
+     * @param <K>      键类型
+     * @param <V>      值类型
+     * @return {@code Map<Tuple1<K>, List<XStreamMessage<K, V>>>} – key: 流 value: 消息列表
+     */
+    static <K, V> Map<Tuple1<K>, List<XStreamMessage<K, V>>> merge(List<XStreamMessage<K, V>> messages, int size) {
+        if (CollectionUtils.isEmpty(messages)) {
+            return Collections.emptyMap();
+        }
+        Map<Tuple1<K>, List<XStreamMessage<K, V>>> map = Maps.newHashMap(size);
+        for (XStreamMessage<K, V> message : messages) {
+            if (message != null) {
+                map.computeIfAbsent(Tuples.of(message.stream()), k -> new ArrayList<>()).add(message);
+            }
+        }
+        return map;
+    }
+
+}
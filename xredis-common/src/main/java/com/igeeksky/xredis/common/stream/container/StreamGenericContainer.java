@@ -1,13 +1,19 @@
 package com.igeeksky.xredis.common.stream.container;
 
+import com.igeeksky.xredis.common.flow.DecodingFlow;
 import com.igeeksky.xredis.common.flow.Flow;
+import com.igeeksky.xredis.common.flow.HashedTimerWheel;
 import com.igeeksky.xredis.common.flow.RetryFlow;
 import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.flow.RetrySubscription;
 import com.igeeksky.xredis.common.flow.Subscriber;
+import com.igeeksky.xredis.common.flow.Subscription;
+import com.igeeksky.xredis.common.stream.StreamCodec;
 import com.igeeksky.xredis.common.stream.StreamOperator;
 import com.igeeksky.xredis.common.stream.XGroupConsumer;
 import com.igeeksky.xredis.common.stream.XStreamMessage;
 import com.igeeksky.xredis.common.stream.XStreamOffset;
+import com.igeeksky.xredis.common.stream.XStreamRecord;
 import com.igeeksky.xtool.core.lang.Assert;
 
 import java.util.concurrent.ExecutorService;
@@ -19,11 +25,14 @@ import java.util.concurrent.TimeUnit;
  * <p>
  * 使用定时任务拉取 Stream 消息并推送给消费者，
  * 拉取消息时每个 Stream 都使用独立的 {@link ReadOptions} 参数，
- * 如果有多个 Stream，那么会分多次发送命令并接收结果，因为底层实现只有一条连接，所以不是并行操作，而是串行操作。
+ * {@link ReadOptions} 相同（消费者组还需消费组名及消费者名相同）的 Stream 会合并到一个命令读取，
+ * 不同的则分多次发送命令并接收结果，因为底层实现只有一条连接，所以不是并行操作，而是串行操作。
  * <p>
  * 因此，如果有多个 Stream：<br>
  * 1. 要么无 block 选项，要么 block 选项值很小且非 0；<br>
  * 2. 或者使用多个 {@link StreamGenericContainer} 实例，每个 Stream 使用一个独占实例。
+ * <p>
+ * 使用 {@link AdaptivePollPolicy} 创建时，拉取间隔根据拉取结果自动调整。
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -35,6 +44,7 @@ public class StreamGenericContainer<K, V> extends AbstractStreamContainer<K, V>
     private final StreamGenericTask<K, V> streamTask;
 
     private final long period;
+    private final AdaptivePollPolicy policy;
     private final ExecutorService executor;
     private final ScheduledExecutorService scheduler;
 
@@ -50,22 +60,57 @@ public class StreamGenericContainer<K, V> extends AbstractStreamContainer<K, V>
      */
     public StreamGenericContainer(StreamOperator<K, V> operator, ExecutorService executor,
                                   ScheduledExecutorService scheduler, long quietPeriod, long timeout, long period) {
+        this(operator, executor, scheduler, quietPeriod, timeout, period, null);
+    }
+
+    /**
+     * 创建一个新的 StreamGenericContainer 实例（自适应拉取间隔）
+     * <p>
+     * 拉取间隔根据拉取结果在 [minPeriod, maxPeriod] 之间自动调整，详见 {@link AdaptivePollPolicy}。
+     *
+     * @param operator    StreamOperator
+     * @param executor    虚拟线程执行器
+     * @param scheduler   调度器
+     * @param quietPeriod quietPeriod 优雅关闭（等待正在运行的任务完成，单位毫秒）
+     * @param timeout     timeout 优雅关闭（最大等待时间，单位毫秒）
+     * @param policy      自适应拉取策略（不能为空）
+     * @since 1.1.0
+     */
+    public StreamGenericContainer(StreamOperator<K, V> operator, ExecutorService executor,
+                                  ScheduledExecutorService scheduler, long quietPeriod, long timeout,
+                                  AdaptivePollPolicy policy) {
+        this(operator, executor, scheduler, quietPeriod, timeout, minPeriod(policy), policy);
+    }
+
+    private StreamGenericContainer(StreamOperator<K, V> operator, ExecutorService executor,
+                                   ScheduledExecutorService scheduler, long quietPeriod, long timeout, long period,
+                                   AdaptivePollPolicy policy) {
         super(operator, quietPeriod, timeout);
         Assert.notNull(executor, "executor must not be null");
         Assert.notNull(scheduler, "scheduler must not be null");
         Assert.isTrue(period > 0, "interval must be greater than 0");
 
         this.period = period;
+        this.policy = policy;
         this.executor = executor;
         this.scheduler = scheduler;
         this.streamTask = new StreamGenericTask<>(operator);
         this.start();
     }
 
+    private static long minPeriod(AdaptivePollPolicy policy) {
+        Assert.notNull(policy, "policy must not be null");
+        return policy.getMinPeriod();
+    }
+
     /**
      * 启动 pull 和 consume 任务
      */
     private void start() {
+        if (this.policy != null) {
+            this.startAdaptive(this.streamTask::pullAsync, this.streamTask::consume, this.scheduler, this.policy);
+            return;
+        }
         this.schedulePullFuture = this.scheduler.scheduleWithFixedDelay(this.streamTask::pull,
                 this.period, this.period, TimeUnit.MILLISECONDS);
         this.scheduleConsumeFuture = this.scheduler.scheduleWithFixedDelay(this.streamTask::consume,
@@ -75,7 +120,7 @@ public class StreamGenericContainer<K, V> extends AbstractStreamContainer<K, V>
     /**
      * 订阅流（非 group）
      *
-     * @param offset  偏移量（不能为空）
+     * @param offset  偏移量（不能为空；如已启动读偏移检查点且有已保存的读偏移，则使用已保存的读偏移）
      * @param options 读选项（不能为空） {@code 0 < count <= (1 << 29)}
      * @return {@link Flow} – 无限数据流（订阅之后除非取消，否则将一直拉取流消息并推送给 {@link Subscriber}）
      */
@@ -83,11 +128,33 @@ public class StreamGenericContainer<K, V> extends AbstractStreamContainer<K, V>
         Assert.notNull(offset, "offset must not be null");
         Assert.notNull(options, "options must not be null");
 
-        RetrySink<XStreamMessage<K, V>> sink = new RetrySink<>(executor, options.count());
-        this.streamTask.add(new StreamInfo<>(options.to(), offset, sink));
+        RetrySink<XStreamMessage<K, V>> sink = this.createSink(executor, options.count());
+        this.streamTask.add(this.createStreamInfo(options.to(), offset, sink));
         return new RetryFlow<>(sink);
     }
 
+    /**
+     * 订阅流并解码消息（非 group）
+     * <p>
+     * 数据池缓存原始消息，由消费任务调用 {@link StreamCodec#decodeMsg} 解码后推送给订阅者，解码不占用拉取线程；
+     * 解码失败时回调 {@link Subscriber#onError(Throwable, Subscription)}，并丢弃该消息。
+     * <p>
+     * 分区订阅需从原始消息提取分区键，详见 {@link DecodingFlow#subscribeByRawKey}。
+     *
+     * @param offset   偏移量（不能为空）
+     * @param options  读选项（不能为空） {@code 0 < count <= (1 << 29)}
+     * @param codec    消息体编解码（不能为空）
+     * @param <T>      解码后的消息类型
+     * @return {@link DecodingFlow} – 无限数据流（订阅之后除非取消，否则将一直拉取流消息并推送给 {@link Subscriber}）
+     * @see DecodingFlow
+     * @since 1.1.0
+     */
+    public <T> DecodingFlow<XStreamMessage<K, V>, T> subscribe(XStreamOffset<K> offset, ReadOptions options,
+                                                               StreamCodec<K, V, T> codec) {
+        Assert.notNull(codec, "codec must not be null");
+        return decode(this.subscribe(offset, options), codec);
+    }
+
     /**
      * 订阅流（group）
      *
@@ -102,9 +169,104 @@ public class StreamGenericContainer<K, V> extends AbstractStreamContainer<K, V>
         Assert.notNull(options, "options must not be null");
         Assert.notNull(consumer, "consumer must not be null");
 
-        RetrySink<XStreamMessage<K, V>> sink = new RetrySink<>(executor, options.count());
-        this.streamTask.add(new StreamGroupInfo<>(options.to(), offset, sink, consumer));
-        return new RetryFlow<>(sink);
+        RetrySink<XStreamMessage<K, V>> sink = this.createSink(executor, options.count());
+        StreamGroupInfo<K, V> info = new StreamGroupInfo<>(options.to(), offset, sink, consumer);
+        this.streamTask.add(info);
+        this.recovery.add(info);
+        return new RetryFlow<>(sink, () -> this.flushAck(offset.getKey(), consumer.group()));
+    }
+
+    /**
+     * 订阅流并解码消息（group）
+     * <p>
+     * 数据池缓存原始消息，由消费任务调用 {@link StreamCodec#decodeMsg} 解码后推送给订阅者，解码不占用拉取线程；
+     * 解码失败时回调 {@link Subscriber#onError(Throwable, Subscription)}，并丢弃该消息。
+     * <p>
+     * 解码后的消息保留流名称及消息 ID，处理完成后可调用 {@link AckAggregator#ack(Object, Object, String)} 确认消息。
+     * <p>
+     * 分区订阅需从原始消息提取分区键，详见 {@link DecodingFlow#subscribeByRawKey}。
+     *
+     * @param offset   读偏移（不能为空）
+     * @param options  读选项（不能为空） {@code 0 < count <= (1 << 29)} 且 {@code block > 0}
+     * @param consumer 消费组名及消费者名（不能为空）
+     * @param codec    消息体编解码（不能为空）
+     * @param <T>      解码后的消息类型
+     * @return {@link DecodingFlow} – 无限数据流（订阅之后除非取消，否则将一直拉取流消息并推送给 {@link Subscriber}）
+     * @see DecodingFlow
+     * @since 1.1.0
+     */
+    public <T> DecodingFlow<XStreamMessage<K, V>, XStreamRecord<K, T>> subscribe(
+            XStreamOffset<K> offset, ReadOptions options, XGroupConsumer<K> consumer, StreamCodec<K, V, T> codec) {
+        Assert.notNull(codec, "codec must not be null");
+        return decodeRecord(this.subscribe(offset, options, consumer), codec);
+    }
+
+    /**
+     * 启动待处理消息恢复任务（每个容器仅能启动一次）
+     * <p>
+     * 定时使用 {@code xautoclaim} 将空闲时间超过 minIdleTime 的待处理消息认领给订阅的消费者，
+     * 并推送到该订阅的数据池，数据池空间不足时跳过该订阅。
+     * <p>
+     * 注意：minIdleTime 须大于消息在数据池中的最长等待时长与本地重试的最长时长之和，
+     * 否则其它消费者尚未消费完成的消息可能被认领并重复处理。
+     *
+     * @param options 恢复选项（不能为空）
+     * @throws IllegalStateException 如果已启动
+     * @since 1.1.0
+     */
+    public void startRecovery(RecoveryOptions options) {
+        Assert.notNull(options, "options must not be null");
+        this.recovery.start(this.scheduler, options);
+    }
+
+    /**
+     * 创建批量确认（每个容器仅能创建一次）
+     * <p>
+     * 订阅者处理完消息后调用 {@link AckAggregator#ack(Object, XStreamMessage)}，
+     * 由批量确认按 (流, 消费组) 合并为多 ID 的 {@code xack} 命令发送，取消订阅及关闭容器时发送所有待确认的消息。
+     *
+     * @param options 批量确认选项（不能为空）
+     * @return {@link AckAggregator} – 批量确认
+     * @throws IllegalStateException 如果已创建
+     * @since 1.1.0
+     */
+    public AckAggregator<K, V> ackAggregator(AckOptions options) {
+        return this.createAckAggregator(this.scheduler, options);
+    }
+
+    /**
+     * 启动读偏移检查点（每个容器仅能启动一次）
+     * <p>
+     * 启动后新创建的订阅，优先从 {@link OffsetStore} 恢复已保存的读偏移（无记录则使用订阅时传入的读偏移），
+     * 消息消费完成后记录读偏移，每隔 interval 毫秒批量保存，关闭容器时等待数据池排空后保存所有未保存的读偏移。
+     * <p>
+     * 注意：应在订阅之前启动。
+     *
+     * @param store    读偏移存储（不能为空），如 {@link RedisOffsetStore}、{@link MappedFileOffsetStore}
+     * @param interval 保存间隔（单位：毫秒） {@code interval > 0}
+     * @return {@link OffsetCheckpointer} – 读偏移检查点
+     * @throws IllegalStateException 如果已启动
+     * @since 1.1.0
+     */
+    public OffsetCheckpointer<K> checkpointOffsets(OffsetStore<K> store, long interval) {
+        return this.createCheckpointer(this.scheduler, store, interval);
+    }
+
+    /**
+     * 启动延迟重试的时间轮（每个容器仅能启动一次）
+     * <p>
+     * 启动后新创建的订阅，消费失败后调用 {@link RetrySubscription#retry(Object, java.time.Duration)} 延迟重试时，
+     * 消息放入时间轮等待，消费任务继续消费后续消息，到期后再交回原消费任务重试。
+     * 关闭容器时，时间轮中未到期的消息将被丢弃。
+     *
+     * @param tick      刻度时长（单位：毫秒），即延迟重试的精度 {@code tick > 0}
+     * @param wheelSize 槽位数量 {@code 0 < wheelSize <= (1 << 20)}
+     * @return {@link HashedTimerWheel} – 时间轮
+     * @throws IllegalStateException 如果已启动
+     * @since 1.1.0
+     */
+    public HashedTimerWheel startRetryTimer(long tick, int wheelSize) {
+        return this.createRetryTimer(this.scheduler, tick, wheelSize);
     }
 
 }
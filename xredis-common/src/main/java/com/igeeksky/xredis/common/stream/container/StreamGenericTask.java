@@ -1,44 +1,25 @@
 package com.igeeksky.xredis.common.stream.container;
 
-import com.igeeksky.xredis.common.flow.RetrySink;
 import com.igeeksky.xredis.common.stream.StreamOperator;
-import com.igeeksky.xredis.common.stream.XStreamMessage;
-import com.igeeksky.xtool.core.concurrent.Futures;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Future;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import com.igeeksky.xredis.common.stream.XGroupConsumer;
+import com.igeeksky.xtool.core.tuple.Tuples;
 
 /**
- * 流任务抽象类
+ * 流任务（通用）
+ * <p>
+ * 每次拉取时，将读取选项相同（消费者组还需消费组名及消费者名相同）的就绪流合并到一个多流读取命令，
+ * 返回结果再按流拆分并分发，读取选项不同的流依然分开读取。<br>
+ * 如同一个流被多次订阅，则分入不同批次读取。<br>
+ * 集群模式下，还会按哈希槽对流进行分组（避免 CROSSSLOT 错误）。<br>
+ * 每个流的读取数量不超过其数据池的空闲容量，并按读取额度档位分组，详见 {@link ReadCredits}。<br>
+ * 阻塞读取时，多个批次的命令中仅最后发送的命令阻塞。
  *
  * @param <K> 键类型
  * @param <V> 值类型
  * @author Patrick.Lau
  * @since 1.0.0
  */
-public class StreamGenericTask<K, V> implements StreamTask<K, V> {
-
-    private static final Logger log = LoggerFactory.getLogger(StreamGenericTask.class);
-
-    private final StreamOperator<K, V> operator;
-
-    private final Lock pullLock = new ReentrantLock();
-
-    private final ArrayList<Future<?>> dispatchFutures = new ArrayList<>();
-
-    /**
-     * 流信息列表
-     */
-    protected final Queue<StreamInfo<K, V>> streams = new ConcurrentLinkedQueue<>();
+public class StreamGenericTask<K, V> extends AbstractStreamTask<K, V> {
 
     /**
      * 构造函数
@@ -46,108 +27,23 @@ public class StreamGenericTask<K, V> implements StreamTask<K, V> {
      * @param operator 流操作
      */
     public StreamGenericTask(StreamOperator<K, V> operator) {
-        this.operator = operator;
-    }
-
-    @Override
-    public void add(StreamInfo<K, V> info) {
-        streams.offer(info);
-    }
-
-    @Override
-    public void pull() {
-        try {
-            boolean locked = pullLock.tryLock();
-            if (locked) {
-                try {
-                    this.doPull();
-                } catch (Throwable e) {
-                    log.error("Error occurred during doPull: {}", e.getMessage(), e);
-                } finally {
-                    pullLock.unlock();
-                }
-            } else {
-                if (log.isWarnEnabled()) {
-                    log.warn("Failed to acquire lock for pull operation");
-                }
-            }
-        } catch (Throwable ignore) {
-        }
-    }
-
-    private void doPull() {
-        // 需等待 StreamInfo 更新 offset：如果上次任务未完成，那么 offset 可能还未更新，会拉取到重复的消息
-        int size = dispatchFutures.size();
-        int last = Futures.checkAll(dispatchFutures);
-        if (last < size) {
-            return;
-        }
-        dispatchFutures.clear();
-        if (streams.isEmpty()) {
-            return;
-        }
-        Iterator<? extends StreamInfo<K, V>> iterator = streams.iterator();
-        while (iterator.hasNext()) {
-            StreamInfo<K, V> info = iterator.next();
-            RetrySink<XStreamMessage<K, V>> sink = info.getSink();
-            if (sink.isCancelled()) {
-                iterator.remove();
-                continue;
-            }
-            if (sink.isNotReady() || sink.isNotEnoughSpace() || sink.isPullPaused()) {
-                continue;
-            }
-            // 分开提交命令，统一等待结果并分发数据
-            if (info instanceof StreamGroupInfo<K, V> groupInfo) {
-                dispatchFutures.add(this.dispatch(info, this.xreadgroup(groupInfo)));
-            } else {
-                dispatchFutures.add(this.dispatch(info, this.xread(info)));
-            }
-        }
-    }
-
-    @Override
-    public void consume() {
-        try {
-            Iterator<? extends StreamInfo<K, V>> iterator = streams.iterator();
-            while (iterator.hasNext()) {
-                StreamInfo<K, V> info = iterator.next();
-                RetrySink<XStreamMessage<K, V>> sink = info.getSink();
-                if (sink.isCancelled()) {
-                    iterator.remove();
-                    continue;
-                }
-                sink.run();
-            }
-        } catch (Throwable e) {
-            log.error(e.getMessage(), e);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private CompletableFuture<List<XStreamMessage<K, V>>> xread(StreamInfo<K, V> info) {
-        return this.operator.xreadAsync(info.getOptions(), info.getOffset());
-    }
-
-    @SuppressWarnings("unchecked")
-    private CompletableFuture<List<XStreamMessage<K, V>>> xreadgroup(StreamGroupInfo<K, V> info) {
-        return this.operator.xreadgroupAsync(info.getConsumer(), info.getOptions(), info.getOffset());
+        super(operator);
     }
 
     /**
-     * 分发数据
+     * 分组键：非消费者组为 {@code (slot, count, options)}；消费者组为 {@code (slot, count, group, name, options)}
      *
-     * @param info   流相关信息
-     * @param future 拉取的消息
-     * @return {@code CompletableFuture<Void>}
+     * @param info  流信息
+     * @param count 读取额度档位
+     * @return {@link Object} – 分组键
      */
-    private CompletableFuture<Void> dispatch(StreamInfo<K, V> info,
-                                             CompletableFuture<List<XStreamMessage<K, V>>> future) {
-        return future.thenAccept(info::receive)
-                .exceptionally(t -> {
-                    info.getSink().error(t);
-                    return null;
-                });
+    @Override
+    protected Object groupKey(StreamInfo<K, V> info, int count) {
+        if (info instanceof StreamGroupInfo<K, V> groupInfo) {
+            XGroupConsumer<K> consumer = groupInfo.getConsumer();
+            return Tuples.of(info.getSlot(), count, consumer.group(), consumer.name(), info.getOptions());
+        }
+        return Tuples.of(info.getSlot(), count, info.getOptions());
     }
 
 }
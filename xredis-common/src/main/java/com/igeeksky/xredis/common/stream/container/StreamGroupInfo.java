@@ -5,9 +5,21 @@ import com.igeeksky.xredis.common.stream.XGroupConsumer;
 import com.igeeksky.xredis.common.stream.XReadOptions;
 import com.igeeksky.xredis.common.stream.XStreamMessage;
 import com.igeeksky.xredis.common.stream.XStreamOffset;
+import com.igeeksky.xtool.core.collection.CollectionUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 流信息（消费者组）
+ * <p>
+ * 读偏移规则：<br>
+ * 1. 读偏移为 {@code ">"} 时，读取新消息：RedisServer 会记录消费者组的最后投递位置，因此读偏移保持不变；<br>
+ * 2. 读偏移为具体 ID 时，读取该消费者已投递但未确认的历史消息：推送后更新读偏移，
+ * 历史消息读取完毕（读取结果为空）后切换为 {@code ">"}；<br>
+ * 3. 读偏移为 {@code ">"} 时，如数据池拒绝部分消息（数据池已满或内存预算不足），这些消息已进入待确认列表，
+ * 因此切换为读取历史消息，从最后一条成功推送的消息之后重新读取。
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -18,6 +30,11 @@ public class StreamGroupInfo<K, V> extends StreamInfo<K, V> {
 
     private final XGroupConsumer<K> consumer;
 
+    /**
+     * 已推送到数据池但尚未消费完成的消息 ID（恢复任务认领到这些消息时不再重复推送）
+     */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
     /**
      * 构造器
      *
@@ -30,6 +47,7 @@ public class StreamGroupInfo<K, V> extends StreamInfo<K, V> {
                            RetrySink<XStreamMessage<K, V>> sink, XGroupConsumer<K> consumer) {
         super(options, offset, sink);
         this.consumer = consumer;
+        sink.setCompleteListener(message -> this.inFlight.remove(message.id()));
     }
 
     /**
@@ -41,4 +59,51 @@ public class StreamGroupInfo<K, V> extends StreamInfo<K, V> {
         return consumer;
     }
 
+    /**
+     * 消息是否已推送到数据池且尚未消费完成
+     *
+     * @param id 消息 ID
+     * @return {@code true} – 尚未消费完成；{@code false} – 未推送或已消费完成
+     */
+    boolean isInFlight(String id) {
+        return this.inFlight.contains(id);
+    }
+
+    @Override
+    protected boolean push(XStreamMessage<K, V> message) {
+        // 先登记再推送：消费任务可能在推送返回前即已完成该消息
+        String id = message.id();
+        this.inFlight.add(id);
+        if (super.push(message)) {
+            return true;
+        }
+        this.inFlight.remove(id);
+        return false;
+    }
+
+    @Override
+    public void receive(List<XStreamMessage<K, V>> messages) {
+        XStreamOffset<K> offset = this.getOffset();
+        if (XStreamOffset.lastConsumed.equals(offset.getOffset())) {
+            if (CollectionUtils.isEmpty(messages)) {
+                return;
+            }
+            String id = this.deliver(messages);
+            String last = messages.getLast().id();
+            if (!last.equals(id) && !this.getSink().isCancelled()) {
+                // 被拒绝的消息已投递给本消费者（位于待确认列表），切换为读取历史消息，避免消息滞留
+                K key = offset.getKey();
+                this.setOffset((id != null) ? XStreamOffset.from(key, id) : XStreamOffset.first(key));
+            }
+            return;
+        }
+        if (CollectionUtils.isEmpty(messages)) {
+            if (!this.getSink().isCancelled()) {
+                this.setOffset(XStreamOffset.lastConsumed(offset.getKey()));
+            }
+            return;
+        }
+        super.receive(messages);
+    }
+
 }
@@ -0,0 +1,57 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xtool.core.tuple.Tuples;
+
+/**
+ * 流处理任务（消费者组）
+ * <p>
+ * 将消费组名、消费者名及读取选项均相同的流合并到一个 {@code xreadgroup} 命令进行读取，
+ * 返回结果再按流分发给各自的数据池，以减少网络请求次数及可能的堵塞时长。
+ * <p>
+ * 集群模式下，还会按哈希槽对流进行分组（避免 CROSSSLOT 错误），各分组的读取命令并发发送，
+ * 由集群连接根据当前拓扑路由到哈希槽所在的节点。
+ * <p>
+ * 每个流的读取数量不超过其数据池的空闲容量，同一分组内按读取额度档位拆分读取，详见 {@link ReadCredits}；
+ * 阻塞读取时，多个命令中仅最后发送的命令阻塞。
+ * <p>
+ * 分组及合并读取复用 {@link StreamGenericTask}，仅限制流信息类型，并拒绝同一消费者以相同读取选项重复订阅同一个流。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class StreamGroupTask<K, V> extends StreamGenericTask<K, V> {
+
+    /**
+     * 构造函数
+     *
+     * @param operator 流操作
+     */
+    public StreamGroupTask(StreamOperator<K, V> operator) {
+        super(operator);
+    }
+
+    @Override
+    public void add(StreamInfo<K, V> info) {
+        if (!(info instanceof StreamGroupInfo<K, V>)) {
+            throw new IllegalArgumentException("StreamGroupTask only supports StreamGroupInfo");
+        }
+        super.add(info);
+    }
+
+    /**
+     * 同一消费者以相同读取选项重复订阅同一个流（哈希槽、消费组名、消费者名、读取选项及流名称均相同）
+     *
+     * @param old  已有的流信息（未取消）
+     * @param info 新添加的流信息
+     * @return {@code true} – 重复订阅；{@code false} – 不冲突
+     */
+    @Override
+    protected boolean conflicts(StreamInfo<K, V> old, StreamInfo<K, V> info) {
+        return this.groupKey(old, 0).equals(this.groupKey(info, 0))
+                && Tuples.of(old.getOffset().getKey()).equals(Tuples.of(info.getOffset().getKey()));
+    }
+
+}
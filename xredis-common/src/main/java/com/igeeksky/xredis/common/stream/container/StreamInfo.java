@@ -6,7 +6,10 @@ import com.igeeksky.xredis.common.stream.XStreamMessage;
 import com.igeeksky.xredis.common.stream.XStreamOffset;
 import com.igeeksky.xtool.core.collection.CollectionUtils;
 
+import java.util.ArrayDeque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 流相关信息
@@ -22,8 +25,25 @@ public class StreamInfo<K, V> {
 
     private volatile XStreamOffset<K> offset;
 
+    private int slot;
+
     private final RetrySink<XStreamMessage<K, V>> sink;
 
+    /**
+     * 读偏移检查点（仅非消费者组，可以为空）
+     */
+    private volatile OffsetCheckpointer<K> checkpointer;
+
+    /**
+     * 已推送到数据池但尚未确认消费完成的消息 ID（按推送顺序；仅启用读偏移检查点时记录）
+     */
+    private final ArrayDeque<String> delivered = new ArrayDeque<>();
+
+    /**
+     * 已消费完成，但之前仍有未完成消费的消息 ID
+     */
+    private final Set<String> consumed = new HashSet<>();
+
     /**
      * 创建 StreamInfo
      *
@@ -64,31 +84,132 @@ public class StreamInfo<K, V> {
         return sink;
     }
 
+    /**
+     * 获取流所属的哈希槽（由流任务在添加时计算）
+     *
+     * @return 哈希槽
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * 设置流所属的哈希槽
+     *
+     * @param slot 哈希槽
+     */
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * 设置读偏移检查点（消息消费完成后记录到检查点）
+     *
+     * @param checkpointer 读偏移检查点
+     */
+    void setCheckpointer(OffsetCheckpointer<K> checkpointer) {
+        this.checkpointer = checkpointer;
+        this.sink.setCompleteListener(this::consumed);
+    }
+
+    /**
+     * 设置读偏移
+     *
+     * @param offset 读偏移
+     */
+    protected void setOffset(XStreamOffset<K> offset) {
+        this.offset = offset;
+    }
+
     /**
      * 接收消息并更新读偏移
+     * <p>
+     * 读偏移在消息推送到数据池后即更新（用于下次读取）；
+     * 如已设置读偏移检查点，则在消息消费完成后才记录到检查点，详见 {@link #consumed(XStreamMessage)}。
      *
      * @param messages 消息列表
      */
     public void receive(List<XStreamMessage<K, V>> messages) {
-        if (sink.isCancelled()) {
+        String id = this.deliver(messages);
+        // 更新读偏移
+        if (id != null) {
+            this.offset = XStreamOffset.from(this.offset.getKey(), id);
+        }
+    }
+
+    /**
+     * 消息消费完成：记录到读偏移检查点
+     * <p>
+     * 多个消费任务完成消息的顺序可能与推送顺序不同，因此仅当之前推送的消息均已完成时才推进检查点，
+     * 保证重启后从检查点继续读取时，不会跳过尚未消费的消息。
+     *
+     * @param message 消费完成的消息
+     */
+    private void consumed(XStreamMessage<K, V> message) {
+        OffsetCheckpointer<K> checkpointer1 = this.checkpointer;
+        if (checkpointer1 == null) {
             return;
         }
+        synchronized (this.delivered) {
+            String id = message.id();
+            if (!id.equals(this.delivered.peek())) {
+                this.consumed.add(id);
+                return;
+            }
+            String last = this.delivered.poll();
+            while (!this.delivered.isEmpty() && this.consumed.remove(this.delivered.peek())) {
+                last = this.delivered.poll();
+            }
+            checkpointer1.mark(this.offset.getKey(), last);
+        }
+    }
+
+    /**
+     * 推送消息到数据池
+     *
+     * @param messages 消息列表
+     * @return {@link String} – 最后一条成功推送的消息 ID（无消息推送则返回 {@code null}）
+     */
+    protected String deliver(List<XStreamMessage<K, V>> messages) {
+        if (sink.isCancelled()) {
+            return null;
+        }
         if (CollectionUtils.isEmpty(messages)) {
-            return;
+            return null;
         }
         String id = null;
         for (XStreamMessage<K, V> message : messages) {
-            if (sink.next(message)) {
+            if (this.push(message)) {
                 id = message.id();
             } else {
                 break;
             }
         }
-        // 更新读偏移
-        if (id != null) {
-            K key = this.offset.getKey();
-            this.offset = XStreamOffset.from(key, id);
+        return id;
+    }
+
+    /**
+     * 推送单条消息到数据池（如已设置读偏移检查点，先登记消息 ID，以便消费完成后按序推进检查点）
+     *
+     * @param message 消息
+     * @return {@code true} – 推送成功；{@code false} – 推送失败
+     */
+    protected boolean push(XStreamMessage<K, V> message) {
+        if (this.checkpointer == null) {
+            return sink.next(message);
+        }
+        // 先登记再推送：消费任务可能在推送返回前即已完成该消息
+        synchronized (this.delivered) {
+            this.delivered.offer(message.id());
+        }
+        if (sink.next(message)) {
+            return true;
+        }
+        // 推送操作仅在拉取线程执行，最后登记的即为本条消息
+        synchronized (this.delivered) {
+            this.delivered.pollLast();
         }
+        return false;
     }
 
 }
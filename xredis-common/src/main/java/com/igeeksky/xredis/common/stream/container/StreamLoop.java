@@ -0,0 +1,85 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 阻塞读取循环
+ * <p>
+ * 上一次读取及分发完成后立即发起下一次读取；
+ * 无可读取的流（数据池空间不足、暂停或无订阅者）或读取失败时暂停，直至被唤醒或超过暂停时长。
+ *
+ * @author Patrick.Lau
+ * @see PullMode#BLOCKING_LOOP
+ * @since 1.1.0
+ */
+final class StreamLoop implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamLoop.class);
+
+    private final long idleNanos;
+    private final Supplier<? extends CompletableFuture<?>> puller;
+
+    private volatile boolean running = true;
+    private volatile Thread thread;
+
+    /**
+     * 构造函数
+     *
+     * @param puller     拉取函数（返回 {@code null} 表示无可读取的流）
+     * @param idleMillis 最大暂停时长，单位毫秒
+     */
+    StreamLoop(Supplier<? extends CompletableFuture<?>> puller, long idleMillis) {
+        this.puller = puller;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, idleMillis));
+    }
+
+    @Override
+    public void run() {
+        this.thread = Thread.currentThread();
+        try {
+            while (this.running) {
+                try {
+                    CompletableFuture<?> future = this.puller.get();
+                    if (future == null) {
+                        LockSupport.parkNanos(this, this.idleNanos);
+                        continue;
+                    }
+                    future.join();
+                } catch (Throwable e) {
+                    if (this.running) {
+                        log.error("StreamLoop: pull has error. {}", e.getMessage(), e);
+                        // 读取失败（如：连接断开），暂停后再重试，避免空转
+                        LockSupport.parkNanos(this, this.idleNanos);
+                    }
+                }
+            }
+        } finally {
+            this.thread = null;
+        }
+    }
+
+    /**
+     * 唤醒暂停的循环（如：消费任务已消费消息，数据池有可用空间）
+     */
+    void wakeup() {
+        Thread t = this.thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    /**
+     * 停止循环（正在执行的读取命令返回后退出）
+     */
+    void stop() {
+        this.running = false;
+        this.wakeup();
+    }
+
+}
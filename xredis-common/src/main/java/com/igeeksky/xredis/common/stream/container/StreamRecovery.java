@@ -0,0 +1,257 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.stream.*;
+import com.igeeksky.xtool.core.concurrent.Futures;
+import com.igeeksky.xtool.core.tuple.Tuple2;
+import com.igeeksky.xtool.core.tuple.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 待处理消息恢复（消费者组）
+ * <p>
+ * 消费者异常退出后，其已读取但未确认的消息将一直保留在消费组的待处理列表（PEL）中。<br>
+ * 恢复任务定时使用 {@code xautoclaim} 将空闲时间超过 {@link RecoveryOptions#minIdleTime()} 的待处理消息
+ * 认领给当前消费者，并推送到该订阅的数据池，由订阅者重新处理。
+ * <p>
+ * 每轮恢复，每个 (流, 消费组) 仅发送一次 {@code xpending}，每个订阅发送一次 {@code xautoclaim}，
+ * 所有命令无需等待前一命令的结果即连续发送（由连接以管道方式批量写出）；
+ * 上一轮 {@code xpending} 结果为 0 的 (流, 消费组)，本轮不发送 {@code xautoclaim}。
+ * <p>
+ * 单次认领的数量不超过数据池的空闲容量，数据池已满、暂停拉取或无订阅者时跳过该订阅；
+ * 数据池未能接收的消息依然保留在待处理列表中，空闲时间再次超过 minIdleTime 后将被重新认领。
+ * <p>
+ * 认领到的消息如仍在本订阅的数据池中等待消费（或正在消费、等待重试），则不再重复推送。
+ * 但其它消费者的数据池中尚未消费完成的消息，空闲时间超过 minIdleTime 后依然会被认领，
+ * 因此 minIdleTime 须大于消息在数据池中的最长等待时长与本地重试的最长时长之和。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+final class StreamRecovery<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamRecovery.class);
+
+    private final StreamOperator<K, V> operator;
+
+    private final Queue<Claimer<K, V>> claimers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 各 (流, 消费组) 最近一次 {@code xpending} 返回的待处理消息数量
+     */
+    private final Map<Tuple2<K, K>, Long> pendings = new ConcurrentHashMap<>();
+
+    private final ArrayList<Future<?>> futures = new ArrayList<>();
+
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder claims = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile long startTime;
+    private volatile RecoveryOptions options;
+    private volatile ScheduledFuture<?> scheduleFuture;
+
+    /**
+     * 构造函数
+     *
+     * @param operator 流操作
+     */
+    StreamRecovery(StreamOperator<K, V> operator) {
+        this.operator = operator;
+    }
+
+    /**
+     * 添加消费者组订阅
+     *
+     * @param info 流信息
+     */
+    void add(StreamGroupInfo<K, V> info) {
+        this.claimers.offer(new Claimer<>(info));
+    }
+
+    /**
+     * 启动恢复任务
+     *
+     * @param scheduler 定时任务调度器
+     * @param options   恢复选项
+     * @throws IllegalStateException 如果已启动
+     */
+    synchronized void start(ScheduledExecutorService scheduler, RecoveryOptions options) {
+        if (this.options != null) {
+            throw new IllegalStateException("recovery already started");
+        }
+        this.options = options;
+        this.startTime = System.currentTimeMillis();
+        long period = options.period();
+        this.scheduleFuture = scheduler.scheduleWithFixedDelay(this::recover, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止恢复任务
+     */
+    void stop() {
+        ScheduledFuture<?> future = this.scheduleFuture;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return {@link RecoveryStats} – 统计信息（快照）；如未启动，返回 {@code null}
+     */
+    RecoveryStats stats() {
+        if (this.options == null) {
+            return null;
+        }
+        // 同一 (流, 消费组) 的多个订阅共享同一个待处理列表，仅计算一次
+        long pending = 0;
+        for (Long count : this.pendings.values()) {
+            pending += count;
+        }
+        long elapsed = System.currentTimeMillis() - this.startTime;
+        return new RecoveryStats(pending, claimed.sum(), delivered.sum(), claims.sum(), failures.sum(), elapsed);
+    }
+
+    private void recover() {
+        try {
+            // 上一轮恢复未完成，跳过本轮（避免重复认领）
+            int size = this.futures.size();
+            if (Futures.checkAll(this.futures) < size) {
+                return;
+            }
+            this.futures.clear();
+            RecoveryOptions opts = this.options;
+            Set<Tuple2<K, K>> groups = new HashSet<>();
+            Iterator<Claimer<K, V>> iterator = this.claimers.iterator();
+            while (iterator.hasNext()) {
+                Claimer<K, V> claimer = iterator.next();
+                RetrySink<XStreamMessage<K, V>> sink = claimer.info.getSink();
+                if (sink.isCancelled()) {
+                    iterator.remove();
+                    continue;
+                }
+                // 每个 (流, 消费组) 仅查询一次待处理列表概要
+                if (groups.add(claimer.group)) {
+                    this.futures.add(this.pending(claimer));
+                }
+                if (sink.isNotReady() || sink.isPullPaused()) {
+                    continue;
+                }
+                Long pending = this.pendings.get(claimer.group);
+                if (pending != null && pending == 0) {
+                    claimer.cursor = XAutoClaimResult.START_ID;
+                    continue;
+                }
+                int credits = ReadCredits.of(claimer.info);
+                if (credits <= 0) {
+                    continue;
+                }
+                this.futures.add(this.claim(claimer, opts, Math.min(opts.count(), credits)));
+            }
+            // 移除已无订阅的 (流, 消费组)
+            this.pendings.keySet().retainAll(groups);
+        } catch (Throwable e) {
+            log.error("StreamRecovery: recover has error. {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 查询待处理列表概要，并记录待处理消息数量
+     *
+     * @param claimer 订阅的恢复状态（用于获取流名称及消费组名称）
+     * @return {@code CompletableFuture<Void>} – 查询结果
+     */
+    private CompletableFuture<Void> pending(Claimer<K, V> claimer) {
+        K stream = claimer.group.getT1();
+        K group = claimer.group.getT2();
+        return this.operator.xpendingAsync(stream, group)
+                .thenAccept(summary -> this.pendings.put(claimer.group, summary.count()))
+                .exceptionally(t -> {
+                    this.failures.increment();
+                    log.error("StreamRecovery: xpending has error. stream: {}, group: {}. {}",
+                            stream, group, t.getMessage(), t);
+                    return null;
+                });
+    }
+
+    private CompletableFuture<Void> claim(Claimer<K, V> claimer, RecoveryOptions opts, int count) {
+        StreamGroupInfo<K, V> info = claimer.info;
+        K stream = info.getOffset().getKey();
+        XGroupConsumer<K> consumer = info.getConsumer();
+        this.claims.increment();
+        return this.operator.xautoclaimAsync(stream, consumer, opts.minIdleTime(), claimer.cursor, count)
+                .thenAccept(result -> this.deliver(claimer, result))
+                .exceptionally(t -> {
+                    this.failures.increment();
+                    log.error("StreamRecovery: recover has error. stream: {}, group: {}. {}",
+                            stream, consumer.group(), t.getMessage(), t);
+                    return null;
+                });
+    }
+
+    private void deliver(Claimer<K, V> claimer, XAutoClaimResult<K, V> result) {
+        claimer.cursor = result.finished() ? XAutoClaimResult.START_ID : result.nextId();
+        List<XStreamMessage<K, V>> messages = result.messages();
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        this.claimed.add(messages.size());
+        StreamGroupInfo<K, V> info = claimer.info;
+        if (info.getSink().isCancelled()) {
+            return;
+        }
+        int count = 0;
+        for (XStreamMessage<K, V> message : messages) {
+            // 仍在本订阅的数据池中等待消费的消息，不再重复推送
+            if (info.isInFlight(message.id())) {
+                continue;
+            }
+            if (!info.push(message)) {
+                break;
+            }
+            count++;
+        }
+        this.delivered.add(count);
+    }
+
+    /**
+     * 订阅的恢复状态
+     *
+     * @param <K> 键类型
+     * @param <V> 值类型
+     */
+    private static class Claimer<K, V> {
+
+        private final StreamGroupInfo<K, V> info;
+
+        /**
+         * (流名称, 消费组名称)
+         */
+        private final Tuple2<K, K> group;
+
+        private volatile String cursor = XAutoClaimResult.START_ID;
+
+        private Claimer(StreamGroupInfo<K, V> info) {
+            this.info = info;
+            this.group = Tuples.of(info.getOffset().getKey(), info.getConsumer().group());
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.igeeksky.xredis.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class BatchRetryPolicyTest {
+
+    @Test
+    void backoff() {
+        BatchRetryPolicy policy = BatchRetryPolicy.builder()
+                .backoffMillis(100)
+                .maxBackoffMillis(500)
+                .build();
+        Assertions.assertEquals(100, policy.backoff(1));
+        Assertions.assertEquals(200, policy.backoff(2));
+        Assertions.assertEquals(400, policy.backoff(3));
+        Assertions.assertEquals(500, policy.backoff(4));
+        Assertions.assertEquals(500, policy.backoff(100));
+    }
+
+    @Test
+    void maxWait() {
+        BatchRetryPolicy policy = BatchRetryPolicy.builder()
+                .maxRetries(3)
+                .backoffMillis(100)
+                .maxBackoffMillis(300)
+                .build();
+        // 4 次提交 + 退避（100 + 200 + 300）
+        Assertions.assertEquals(4 * 1000 + 600, policy.maxWait(1000));
+
+        BatchRetryPolicy unlimited = BatchRetryPolicy.builder()
+                .maxRetries(Integer.MAX_VALUE)
+                .build();
+        Assertions.assertEquals(Long.MAX_VALUE, unlimited.maxWait(Long.MAX_VALUE / 2));
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.igeeksky.xredis.common.breaker;
+
+import com.igeeksky.xredis.common.RedisOperationException;
+import com.igeeksky.xredis.common.RedisRejectedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class CircuitBreakerTest {
+
+    private static final CompletableFuture<String> FAILED = CompletableFuture.failedFuture(new RedisOperationException("timeout"));
+
+    @Test
+    void openAndHalfOpen() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+                .windowSize(10).minimumCalls(4).failureRateThreshold(0.5)
+                .openMillis(50).halfOpenCalls(2)
+                .build();
+        CircuitBreaker breaker = new CircuitBreaker("test", config);
+        List<CircuitState> states = new ArrayList<>();
+        breaker.addListener((name, from, to) -> states.add(to));
+
+        breaker.execute(() -> CompletableFuture.completedFuture("OK"));
+        breaker.execute(() -> CompletableFuture.completedFuture("OK"));
+        breaker.execute(() -> FAILED);
+        Assertions.assertEquals(CircuitState.CLOSED, breaker.getState());
+        breaker.execute(() -> FAILED);
+        Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+
+        CompletableFuture<String> rejected = breaker.execute(() -> CompletableFuture.completedFuture("OK"));
+        CompletionException e = Assertions.assertThrows(CompletionException.class, rejected::join);
+        Assertions.assertInstanceOf(CircuitBreakerOpenException.class, e.getCause());
+
+        LockSupport.parkNanos(60_000_000L);
+        CompletableFuture<String> trial1 = new CompletableFuture<>();
+        breaker.execute(() -> trial1);
+        Assertions.assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+        breaker.execute(() -> CompletableFuture.completedFuture("OK"));
+        // 试探请求数已满
+        Assertions.assertThrows(CompletionException.class, breaker.execute(() -> CompletableFuture.completedFuture("OK"))::join);
+        trial1.complete("OK");
+        Assertions.assertEquals(CircuitState.CLOSED, breaker.getState());
+        Assertions.assertEquals(List.of(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.CLOSED), states);
+    }
+
+    @Test
+    void halfOpenFailure() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+                .windowSize(2).minimumCalls(1).openMillis(1)
+                .build();
+        CircuitBreaker breaker = new CircuitBreaker("test", config);
+        breaker.execute(() -> FAILED);
+        Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+        LockSupport.parkNanos(5_000_000L);
+        breaker.execute(() -> FAILED);
+        Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+    }
+
+    @Test
+    void gateRejectionIsNotRecorded() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+                .windowSize(2).minimumCalls(1).openMillis(1).halfOpenCalls(1)
+                .build();
+        CircuitBreaker breaker = new CircuitBreaker("test", config);
+        breaker.execute(() -> FAILED);
+        Assertions.assertEquals(CircuitState.OPEN, breaker.getState());
+        LockSupport.parkNanos(5_000_000L);
+
+        // 门控拒绝执行：不关闭熔断器，且归还试探许可
+        CompletableFuture<String> rejected = breaker.execute(
+                call -> CompletableFuture.failedFuture(new RedisRejectedException("rejected")),
+                () -> CompletableFuture.completedFuture("OK"));
+        Assertions.assertThrows(CompletionException.class, rejected::join);
+        Assertions.assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+
+        breaker.execute(() -> CompletableFuture.completedFuture("OK"));
+        Assertions.assertEquals(CircuitState.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void slowCallExcludesGateWait() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+                .windowSize(2).minimumCalls(1).slowCallMillis(20)
+                .build();
+        CircuitBreaker breaker = new CircuitBreaker("test", config);
+        // 门控排队等待 30ms 后才执行命令，命令本身立即完成：不计为慢调用
+        breaker.execute(call -> {
+            LockSupport.parkNanos(30_000_000L);
+            return call.get().toCompletableFuture();
+        }, () -> CompletableFuture.completedFuture("OK")).join();
+        Assertions.assertEquals(0, breaker.getSlowCallRate());
+        Assertions.assertEquals(CircuitState.CLOSED, breaker.getState());
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.igeeksky.xredis.common.flow;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class DecodingFlowTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Test
+    void decodeOnConsumerAndRouteFailures() throws InterruptedException {
+        RetrySink<String> sink = new RetrySink<>(executor, 16, true);
+        Flow<Integer> flow = new DecodingFlow<>(new RetryFlow<>(sink), Integer::valueOf);
+        BlockingQueue<Integer> received = new LinkedBlockingQueue<>();
+        BlockingQueue<Throwable> decodeErrors = new LinkedBlockingQueue<>();
+        CountDownLatch retried = new CountDownLatch(1);
+        flow.subscribe(new Subscriber<>() {
+            private boolean failed;
+
+            @Override
+            public void onNext(Integer element) {
+                if (element == 3 && !failed) {
+                    failed = true;
+                    throw new IllegalStateException("process failed");
+                }
+                received.add(element);
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+                decodeErrors.add(t);
+            }
+
+            @Override
+            public void onError(Throwable t, Integer element, int attempts, RetrySubscription<Integer> s) {
+                Assertions.assertEquals(3, element);
+                retried.countDown();
+                s.retry(element);
+            }
+        }, 1);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        for (String s : List.of("1", "x", "3")) {
+            Assertions.assertTrue(sink.next(s));
+        }
+        Assertions.assertEquals(1, received.poll(500, TimeUnit.MILLISECONDS));
+        // 解码失败：回调 onError(Throwable, Subscription)，且不推送给 onNext
+        Assertions.assertInstanceOf(NumberFormatException.class, decodeErrors.poll(500, TimeUnit.MILLISECONDS));
+        // 处理失败：重试时重新推送原始元素
+        Assertions.assertTrue(retried.await(500, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(3, received.poll(500, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(received.isEmpty());
+        sink.cancel();
+    }
+
+    @Test
+    void batchSkipsUndecodableElements() throws InterruptedException {
+        RetrySink<String> sink = new RetrySink<>(executor, 16, true);
+        Flow<Integer> flow = new DecodingFlow<>(new RetryFlow<>(sink), Integer::valueOf);
+        BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+        BlockingQueue<Throwable> decodeErrors = new LinkedBlockingQueue<>();
+        flow.subscribe(new BatchSubscriber<>() {
+            @Override
+            public void onNext(List<Integer> batch) {
+                batches.add(List.copyOf(batch));
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+                decodeErrors.add(t);
+            }
+
+            @Override
+            public void onError(Throwable t, List<Integer> batch, int attempts, BatchRetrySubscription<Integer> s) {
+                Assertions.fail("unexpected retry");
+            }
+        }, BatchOptions.from(3, 50), 1);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        for (String s : List.of("1", "x", "3")) {
+            Assertions.assertTrue(sink.next(s));
+        }
+        Assertions.assertEquals(List.of(1, 3), batches.poll(500, TimeUnit.MILLISECONDS));
+        Assertions.assertInstanceOf(NumberFormatException.class, decodeErrors.poll(500, TimeUnit.MILLISECONDS));
+        sink.cancel();
+    }
+
+    @Test
+    void decodeOnceAcrossFailureAndRetry() throws InterruptedException {
+        RetrySink<String> sink = new RetrySink<>(executor, 16, true);
+        AtomicInteger decodes = new AtomicInteger();
+        Thread producer = Thread.currentThread();
+        DecodingFlow<String, Integer> flow = new DecodingFlow<>(new RetryFlow<>(sink), s -> {
+            // 写入数据池的线程仅提取分区键，不解码
+            Assertions.assertNotSame(producer, Thread.currentThread());
+            decodes.incrementAndGet();
+            return Integer.valueOf(s);
+        });
+        // 分区键只能从原始元素提取
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> flow.subscribe(new Subscriber<>() {
+                    @Override
+                    public void onNext(Integer element) {
+                    }
+
+                    @Override
+                    public void onError(Throwable t, Subscription s) {
+                    }
+
+                    @Override
+                    public void onError(Throwable t, Integer element, int attempts, RetrySubscription<Integer> s) {
+                    }
+                }, Function.identity(), 2));
+
+        BlockingQueue<Integer> received = new LinkedBlockingQueue<>();
+        AtomicInteger failures = new AtomicInteger();
+        flow.subscribeByRawKey(new Subscriber<>() {
+            @Override
+            public void onNext(Integer element) {
+                if (element == 3 && failures.get() < 2) {
+                    throw new IllegalStateException("process failed");
+                }
+                received.add(element);
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+                Assertions.fail("unexpected decode failure");
+            }
+
+            @Override
+            public void onError(Throwable t, Integer element, int attempts, RetrySubscription<Integer> s) {
+                Assertions.assertEquals(3, element);
+                failures.incrementAndGet();
+                s.retry(element);
+            }
+        }, s -> s.length(), 2);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        for (String s : List.of("1", "3")) {
+            Assertions.assertTrue(sink.next(s));
+        }
+        Assertions.assertEquals(1, received.poll(500, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(3, received.poll(500, TimeUnit.MILLISECONDS));
+        // 两次处理失败及重试均复用首次解码的结果
+        Assertions.assertEquals(2, failures.get());
+        Assertions.assertEquals(2, decodes.get());
+        sink.cancel();
+    }
+
+    @Test
+    void batchDecodeOnceAcrossRetry() throws InterruptedException {
+        RetrySink<String> sink = new RetrySink<>(executor, 16, true);
+        AtomicInteger decodes = new AtomicInteger();
+        Flow<Integer> flow = new DecodingFlow<>(new RetryFlow<>(sink), s -> {
+            decodes.incrementAndGet();
+            return Integer.valueOf(s);
+        });
+        BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+        AtomicInteger failures = new AtomicInteger();
+        flow.subscribe(new BatchSubscriber<>() {
+            @Override
+            public void onNext(List<Integer> batch) {
+                if (failures.get() == 0) {
+                    throw new IllegalStateException("process failed");
+                }
+                batches.add(List.copyOf(batch));
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+                Assertions.fail("unexpected decode failure");
+            }
+
+            @Override
+            public void onError(Throwable t, List<Integer> batch, int attempts, BatchRetrySubscription<Integer> s) {
+                failures.incrementAndGet();
+                // 仅重试部分元素
+                s.retry(batch.subList(1, batch.size()));
+            }
+        }, BatchOptions.from(3, 50), 1);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        for (String s : List.of("1", "2", "3")) {
+            Assertions.assertTrue(sink.next(s));
+        }
+        Assertions.assertEquals(List.of(2, 3), batches.poll(500, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, failures.get());
+        Assertions.assertEquals(3, decodes.get());
+        sink.cancel();
+    }
+
+}
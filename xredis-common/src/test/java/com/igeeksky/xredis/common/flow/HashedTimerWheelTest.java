@@ -0,0 +1,48 @@
+package com.igeeksky.xredis.common.flow;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class HashedTimerWheelTest {
+
+    @Test
+    void runInDeadlineOrder() throws InterruptedException {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            // 槽位少于延迟刻度数：需跨越多轮
+            HashedTimerWheel wheel = new HashedTimerWheel(scheduler, 5, 4);
+            BlockingQueue<Integer> fired = new LinkedBlockingQueue<>();
+            long start = System.nanoTime();
+            wheel.schedule(() -> fired.add(3), Duration.ofMillis(90));
+            wheel.schedule(() -> fired.add(1), Duration.ofMillis(10));
+            wheel.schedule(() -> fired.add(2), Duration.ofMillis(50));
+            Assertions.assertEquals(3, wheel.pending());
+
+            Assertions.assertEquals(1, fired.poll(1, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, fired.poll(1, TimeUnit.SECONDS));
+            Assertions.assertEquals(3, fired.poll(1, TimeUnit.SECONDS));
+            Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90));
+            Assertions.assertEquals(0, wheel.pending());
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void stopDiscardsPending() throws InterruptedException {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            HashedTimerWheel wheel = new HashedTimerWheel(scheduler, 5, 8);
+            BlockingQueue<Integer> fired = new LinkedBlockingQueue<>();
+            wheel.schedule(() -> fired.add(1), Duration.ofMillis(50));
+            wheel.stop();
+            Assertions.assertFalse(wheel.schedule(() -> fired.add(2), Duration.ofMillis(1)));
+            Assertions.assertNull(fired.poll(100, TimeUnit.MILLISECONDS));
+        }
+    }
+
+}
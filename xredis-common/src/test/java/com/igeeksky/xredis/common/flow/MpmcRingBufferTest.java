@@ -0,0 +1,115 @@
+package com.igeeksky.xredis.common.flow;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class MpmcRingBufferTest {
+
+    @Test
+    void offerAndDrainTo() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(3);
+        Assertions.assertTrue(buffer.isEmpty());
+        List<Integer> batch = new ArrayList<>();
+        for (int round = 0; round < 5; round++) {
+            Assertions.assertTrue(buffer.offer(1));
+            Assertions.assertTrue(buffer.offer(2));
+            Assertions.assertTrue(buffer.offer(3));
+            Assertions.assertFalse(buffer.offer(4));
+            Assertions.assertEquals(3, buffer.size());
+
+            batch.clear();
+            Assertions.assertEquals(1, buffer.drainTo(batch, 1));
+            Assertions.assertEquals(2, buffer.drainTo(batch, 16));
+            Assertions.assertEquals(List.of(1, 2, 3), batch);
+            Assertions.assertEquals(0, buffer.drainTo(batch, 16));
+            Assertions.assertEquals(0, buffer.size());
+        }
+    }
+
+    @Test
+    void drainToAcrossEnd() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(8);
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertTrue(buffer.offer(i));
+        }
+        Assertions.assertFalse(buffer.offer(8));
+
+        List<Integer> batch = new ArrayList<>();
+        Assertions.assertEquals(3, buffer.drainTo(batch, 3));
+        Assertions.assertEquals(List.of(0, 1, 2), batch);
+
+        // 跨越缓冲区末尾
+        Assertions.assertTrue(buffer.offer(8));
+        Assertions.assertTrue(buffer.offer(9));
+        batch.clear();
+        Assertions.assertEquals(7, buffer.drainTo(batch, 16));
+        Assertions.assertEquals(List.of(3, 4, 5, 6, 7, 8, 9), batch);
+        Assertions.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void offerRejectsNull() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+        Assertions.assertThrows(RuntimeException.class, () -> buffer.offer(null));
+        Assertions.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void concurrentProducersAndConsumers() throws InterruptedException {
+        int producers = 4, consumers = 4, perProducer = 10000;
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(100);
+        AtomicInteger received = new AtomicInteger();
+        AtomicLong sum = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(producers + consumers);
+        int total = producers * perProducer;
+        try (ExecutorService executor = Executors.newFixedThreadPool(producers + consumers)) {
+            for (int p = 0; p < producers; p++) {
+                executor.execute(() -> {
+                    int i = 1;
+                    while (i <= perProducer) {
+                        if (buffer.offer(i)) {
+                            i++;
+                        } else {
+                            Thread.yield();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            for (int c = 0; c < consumers; c++) {
+                int max = (c % 2 == 0) ? 8 : 1;
+                executor.execute(() -> {
+                    List<Integer> list = new ArrayList<>();
+                    while (received.get() < total) {
+                        list.clear();
+                        if (buffer.drainTo(list, max) == 0) {
+                            Thread.yield();
+                            continue;
+                        }
+                        list.forEach(e -> sum.addAndGet(e));
+                        received.addAndGet(list.size());
+                    }
+                    done.countDown();
+                });
+            }
+            Assertions.assertTrue(done.await(30, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(total, received.get());
+        Assertions.assertEquals((long) producers * perProducer * (perProducer + 1) / 2, sum.get());
+        Assertions.assertTrue(buffer.isEmpty());
+    }
+
+}
@@ -0,0 +1,388 @@
+package com.igeeksky.xredis.common.flow;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class RetrySinkTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Test
+    void signallingWakesConsumerWithoutRun() throws InterruptedException {
+        RetrySink<Integer> sink = new RetrySink<>(executor, 16, true);
+        CountDownLatch latch = new CountDownLatch(3);
+        sink.subscribe(new CountingSubscriber(latch, new AtomicInteger()), 2);
+
+        // 消费任务已暂停，未调用 run() 也能被唤醒
+        TimeUnit.MILLISECONDS.sleep(20);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(sink.next(i));
+        }
+        Assertions.assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+        sink.cancel();
+    }
+
+    @Test
+    void scheduledModeRequiresRun() throws InterruptedException {
+        RetrySink<Integer> sink = new RetrySink<>(executor, 16);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        sink.subscribe(new CountingSubscriber(latch, received), 1);
+
+        Assertions.assertTrue(sink.next(1));
+        TimeUnit.MILLISECONDS.sleep(20);
+        Assertions.assertEquals(0, received.get());
+
+        sink.run();
+        Assertions.assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+        sink.cancel();
+    }
+
+    @Test
+    void batchBoundedBySizeAndLinger() throws InterruptedException {
+        RetrySink<Integer> sink = new RetrySink<>(executor, 16, true);
+        BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+        sink.subscribe(new BatchCollector(batches, null), BatchOptions.from(4, 50), 1);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertTrue(sink.next(i));
+        }
+        // 达到 maxSize 立即推送；剩余消息等待 linger 后推送
+        Assertions.assertEquals(List.of(0, 1, 2, 3), batches.poll(500, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(List.of(4, 5), batches.poll(500, TimeUnit.MILLISECONDS));
+        sink.cancel();
+    }
+
+    @Test
+    void batchRetryOnlyFailedElements() throws InterruptedException {
+        RetrySink<Integer> sink = new RetrySink<>(executor, 16, true);
+        BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+        // 奇数处理失败：仅重试失败部分（部分确认）
+        sink.subscribe(new BatchCollector(batches, e -> e % 2 == 1), BatchOptions.from(4, 50), 1);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(sink.next(i));
+        }
+        Assertions.assertEquals(List.of(0, 1, 2, 3), batches.poll(500, TimeUnit.MILLISECONDS));
+        List<Integer> retried = new ArrayList<>();
+        while (retried.size() < 2) {
+            List<Integer> batch = batches.poll(500, TimeUnit.MILLISECONDS);
+            Assertions.assertNotNull(batch);
+            retried.addAll(batch);
+        }
+        Assertions.assertEquals(List.of(1, 3), retried);
+        sink.cancel();
+    }
+
+    @Test
+    void batchAttemptsResetForFreshBatch() throws InterruptedException {
+        RetrySink<Integer> sink = new RetrySink<>(executor, 16, true);
+        BlockingQueue<Integer> attempts = new LinkedBlockingQueue<>();
+        // 始终失败且不重试：失败的批次被丢弃
+        sink.subscribe(new BatchSubscriber<>() {
+            @Override
+            public void onNext(List<Integer> batch) {
+                throw new IllegalStateException("failure");
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+            }
+
+            @Override
+            public void onError(Throwable t, List<Integer> batch, int n, BatchRetrySubscription<Integer> s) {
+                attempts.add(n);
+            }
+        }, BatchOptions.from(1, 10), 1);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        Assertions.assertTrue(sink.next(0));
+        Assertions.assertEquals(1, attempts.poll(500, TimeUnit.MILLISECONDS));
+        // 新批次的失败次数重新计数，不累计已丢弃批次的失败次数
+        Assertions.assertTrue(sink.next(1));
+        Assertions.assertEquals(1, attempts.poll(500, TimeUnit.MILLISECONDS));
+        sink.cancel();
+    }
+
+    @Test
+    void lanesKeepOrderPerKey() throws InterruptedException {
+        int keys = 8, perKey = 200, lanes = 4;
+        RetrySink<int[]> sink = new RetrySink<>(executor, keys * perKey, true);
+        Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(keys * perKey);
+        sink.subscribe(new Subscriber<>() {
+            @Override
+            public void onNext(int[] element) {
+                received.computeIfAbsent(element[0], k -> Collections.synchronizedList(new ArrayList<>())).add(element[1]);
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+            }
+
+            @Override
+            public void onError(Throwable t, int[] element, int attempts, RetrySubscription<int[]> s) {
+            }
+        }, element -> element[0], lanes);
+
+        for (int seq = 0; seq < perKey; seq++) {
+            for (int key = 0; key < keys; key++) {
+                Assertions.assertTrue(sink.next(new int[]{key, seq}));
+            }
+        }
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int key = 0; key < keys; key++) {
+            List<Integer> sequence = received.get(key);
+            for (int seq = 0; seq < perKey; seq++) {
+                Assertions.assertEquals(seq, sequence.get(seq));
+            }
+        }
+        sink.cancel();
+    }
+
+    @Test
+    void delayedRetryOnTimerKeepsLaneOrder() throws InterruptedException {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            HashedTimerWheel timer = new HashedTimerWheel(scheduler, 5, 64);
+            RetryOptions<Integer> options = RetryOptions.from(timer, 0, null);
+            RetrySink<Integer> sink = new RetrySink<>(executor, 16, true, options);
+            BlockingQueue<Integer> processed = new LinkedBlockingQueue<>();
+            // 两个分区（按奇偶分区）：0 首次处理失败并延迟重试，到期前同一分区的后续消息暂停处理，另一分区不受影响
+            sink.subscribe(new Subscriber<>() {
+                private volatile boolean failed;
+
+                @Override
+                public void onNext(Integer element) {
+                    if (element == 0 && !failed) {
+                        failed = true;
+                        throw new IllegalStateException("failed");
+                    }
+                    processed.add(element);
+                }
+
+                @Override
+                public void onError(Throwable t, Subscription s) {
+                }
+
+                @Override
+                public void onError(Throwable t, Integer element, int attempts, RetrySubscription<Integer> s) {
+                    s.retry(element, Duration.ofMillis(100));
+                }
+            }, e -> e % 2, 2);
+
+            TimeUnit.MILLISECONDS.sleep(20);
+            for (int i = 0; i < 6; i++) {
+                Assertions.assertTrue(sink.next(i));
+            }
+            Assertions.assertEquals(1, processed.poll(50, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(3, processed.poll(50, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(5, processed.poll(50, TimeUnit.MILLISECONDS));
+            Assertions.assertNull(processed.poll(30, TimeUnit.MILLISECONDS));
+            // 重试元素到期后，同一分区按接收顺序继续处理
+            Assertions.assertEquals(0, processed.poll(1, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, processed.poll(50, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(4, processed.poll(50, TimeUnit.MILLISECONDS));
+            sink.cancel();
+            timer.stop();
+        }
+    }
+
+    @Test
+    void delayedRetryOnTimerDoesNotBlockAndDeadLetters() throws InterruptedException {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            HashedTimerWheel timer = new HashedTimerWheel(scheduler, 5, 64);
+            BlockingQueue<Integer> deadLetters = new LinkedBlockingQueue<>();
+            RetryOptions<Integer> options = RetryOptions.from(timer, 3, (e, t, attempts) -> deadLetters.add(attempts));
+            RetrySink<Integer> sink = new RetrySink<>(executor, 16, true, options);
+            BlockingQueue<Integer> processed = new LinkedBlockingQueue<>();
+            // 共享缓冲区：0 为毒消息，延迟重试期间后续消息继续处理
+            sink.subscribe(new Subscriber<>() {
+                @Override
+                public void onNext(Integer element) {
+                    if (element == 0) {
+                        throw new IllegalStateException("poison");
+                    }
+                    processed.add(element);
+                }
+
+                @Override
+                public void onError(Throwable t, Subscription s) {
+                }
+
+                @Override
+                public void onError(Throwable t, Integer element, int attempts, RetrySubscription<Integer> s) {
+                    s.retry(element, Duration.ofMillis(100));
+                }
+            }, 1);
+
+            TimeUnit.MILLISECONDS.sleep(20);
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertTrue(sink.next(i));
+            }
+            Assertions.assertEquals(1, processed.poll(50, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(2, processed.poll(50, TimeUnit.MILLISECONDS));
+            // 第 3 次失败后交给死信处理
+            Assertions.assertEquals(3, deadLetters.poll(1, TimeUnit.SECONDS));
+            Assertions.assertEquals(0, timer.pending());
+            sink.cancel();
+            timer.stop();
+        }
+    }
+
+    @Test
+    void elasticScalesWithBacklog() throws InterruptedException {
+        RetrySink<Integer> sink = new RetrySink<>(executor, 16);
+        CountDownLatch latch = new CountDownLatch(32);
+        sink.subscribe(new Subscriber<>() {
+            @Override
+            public void onNext(Integer element) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+            }
+
+            @Override
+            public void onError(Throwable t, Integer element, int attempts, RetrySubscription<Integer> s) {
+            }
+        }, ElasticOptions.from(1, 4, 0.5, 0.1, 0));
+        Assertions.assertEquals(1, sink.parallelism());
+
+        for (int i = 0; i < 32; i++) {
+            Assertions.assertTrue(sink.next(i));
+        }
+        // 积压时扩容，且不超过最大并行度
+        int max = 1;
+        while (latch.getCount() > 0) {
+            sink.run();
+            max = Math.max(max, sink.parallelism());
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assertions.assertTrue(max > 1);
+        Assertions.assertTrue(max <= 4);
+
+        // 数据池为空时逐步缩容至最小并行度
+        for (int i = 0; i < 4; i++) {
+            sink.run();
+        }
+        Assertions.assertEquals(1, sink.parallelism());
+        sink.cancel();
+    }
+
+    @Test
+    void memoryBudgetSharedAcrossSinks() throws InterruptedException {
+        MemoryBudget<Integer> budget = new MemoryBudget<>(30, e -> 10);
+        RetrySink<Integer> sink1 = new RetrySink<>(executor, 16, false, null, budget);
+        RetrySink<Integer> sink2 = new RetrySink<>(executor, 16, false, null, budget);
+        CountDownLatch latch = new CountDownLatch(3);
+        sink1.subscribe(new CountingSubscriber(latch, new AtomicInteger()), 1);
+        sink2.subscribe(new CountingSubscriber(new CountDownLatch(1), new AtomicInteger()), 1);
+
+        // 缓冲区尚未创建时，全部容量可用
+        Assertions.assertEquals(32, sink1.credits());
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(sink1.next(i));
+        }
+        // 预算耗尽：拒绝写入，且共享预算的数据池均暂停拉取
+        Assertions.assertFalse(sink1.next(3));
+        Assertions.assertFalse(sink2.next(3));
+        Assertions.assertTrue(sink1.isPullPaused());
+        Assertions.assertTrue(sink2.isPullPaused());
+
+        // 消费者取出元素后释放预算
+        sink1.run();
+        Assertions.assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(0, budget.used());
+        Assertions.assertFalse(sink2.isPullPaused());
+        Assertions.assertTrue(sink2.next(4));
+
+        // 取消订阅时归还缓冲区中剩余元素占用的预算
+        sink2.cancel();
+        Assertions.assertEquals(0, budget.used());
+        sink1.cancel();
+    }
+
+    @Test
+    void memoryBudgetExhaustedMatchesRejection() {
+        MemoryBudget<Integer> budget = new MemoryBudget<>(30, e -> e);
+        Assertions.assertTrue(budget.tryAcquire(20));
+        Assertions.assertFalse(budget.isExhausted());
+        // 剩余预算不足以写入被拒绝的元素：视为已耗尽，暂停拉取
+        Assertions.assertFalse(budget.tryAcquire(15));
+        Assertions.assertTrue(budget.isExhausted());
+        budget.release(20);
+        Assertions.assertFalse(budget.isExhausted());
+        Assertions.assertTrue(budget.tryAcquire(15));
+        Assertions.assertFalse(budget.isExhausted());
+    }
+
+    private record BatchCollector(BlockingQueue<List<Integer>> batches,
+                                  Predicate<Integer> failure) implements BatchSubscriber<Integer> {
+
+        @Override
+        public void onNext(List<Integer> batch) {
+            batches.add(List.copyOf(batch));
+            if (failure != null && batch.stream().anyMatch(failure)) {
+                throw new IllegalStateException("partial failure");
+            }
+        }
+
+        @Override
+        public void onError(Throwable t, Subscription s) {
+        }
+
+        @Override
+        public void onError(Throwable t, List<Integer> batch, int attempts, BatchRetrySubscription<Integer> s) {
+            if (attempts < 3) {
+                List<Integer> failed = batch.stream().filter(failure).toList();
+                s.retry(failed);
+            }
+        }
+
+    }
+
+    private record CountingSubscriber(CountDownLatch latch, AtomicInteger received) implements Subscriber<Integer> {
+
+        @Override
+        public void onNext(Integer element) {
+            received.incrementAndGet();
+            latch.countDown();
+        }
+
+        @Override
+        public void onError(Throwable t, Subscription s) {
+        }
+
+        @Override
+        public void onError(Throwable t, Integer element, int attempts, RetrySubscription<Integer> s) {
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.igeeksky.xredis.common.limiter;
+
+import com.igeeksky.xredis.common.RedisRejectedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class CommandLimiterTest {
+
+    @Test
+    void failFast() {
+        CommandLimiter limiter = new CommandLimiter(1, LimitPolicy.FAIL_FAST, 0);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = limiter.execute(1, Priority.NORMAL, () -> pending);
+        CompletableFuture<String> second = limiter.execute(1, Priority.NORMAL, () -> CompletableFuture.completedFuture("OK"));
+
+        CompletionException e = Assertions.assertThrows(CompletionException.class, second::join);
+        Assertions.assertInstanceOf(RedisRejectedException.class, e.getCause());
+        Assertions.assertEquals(1, limiter.stats().inFlight());
+        Assertions.assertEquals(1, limiter.stats().rejected());
+
+        pending.complete("OK");
+        Assertions.assertEquals("OK", first.join());
+        Assertions.assertEquals(0, limiter.stats().inFlight());
+    }
+
+    @Test
+    void waitTimeout() {
+        CommandLimiter limiter = new CommandLimiter(1, LimitPolicy.WAIT, 10);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        limiter.execute(1, Priority.NORMAL, () -> pending);
+        CompletableFuture<String> second = limiter.execute(1, Priority.NORMAL, () -> CompletableFuture.completedFuture("OK"));
+
+        Assertions.assertThrows(CompletionException.class, second::join);
+        LimiterStats stats = limiter.stats();
+        Assertions.assertEquals(1, stats.waited());
+        Assertions.assertEquals(1, stats.rejected());
+        Assertions.assertTrue(stats.maxWaitNanos() > 0);
+    }
+
+    @Test
+    void waitWithoutBlocking() {
+        CommandLimiter limiter = new CommandLimiter(1, LimitPolicy.WAIT, 60000);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = limiter.execute(1, Priority.NORMAL, () -> pending);
+
+        // 许可不足时立即返回，获取许可后再执行命令
+        AtomicInteger executed = new AtomicInteger();
+        CompletableFuture<String> second = limiter.execute(1, Priority.NORMAL, () -> {
+            executed.incrementAndGet();
+            return CompletableFuture.completedFuture("OK");
+        });
+        Assertions.assertFalse(second.isDone());
+        Assertions.assertEquals(0, executed.get());
+        Assertions.assertEquals(1, limiter.stats().waiting());
+
+        pending.complete("OK");
+        Assertions.assertEquals("OK", first.join());
+        Assertions.assertEquals("OK", second.join());
+        Assertions.assertEquals(1, executed.get());
+        LimiterStats stats = limiter.stats();
+        Assertions.assertEquals(0, stats.inFlight());
+        Assertions.assertEquals(0, stats.waiting());
+        Assertions.assertEquals(2, stats.acquired());
+        Assertions.assertEquals(1, stats.waited());
+    }
+
+    @Test
+    void waitInOrder() {
+        CommandLimiter limiter = new CommandLimiter(4, LimitPolicy.WAIT, 60000, true);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        limiter.execute(3, Priority.NORMAL, () -> pending);
+
+        // 队首需 4 个许可：后续仅需 1 个许可的调用也须排队，不能插队
+        List<String> order = new ArrayList<>();
+        CompletableFuture<String> heavy = limiter.execute(4, Priority.NORMAL, () -> {
+            order.add("heavy");
+            return CompletableFuture.completedFuture("OK");
+        });
+        CompletableFuture<String> light = limiter.execute(1, Priority.NORMAL, () -> {
+            order.add("light");
+            return CompletableFuture.completedFuture("OK");
+        });
+        Assertions.assertFalse(heavy.isDone());
+        Assertions.assertFalse(light.isDone());
+
+        pending.complete("OK");
+        Assertions.assertEquals("OK", heavy.join());
+        Assertions.assertEquals("OK", light.join());
+        Assertions.assertEquals(List.of("heavy", "light"), order);
+        Assertions.assertEquals(0, limiter.stats().inFlight());
+    }
+
+    @Test
+    void shedLowPriority() {
+        CommandLimiter limiter = new CommandLimiter(4, LimitPolicy.SHED, 10, true);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        limiter.execute(3, Priority.HIGH, () -> pending);
+        // LOW 优先级最多占用 2 个许可，当前已占用 3 个，直接拒绝
+        CompletableFuture<String> low = limiter.execute(1, Priority.LOW, () -> CompletableFuture.completedFuture("OK"));
+        CompletionException e = Assertions.assertThrows(CompletionException.class, low::join);
+        Assertions.assertInstanceOf(RedisRejectedException.class, e.getCause());
+        // HIGH 优先级可使用全部许可
+        CompletableFuture<String> high = limiter.execute(1, Priority.HIGH, () -> CompletableFuture.completedFuture("OK"));
+        Assertions.assertEquals("OK", high.join());
+    }
+
+    @Test
+    void shedCapsWeightByPriorityLimit() {
+        CommandLimiter limiter = new CommandLimiter(4, LimitPolicy.SHED, 10, true);
+        // LOW 优先级最多占用 2 个许可：空闲时，命令数超过上限的批量调用按上限占用许可，不会被拒绝
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> low = limiter.execute(10, Priority.LOW, () -> pending);
+        Assertions.assertFalse(low.isDone());
+        Assertions.assertEquals(2, limiter.stats().inFlight());
+        pending.complete("OK");
+        Assertions.assertEquals("OK", low.join());
+        Assertions.assertEquals(0, limiter.stats().inFlight());
+    }
+
+    @Test
+    void shedAtomicUnderContention() throws InterruptedException {
+        int threads = 8, rounds = 2000;
+        CommandLimiter limiter = new CommandLimiter(8, LimitPolicy.SHED, 0);
+        // LOW 优先级最多占用 4 个许可：并发获取许可时，已占用的许可数也不能超出上限
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < rounds; j++) {
+                        limiter.execute(1, Priority.LOW, () -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            Thread.yield();
+                            running.decrementAndGet();
+                            return CompletableFuture.completedFuture("OK");
+                        });
+                    }
+                    done.countDown();
+                });
+            }
+            Assertions.assertTrue(done.await(30, TimeUnit.SECONDS));
+        }
+        Assertions.assertTrue(maxRunning.get() <= 4);
+        LimiterStats stats = limiter.stats();
+        Assertions.assertEquals(0, stats.inFlight());
+        Assertions.assertEquals((long) threads * rounds, stats.acquired() + stats.rejected());
+    }
+
+    @Test
+    void releaseOnSupplierError() {
+        CommandLimiter limiter = new CommandLimiter(1, LimitPolicy.FAIL_FAST, 0);
+        CompletableFuture<String> failed = limiter.execute(1, Priority.NORMAL, () -> {
+            throw new IllegalStateException("error");
+        });
+        Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertEquals(0, limiter.stats().inFlight());
+    }
+
+}
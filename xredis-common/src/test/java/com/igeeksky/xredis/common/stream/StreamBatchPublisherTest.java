@@ -0,0 +1,88 @@
+package com.igeeksky.xredis.common.stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class StreamBatchPublisherTest {
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private final StreamCodec<String, String, Integer> codec = new StreamCodec<>() {
+        @Override
+        public Map<String, String> encodeMsg(Integer message) {
+            return Map.of("value", String.valueOf(message));
+        }
+
+        @Override
+        public Integer decodeMsg(Map<String, String> body) {
+            return Integer.valueOf(body.get("value"));
+        }
+    };
+
+    @Test
+    void flushBySizeAndLinger() throws Exception {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            StreamBatchPublisher<String, String, Integer> publisher = new StreamBatchPublisher<>("s", null,
+                    operator(), codec, scheduler, BatchPublishOptions.from(4, 50));
+
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(publisher.publish(i));
+            }
+            // 达到 batchSize 立即发送
+            Assertions.assertEquals(List.of(4), batchSizes);
+            Assertions.assertEquals("value=0", futures.get(0).get(1, TimeUnit.SECONDS));
+
+            // 剩余消息等待 linger 后发送，各消息的 Future 按序完成
+            Assertions.assertEquals("value=5", futures.get(5).get(1, TimeUnit.SECONDS));
+            Assertions.assertEquals(List.of(4, 2), batchSizes);
+            Assertions.assertEquals(6, publisher.getPublished());
+
+            publisher.closeAsync().get(1, TimeUnit.SECONDS);
+            Assertions.assertTrue(publisher.publish(6).isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    void publishAllUsesOneBatch() throws Exception {
+        StreamPublisher<String, String, Integer> publisher = new StreamPublisher<>("s", null, operator(), codec);
+        Assertions.assertEquals(List.of("value=1", "value=2", "value=3"),
+                publisher.publishAll(List.of(1, 2, 3)).get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(3), batchSizes);
+    }
+
+    /**
+     * 仅支持批量发布的流操作：返回的消息 ID 为消息体内容
+     */
+    @SuppressWarnings("unchecked")
+    private StreamOperator<String, String> operator() {
+        return (StreamOperator<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StreamOperator.class}, (proxy, method, args) -> {
+                    if (!"xaddAllAsync".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<Map<String, String>> bodies = (List<Map<String, String>>) args[2];
+                    batchSizes.add(bodies.size());
+                    List<CompletableFuture<String>> futures = new ArrayList<>();
+                    for (Map<String, String> body : bodies) {
+                        futures.add(CompletableFuture.completedFuture("value=" + body.get("value")));
+                    }
+                    return futures;
+                });
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.flow.Flow;
+import com.igeeksky.xredis.common.flow.RetryFlow;
+import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.flow.RetrySubscription;
+import com.igeeksky.xredis.common.flow.Subscriber;
+import com.igeeksky.xredis.common.flow.Subscription;
+import com.igeeksky.xredis.common.stream.StreamCodec;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xredis.common.stream.XStreamRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class AbstractStreamContainerTest {
+
+    private final StreamCodec<String, String, Integer> codec = new StreamCodec<>() {
+        @Override
+        public Map<String, String> encodeMsg(Integer message) {
+            return Map.of("value", String.valueOf(message));
+        }
+
+        @Override
+        public Integer decodeMsg(Map<String, String> body) {
+            return Integer.valueOf(body.get("value"));
+        }
+    };
+
+    @Test
+    void decodeRecordKeepsStreamAndId() throws InterruptedException {
+        RetrySink<XStreamMessage<String, String>> sink = new RetrySink<>(Executors.newVirtualThreadPerTaskExecutor(),
+                16, true);
+        Flow<XStreamRecord<String, Integer>> flow = AbstractStreamContainer.decodeRecord(new RetryFlow<>(sink), codec);
+        BlockingQueue<XStreamRecord<String, Integer>> received = new LinkedBlockingQueue<>();
+        flow.subscribe(new Subscriber<>() {
+            @Override
+            public void onNext(XStreamRecord<String, Integer> element) {
+                received.add(element);
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+            }
+
+            @Override
+            public void onError(Throwable t, XStreamRecord<String, Integer> element, int attempts,
+                                RetrySubscription<XStreamRecord<String, Integer>> s) {
+            }
+        }, 1);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        Assertions.assertTrue(sink.next(new XStreamMessage<>("stream", "1-0", Map.of("value", "7"))));
+        // 解码后的消息保留流名称及消息 ID，用于确认消息
+        Assertions.assertEquals(new XStreamRecord<>("stream", "1-0", 7), received.poll(500, TimeUnit.MILLISECONDS));
+        sink.cancel();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class AckAggregatorTest {
+
+    private final BlockingQueue<List<String>> acks = new LinkedBlockingQueue<>();
+
+    @Test
+    void flushBySizeAndDelay() throws Exception {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            AckAggregator<String, String> aggregator = new AckAggregator<>(operator(), scheduler,
+                    AckOptions.from(3, 50));
+
+            for (int i = 0; i < 4; i++) {
+                aggregator.ack("g", new XStreamMessage<>("s", i + "-0", Map.of()));
+            }
+            // 达到 batchSize 立即发送
+            Assertions.assertEquals(List.of("s:g", "0-0", "1-0", "2-0"), acks.poll());
+
+            // 剩余消息等待 maxDelay 后发送
+            Assertions.assertEquals(List.of("s:g", "3-0"), acks.poll(1, TimeUnit.SECONDS));
+            aggregator.closeAsync().get(1, TimeUnit.SECONDS);
+
+            // 延时发送在调度线程执行，确认数量在 xack 结果完成后才累加：调度线程结束后再检查
+            scheduler.shutdown();
+            Assertions.assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+            Assertions.assertEquals(4, aggregator.getAcked());
+            Assertions.assertEquals(2, aggregator.getCommands());
+        }
+    }
+
+    @Test
+    void closeFlushesPendingAndLaterAcks() throws Exception {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            AckAggregator<String, String> aggregator = new AckAggregator<>(operator(), scheduler,
+                    AckOptions.from(100, 60000));
+
+            aggregator.ack("s1", "g", "1-0");
+            aggregator.ack("s2", "g", "2-0");
+            Assertions.assertTrue(acks.isEmpty());
+
+            // 关闭时按 (流, 消费组) 分别发送
+            aggregator.closeAsync().get(1, TimeUnit.SECONDS);
+            Assertions.assertEquals(2, acks.size());
+            Assertions.assertTrue(acks.contains(List.of("s1:g", "1-0")));
+            Assertions.assertTrue(acks.contains(List.of("s2:g", "2-0")));
+            acks.clear();
+
+            // 关闭之后确认的消息立即发送，不再滞留于缓冲
+            aggregator.ack("s1", "g", "3-0");
+            Assertions.assertEquals(List.of("s1:g", "3-0"), acks.poll());
+            Assertions.assertEquals(3, aggregator.getCommands());
+            Assertions.assertEquals(3, aggregator.getAcked());
+        }
+    }
+
+    /**
+     * 仅支持确认消息的流操作：记录各 xack 命令的 (流:消费组) 及消息 ID，返回确认数量
+     */
+    @SuppressWarnings("unchecked")
+    private StreamOperator<String, String> operator() {
+        return (StreamOperator<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StreamOperator.class}, (proxy, method, args) -> {
+                    if (!"xackAsync".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    String[] ids = (String[]) args[2];
+                    List<String> ack = new ArrayList<>();
+                    ack.add(args[0] + ":" + args[1]);
+                    ack.addAll(List.of(ids));
+                    acks.add(ack);
+                    return CompletableFuture.completedFuture((long) ids.length);
+                });
+    }
+
+}
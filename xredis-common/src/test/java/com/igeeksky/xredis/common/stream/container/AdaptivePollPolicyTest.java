@@ -0,0 +1,48 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class AdaptivePollPolicyTest {
+
+    private final AdaptivePollPolicy policy = AdaptivePollPolicy.builder()
+            .minPeriod(1).maxPeriod(100).initialPeriod(10).multiplier(2.0)
+            .build();
+
+    @Test
+    void backoffWhenEmpty() {
+        Assertions.assertEquals(20, policy.next(10, PullResult.EMPTY));
+        Assertions.assertEquals(20, policy.next(10, null));
+        Assertions.assertEquals(2, policy.next(1, PullResult.EMPTY));
+        Assertions.assertEquals(100, policy.next(80, PullResult.EMPTY));
+    }
+
+    @Test
+    void shrinkWhenFull() {
+        Assertions.assertEquals(5, policy.next(10, new PullResult(100, true)));
+        Assertions.assertEquals(1, policy.next(1, new PullResult(100, true)));
+    }
+
+    @Test
+    void keepWhenPartial() {
+        Assertions.assertEquals(10, policy.next(10, new PullResult(3, false)));
+    }
+
+    @Test
+    void keepWhenBusy() {
+        Assertions.assertEquals(10, policy.next(10, PullResult.BUSY));
+        Assertions.assertTrue(PullResult.BUSY.isBusy());
+        Assertions.assertFalse(PullResult.EMPTY.isBusy());
+    }
+
+    @Test
+    void clampInitialPeriod() {
+        AdaptivePollPolicy clamped = AdaptivePollPolicy.builder().minPeriod(50).maxPeriod(100).build();
+        Assertions.assertEquals(50, clamped.getInitialPeriod());
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class AdaptivePollerTest {
+
+    private final AdaptivePollPolicy policy = AdaptivePollPolicy.builder()
+            .minPeriod(1).maxPeriod(60000).initialPeriod(10000).multiplier(2.0)
+            .build();
+
+    @Test
+    void keepPeriodWhileDispatching() {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            AdaptivePoller poller = new AdaptivePoller(() -> CompletableFuture.completedFuture(PullResult.BUSY),
+                    scheduler, policy);
+            poller.run();
+            // 上次拉取的消息还在分发：不计入拉取次数，也不因空拉取而退避
+            Assertions.assertEquals(10000, poller.stats().period());
+            Assertions.assertEquals(0, poller.stats().polls());
+            poller.stop();
+        }
+    }
+
+    @Test
+    void backoffWhenEmpty() {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            AdaptivePoller poller = new AdaptivePoller(() -> CompletableFuture.completedFuture(PullResult.EMPTY),
+                    scheduler, policy);
+            poller.run();
+            Assertions.assertEquals(20000, poller.stats().period());
+            Assertions.assertEquals(1, poller.stats().polls());
+            poller.stop();
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class MappedFileOffsetStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoreAfterReopen() {
+        Path file = dir.resolve("offsets");
+        MappedFileOffsetStore<String> store = new MappedFileOffsetStore<>(file, 256, Function.identity());
+        Assertions.assertNull(store.load("s1"));
+        store.saveAsync(Map.of("s1", "1-0", "s2", "2-0")).join();
+        store.saveAsync(Map.of("s1", "3-0")).join();
+        store.closeAsync().join();
+
+        MappedFileOffsetStore<String> reopened = new MappedFileOffsetStore<>(file, 256, Function.identity());
+        Assertions.assertEquals("3-0", reopened.load("s1"));
+        Assertions.assertEquals("2-0", reopened.load("s2"));
+        reopened.closeAsync().join();
+    }
+
+    @Test
+    void fallbackToPreviousRegionWhenCorrupted() throws IOException {
+        Path file = dir.resolve("offsets");
+        MappedFileOffsetStore<String> store = new MappedFileOffsetStore<>(file, 256, Function.identity());
+        store.saveAsync(Map.of("s1", "1-0")).join();
+        // 版本 2 写入第一个区域
+        store.saveAsync(Map.of("s1", "2-0")).join();
+        store.closeAsync().join();
+
+        // 模拟写入过程中进程退出：破坏最新区域的数据
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(20);
+            raf.write(0x7F);
+        }
+        MappedFileOffsetStore<String> reopened = new MappedFileOffsetStore<>(file, 256, Function.identity());
+        Assertions.assertEquals("1-0", reopened.load("s1"));
+        reopened.closeAsync().join();
+    }
+
+    @Test
+    void regionTooSmall() {
+        MappedFileOffsetStore<String> store = new MappedFileOffsetStore<>(dir.resolve("small"), 32, Function.identity());
+        Assertions.assertTrue(store.saveAsync(Map.of("a-very-long-stream-name", "1700000000000-0"))
+                .isCompletedExceptionally());
+        store.closeAsync().join();
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class OffsetCheckpointerTest {
+
+    private final List<Map<String, String>> saves = new CopyOnWriteArrayList<>();
+
+    private final Map<String, String> saved = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @Test
+    void byteArrayKeysMergeByContent() {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            OffsetCheckpointer<byte[]> checkpointer = new OffsetCheckpointer<>(store(), scheduler, 60000);
+            // 内容相同的不同数组视为同一个流
+            checkpointer.mark(bytes("s1"), "1-0");
+            checkpointer.mark(bytes("s1"), "2-0");
+            checkpointer.mark(bytes("s2"), "3-0");
+            Assertions.assertEquals("2-0", checkpointer.restore(bytes("s1")));
+
+            checkpointer.flush().join();
+            Assertions.assertEquals(List.of(Map.of("s1", "2-0", "s2", "3-0")), saves);
+            Assertions.assertEquals(2, checkpointer.getSaved());
+
+            // 已保存的读偏移从存储恢复；无新记录时不再写入
+            Assertions.assertEquals("3-0", checkpointer.restore(bytes("s2")));
+            checkpointer.flush().join();
+            Assertions.assertEquals(1, saves.size());
+            checkpointer.closeAsync().join();
+        }
+    }
+
+    @Test
+    void retryFailedSaveAndFlushOnClose() throws Exception {
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            OffsetCheckpointer<byte[]> checkpointer = new OffsetCheckpointer<>(store(), scheduler, 60000);
+            failing.set(true);
+            checkpointer.mark(bytes("s1"), "1-0");
+            checkpointer.flush().handle((v, t) -> null).join();
+            Assertions.assertEquals(0, checkpointer.getSaved());
+
+            // 写入失败的读偏移保留到下次保存，关闭时保存并关闭存储
+            failing.set(false);
+            checkpointer.closeAsync().get(1, TimeUnit.SECONDS);
+            Assertions.assertEquals("1-0", saved.get("s1"));
+            Assertions.assertEquals(1, checkpointer.getSaved());
+            Assertions.assertTrue(closed.get());
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 内存存储：记录每次写入的读偏移
+     */
+    private OffsetStore<byte[]> store() {
+        return new OffsetStore<>() {
+            @Override
+            public String load(byte[] stream) {
+                return saved.get(new String(stream, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public CompletableFuture<Void> saveAsync(Map<byte[], String> offsets) {
+                if (failing.get()) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("save failed"));
+                }
+                Map<String, String> decoded = new ConcurrentHashMap<>();
+                offsets.forEach((stream, id) -> decoded.put(new String(stream, StandardCharsets.UTF_8), id));
+                saves.add(Map.copyOf(decoded));
+                saved.putAll(decoded);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> closeAsync() {
+                closed.set(true);
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+
+}
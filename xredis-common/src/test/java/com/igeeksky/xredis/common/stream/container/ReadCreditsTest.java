@@ -0,0 +1,118 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.flow.RetrySubscription;
+import com.igeeksky.xredis.common.flow.Subscriber;
+import com.igeeksky.xredis.common.flow.Subscription;
+import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.XReadOptions;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xredis.common.stream.XStreamOffset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class ReadCreditsTest {
+
+    @Test
+    void creditsFollowFreeCapacity() {
+        StreamInfo<String, String> info = streamInfo(100);
+        Assertions.assertEquals(100, ReadCredits.of(info));
+        Assertions.assertEquals(100, ReadCredits.bucket(info, 100));
+
+        RetrySink<XStreamMessage<String, String>> sink = info.getSink();
+        int capacity = sink.credits();
+        for (int i = 0; i < capacity - 10; i++) {
+            Assertions.assertTrue(sink.next(new XStreamMessage<>("stream", i + "-0", Map.of())));
+        }
+        Assertions.assertEquals(10, ReadCredits.of(info));
+        Assertions.assertEquals(8, ReadCredits.bucket(info, 10));
+    }
+
+    @Test
+    void withCount() {
+        XReadOptions options = XReadOptions.builder().block(10L).count(100L).build();
+        Assertions.assertSame(options, ReadCredits.withCount(options, 100));
+
+        XReadOptions options8 = ReadCredits.withCount(options, 8);
+        Assertions.assertEquals(8L, options8.getCount());
+        Assertions.assertEquals(10L, options8.getBlock());
+    }
+
+    @Test
+    void withoutBlock() {
+        XReadOptions options = XReadOptions.builder().block(10L).count(100L).noack(true).build();
+        Assertions.assertEquals(10L, ReadCredits.withCount(options, 8, true).getBlock());
+
+        XReadOptions nonBlocking = ReadCredits.withCount(options, 8, false);
+        Assertions.assertNull(nonBlocking.getBlock());
+        Assertions.assertEquals(8L, nonBlocking.getCount());
+        Assertions.assertTrue(nonBlocking.isNoack());
+    }
+
+    @Test
+    void onlyLastCommandBlocks() {
+        // 两个流位于不同的哈希槽，拆分为两个读取命令：仅最后发送的命令阻塞
+        List<XReadOptions> commands = new CopyOnWriteArrayList<>();
+        StreamContainerTask<String, String> task = new StreamContainerTask<>(operator(commands),
+                XReadOptions.builder().block(100L).count(10L).build());
+        task.add(streamInfo(10, "s1"));
+        task.add(streamInfo(10, "s2"));
+        task.pull();
+
+        Assertions.assertEquals(2, commands.size());
+        Assertions.assertNull(commands.get(0).getBlock());
+        Assertions.assertEquals(100L, commands.get(1).getBlock());
+    }
+
+    /**
+     * 仅支持计算哈希槽及非消费者组读取的流操作：记录各读取命令的读取选项，返回空结果
+     */
+    @SuppressWarnings("unchecked")
+    private static StreamOperator<String, String> operator(List<XReadOptions> commands) {
+        return (StreamOperator<String, String>) Proxy.newProxyInstance(ReadCreditsTest.class.getClassLoader(),
+                new Class<?>[]{StreamOperator.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "slot" -> ((String) args[0]).hashCode() & 16383;
+                    case "xreadAsync" -> {
+                        commands.add((XReadOptions) args[0]);
+                        yield CompletableFuture.completedFuture(List.of());
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static StreamInfo<String, String> streamInfo(int count) {
+        return streamInfo(count, "stream");
+    }
+
+    private static StreamInfo<String, String> streamInfo(int count, String stream) {
+        RetrySink<XStreamMessage<String, String>> sink = new RetrySink<>(Executors.newVirtualThreadPerTaskExecutor(), count);
+        sink.subscribe(new Subscriber<>() {
+            @Override
+            public void onNext(XStreamMessage<String, String> element) {
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+            }
+
+            @Override
+            public void onError(Throwable t, XStreamMessage<String, String> element, int attempts,
+                                RetrySubscription<XStreamMessage<String, String>> s) {
+            }
+        }, 1);
+        XReadOptions options = ReadOptions.from(count).to();
+        return new StreamInfo<>(options, XStreamOffset.latest(stream), sink);
+    }
+
+}
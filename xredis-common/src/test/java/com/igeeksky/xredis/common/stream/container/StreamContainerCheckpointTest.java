@@ -0,0 +1,180 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.flow.RetrySubscription;
+import com.igeeksky.xredis.common.flow.Subscriber;
+import com.igeeksky.xredis.common.flow.Subscription;
+import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xredis.common.stream.XStreamOffset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读偏移检查点与优雅关闭：仅保存已消费完成的读偏移，重启后不遗漏数据池中未消费的消息
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class StreamContainerCheckpointTest {
+
+    private static final int SIZE = 10;
+
+    private final Map<String, String> saved = new ConcurrentHashMap<>();
+
+    /**
+     * 最后一次读取消息时传入的读偏移
+     */
+    private volatile String lastRead;
+
+    @Test
+    void drainBeforeSave() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            StreamContainer<String, String> container = container(executor, scheduler);
+            BlockingQueue<String> received = new LinkedBlockingQueue<>();
+            container.subscribe(XStreamOffset.first("s")).subscribe(new Collector(received, null), 1);
+            awaitAllRead();
+
+            // 关闭时先等待缓冲区中的消息消费完成，再保存读偏移
+            container.shutdown();
+            Assertions.assertEquals(SIZE, received.size());
+            Assertions.assertEquals(SIZE + "-0", saved.get("s"));
+        }
+    }
+
+    @Test
+    void restartWithNonEmptyBuffer() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            StreamContainer<String, String> container = container(executor, scheduler);
+            BlockingQueue<String> received = new LinkedBlockingQueue<>();
+            CountDownLatch blocked = new CountDownLatch(1);
+            container.subscribe(XStreamOffset.first("s")).subscribe(new Collector(received, blocked), 1);
+            awaitAllRead();
+
+            // 消费第 4 条消息时阻塞：关闭超时，缓冲区中的消息被丢弃，仅保存已消费完成的读偏移
+            container.shutdown();
+            Assertions.assertEquals(List.of("1-0", "2-0", "3-0", "4-0"), new ArrayList<>(received));
+            Assertions.assertEquals("3-0", saved.get("s"));
+            blocked.countDown();
+
+            // 重启后从已保存的读偏移继续读取：未消费完成的消息重新推送
+            StreamContainer<String, String> restarted = container(executor, scheduler);
+            BlockingQueue<String> redelivered = new LinkedBlockingQueue<>();
+            restarted.subscribe(XStreamOffset.first("s")).subscribe(new Collector(redelivered, null), 1);
+            for (int i = 4; i <= SIZE; i++) {
+                Assertions.assertEquals(i + "-0", redelivered.poll(1, TimeUnit.SECONDS));
+            }
+            restarted.shutdown();
+        }
+    }
+
+    private StreamContainer<String, String> container(ExecutorService executor, ScheduledExecutorService scheduler) {
+        this.lastRead = null;
+        StreamContainer<String, String> container = new StreamContainer<>(operator(), executor, scheduler,
+                0, 400, 5, ReadOptions.from(SIZE));
+        container.checkpointOffsets(store(), 60000);
+        return container;
+    }
+
+    /**
+     * 等待拉取任务读取全部消息（读偏移已推进至最后一条消息）
+     */
+    private void awaitAllRead() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!(SIZE + "-0").equals(lastRead)) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "messages have not been read");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    /**
+     * 仅支持读取消息的流操作：流中固定有 {@code SIZE} 条消息，每次返回读偏移之后的所有消息
+     */
+    @SuppressWarnings("unchecked")
+    private StreamOperator<String, String> operator() {
+        return (StreamOperator<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StreamOperator.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "slot" -> 0;
+                    case "closeAsync" -> CompletableFuture.completedFuture(null);
+                    case "xreadAsync" -> {
+                        XStreamOffset<String> offset = ((XStreamOffset<String>[]) args[1])[0];
+                        this.lastRead = offset.getOffset();
+                        int from = Integer.parseInt(offset.getOffset().split("-")[0]);
+                        List<XStreamMessage<String, String>> messages = new ArrayList<>();
+                        for (int i = from + 1; i <= SIZE; i++) {
+                            messages.add(new XStreamMessage<>(offset.getKey(), i + "-0", Map.of()));
+                        }
+                        yield CompletableFuture.completedFuture(messages);
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private OffsetStore<String> store() {
+        return new OffsetStore<>() {
+            @Override
+            public String load(String stream) {
+                return saved.get(stream);
+            }
+
+            @Override
+            public CompletableFuture<Void> saveAsync(Map<String, String> offsets) {
+                saved.putAll(offsets);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> closeAsync() {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+
+    /**
+     * 记录收到的消息 ID；如指定阻塞信号，收到第 4 条消息后阻塞直至信号释放
+     *
+     * @param received 收到的消息 ID
+     * @param blocked  阻塞信号（可以为空）
+     */
+    private record Collector(BlockingQueue<String> received, CountDownLatch blocked)
+            implements Subscriber<XStreamMessage<String, String>> {
+
+        @Override
+        public void onNext(XStreamMessage<String, String> element) {
+            received.add(element.id());
+            if (blocked != null && "4-0".equals(element.id())) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t, Subscription s) {
+        }
+
+        @Override
+        public void onError(Throwable t, XStreamMessage<String, String> element, int attempts,
+                            RetrySubscription<XStreamMessage<String, String>> s) {
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.flow.MemoryBudget;
+import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.flow.RetrySubscription;
+import com.igeeksky.xredis.common.flow.Subscriber;
+import com.igeeksky.xredis.common.flow.Subscription;
+import com.igeeksky.xredis.common.stream.XGroupConsumer;
+import com.igeeksky.xredis.common.stream.XReadOptions;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xredis.common.stream.XStreamOffset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class StreamGroupInfoTest {
+
+    @Test
+    void rejectedNewMessagesAreReadFromPending() {
+        // 内存预算仅能容纳 2 条消息
+        StreamGroupInfo<String, String> info = groupInfo(new MemoryBudget<>(2, e -> 1));
+        info.receive(List.of(message("1-0"), message("2-0"), message("3-0")));
+        // 第 3 条消息被拒绝：切换为从最后一条成功推送的消息之后读取待确认列表
+        Assertions.assertEquals("2-0", info.getOffset().getOffset());
+        Assertions.assertTrue(info.getSink().isPullPaused());
+
+        // 历史消息读取完毕后恢复读取新消息
+        info.receive(List.of());
+        Assertions.assertEquals(XStreamOffset.lastConsumed, info.getOffset().getOffset());
+        info.getSink().cancel();
+    }
+
+    @Test
+    void allRejectedReadsPendingFromFirst() {
+        MemoryBudget<XStreamMessage<String, String>> budget = new MemoryBudget<>(1, e -> 1);
+        StreamGroupInfo<String, String> info = groupInfo(budget);
+        Assertions.assertTrue(budget.tryAcquire(message("0-1")));
+        info.receive(List.of(message("1-0")));
+        Assertions.assertEquals(XStreamOffset.first, info.getOffset().getOffset());
+        info.getSink().cancel();
+    }
+
+    @Test
+    void allDeliveredKeepsLastConsumed() {
+        StreamGroupInfo<String, String> info = groupInfo(null);
+        info.receive(List.of(message("1-0"), message("2-0")));
+        Assertions.assertEquals(XStreamOffset.lastConsumed, info.getOffset().getOffset());
+        info.getSink().cancel();
+    }
+
+    private static XStreamMessage<String, String> message(String id) {
+        return new XStreamMessage<>("stream", id, Map.of());
+    }
+
+    private static StreamGroupInfo<String, String> groupInfo(MemoryBudget<XStreamMessage<String, String>> budget) {
+        RetrySink<XStreamMessage<String, String>> sink = new RetrySink<>(Executors.newVirtualThreadPerTaskExecutor(),
+                16, false, null, budget);
+        sink.subscribe(new Subscriber<>() {
+            @Override
+            public void onNext(XStreamMessage<String, String> element) {
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+            }
+
+            @Override
+            public void onError(Throwable t, XStreamMessage<String, String> element, int attempts,
+                                RetrySubscription<XStreamMessage<String, String>> s) {
+            }
+        }, 1);
+        XReadOptions options = ReadOptions.from(16).to();
+        return new StreamGroupInfo<>(options, XStreamOffset.lastConsumed("stream"), sink,
+                new XGroupConsumer<>("group", "consumer"));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class StreamLoopTest {
+
+    @Test
+    void pullImmediatelyAfterPreviousRead() throws InterruptedException {
+        AtomicInteger pulls = new AtomicInteger();
+        StreamLoop loop = new StreamLoop(() -> {
+            pulls.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }, 60000);
+        Thread thread = Thread.ofVirtual().start(loop);
+        TimeUnit.MILLISECONDS.sleep(50);
+        loop.stop();
+        thread.join(1000);
+        Assertions.assertFalse(thread.isAlive());
+        // 读取完成后立即再次读取，不等待暂停时长
+        Assertions.assertTrue(pulls.get() > 10);
+    }
+
+    @Test
+    void pauseWhenNotReadyAndResumeOnWakeup() throws InterruptedException {
+        AtomicBoolean ready = new AtomicBoolean(false);
+        AtomicInteger reads = new AtomicInteger();
+        StreamLoop loop = new StreamLoop(() -> {
+            if (!ready.get()) {
+                return null;
+            }
+            reads.incrementAndGet();
+            ready.set(false);
+            return CompletableFuture.completedFuture(null);
+        }, 60000);
+        Thread thread = Thread.ofVirtual().start(loop);
+        TimeUnit.MILLISECONDS.sleep(20);
+        Assertions.assertEquals(0, reads.get());
+
+        ready.set(true);
+        loop.wakeup();
+        TimeUnit.MILLISECONDS.sleep(50);
+        Assertions.assertEquals(1, reads.get());
+
+        loop.stop();
+        thread.join(1000);
+        Assertions.assertFalse(thread.isAlive());
+    }
+
+    @Test
+    void pauseAfterReadFailure() throws InterruptedException {
+        AtomicInteger pulls = new AtomicInteger();
+        StreamLoop loop = new StreamLoop(() -> {
+            pulls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("connection closed"));
+        }, 60000);
+        Thread thread = Thread.ofVirtual().start(loop);
+        TimeUnit.MILLISECONDS.sleep(50);
+        Assertions.assertEquals(1, pulls.get());
+        loop.stop();
+        thread.join(1000);
+        Assertions.assertFalse(thread.isAlive());
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.igeeksky.xredis.common.stream.container;
+
+import com.igeeksky.xredis.common.flow.RetrySink;
+import com.igeeksky.xredis.common.flow.RetrySubscription;
+import com.igeeksky.xredis.common.flow.Subscriber;
+import com.igeeksky.xredis.common.flow.Subscription;
+import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.XAutoClaimResult;
+import com.igeeksky.xredis.common.stream.XGroupConsumer;
+import com.igeeksky.xredis.common.stream.XPendingSummary;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xredis.common.stream.XStreamOffset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class StreamRecoveryTest {
+
+    private final AtomicInteger xpending = new AtomicInteger();
+
+    private final AtomicInteger xautoclaim = new AtomicInteger();
+
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    @Test
+    void pendingCountedOncePerGroupAndInFlightSkipped() throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            StreamRecovery<String, String> recovery = new StreamRecovery<>(operator());
+            // 同一 (流, 消费组) 的两个消费者：定时启动模式且不调用 run()，推送的消息均滞留于数据池
+            StreamGroupInfo<String, String> info1 = groupInfo(executor, "c1");
+            StreamGroupInfo<String, String> info2 = groupInfo(executor, "c2");
+            recovery.add(info1);
+            recovery.add(info2);
+            info1.receive(List.of(message("1-0")));
+
+            recovery.start(scheduler, RecoveryOptions.from(10, 1000, 10));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (recovery.stats().claims() < 4) {
+                Assertions.assertTrue(System.nanoTime() < deadline, "recovery has not been run");
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            recovery.stop();
+            // 等待正在执行的一轮恢复结束
+            TimeUnit.MILLISECONDS.sleep(50);
+
+            RecoveryStats stats = recovery.stats();
+            // 待处理消息数量按 (流, 消费组) 计算一次，不按订阅累加；每轮仅发送一次 xpending
+            Assertions.assertEquals(5, stats.pending());
+            Assertions.assertEquals(2 * xpending.get(), xautoclaim.get());
+            // 认领到的 1-0 仍在数据池中等待消费，不再重复推送
+            Assertions.assertEquals(2, stats.claimed());
+            Assertions.assertEquals(1, stats.delivered());
+            info1.getSink().cancel();
+            info2.getSink().cancel();
+        }
+    }
+
+    /**
+     * 待处理列表固定有 5 条消息；消费者 c1 首次认领返回 1-0 及 2-0，其它认领返回空结果
+     */
+    @SuppressWarnings("unchecked")
+    private StreamOperator<String, String> operator() {
+        return (StreamOperator<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StreamOperator.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "xpendingAsync" -> {
+                        xpending.incrementAndGet();
+                        yield CompletableFuture.completedFuture(new XPendingSummary(5, "1-0", "5-0", Map.of()));
+                    }
+                    case "xautoclaimAsync" -> {
+                        xautoclaim.incrementAndGet();
+                        XGroupConsumer<String> consumer = (XGroupConsumer<String>) args[1];
+                        List<XStreamMessage<String, String>> messages = ("c1".equals(consumer.name())
+                                && claimed.compareAndSet(false, true))
+                                ? List.of(message("1-0"), message("2-0")) : List.of();
+                        yield CompletableFuture.completedFuture(
+                                new XAutoClaimResult<>(XAutoClaimResult.START_ID, messages));
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static StreamGroupInfo<String, String> groupInfo(ExecutorService executor, String name) {
+        RetrySink<XStreamMessage<String, String>> sink = new RetrySink<>(executor, 16);
+        sink.subscribe(new Subscriber<>() {
+            @Override
+            public void onNext(XStreamMessage<String, String> element) {
+            }
+
+            @Override
+            public void onError(Throwable t, Subscription s) {
+            }
+
+            @Override
+            public void onError(Throwable t, XStreamMessage<String, String> element, int attempts,
+                                RetrySubscription<XStreamMessage<String, String>> s) {
+            }
+        }, 1);
+        return new StreamGroupInfo<>(ReadOptions.from(16).to(), XStreamOffset.lastConsumed("s"), sink,
+                new XGroupConsumer<>("g", name));
+    }
+
+    private static XStreamMessage<String, String> message(String id) {
+        return new XStreamMessage<>("s", id, Map.of());
+    }
+
+}
@@ -84,6 +84,8 @@ public class LettuceAutoConfiguration {
 
     /**
      * 创建支持操作 String 类型的 {@link RedisOperator}
+     * <p>
+     * 使用工厂创建时已预热的共享连接，关闭时仅释放引用。
      *
      * @param redisOperatorFactory RedisOperatorFactory
      * @return {@link RedisOperator} – 支持操作 String 类型
@@ -91,7 +93,7 @@ public class LettuceAutoConfiguration {
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
     @Bean(name = "stringRedisOperator", destroyMethod = "closeAsync")
     RedisOperator<String, String> stringRedisOperator(RedisOperatorFactory redisOperatorFactory) {
-        return redisOperatorFactory.redisOperator(StringCodec.UTF8);
+        return redisOperatorFactory.sharedRedisOperator(StringCodec.UTF8);
     }
 
 }
\ No newline at end of file
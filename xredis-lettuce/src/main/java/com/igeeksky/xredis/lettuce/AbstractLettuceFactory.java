@@ -1,17 +1,34 @@
 package com.igeeksky.xredis.lettuce;
 
+import com.igeeksky.xredis.common.RedisExpireScript;
 import com.igeeksky.xredis.common.RedisHelper;
+import com.igeeksky.xredis.common.RedisScript;
+import com.igeeksky.xredis.common.breaker.CircuitBreaker;
+import com.igeeksky.xredis.common.limiter.CommandLimiter;
+import com.igeeksky.xredis.common.stream.container.AdaptivePollPolicy;
+import com.igeeksky.xredis.common.stream.container.PullMode;
 import com.igeeksky.xredis.common.stream.container.ReadOptions;
 import com.igeeksky.xredis.common.stream.container.StreamContainer;
 import com.igeeksky.xredis.common.stream.container.StreamGenericContainer;
+import com.igeeksky.xredis.common.stream.container.StreamGroupContainer;
+import com.igeeksky.xredis.lettuce.api.Pipeline;
+import com.igeeksky.xredis.lettuce.api.RedisOperator;
 import com.igeeksky.xredis.lettuce.api.RedisOperatorFactory;
 import com.igeeksky.xredis.lettuce.config.LettuceGenericConfig;
+import com.igeeksky.xtool.core.lang.Assert;
 import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.codec.ByteArrayCodec;
 import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * LettuceOperator 抽象工厂类
@@ -40,6 +57,18 @@ public abstract sealed class AbstractLettuceFactory implements RedisOperatorFact
      * 虚拟线程池
      */
     private final ExecutorService executor;
+    /**
+     * Pipeline 连接池（按编解码器缓存）
+     */
+    private final Map<RedisCodec<?, ?>, ConfiguredPool> pipelinePools = new ConcurrentHashMap<>();
+    /**
+     * 共享连接（按编解码器缓存）
+     */
+    private final Map<RedisCodec<?, ?>, SharedConnection> sharedConnections = new ConcurrentHashMap<>();
+    /**
+     * 预热时持有的共享连接引用（保持至工厂关闭）
+     */
+    private final Map<RedisCodec<?, ?>, SharedRedisOperator<?, ?>> warmedOperators = new ConcurrentHashMap<>();
 
     /**
      * 构造函数
@@ -58,9 +87,193 @@ public abstract sealed class AbstractLettuceFactory implements RedisOperatorFact
         return id;
     }
 
+    /**
+     * 创建新的 Pipeline（自动提交）
+     * <p>
+     * 命令写入后无需手动调用 {@code flushCommands()}，由自动提交策略根据命令数量、参数数量及等待时长自动提交。
+     *
+     * @param <K>    键类型
+     * @param <V>    值类型
+     * @param codec  编解码器
+     * @param policy 自动提交策略
+     * @return {@link Pipeline} – Redis 管道操作
+     * @since 1.1.0
+     */
+    public abstract <K, V> Pipeline<K, V> pipeline(RedisCodec<K, V> codec, AutoFlushPolicy policy);
+
+    /**
+     * 获取 Pipeline 连接池（使用默认配置）
+     * <p>
+     * 同一编解码器仅创建一个连接池，多次调用返回同一对象；连接池随工厂关闭而关闭。<br>
+     * 如该编解码器的连接池已存在，则直接返回（不论其创建时的配置）。
+     *
+     * @param <K>   键类型
+     * @param <V>   值类型
+     * @param codec 编解码器
+     * @return {@link PipelinePool} – Pipeline 连接池
+     * @since 1.1.0
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> PipelinePool<K, V> pipelinePool(RedisCodec<K, V> codec) {
+        Assert.notNull(codec, "codec must not be null");
+        ConfiguredPool configured = pipelinePools.get(codec);
+        if (configured != null) {
+            return (PipelinePool<K, V>) configured.pool();
+        }
+        return this.pipelinePool(codec, PipelinePoolConfig.builder().build());
+    }
+
+    /**
+     * 获取 Pipeline 连接池
+     * <p>
+     * 同一编解码器仅创建一个连接池，多次调用返回同一对象；连接池随工厂关闭而关闭。
+     *
+     * @param <K>    键类型
+     * @param <V>    值类型
+     * @param codec  编解码器
+     * @param config 连接池配置
+     * @return {@link PipelinePool} – Pipeline 连接池
+     * @throws IllegalStateException 该编解码器的连接池已存在，且创建时的配置与 {@code config} 不同
+     * @since 1.1.0
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> PipelinePool<K, V> pipelinePool(RedisCodec<K, V> codec, PipelinePoolConfig config) {
+        Assert.notNull(codec, "codec must not be null");
+        Assert.notNull(config, "config must not be null");
+        ConfiguredPool configured = pipelinePools.computeIfAbsent(codec, ignored ->
+                new ConfiguredPool(config, new PipelinePool<>(() -> this.pipeline(codec), config, executor)));
+        if (!configured.config().equals(config)) {
+            throw new IllegalStateException("PipelinePool for this codec already exists with a different config. " +
+                    "existing:" + configured.config() + ", requested:" + config);
+        }
+        return (PipelinePool<K, V>) configured.pool();
+    }
+
+    @Override
+    public <K, V> SharedRedisOperator<K, V> sharedRedisOperator(RedisCodec<K, V> codec) {
+        Assert.notNull(codec, "codec must not be null");
+        return this.share(codec);
+    }
+
+    @Override
+    public LettuceOperatorProxy redisOperatorProxy(long timeout, int batchSize, boolean compatible,
+                                                   CommandLimiter limiter, CircuitBreaker breaker) {
+        return new LettuceOperatorProxy(timeout, batchSize, compatible, this.sharedRedisOperator(ByteArrayCodec.INSTANCE),
+                limiter, breaker, this.pipelinePool(ByteArrayCodec.INSTANCE));
+    }
+
     @Override
     public <K, V> LettuceStreamOperator<K, V> streamOperator(RedisCodec<K, V> codec) {
-        return new LettuceStreamOperator<>(this.redisOperator(codec));
+        return new LettuceStreamOperator<>(this.redisOperator(codec), codec);
+    }
+
+    @Override
+    public <K, V> LettuceStreamOperator<K, V> sharedStreamOperator(RedisCodec<K, V> codec) {
+        return new LettuceStreamOperator<>(this.sharedRedisOperator(codec), codec);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> CompletableFuture<Void> warmUpAsync(RedisCodec<K, V> codec, RedisScript... scripts) {
+        Assert.notNull(codec, "codec must not be null");
+        SharedRedisOperator<K, V> operator;
+        try {
+            operator = (SharedRedisOperator<K, V>) warmedOperators.computeIfAbsent(codec, ignored -> this.share(codec));
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        List<CompletableFuture<?>> futures = new ArrayList<>(1 + (scripts != null ? scripts.length : 0));
+        futures.add(this.connectNodes(operator));
+        if (scripts != null) {
+            for (RedisScript script : scripts) {
+                futures.add(operator.async().scriptLoad(script.getScriptBytes()).toCompletableFuture()
+                        .thenAccept(script::setSha1));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * 预热：建立到各节点的连接
+     * <p>
+     * 默认仅向主节点发送 PING 命令；集群模式下会并行连接拓扑中的所有节点。
+     *
+     * @param operator 共享连接
+     * @param <K>      键类型
+     * @param <V>      值类型
+     * @return {@code CompletableFuture<Void>} – 所有节点连接完成
+     */
+    protected <K, V> CompletableFuture<Void> connectNodes(RedisOperator<K, V> operator) {
+        return operator.async().ping().toCompletableFuture().thenAccept(ignored -> {
+        });
+    }
+
+    /**
+     * 工厂创建完成后立即预热（异步执行，预热失败仅记录日志）
+     * <p>
+     * 预热默认使用的共享连接：<br>
+     * 1. {@link ByteArrayCodec}：{@code sharedRedisOperator(ByteArrayCodec.INSTANCE)}，
+     * 通常用于创建 {@link LettuceOperatorProxy}，并预加载 {@link RedisExpireScript} 中的所有脚本；<br>
+     * 2. {@link StringCodec#UTF8}：{@code sharedRedisOperator(StringCodec.UTF8)}，自动配置的 {@code stringRedisOperator}。
+     */
+    protected void warmUp() {
+        // 创建连接为阻塞操作，因此在虚拟线程中执行，避免阻塞工厂构造
+        CompletableFuture.supplyAsync(() -> CompletableFuture.allOf(
+                        this.warmUpAsync(ByteArrayCodec.INSTANCE,
+                                RedisExpireScript.PSETEX, RedisExpireScript.PSETEX_RANDOM,
+                                RedisExpireScript.HSET_HPEXPIRE, RedisExpireScript.HMSET_HPEXPIRE,
+                                RedisExpireScript.HMSET_HPEXPIRE_RANDOM),
+                        this.warmUpAsync(StringCodec.UTF8)), executor)
+                .thenCompose(Function.identity())
+                .whenComplete((v, t) -> {
+                    if (t != null) {
+                        log.error("RedisOperatorFactory:[{}] warm up has error. {}", id, t.getMessage(), t);
+                    } else {
+                        log.info("RedisOperatorFactory:[{}] warm up completed.", id);
+                    }
+                });
+    }
+
+    /**
+     * 获取共享连接（引用计数加一），如不存在则创建新连接
+     *
+     * @param codec 编解码器
+     * @param <K>   键类型
+     * @param <V>   值类型
+     * @return {@link SharedRedisOperator} – 共享连接的 RedisOperator
+     */
+    @SuppressWarnings("unchecked")
+    private <K, V> SharedRedisOperator<K, V> share(RedisCodec<K, V> codec) {
+        SharedConnection shared = sharedConnections.compute(codec, (ignored, existing) -> {
+            if (existing == null) {
+                existing = new SharedConnection(this.redisOperator(codec));
+            }
+            existing.refs++;
+            return existing;
+        });
+        RedisOperator<K, V> operator = (RedisOperator<K, V>) shared.operator;
+        return new SharedRedisOperator<>(operator, timeout, () -> this.release(codec, shared));
+    }
+
+    /**
+     * 释放共享连接（引用计数减一），引用计数为零时关闭连接
+     *
+     * @param codec  编解码器
+     * @param shared 共享连接
+     * @return {@code CompletableFuture<Void>} – 连接关闭结果
+     */
+    private CompletableFuture<Void> release(RedisCodec<?, ?> codec, SharedConnection shared) {
+        SharedConnection remain = sharedConnections.computeIfPresent(codec, (ignored, existing) -> {
+            if (existing == shared && --existing.refs == 0) {
+                return null;
+            }
+            return existing;
+        });
+        if (remain == null) {
+            // 引用计数为零，或已随工厂关闭而移除（重复关闭无效）
+            return shared.closeAsync();
+        }
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
@@ -70,6 +283,20 @@ public abstract sealed class AbstractLettuceFactory implements RedisOperatorFact
                 quietPeriod, timeout, period, options);
     }
 
+    @Override
+    public <K, V> StreamContainer<K, V> streamContainer(RedisCodec<K, V> codec, ScheduledExecutorService scheduler,
+                                                        long period, ReadOptions options, PullMode mode) {
+        return new StreamContainer<>(this.streamOperator(codec), executor, scheduler,
+                quietPeriod, timeout, period, options, mode);
+    }
+
+    @Override
+    public <K, V> StreamContainer<K, V> streamContainer(RedisCodec<K, V> codec, ScheduledExecutorService scheduler,
+                                                        ReadOptions options, AdaptivePollPolicy policy) {
+        return new StreamContainer<>(this.streamOperator(codec), executor, scheduler,
+                quietPeriod, timeout, options, policy);
+    }
+
     @Override
     public <K, V> StreamGenericContainer<K, V> streamGenericContainer(RedisCodec<K, V> codec,
                                                                       ScheduledExecutorService scheduler,
@@ -78,6 +305,38 @@ public abstract sealed class AbstractLettuceFactory implements RedisOperatorFact
                 quietPeriod, timeout, period);
     }
 
+    @Override
+    public <K, V> StreamGenericContainer<K, V> streamGenericContainer(RedisCodec<K, V> codec,
+                                                                      ScheduledExecutorService scheduler,
+                                                                      AdaptivePollPolicy policy) {
+        return new StreamGenericContainer<>(this.streamOperator(codec), executor, scheduler,
+                quietPeriod, timeout, policy);
+    }
+
+    @Override
+    public <K, V> StreamGroupContainer<K, V> streamGroupContainer(RedisCodec<K, V> codec,
+                                                                  ScheduledExecutorService scheduler,
+                                                                  long period) {
+        return new StreamGroupContainer<>(this.streamOperator(codec), executor, scheduler,
+                quietPeriod, timeout, period);
+    }
+
+    @Override
+    public <K, V> StreamGroupContainer<K, V> streamGroupContainer(RedisCodec<K, V> codec,
+                                                                  ScheduledExecutorService scheduler,
+                                                                  long period, PullMode mode) {
+        return new StreamGroupContainer<>(this.streamOperator(codec), executor, scheduler,
+                quietPeriod, timeout, period, mode);
+    }
+
+    @Override
+    public <K, V> StreamGroupContainer<K, V> streamGroupContainer(RedisCodec<K, V> codec,
+                                                                  ScheduledExecutorService scheduler,
+                                                                  AdaptivePollPolicy policy) {
+        return new StreamGroupContainer<>(this.streamOperator(codec), executor, scheduler,
+                quietPeriod, timeout, policy);
+    }
+
     /**
      * 获取 RedisClient
      *
@@ -108,7 +367,23 @@ public abstract sealed class AbstractLettuceFactory implements RedisOperatorFact
     @Override
     public CompletableFuture<Void> shutdownAsync(long quietPeriod, long timeout, TimeUnit timeUnit) {
         log.info("Commencing graceful shutdown. Waiting for active connection to complete.");
-        return CompletableFuture.supplyAsync(() -> {
+        List<CompletableFuture<Void>> pools = new ArrayList<>(pipelinePools.size() + sharedConnections.size());
+        for (ConfiguredPool configured : pipelinePools.values()) {
+            pools.add(configured.pool().closeAsync());
+        }
+        warmedOperators.clear();
+        for (RedisCodec<?, ?> codec : new ArrayList<>(sharedConnections.keySet())) {
+            SharedConnection shared = sharedConnections.remove(codec);
+            if (shared != null) {
+                pools.add(CompletableFuture.supplyAsync(shared::closeAsync, executor).thenCompose(Function.identity()));
+            }
+        }
+        return CompletableFuture.allOf(pools.toArray(new CompletableFuture[0])).handle((v, t) -> {
+            if (t != null) {
+                log.error("[PipelinePool|SharedConnection] Graceful shutdown has error. {}", t.getMessage(), t);
+            }
+            return null;
+        }).thenApplyAsync(ignored -> {
             boolean terminated = false;
             try {
                 try {
@@ -136,4 +411,35 @@ public abstract sealed class AbstractLettuceFactory implements RedisOperatorFact
         });
     }
 
+    /**
+     * 共享连接（引用计数仅在 {@code sharedConnections} 的 compute 方法中修改）
+     */
+    private static final class SharedConnection {
+
+        private final RedisOperator<?, ?> operator;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private int refs;
+
+        private SharedConnection(RedisOperator<?, ?> operator) {
+            this.operator = operator;
+        }
+
+        private CompletableFuture<Void> closeAsync() {
+            if (closed.compareAndSet(false, true)) {
+                return operator.closeAsync();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+    }
+
+    /**
+     * 连接池及其创建时的配置
+     *
+     * @param config 连接池配置
+     * @param pool   Pipeline 连接池
+     */
+    private record ConfiguredPool(PipelinePoolConfig config, PipelinePool<?, ?> pool) {
+    }
+
 }
@@ -0,0 +1,142 @@
+package com.igeeksky.xredis.lettuce;
+
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.time.Duration;
+
+/**
+ * Pipeline 自动提交策略
+ * <p>
+ * 类似于 Nagle 算法：命令先写入缓冲，满足以下任一条件时自动提交（flushCommands）：<br>
+ * 1. 未提交的命令数量达到 {@code maxCommands}；<br>
+ * 2. 未提交的命令参数数量达到 {@code maxArgs}；<br>
+ * 3. 自第一个未提交的命令写入起，等待时长达到 {@code maxDelay}。
+ * <p>
+ * 高频写入时，命令自动按数量合并提交；低频写入时，命令最多延迟 {@code maxDelay} 后提交。
+ * 多个线程共享同一 Pipeline 时，无需各自调用 {@code flushCommands()}。
+ * <p>
+ * 注：Lettuce 在 IO 线程中才将命令参数编码为字节，写入缓冲时无法获知实际字节数，
+ * 因此以参数数量（每个键、值、选项各计 1）近似代替字节阈值。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class AutoFlushPolicy {
+
+    private final int maxCommands;
+
+    private final long maxArgs;
+
+    private final Duration maxDelay;
+
+    /**
+     * 私有构造器
+     *
+     * @param builder {@link Builder}
+     */
+    private AutoFlushPolicy(Builder builder) {
+        this.maxCommands = builder.maxCommands;
+        this.maxArgs = builder.maxArgs;
+        this.maxDelay = builder.maxDelay;
+    }
+
+    /**
+     * 未提交命令数量阈值
+     *
+     * @return {@code int} – 未提交命令数量阈值
+     */
+    public int getMaxCommands() {
+        return maxCommands;
+    }
+
+    /**
+     * 未提交命令参数数量阈值
+     *
+     * @return {@code long} – 未提交命令参数数量阈值
+     */
+    public long getMaxArgs() {
+        return maxArgs;
+    }
+
+    /**
+     * 自第一个未提交的命令写入起的最大等待时长
+     *
+     * @return {@link Duration} – 最大等待时长
+     */
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * 创建 AutoFlushPolicy-builder
+     *
+     * @return {@link AutoFlushPolicy.Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * AutoFlushPolicy-builder
+     */
+    public static class Builder {
+
+        private int maxCommands = 512;
+        private long maxArgs = 65536;
+        private Duration maxDelay = Duration.ofMillis(1);
+
+        /**
+         * 私有构造器
+         */
+        private Builder() {
+        }
+
+        /**
+         * 设置：未提交命令数量阈值，默认值：512
+         *
+         * @param maxCommands 未提交命令数量阈值，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder maxCommands(int maxCommands) {
+            Assert.isTrue(maxCommands > 0, "maxCommands must be greater than 0");
+            this.maxCommands = maxCommands;
+            return this;
+        }
+
+        /**
+         * 设置：未提交命令参数数量阈值，默认值：65536
+         *
+         * @param maxArgs 未提交命令参数数量阈值，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder maxArgs(long maxArgs) {
+            Assert.isTrue(maxArgs > 0, "maxArgs must be greater than 0");
+            this.maxArgs = maxArgs;
+            return this;
+        }
+
+        /**
+         * 设置：自第一个未提交的命令写入起的最大等待时长，默认值：1 毫秒
+         *
+         * @param maxDelay 最大等待时长，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder maxDelay(Duration maxDelay) {
+            Assert.notNull(maxDelay, "maxDelay must not be null");
+            Assert.isTrue(!maxDelay.isZero() && !maxDelay.isNegative(), "maxDelay must be greater than 0");
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * 根据已设置参数创建 {@link AutoFlushPolicy}
+         *
+         * @return {@link AutoFlushPolicy}
+         */
+        public AutoFlushPolicy build() {
+            return new AutoFlushPolicy(this);
+        }
+
+    }
+
+}
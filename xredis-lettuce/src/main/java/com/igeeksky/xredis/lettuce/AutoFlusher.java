@@ -0,0 +1,82 @@
+package com.igeeksky.xredis.lettuce;
+
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.RedisCommand;
+import io.netty.util.concurrent.EventExecutor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline 自动提交器
+ * <p>
+ * 统计未提交的命令数量及参数数量，达到阈值时立即提交；
+ * 第一个未提交的命令写入时，在事件循环中注册延时任务，到期后提交。
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+final class AutoFlusher {
+
+    private final int maxCommands;
+    private final long maxArgs;
+    private final long maxDelayNanos;
+    private final EventExecutor executor;
+    private final StatefulConnection<?, ?> connection;
+
+    private final AtomicInteger commands = new AtomicInteger();
+    private final AtomicLong args = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * 创建自动提交器
+     *
+     * @param connection 批量提交命令连接（autoFlush = false）
+     * @param policy     自动提交策略
+     */
+    AutoFlusher(StatefulConnection<?, ?> connection, AutoFlushPolicy policy) {
+        this.connection = connection;
+        this.maxArgs = policy.getMaxArgs();
+        this.maxCommands = policy.getMaxCommands();
+        this.maxDelayNanos = policy.getMaxDelay().toNanos();
+        this.executor = connection.getResources().eventExecutorGroup().next();
+    }
+
+    /**
+     * 命令已写入缓冲
+     *
+     * @param command 命令（可以为空：经集群节点连接发送的命令，其返回结果可能并非命令对象，此时仅统计命令数量）
+     */
+    void onDispatch(RedisCommand<?, ?, ?> command) {
+        CommandArgs<?, ?> commandArgs = (command != null) ? command.getArgs() : null;
+        long argCount = this.args.addAndGet(commandArgs != null ? commandArgs.count() : 0);
+        int cmdCount = this.commands.incrementAndGet();
+        if (cmdCount >= this.maxCommands || argCount >= this.maxArgs) {
+            this.flush();
+            return;
+        }
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.executor.schedule(this::flushIfPending, this.maxDelayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flushIfPending() {
+        if (this.scheduled.get()) {
+            this.flush();
+        }
+    }
+
+    /**
+     * 提交所有未提交的命令，并重置统计
+     */
+    void flush() {
+        this.scheduled.set(false);
+        this.commands.set(0);
+        this.args.set(0);
+        this.connection.flushCommands();
+    }
+
+}
@@ -1,18 +1,24 @@
 package com.igeeksky.xredis.lettuce;
 
+import com.igeeksky.xredis.lettuce.api.RedisOperator;
 import com.igeeksky.xredis.lettuce.config.LettuceClusterConfig;
 import com.igeeksky.xredis.lettuce.config.RedisNode;
+import com.igeeksky.xtool.core.lang.Assert;
 import io.lettuce.core.AbstractRedisClient;
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.cluster.ClusterClientOptions;
 import io.lettuce.core.cluster.RedisClusterClient;
 import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.models.partitions.Partitions;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
 import io.lettuce.core.codec.RedisCodec;
 import io.lettuce.core.json.JsonParser;
+import io.lettuce.core.protocol.ConnectionIntent;
 import io.lettuce.core.resource.ClientResources;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 /**
@@ -39,6 +45,9 @@ public final class LettuceClusterFactory extends AbstractLettuceFactory {
         this.config = config;
         this.client = redisClient(options, res);
         this.jsonParser = options.getJsonParser();
+        if (config.isWarmUp()) {
+            this.warmUp();
+        }
     }
 
     @Override
@@ -50,6 +59,16 @@ public final class LettuceClusterFactory extends AbstractLettuceFactory {
         return new LettuceClusterPipeline<>(batchConnection, codec, quietPeriod, timeout);
     }
 
+    @Override
+    public <K, V> LettuceClusterPipeline<K, V> pipeline(RedisCodec<K, V> codec, AutoFlushPolicy policy) {
+        Assert.notNull(policy, "policy must not be null");
+        StatefulRedisClusterConnection<K, V> batchConnection = this.connect(codec, false);
+        if (jsonParser != null) {
+            return new LettuceClusterPipeline<>(batchConnection, codec, quietPeriod, timeout, jsonParser, policy);
+        }
+        return new LettuceClusterPipeline<>(batchConnection, codec, quietPeriod, timeout, policy);
+    }
+
     @Override
     public <K, V> LettuceClusterOperator<K, V> redisOperator(RedisCodec<K, V> codec) {
         StatefulRedisClusterConnection<K, V> connection = this.connect(codec, true);
@@ -59,6 +78,23 @@ public final class LettuceClusterFactory extends AbstractLettuceFactory {
         return new LettuceClusterOperator<>(connection, codec, quietPeriod, timeout);
     }
 
+    @Override
+    protected <K, V> CompletableFuture<Void> connectNodes(RedisOperator<K, V> operator) {
+        if (!(operator.async() instanceof LettuceClusterAsyncOperator<K, V> async)) {
+            return super.connectNodes(operator);
+        }
+        StatefulRedisClusterConnection<K, V> connection = async.getStatefulConnection();
+        Partitions partitions = connection.getPartitions();
+        List<CompletableFuture<String>> futures = new ArrayList<>(partitions.size());
+        for (RedisClusterNode node : partitions) {
+            ConnectionIntent intent = node.is(RedisClusterNode.NodeFlag.UPSTREAM)
+                    ? ConnectionIntent.WRITE : ConnectionIntent.READ;
+            futures.add(connection.getConnectionAsync(node.getNodeId(), intent)
+                    .thenCompose(nodeConnection -> nodeConnection.async().ping()));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
     @Override
     protected AbstractRedisClient getClient() {
         return client;
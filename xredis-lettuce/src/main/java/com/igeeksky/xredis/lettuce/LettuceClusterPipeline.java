@@ -2,20 +2,38 @@ package com.igeeksky.xredis.lettuce;
 
 import com.igeeksky.xredis.common.RedisHelper;
 import com.igeeksky.xredis.lettuce.api.Pipeline;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.StreamScanCursor;
 import io.lettuce.core.cluster.RedisAdvancedClusterAsyncCommandsImpl;
 import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
 import io.lettuce.core.codec.RedisCodec;
 import io.lettuce.core.json.JsonParser;
+import io.lettuce.core.output.KeyStreamingChannel;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.RedisCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * 管道接口实现（集群模式）
+ * <p>
+ * 自动提交模式下，按槽路由的命令经 {@link #dispatch(RedisCommand)} 统计；按节点执行的命令（如：keys、scan、randomkey）
+ * 经节点连接发送，在发送后统计。<br>
+ * 注意：通过 {@code getConnection(nodeId)} 或 {@code nodes(predicate)} 直接获取的节点命令不会被统计，
+ * 需手动调用 {@link #flushCommands()} 提交。
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -28,6 +46,7 @@ public class LettuceClusterPipeline<K, V> extends RedisAdvancedClusterAsyncComma
     private final long timeout;
     private final long quietPeriod;
     private final StatefulRedisClusterConnection<K, V> connection;
+    private final AutoFlusher flusher;
 
     /**
      * cluster operator constructor
@@ -43,6 +62,7 @@ public class LettuceClusterPipeline<K, V> extends RedisAdvancedClusterAsyncComma
         this.timeout = timeout;
         this.quietPeriod = quietPeriod;
         this.connection = connection;
+        this.flusher = null;
     }
 
     /**
@@ -60,10 +80,151 @@ public class LettuceClusterPipeline<K, V> extends RedisAdvancedClusterAsyncComma
         this.timeout = timeout;
         this.quietPeriod = quietPeriod;
         this.connection = connection;
+        this.flusher = null;
+    }
+
+    /**
+     * cluster operator constructor（自动提交）
+     *
+     * @param connection  批量提交命令连接（autoFlush = false）
+     * @param codec       编解码器
+     * @param quietPeriod 优雅关闭 quietPeriod
+     * @param timeout     优雅关闭 timeout
+     * @param policy      自动提交策略
+     */
+    public LettuceClusterPipeline(StatefulRedisClusterConnection<K, V> connection, RedisCodec<K, V> codec,
+                                  long quietPeriod, long timeout, AutoFlushPolicy policy) {
+        super(connection, codec);
+        this.timeout = timeout;
+        this.quietPeriod = quietPeriod;
+        this.connection = connection;
+        this.flusher = new AutoFlusher(connection, policy);
+    }
+
+    /**
+     * cluster operator constructor（自动提交）
+     *
+     * @param connection  批量提交命令连接（autoFlush = false）
+     * @param codec       编解码器
+     * @param quietPeriod 优雅关闭 quietPeriod
+     * @param timeout     优雅关闭 timeout
+     * @param parser      JSON 解析器
+     * @param policy      自动提交策略
+     */
+    public LettuceClusterPipeline(StatefulRedisClusterConnection<K, V> connection, RedisCodec<K, V> codec,
+                                  long quietPeriod, long timeout, Supplier<JsonParser> parser,
+                                  AutoFlushPolicy policy) {
+        super(connection, codec, parser);
+        this.timeout = timeout;
+        this.quietPeriod = quietPeriod;
+        this.connection = connection;
+        this.flusher = new AutoFlusher(connection, policy);
+    }
+
+    @Override
+    public <T> AsyncCommand<K, V, T> dispatch(RedisCommand<K, V, T> cmd) {
+        AsyncCommand<K, V, T> command = super.dispatch(cmd);
+        if (flusher != null) {
+            flusher.onDispatch(command);
+        }
+        return command;
+    }
+
+    /**
+     * 按节点执行的命令（如：keys、dbsize、flushdb、scriptLoad）经节点连接发送，不经过 {@link #dispatch(RedisCommand)}，
+     * 因此在节点连接发送后统计
+     */
+    @Override
+    protected <T> Map<String, CompletableFuture<T>> executeOnNodes(
+            Function<RedisClusterAsyncCommands<K, V>, RedisFuture<T>> function,
+            Function<RedisClusterNode, Boolean> filter) {
+        if (flusher == null) {
+            return super.executeOnNodes(function, filter);
+        }
+        return super.executeOnNodes(commands -> this.counted(function.apply(commands)), filter);
+    }
+
+    @Override
+    public RedisFuture<K> randomkey() {
+        return this.counted(super.randomkey());
+    }
+
+    @Override
+    public RedisFuture<String> clientSetname(K name) {
+        return this.counted(super.clientSetname(name));
+    }
+
+    @Override
+    public RedisFuture<Long> clusterCountKeysInSlot(int slot) {
+        return this.counted(super.clusterCountKeysInSlot(slot));
+    }
+
+    @Override
+    public RedisFuture<List<K>> clusterGetKeysInSlot(int slot, int count) {
+        return this.counted(super.clusterGetKeysInSlot(slot, count));
+    }
+
+    @Override
+    public RedisFuture<KeyScanCursor<K>> scan() {
+        return this.counted(super.scan());
+    }
+
+    @Override
+    public RedisFuture<KeyScanCursor<K>> scan(ScanArgs scanArgs) {
+        return this.counted(super.scan(scanArgs));
+    }
+
+    @Override
+    public RedisFuture<KeyScanCursor<K>> scan(ScanCursor scanCursor) {
+        return this.counted(super.scan(scanCursor));
+    }
+
+    @Override
+    public RedisFuture<KeyScanCursor<K>> scan(ScanCursor scanCursor, ScanArgs scanArgs) {
+        return this.counted(super.scan(scanCursor, scanArgs));
+    }
+
+    @Override
+    public RedisFuture<StreamScanCursor> scan(KeyStreamingChannel<K> channel) {
+        return this.counted(super.scan(channel));
+    }
+
+    @Override
+    public RedisFuture<StreamScanCursor> scan(KeyStreamingChannel<K> channel, ScanArgs scanArgs) {
+        return this.counted(super.scan(channel, scanArgs));
+    }
+
+    @Override
+    public RedisFuture<StreamScanCursor> scan(KeyStreamingChannel<K> channel, ScanCursor scanCursor) {
+        return this.counted(super.scan(channel, scanCursor));
+    }
+
+    @Override
+    public RedisFuture<StreamScanCursor> scan(KeyStreamingChannel<K> channel, ScanCursor scanCursor,
+                                              ScanArgs scanArgs) {
+        return this.counted(super.scan(channel, scanCursor, scanArgs));
+    }
+
+    /**
+     * 统计经节点连接发送的命令：达到阈值时提交，或注册延时提交任务
+     *
+     * @param future 命令结果
+     * @param <T>    结果类型
+     * @return 命令结果
+     */
+    private <T> RedisFuture<T> counted(RedisFuture<T> future) {
+        if (flusher != null) {
+            flusher.onDispatch((future instanceof RedisCommand<?, ?, ?> command) ? command : null);
+        }
+        return future;
     }
 
     @Override
     public void flushCommands() {
+        if (flusher != null) {
+            flusher.flush();
+            return;
+        }
         connection.flushCommands();
     }
 
@@ -71,7 +232,7 @@ public class LettuceClusterPipeline<K, V> extends RedisAdvancedClusterAsyncComma
     public void setAutoFlushCommands(boolean autoFlush) {
         throw new UnsupportedOperationException(
                 "Pipeline doesn't support change auto flush mode, it must be false." +
-                        "If you want to flush commands immediately, please use redis-*-operator."
+                        "If you want to flush commands automatically, please use AutoFlushPolicy."
         );
     }
 
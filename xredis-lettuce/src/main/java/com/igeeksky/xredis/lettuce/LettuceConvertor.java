@@ -7,6 +7,8 @@ import com.igeeksky.xredis.common.stream.*;
 import com.igeeksky.xtool.core.KeyValue;
 import com.igeeksky.xtool.core.collection.CollectionUtils;
 import io.lettuce.core.*;
+import io.lettuce.core.models.stream.ClaimedMessages;
+import io.lettuce.core.models.stream.PendingMessages;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -163,6 +165,53 @@ public abstract class LettuceConvertor {
         return list;
     }
 
+    /**
+     * 创建 Lettuce {@link XAutoClaimArgs}
+     *
+     * @param <K>         键类型
+     * @param consumer    消费组信息
+     * @param minIdleTime 最小空闲时间（毫秒）
+     * @param startId     扫描起始 ID
+     * @param count       最大认领数量
+     * @return Lettuce {@link XAutoClaimArgs} 对象
+     */
+    public static <K> XAutoClaimArgs<K> toXAutoClaimArgs(XGroupConsumer<K> consumer, long minIdleTime,
+                                                         String startId, long count) {
+        return new XAutoClaimArgs<K>().consumer(toXGroupConsumer(consumer))
+                .minIdleTime(minIdleTime).startId(startId).count(count);
+    }
+
+    /**
+     * Lettuce {@link ClaimedMessages} 转换为 {@link XAutoClaimResult}
+     *
+     * @param <K>     键类型
+     * @param <V>     值类型
+     * @param claimed Lettuce {@link ClaimedMessages} 对象
+     * @return {@link XAutoClaimResult} 对象
+     */
+    public static <K, V> XAutoClaimResult<K, V> fromClaimedMessages(ClaimedMessages<K, V> claimed) {
+        if (claimed == null) {
+            return new XAutoClaimResult<>(XAutoClaimResult.START_ID, Collections.emptyList());
+        }
+        return new XAutoClaimResult<>(claimed.getId(), fromStreamMessages(claimed.getMessages()));
+    }
+
+    /**
+     * Lettuce {@link PendingMessages} 转换为 {@link XPendingSummary}
+     *
+     * @param pending Lettuce {@link PendingMessages} 对象
+     * @return {@link XPendingSummary} 对象
+     */
+    public static XPendingSummary fromPendingMessages(PendingMessages pending) {
+        if (pending == null || pending.getCount() == 0) {
+            return new XPendingSummary(0, null, null, Collections.emptyMap());
+        }
+        io.lettuce.core.Range<String> range = pending.getMessageIds();
+        String lowest = (range != null) ? range.getLower().getValue() : null;
+        String highest = (range != null) ? range.getUpper().getValue() : null;
+        return new XPendingSummary(pending.getCount(), lowest, highest, pending.getConsumerMessageCount());
+    }
+
     /**
      * {@link XGroupCreateOptions} 转换为 Lettuce {@link XGroupCreateArgs}
      *
@@ -0,0 +1,71 @@
+package com.igeeksky.xredis.lettuce;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.RedisLoadingException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Lettuce 异常辅助类
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public final class LettuceExceptions {
+
+    private static final String[] TRANSIENT_ERRORS = {"MOVED", "ASK", "TRYAGAIN", "CLUSTERDOWN", "LOADING"};
+
+    /**
+     * 私有构造方法
+     */
+    private LettuceExceptions() {
+    }
+
+    /**
+     * 判断是否为瞬时异常（重试可能成功）
+     * <p>
+     * 瞬时异常包括：命令超时、连接异常，以及集群迁移或故障转移期间
+     * RedisServer 返回的 MOVED、ASK、TRYAGAIN、CLUSTERDOWN 和 LOADING 错误。
+     *
+     * @param e 异常
+     * @return {@code boolean} – 如为瞬时异常，返回 {@code true}；否则返回 {@code false}
+     */
+    public static boolean isTransient(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof RedisCommandTimeoutException
+                || cause instanceof RedisConnectionException
+                || cause instanceof RedisLoadingException
+                || cause instanceof IOException) {
+            return true;
+        }
+        if (cause instanceof RedisCommandExecutionException) {
+            String message = cause.getMessage();
+            if (message != null) {
+                for (String error : TRANSIENT_ERRORS) {
+                    if (message.startsWith(error)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解包 {@link CompletionException} 和 {@link ExecutionException}
+     *
+     * @param e 异常
+     * @return {@link Throwable} – 原始异常
+     */
+    public static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+}
@@ -4,12 +4,17 @@ import com.igeeksky.xredis.common.Limit;
 import com.igeeksky.xredis.common.Range;
 import com.igeeksky.xredis.common.ScoredValue;
 import com.igeeksky.xredis.common.*;
+import com.igeeksky.xredis.common.breaker.CircuitBreaker;
+import com.igeeksky.xredis.common.limiter.CommandLimiter;
+import com.igeeksky.xredis.common.limiter.Priority;
+import com.igeeksky.xredis.lettuce.api.RedisAsyncCommands;
 import com.igeeksky.xredis.lettuce.api.RedisAsyncOperator;
 import com.igeeksky.xredis.lettuce.api.RedisOperator;
 import com.igeeksky.xtool.core.ExpiryKeyValue;
 import com.igeeksky.xtool.core.KeyValue;
 import com.igeeksky.xtool.core.collection.CollectionUtils;
 import com.igeeksky.xtool.core.collection.Maps;
+import com.igeeksky.xtool.core.concurrent.VirtualThreadFactory;
 import com.igeeksky.xtool.core.lang.ArrayUtils;
 import com.igeeksky.xtool.core.lang.Assert;
 import com.igeeksky.xtool.core.lang.codec.StringCodec;
@@ -19,8 +24,18 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * LettuceOperatorProxy
@@ -35,7 +50,12 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
     private final long timeout;
     private final int batchSize;
     private final boolean compatible;
+    private final Priority priority;
+    private final CommandLimiter limiter;
+    private final CircuitBreaker breaker;
+    private final PipelinePool<byte[], byte[]> pipelinePool;
     private final RedisOperator<byte[], byte[]> redisOperator;
+    private final RetryScheduler retryScheduler;
 
     /**
      * 使用默认的 {@code batchSize} 和 {@code syncTimeout}，创建 RedisOperatorProxy
@@ -77,13 +97,82 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
      */
     public LettuceOperatorProxy(long timeout, int batchSize, boolean compatible,
                                 RedisOperator<byte[], byte[]> redisOperator) {
+        this(timeout, batchSize, compatible, redisOperator, null);
+    }
+
+    /**
+     * 使用指定的 {@code batchSize} 、 {@code syncTimeout} 、 {@code compatible} 和 {@code limiter}，创建 RedisOperatorProxy
+     *
+     * @param timeout       同步获取结果最大等待时长，单位：毫秒 <br>
+     * @param batchSize     单批次提交数据的最大数量 <br>
+     *                      如 batchSize 设为 10000，当 {@link RedisOperatorProxy} 接收到单次操作 100 万条数据的请求时，
+     *                      会将数据切分为 100 份，每份 10000条数据，然后分 100 批次提交到 RedisServer。
+     * @param compatible    是否为兼容模式，如为 true，则不使用脚本操作数据。
+     * @param redisOperator RedisOperator
+     * @param limiter       在途命令并发限制器（可以为空，为空则不限制）
+     */
+    public LettuceOperatorProxy(long timeout, int batchSize, boolean compatible,
+                                RedisOperator<byte[], byte[]> redisOperator, CommandLimiter limiter) {
+        this(timeout, batchSize, compatible, redisOperator, limiter, null);
+    }
+
+    /**
+     * 使用指定的 {@code batchSize} 、 {@code syncTimeout} 、 {@code compatible} 、 {@code limiter} 和 {@code breaker}，
+     * 创建 RedisOperatorProxy
+     *
+     * @param timeout       同步获取结果最大等待时长，单位：毫秒 <br>
+     * @param batchSize     单批次提交数据的最大数量 <br>
+     *                      如 batchSize 设为 10000，当 {@link RedisOperatorProxy} 接收到单次操作 100 万条数据的请求时，
+     *                      会将数据切分为 100 份，每份 10000条数据，然后分 100 批次提交到 RedisServer。
+     * @param compatible    是否为兼容模式，如为 true，则不使用脚本操作数据。
+     * @param redisOperator RedisOperator
+     * @param limiter       在途命令并发限制器（可以为空，为空则不限制）
+     * @param breaker       熔断器（可以为空，为空则不熔断）
+     */
+    public LettuceOperatorProxy(long timeout, int batchSize, boolean compatible,
+                                RedisOperator<byte[], byte[]> redisOperator, CommandLimiter limiter,
+                                CircuitBreaker breaker) {
+        this(timeout, batchSize, compatible, redisOperator, limiter, breaker, null);
+    }
+
+    /**
+     * 使用指定的 {@code batchSize} 、 {@code syncTimeout} 、 {@code compatible} 、 {@code limiter} 、 {@code breaker}
+     * 和 {@code pipelinePool}，创建 RedisOperatorProxy
+     *
+     * @param timeout       同步获取结果最大等待时长，单位：毫秒 <br>
+     * @param batchSize     单批次提交数据的最大数量 <br>
+     *                      如 batchSize 设为 10000，当 {@link RedisOperatorProxy} 接收到单次操作 100 万条数据的请求时，
+     *                      会将数据切分为 100 份，每份 10000条数据，然后分 100 批次提交到 RedisServer。
+     * @param compatible    是否为兼容模式，如为 true，则不使用脚本操作数据。
+     * @param redisOperator RedisOperator
+     * @param limiter       在途命令并发限制器（可以为空，为空则不限制）
+     * @param breaker       熔断器（可以为空，为空则不熔断）
+     * @param pipelinePool  管道连接池，用于 {@link #batch()} 一次性提交多个命令（可以为空，为空则通过 redisOperator 逐个发送）
+     */
+    public LettuceOperatorProxy(long timeout, int batchSize, boolean compatible,
+                                RedisOperator<byte[], byte[]> redisOperator, CommandLimiter limiter,
+                                CircuitBreaker breaker, PipelinePool<byte[], byte[]> pipelinePool) {
+        this(timeout, batchSize, compatible, redisOperator, limiter, breaker, pipelinePool, Priority.NORMAL,
+                new RetryScheduler());
+    }
+
+    private LettuceOperatorProxy(long timeout, int batchSize, boolean compatible,
+                                 RedisOperator<byte[], byte[]> redisOperator, CommandLimiter limiter,
+                                 CircuitBreaker breaker, PipelinePool<byte[], byte[]> pipelinePool, Priority priority,
+                                 RetryScheduler retryScheduler) {
         Assert.isTrue(timeout > 0, "timeout must be greater than 0");
         Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
         Assert.notNull(redisOperator, "redisOperator must not be null");
+        Assert.notNull(priority, "priority must not be null");
         this.timeout = timeout;
         this.batchSize = batchSize;
         this.compatible = compatible;
+        this.limiter = limiter;
+        this.breaker = breaker;
+        this.pipelinePool = pipelinePool;
+        this.priority = priority;
         this.redisOperator = redisOperator;
+        this.retryScheduler = retryScheduler;
     }
 
     @Override
@@ -106,9 +195,34 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         return this.timeout;
     }
 
+    @Override
+    public CommandLimiter getLimiter() {
+        return this.limiter;
+    }
+
+    @Override
+    public LettuceOperatorProxy withPriority(Priority priority) {
+        if (this.priority == priority) {
+            return this;
+        }
+        // 共用同一连接及重试调度器：任一代理关闭即全部关闭
+        return new LettuceOperatorProxy(timeout, batchSize, compatible, redisOperator, limiter, breaker, pipelinePool,
+                priority, this.retryScheduler);
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return this.breaker;
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new Batch();
+    }
+
     @Override
     public CompletableFuture<String> infoAsync() {
-        return this.redisOperator.async().info().toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().info());
     }
 
     @Override
@@ -118,7 +232,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<String> infoAsync(String section) {
-        return this.redisOperator.async().info(section).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().info(section));
     }
 
     @Override
@@ -128,7 +242,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<String> versionAsync() {
-        return this.redisOperator.async().info("Server")
+        return this.execute(1, () -> this.redisOperator.async().info("Server")
                 .thenApply(serverInfo -> {
                     String[] array = serverInfo.split("\n");
                     for (String info : array) {
@@ -137,8 +251,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
                         }
                     }
                     return null;
-                })
-                .toCompletableFuture();
+                }));
     }
 
     @Override
@@ -148,7 +261,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<List<byte[]>> timeAsync() {
-        return this.redisOperator.async().time().toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().time());
     }
 
     @Override
@@ -158,7 +271,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<Long> timeSecondsAsync() {
-        return this.redisOperator.async().timeSeconds(ByteArrayTimeConvertor.getInstance());
+        return this.execute(1, () -> this.redisOperator.async().timeSeconds(ByteArrayTimeConvertor.getInstance()));
     }
 
     @Override
@@ -168,7 +281,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<Long> timeMillisAsync() {
-        return this.redisOperator.async().timeMillis(ByteArrayTimeConvertor.getInstance());
+        return this.execute(1, () -> this.redisOperator.async().timeMillis(ByteArrayTimeConvertor.getInstance()));
     }
 
     @Override
@@ -178,7 +291,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<Long> timeMicrosAsync() {
-        return this.redisOperator.async().timeMicros(ByteArrayTimeConvertor.getInstance());
+        return this.execute(1, () -> this.redisOperator.async().timeMicros(ByteArrayTimeConvertor.getInstance()));
     }
 
     @Override
@@ -186,11 +299,15 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         return RedisHelper.get(timeMicrosAsync(), timeout, TimeUnit.MILLISECONDS, true, true);
     }
 
+    @Override
     public CompletableFuture<Long> delAsync(byte[]... keys) {
         if (ArrayUtils.isEmpty(keys)) {
             return CompletableFuture.completedFuture(0L);
         }
+        return this.execute(this.batches(keys.length), () -> this.doDel(keys));
+    }
 
+    private CompletableFuture<Long> doDel(byte[][] keys) {
         RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
         int size = keys.length;
         // 当数据量低于阈值，直接删除（小于等于限定数量）
@@ -235,7 +352,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<String> setAsync(byte[] key, byte[] value) {
-        return this.redisOperator.async().set(key, value).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().set(key, value));
     }
 
     @Override
@@ -245,7 +362,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<byte[]> getAsync(byte[] key) {
-        return this.redisOperator.async().get(key).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().get(key));
     }
 
     @Override
@@ -258,7 +375,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (Maps.isEmpty(keyValues)) {
             return CompletableFuture.completedFuture(OK);
         }
+        return this.execute(this.batches(keyValues.size()), () -> this.doMset(keyValues));
+    }
 
+    private CompletableFuture<String> doMset(Map<byte[], byte[]> keyValues) {
         RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
         int size = keyValues.size();
         // 当数据量低于阈值，直接存储（小于等于限定数量）
@@ -274,12 +394,38 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         return RedisHelper.get(msetAsync(keyValues), timeout, TimeUnit.MILLISECONDS, true, true);
     }
 
+    @Override
+    public CompletableFuture<BatchReport> msetAsync(Map<byte[], byte[]> keyValues, BatchRetryPolicy policy) {
+        Assert.notNull(policy, "policy must not be null");
+        if (Maps.isEmpty(keyValues)) {
+            return CompletableFuture.completedFuture(new BatchReport(0, 0, 0, Collections.emptyList()));
+        }
+        RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
+        List<Map.Entry<byte[], byte[]>> entries = new ArrayList<>(keyValues.entrySet());
+        return this.retryBatches(entries, Map.Entry::getKey, false, policy, batch -> {
+            Map<byte[], byte[]> partition = Maps.newHashMap(batch.size());
+            for (Map.Entry<byte[], byte[]> entry : batch) {
+                partition.put(entry.getKey(), entry.getValue());
+            }
+            return async.mset(partition);
+        });
+    }
+
+    @Override
+    public BatchReport mset(Map<byte[], byte[]> keyValues, BatchRetryPolicy policy) {
+        return RedisHelper.get(msetAsync(keyValues, policy), policy.maxWait(timeout),
+                TimeUnit.MILLISECONDS, true, true);
+    }
+
     @Override
     public CompletableFuture<List<KeyValue<byte[], byte[]>>> mgetAsync(byte[][] keys) {
         if (keys == null || keys.length == 0) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        return this.execute(this.batches(keys.length), () -> this.doMget(keys));
+    }
 
+    private CompletableFuture<List<KeyValue<byte[], byte[]>>> doMget(byte[][] keys) {
         RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
         int size = keys.length;
         // 当数据量低于阈值，直接查询（小于等于限定数量）
@@ -298,7 +444,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<String> psetexAsync(byte[] key, long milliseconds, byte[] value) {
-        return this.redisOperator.async().psetex(key, milliseconds, value).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().psetex(key, milliseconds, value));
     }
 
     @Override
@@ -311,7 +457,12 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (CollectionUtils.isEmpty(keyValues)) {
             return CompletableFuture.completedFuture(OK);
         }
+        int size = keyValues.size();
+        int commands = (this.isCluster() || this.compatible) ? size : this.batches(size);
+        return this.execute(commands, () -> this.doPsetex(keyValues));
+    }
 
+    private CompletableFuture<String> doPsetex(List<ExpiryKeyValue<byte[], byte[]>> keyValues) {
         if (this.isCluster() || this.compatible) {
             RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
             List<CompletionStage<String>> futures = new ArrayList<>(keyValues.size());
@@ -333,7 +484,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
                 args[j++] = CODEC.encode(Long.toString(kv.getTtl()));
                 args[j++] = kv.getValue();
             }
-            return this.evalshaAsync(script, keys, args);
+            return this.doEvalsha(script, keys, args);
         }
 
         int i = 0, j = 0, k = 0, capacity = batchSize;
@@ -346,7 +497,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
             args[j++] = kv.getValue();
             k++;
             if (i == capacity) {
-                futures.add(this.evalshaAsync(script, keys, args));
+                futures.add(this.doEvalsha(script, keys, args));
                 int remain = size - k;
                 if (remain > 0 && remain < capacity) {
                     capacity = remain;
@@ -365,12 +516,34 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         return RedisHelper.get(psetexAsync(expiryKeyValues), timeout, TimeUnit.MILLISECONDS, true, true);
     }
 
+    @Override
+    public CompletableFuture<BatchReport> psetexAsync(List<ExpiryKeyValue<byte[], byte[]>> expiryKeyValues,
+                                                      BatchRetryPolicy policy) {
+        Assert.notNull(policy, "policy must not be null");
+        if (CollectionUtils.isEmpty(expiryKeyValues)) {
+            return CompletableFuture.completedFuture(new BatchReport(0, 0, 0, Collections.emptyList()));
+        }
+        boolean perEntry = this.isCluster() || this.compatible;
+        return this.retryBatches(expiryKeyValues, ExpiryKeyValue::getKey, perEntry, policy, this::doPsetex);
+    }
+
+    @Override
+    public BatchReport psetex(List<ExpiryKeyValue<byte[], byte[]>> expiryKeyValues, BatchRetryPolicy policy) {
+        return RedisHelper.get(psetexAsync(expiryKeyValues, policy), policy.maxWait(timeout),
+                TimeUnit.MILLISECONDS, true, true);
+    }
+
     @Override
     public CompletableFuture<String> psetexAsync(List<KeyValue<byte[], byte[]>> keyValues, long milliseconds) {
         if (CollectionUtils.isEmpty(keyValues)) {
             return CompletableFuture.completedFuture(OK);
         }
+        int size = keyValues.size();
+        int commands = (this.isCluster() || this.compatible) ? size : this.batches(size);
+        return this.execute(commands, () -> this.doPsetex(keyValues, milliseconds));
+    }
 
+    private CompletableFuture<String> doPsetex(List<KeyValue<byte[], byte[]>> keyValues, long milliseconds) {
         if (this.isCluster() || this.compatible) {
             RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
             CompletableFuture<String> future = CompletableFuture.completedFuture(OK);
@@ -394,7 +567,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
                 keys[i] = kv.getKey();
                 args[i + 1] = kv.getValue();
             }
-            return this.evalshaAsync(script, keys, args);
+            return this.doEvalsha(script, keys, args);
         }
 
         int i = 0, j = 0, capacity = batchSize;
@@ -408,7 +581,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
             i++;
             j++;
             if (i == capacity) {
-                futures.add(this.evalshaAsync(script, keys, args));
+                futures.add(this.doEvalsha(script, keys, args));
                 int remain = size - j;
                 if (remain > 0 && remain < capacity) {
                     capacity = remain;
@@ -427,10 +600,28 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         return RedisHelper.get(psetexAsync(keyValues, milliseconds), timeout, TimeUnit.MILLISECONDS, true, true);
     }
 
+    @Override
+    public CompletableFuture<BatchReport> psetexAsync(List<KeyValue<byte[], byte[]>> keyValues, long milliseconds,
+                                                      BatchRetryPolicy policy) {
+        Assert.notNull(policy, "policy must not be null");
+        if (CollectionUtils.isEmpty(keyValues)) {
+            return CompletableFuture.completedFuture(new BatchReport(0, 0, 0, Collections.emptyList()));
+        }
+        boolean perEntry = this.isCluster() || this.compatible;
+        return this.retryBatches(keyValues, KeyValue::getKey, perEntry, policy,
+                batch -> this.doPsetex(batch, milliseconds));
+    }
+
+    @Override
+    public BatchReport psetex(List<KeyValue<byte[], byte[]>> keyValues, long milliseconds, BatchRetryPolicy policy) {
+        return RedisHelper.get(psetexAsync(keyValues, milliseconds, policy), policy.maxWait(timeout),
+                TimeUnit.MILLISECONDS, true, true);
+    }
+
 
     @Override
     public CompletableFuture<Boolean> hsetAsync(byte[] key, byte[] field, byte[] value) {
-        return this.redisOperator.async().hset(key, field, value).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().hset(key, field, value));
     }
 
     @Override
@@ -443,13 +634,16 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (Maps.isEmpty(keyFieldValues)) {
             return CompletableFuture.completedFuture(OK);
         }
+        return this.execute(keyFieldValues.size(), () -> this.doHmset(keyFieldValues));
+    }
 
+    private CompletableFuture<String> doHmset(Map<byte[], Map<byte[], byte[]>> keyFieldValues) {
         List<CompletionStage<String>> futures = new ArrayList<>(keyFieldValues.size());
         for (Map.Entry<byte[], Map<byte[], byte[]>> entry : keyFieldValues.entrySet()) {
             byte[] key = entry.getKey();
             Map<byte[], byte[]> fieldValues = entry.getValue();
             if (Maps.isNotEmpty(fieldValues)) {
-                futures.add(this.hmsetAsync(key, fieldValues));
+                futures.add(this.doHmset(key, fieldValues));
             }
         }
         return combineStringFutures(CompletableFuture.completedFuture(OK), futures);
@@ -465,7 +659,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (Maps.isEmpty(fieldValues)) {
             return CompletableFuture.completedFuture(OK);
         }
+        return this.execute(this.batches(fieldValues.size()), () -> this.doHmset(key, fieldValues));
+    }
 
+    private CompletableFuture<String> doHmset(byte[] key, Map<byte[], byte[]> fieldValues) {
         RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
         int size = fieldValues.size();
         // 当数据量低于阈值，直接保存
@@ -484,13 +681,17 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<Long> hpsetAsync(byte[] key, long milliseconds, byte[] field, byte[] value) {
+        return this.execute(1, () -> this.doHpset(key, milliseconds, field, value));
+    }
+
+    private CompletableFuture<Long> doHpset(byte[] key, long milliseconds, byte[] field, byte[] value) {
         if (this.compatible) {
             return this.hpsetCompatible(key, milliseconds, field, value).toCompletableFuture();
         }
 
         byte[][] keys = {key};
         byte[][] args = new byte[][]{CODEC.encode(Long.toString(milliseconds)), field, value};
-        return this.evalshaAsync(RedisExpireScript.HSET_HPEXPIRE, keys, args);
+        return this.doEvalsha(RedisExpireScript.HSET_HPEXPIRE, keys, args);
     }
 
     /**
@@ -519,7 +720,12 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (Maps.isEmpty(keysFieldsValues)) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        int commands = this.compatible ? countValues(keysFieldsValues) : keysFieldsValues.size();
+        return this.execute(commands, () -> this.doHmpset(keysFieldsValues, milliseconds));
+    }
 
+    private CompletableFuture<List<Long>> doHmpset(Map<byte[], List<KeyValue<byte[], byte[]>>> keysFieldsValues,
+                                                   long milliseconds) {
         int size = 0;
         List<CompletionStage<List<Long>>> futures = new ArrayList<>(keysFieldsValues.size());
         for (Map.Entry<byte[], List<KeyValue<byte[], byte[]>>> entry : keysFieldsValues.entrySet()) {
@@ -527,7 +733,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
             List<KeyValue<byte[], byte[]>> fieldsValues = entry.getValue();
             if (CollectionUtils.isNotEmpty(fieldsValues)) {
                 size += fieldsValues.size();
-                futures.add(this.hmpsetAsync(key, milliseconds, fieldsValues));
+                futures.add(this.doHmpset(key, milliseconds, fieldsValues));
             }
         }
         return combineListLongFutures(CompletableFuture.completedFuture(new ArrayList<>(size)), futures);
@@ -544,7 +750,13 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (CollectionUtils.isEmpty(fieldsValues)) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        int size = fieldsValues.size();
+        int commands = this.compatible ? size : this.batches(size);
+        return this.execute(commands, () -> this.doHmpset(key, milliseconds, fieldsValues));
+    }
 
+    private CompletableFuture<List<Long>> doHmpset(byte[] key, long milliseconds,
+                                                   List<KeyValue<byte[], byte[]>> fieldsValues) {
         if (this.compatible) {
             List<CompletionStage<Long>> futures = new ArrayList<>(fieldsValues.size());
             for (KeyValue<byte[], byte[]> keyValue : fieldsValues) {
@@ -570,7 +782,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
                 args[i++] = fieldValue.getKey();
                 args[i++] = fieldValue.getValue();
             }
-            return this.evalshaAsync(script, keys, args);
+            return this.doEvalsha(script, keys, args);
         }
 
         // 当数据量超过阈值，分批保存
@@ -583,7 +795,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
             args[i++] = fieldValue.getValue();
             j++;
             if (i == capacity) {
-                futures.add(this.evalshaAsync(script, keys, args));
+                futures.add(this.doEvalsha(script, keys, args));
                 i = 1;
                 int remain = size - j;
                 if (remain > 0 && remain < capacity) {
@@ -606,6 +818,11 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (Maps.isEmpty(expiryKeysFieldsValues)) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        int commands = this.compatible ? countValues(expiryKeysFieldsValues) : expiryKeysFieldsValues.size();
+        return this.execute(commands, () -> this.doHmpset(expiryKeysFieldsValues));
+    }
+
+    private CompletableFuture<List<Long>> doHmpset(Map<byte[], List<ExpiryKeyValue<byte[], byte[]>>> expiryKeysFieldsValues) {
         int size = 0;
         List<CompletionStage<List<Long>>> futures = new ArrayList<>(expiryKeysFieldsValues.size());
         for (Map.Entry<byte[], List<ExpiryKeyValue<byte[], byte[]>>> entry : expiryKeysFieldsValues.entrySet()) {
@@ -613,7 +830,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
             List<ExpiryKeyValue<byte[], byte[]>> fieldsValues = entry.getValue();
             if (CollectionUtils.isNotEmpty(fieldsValues)) {
                 size += fieldsValues.size();
-                futures.add(this.hmpsetAsync(key, fieldsValues));
+                futures.add(this.doHmpset(key, fieldsValues));
             }
         }
         return combineListLongFutures(CompletableFuture.completedFuture(new ArrayList<>(size)), futures);
@@ -629,7 +846,12 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (CollectionUtils.isEmpty(expiryFieldsValues)) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        int size = expiryFieldsValues.size();
+        int commands = this.compatible ? size : this.batches(size);
+        return this.execute(commands, () -> this.doHmpset(key, expiryFieldsValues));
+    }
 
+    private CompletableFuture<List<Long>> doHmpset(byte[] key, List<ExpiryKeyValue<byte[], byte[]>> expiryFieldsValues) {
         if (this.compatible) {
             List<CompletionStage<Long>> futures = new ArrayList<>(expiryFieldsValues.size());
             for (ExpiryKeyValue<byte[], byte[]> expiryKeyValue : expiryFieldsValues) {
@@ -655,7 +877,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
                 args[i++] = expiryKeyValue.getKey();
                 args[i++] = expiryKeyValue.getValue();
             }
-            return this.evalshaAsync(script, keys, args);
+            return this.doEvalsha(script, keys, args);
         }
         // 当数据量超过阈值，分批保存
         List<CompletionStage<List<Long>>> futures = new ArrayList<>(size / batchSize + 1);
@@ -667,7 +889,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
             args[i++] = expiryKeyValue.getValue();
             j++;
             if (i == capacity) {
-                futures.add(this.evalshaAsync(script, keys, args));
+                futures.add(this.doEvalsha(script, keys, args));
                 i = 0;
                 int remain = size - j;
                 if (remain > 0 && remain < capacity) {
@@ -686,7 +908,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<byte[]> hgetAsync(byte[] key, byte[] field) {
-        return this.redisOperator.async().hget(key, field).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().hget(key, field));
     }
 
     @Override
@@ -699,6 +921,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (Maps.isEmpty(keyFields)) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        return this.execute(keyFields.size(), () -> this.doHmget(keyFields));
+    }
+
+    private CompletableFuture<List<KeyValue<byte[], byte[]>>> doHmget(Map<byte[], List<byte[]>> keyFields) {
         int totalSize = 0;
         List<CompletionStage<List<KeyValue<byte[], byte[]>>>> futures = new ArrayList<>(keyFields.size());
         for (Map.Entry<byte[], List<byte[]>> entry : keyFields.entrySet()) {
@@ -706,7 +932,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
             List<byte[]> fields = entry.getValue();
             if (CollectionUtils.isNotEmpty(fields)) {
                 totalSize += fields.size();
-                futures.add(this.hmgetAsync(key, fields.toArray(new byte[fields.size()][])));
+                futures.add(this.doHmget(key, fields.toArray(new byte[fields.size()][])));
             }
         }
         return combineKeyValues(CompletableFuture.completedFuture(new ArrayList<>(totalSize)), futures);
@@ -722,6 +948,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (ArrayUtils.isEmpty(fields)) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        return this.execute(this.batches(fields.length), () -> this.doHmget(key, fields));
+    }
+
+    private CompletableFuture<List<KeyValue<byte[], byte[]>>> doHmget(byte[] key, byte[][] fields) {
         RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
         int size = fields.length;
         // 当数据量低于阈值，直接查询（小于等于限定数量）
@@ -744,11 +974,15 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (Maps.isEmpty(keyFields)) {
             return CompletableFuture.completedFuture(0L);
         }
+        return this.execute(keyFields.size(), () -> this.doHdel(keyFields));
+    }
+
+    private CompletableFuture<Long> doHdel(Map<byte[], List<byte[]>> keyFields) {
         List<CompletionStage<Long>> futures = new ArrayList<>(keyFields.size());
         for (Map.Entry<byte[], List<byte[]>> entry : keyFields.entrySet()) {
             List<byte[]> fields = entry.getValue();
             if (CollectionUtils.isNotEmpty(fields)) {
-                futures.add(this.hdelAsync(entry.getKey(), fields.toArray(new byte[fields.size()][])));
+                futures.add(this.doHdel(entry.getKey(), fields.toArray(new byte[fields.size()][])));
             }
         }
         return combineLongFutures(CompletableFuture.completedFuture(0L), futures);
@@ -764,6 +998,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (ArrayUtils.isEmpty(fields)) {
             return CompletableFuture.completedFuture(0L);
         }
+        return this.execute(this.batches(fields.length), () -> this.doHdel(key, fields));
+    }
+
+    private CompletableFuture<Long> doHdel(byte[] key, byte[][] fields) {
         RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
         int size = fields.length;
         // 当数据量低于阈值，直接删除（小于等于限定数量）
@@ -782,7 +1020,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<Long> zaddAsync(byte[] key, double score, byte[] member) {
-        return this.redisOperator.async().zadd(key, score, member).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().zadd(key, score, member));
     }
 
     @Override
@@ -796,6 +1034,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         if (ArrayUtils.isEmpty(scoredValues)) {
             return CompletableFuture.completedFuture(0L);
         }
+        return this.execute(this.batches(scoredValues.length), () -> this.doZadd(key, scoredValues));
+    }
+
+    private CompletableFuture<Long> doZadd(byte[] key, ScoredValue<byte[]>[] scoredValues) {
         RedisAsyncOperator<byte[], byte[]> async = this.redisOperator.async();
         int size = scoredValues.length;
         if (size <= batchSize) {
@@ -815,7 +1057,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<Long> zcardAsync(byte[] key) {
-        return this.redisOperator.async().zcard(key).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().zcard(key));
     }
 
     @Override
@@ -825,9 +1067,9 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<List<byte[]>> zrangebylexAsync(byte[] key, Range<byte[]> range) {
-        return CompletableFuture.completedFuture(range)
+        return this.execute(1, () -> CompletableFuture.completedFuture(range)
                 .thenApply(LettuceConvertor::toRange)
-                .thenCompose(range1 -> this.redisOperator.async().zrangebylex(key, range1));
+                .thenCompose(range1 -> this.redisOperator.async().zrangebylex(key, range1)));
     }
 
     @Override
@@ -837,12 +1079,12 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<List<byte[]>> zrangebylexAsync(byte[] key, Range<byte[]> range, Limit limit) {
-        return CompletableFuture.completedFuture(range)
+        return this.execute(1, () -> CompletableFuture.completedFuture(range)
                 .thenApply(LettuceConvertor::toRange)
                 .thenCompose(range1 -> {
                     io.lettuce.core.Limit limit1 = LettuceConvertor.toLimit(limit);
                     return this.redisOperator.async().zrangebylex(key, range1, limit1);
-                });
+                }));
     }
 
     @Override
@@ -852,9 +1094,9 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<List<byte[]>> zrangebyscoreAsync(byte[] key, Range<? extends Number> range) {
-        return CompletableFuture.completedFuture(range)
+        return this.execute(1, () -> CompletableFuture.completedFuture(range)
                 .thenApply(LettuceConvertor::toRange)
-                .thenCompose(range1 -> this.redisOperator.async().zrangebyscore(key, range1));
+                .thenCompose(range1 -> this.redisOperator.async().zrangebyscore(key, range1)));
     }
 
     @Override
@@ -864,12 +1106,12 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<List<byte[]>> zrangebyscoreAsync(byte[] key, Range<? extends Number> range, Limit limit) {
-        return CompletableFuture.completedFuture(range)
+        return this.execute(1, () -> CompletableFuture.completedFuture(range)
                 .thenApply(LettuceConvertor::toRange)
                 .thenCompose(range1 -> {
                     io.lettuce.core.Limit limit1 = LettuceConvertor.toLimit(limit);
                     return this.redisOperator.async().zrangebyscore(key, range1, limit1);
-                });
+                }));
     }
 
     @Override
@@ -879,7 +1121,7 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<Long> zremAsync(byte[] key, byte[]... members) {
-        return this.redisOperator.async().zrem(key, members).toCompletableFuture();
+        return this.execute(1, () -> this.redisOperator.async().zrem(key, members));
     }
 
     @Override
@@ -889,6 +1131,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public <T> CompletableFuture<T> evalAsync(RedisScript script, byte[][] keys, byte[]... args) {
+        return this.execute(1, () -> this.doEval(script, keys, args));
+    }
+
+    private <T> CompletableFuture<T> doEval(RedisScript script, byte[][] keys, byte[][] args) {
         return CompletableFuture.completedFuture(script)
                 .thenApply(sc -> getScriptOutputType(sc.getResultType()))
                 .thenCompose(outputType -> {
@@ -907,6 +1153,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public <T> CompletableFuture<T> evalReadOnlyAsync(RedisScript script, byte[][] keys, byte[]... args) {
+        return this.execute(1, () -> this.doEvalReadOnly(script, keys, args));
+    }
+
+    private <T> CompletableFuture<T> doEvalReadOnly(RedisScript script, byte[][] keys, byte[][] args) {
         return CompletableFuture.completedFuture(script)
                 .thenApply(sc -> getScriptOutputType(sc.getResultType()))
                 .thenCompose(outputType -> {
@@ -925,6 +1175,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public <T> CompletableFuture<T> evalshaAsync(RedisScript script, byte[][] keys, byte[]... args) {
+        return this.execute(1, () -> this.doEvalsha(script, keys, args));
+    }
+
+    private <T> CompletableFuture<T> doEvalsha(RedisScript script, byte[][] keys, byte[][] args) {
         CompletableFuture<T> future = CompletableFuture.completedFuture(script)
                 .thenApply(sc -> getScriptOutputType(sc.getResultType()))
                 .thenCompose(outputType -> {
@@ -936,8 +1190,8 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
                 });
         return future.exceptionallyCompose(e -> {
             if (e instanceof RedisNoScriptException || e.getCause() instanceof RedisNoScriptException) {
-                return this.scriptLoadAsync(script)
-                        .thenCompose(ignored -> this.evalAsync(script, keys, args));
+                return this.doScriptLoad(script)
+                        .thenCompose(ignored -> this.doEval(script, keys, args));
             }
             return CompletableFuture.failedFuture(e);
         });
@@ -950,6 +1204,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public <T> CompletableFuture<T> evalshaReadOnlyAsync(RedisScript script, byte[][] keys, byte[]... args) {
+        return this.execute(1, () -> this.doEvalshaReadOnly(script, keys, args));
+    }
+
+    private <T> CompletableFuture<T> doEvalshaReadOnly(RedisScript script, byte[][] keys, byte[][] args) {
         CompletableFuture<T> future = CompletableFuture.completedFuture(script)
                 .thenApply(sc -> getScriptOutputType(sc.getResultType()))
                 .thenCompose(outputType -> {
@@ -961,8 +1219,8 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
                 });
         return future.exceptionallyCompose(e -> {
             if (e instanceof RedisNoScriptException || e.getCause() instanceof RedisNoScriptException) {
-                return this.scriptLoadAsync(script)
-                        .thenCompose(ignored -> this.evalReadOnlyAsync(script, keys, args));
+                return this.doScriptLoad(script)
+                        .thenCompose(ignored -> this.doEvalReadOnly(script, keys, args));
             }
             return CompletableFuture.failedFuture(e);
         });
@@ -975,6 +1233,10 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<String> scriptLoadAsync(RedisScript script) {
+        return this.execute(1, () -> this.doScriptLoad(script));
+    }
+
+    private CompletableFuture<String> doScriptLoad(RedisScript script) {
         return CompletableFuture.completedFuture(script)
                 .thenCompose(sc -> this.redisOperator.async()
                         .scriptLoad(sc.getScript())
@@ -993,6 +1255,233 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
         return RedisHelper.get(scriptLoadAsync(script), timeout, TimeUnit.MILLISECONDS, true, true);
     }
 
+    /**
+     * 经由熔断器及并发限制器执行命令（未设置则直接执行）
+     * <p>
+     * 先经熔断器判断，熔断器打开时直接拒绝，无需排队等待许可；
+     * 获取许可后才开始计算调用耗时，并发限制器拒绝执行的命令不计入熔断器的调用结果。
+     *
+     * @param commands 此次调用实际发送的命令数
+     * @param command  待执行的命令
+     * @param <T>      结果类型
+     * @return {@link CompletableFuture} – 命令执行结果
+     */
+    private <T> CompletableFuture<T> execute(int commands, Supplier<? extends CompletionStage<T>> command) {
+        if (this.breaker == null) {
+            return this.limit(commands, command);
+        }
+        return this.breaker.execute(call -> this.limit(commands, call), command);
+    }
+
+    /**
+     * 获取许可并执行命令（未设置并发限制器则直接执行）
+     *
+     * @param commands 此次调用实际发送的命令数
+     * @param command  待执行的命令
+     * @param <T>      结果类型
+     * @return {@link CompletableFuture} – 命令执行结果
+     */
+    private <T> CompletableFuture<T> limit(int commands, Supplier<? extends CompletionStage<T>> command) {
+        if (this.limiter == null) {
+            return command.get().toCompletableFuture();
+        }
+        return this.limiter.execute(commands, this.priority, command);
+    }
+
+    /**
+     * 按 batchSize 分割数据，逐个子批次提交；子批次失败时按重试策略仅重试该子批次
+     *
+     * @param items     待提交的数据
+     * @param keyMapper 获取数据对应的键（用于记录失败子批次的键）
+     * @param perEntry  子批次是否按每条数据发送一个命令（集群模式或兼容模式）
+     * @param policy    子批次重试策略
+     * @param sender    提交子批次的函数
+     * @param <E>       数据类型
+     * @return {@code CompletableFuture<BatchReport>} – 执行报告
+     */
+    private <E> CompletableFuture<BatchReport> retryBatches(List<E> items, Function<E, byte[]> keyMapper,
+                                                            boolean perEntry, BatchRetryPolicy policy,
+                                                            Function<List<E>, CompletionStage<String>> sender) {
+        Predicate<Throwable> retryable = policy.getRetryable();
+        if (retryable == null) {
+            retryable = LettuceExceptions::isTransient;
+        }
+        int size = items.size();
+        int batches = this.batches(size);
+        AtomicInteger retries = new AtomicInteger();
+        List<CompletableFuture<BatchFailure>> futures = new ArrayList<>(batches);
+        for (int index = 0, from = 0; from < size; index++, from += batchSize) {
+            List<E> batch = items.subList(from, Math.min(from + batchSize, size));
+            int commands = perEntry ? batch.size() : 1;
+            SubBatch<E> subBatch = new SubBatch<>(index, batch, commands, sender);
+            futures.add(this.sendBatch(subBatch, keyMapper, policy, retryable, retries, 1));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<BatchFailure> failures = new ArrayList<>();
+                    for (CompletableFuture<BatchFailure> future : futures) {
+                        BatchFailure failure = future.join();
+                        if (failure != null) {
+                            failures.add(failure);
+                        }
+                    }
+                    return new BatchReport(batches, size, retries.get(), failures);
+                });
+    }
+
+    /**
+     * 提交子批次
+     *
+     * @return {@code CompletableFuture<BatchFailure>} – 如子批次执行成功，返回 {@code null}；否则返回失败信息
+     */
+    private <E> CompletableFuture<BatchFailure> sendBatch(SubBatch<E> batch, Function<E, byte[]> keyMapper,
+                                                          BatchRetryPolicy policy, Predicate<Throwable> retryable,
+                                                          AtomicInteger retries, int attempt) {
+        return this.execute(batch.commands(), () -> batch.sender().apply(batch.items()))
+                .handle((result, error) -> error)
+                .thenCompose(error -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    Throwable cause = LettuceExceptions.unwrap(error);
+                    if (attempt > policy.getMaxRetries() || !retryable.test(cause)) {
+                        return CompletableFuture.completedFuture(failure(batch, keyMapper, attempt, cause));
+                    }
+                    retries.incrementAndGet();
+                    // 退避期间关闭代理：不再重试，该子批次记为失败
+                    return this.retryScheduler.delay(policy.backoff(attempt))
+                            .handle((ignored, rejected) -> rejected)
+                            .thenCompose(rejected -> (rejected == null)
+                                    ? this.sendBatch(batch, keyMapper, policy, retryable, retries, attempt + 1)
+                                    : CompletableFuture.completedFuture(failure(batch, keyMapper, attempt, rejected)));
+                });
+    }
+
+    private static <E> BatchFailure failure(SubBatch<E> batch, Function<E, byte[]> keyMapper, int attempts,
+                                            Throwable cause) {
+        List<byte[]> keys = new ArrayList<>(batch.items().size());
+        for (E item : batch.items()) {
+            keys.add(keyMapper.apply(item));
+        }
+        return new BatchFailure(batch.index(), keys, attempts, cause);
+    }
+
+    /**
+     * 子批次重试调度器
+     * <p>
+     * 定时线程仅负责退避计时，到期后在虚拟线程中重新提交子批次：
+     * 并发限制器为 WAIT 模式时，获取许可可能阻塞，因此不能占用定时线程或公共线程池。
+     * <p>
+     * 首次重试时才创建线程；代理关闭时停止线程，退避中的子批次以 {@link RedisRejectedException} 结束。
+     */
+    private static final class RetryScheduler {
+
+        private final Lock lock = new ReentrantLock();
+
+        private final Set<CompletableFuture<Void>> pending = ConcurrentHashMap.newKeySet();
+
+        private ScheduledExecutorService timer;
+
+        private ExecutorService executor;
+
+        private boolean closed;
+
+        /**
+         * 延迟指定时长
+         *
+         * @param delay 延迟时长（毫秒）
+         * @return {@code CompletableFuture<Void>} – 到期后在虚拟线程中完成；如代理已关闭，以异常结束
+         */
+        private CompletableFuture<Void> delay(long delay) {
+            CompletableFuture<Void> delayed = new CompletableFuture<>();
+            lock.lock();
+            try {
+                if (closed) {
+                    return CompletableFuture.failedFuture(rejected());
+                }
+                if (timer == null) {
+                    timer = Executors.newSingleThreadScheduledExecutor(
+                            Thread.ofPlatform().name("xredis-batch-retry-timer").daemon().factory());
+                    executor = Executors.newThreadPerTaskExecutor(new VirtualThreadFactory("virtual-batch-retry-"));
+                }
+                pending.add(delayed);
+                ExecutorService exec = executor;
+                timer.schedule(() -> {
+                    pending.remove(delayed);
+                    try {
+                        exec.execute(() -> delayed.complete(null));
+                    } catch (RejectedExecutionException e) {
+                        delayed.completeExceptionally(rejected());
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            } finally {
+                lock.unlock();
+            }
+            return delayed;
+        }
+
+        /**
+         * 停止定时线程，退避中的子批次以异常结束
+         */
+        private void shutdown() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (timer != null) {
+                    timer.shutdownNow();
+                    executor.shutdown();
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (CompletableFuture<Void> delayed : pending) {
+                delayed.completeExceptionally(rejected());
+            }
+            pending.clear();
+        }
+
+        private static RedisRejectedException rejected() {
+            return new RedisRejectedException("RedisOperatorProxy has been closed, batch retry is cancelled");
+        }
+
+    }
+
+    /**
+     * 子批次
+     *
+     * @param index    子批次序号
+     * @param items    子批次数据
+     * @param commands 子批次实际发送的命令数
+     * @param sender   提交子批次的函数
+     * @param <E>      数据类型
+     */
+    private record SubBatch<E>(int index, List<E> items, int commands,
+                               Function<List<E>, CompletionStage<String>> sender) {
+    }
+
+    /**
+     * 计算按 batchSize 分割后的批次数
+     *
+     * @param size 数据量
+     * @return 批次数
+     */
+    private int batches(int size) {
+        return (size + batchSize - 1) / batchSize;
+    }
+
+    private static <K, E> int countValues(Map<K, ? extends Collection<E>> map) {
+        int count = 0;
+        for (Collection<E> values : map.values()) {
+            if (values != null) {
+                count += values.size();
+            }
+        }
+        return count;
+    }
+
     /**
      * 按 batchSize 分割数据，并执行异步操作
      *
@@ -1174,7 +1663,151 @@ public class LettuceOperatorProxy implements RedisOperatorProxy {
 
     @Override
     public CompletableFuture<Void> closeAsync() {
+        // 停止子批次重试线程；管道连接池由创建者（通常为 RedisOperatorFactory）负责关闭
+        this.retryScheduler.shutdown();
         return redisOperator.closeAsync();
     }
 
+    /**
+     * 批量命令构建器
+     * <p>
+     * 添加命令时仅记录，执行时才从连接池借用管道连接并写入，所有命令写入完毕后仅调用一次 {@code flushCommands()}。
+     */
+    private final class Batch implements RedisBatch {
+
+        private final List<Function<RedisAsyncCommands<byte[], byte[]>, CompletionStage<?>>> commands = new ArrayList<>();
+        private final List<CompletableFuture<?>> futures = new ArrayList<>();
+        private boolean executed;
+
+        private <T> CompletableFuture<T> add(Function<RedisAsyncCommands<byte[], byte[]>, CompletionStage<T>> command) {
+            Assert.isTrue(!executed, "RedisBatch has been executed");
+            CompletableFuture<T> future = new CompletableFuture<>();
+            this.commands.add(async -> command.apply(async).whenComplete((result, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            }));
+            this.futures.add(future);
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<byte[]> get(byte[] key) {
+            return this.add(async -> async.get(key));
+        }
+
+        @Override
+        public CompletableFuture<String> set(byte[] key, byte[] value) {
+            return this.add(async -> async.set(key, value));
+        }
+
+        @Override
+        public CompletableFuture<String> psetex(byte[] key, long milliseconds, byte[] value) {
+            return this.add(async -> async.psetex(key, milliseconds, value));
+        }
+
+        @Override
+        public CompletableFuture<Long> del(byte[]... keys) {
+            return this.add(async -> async.del(keys));
+        }
+
+        @Override
+        public CompletableFuture<byte[]> hget(byte[] key, byte[] field) {
+            return this.add(async -> async.hget(key, field));
+        }
+
+        @Override
+        public CompletableFuture<List<KeyValue<byte[], byte[]>>> hmget(byte[] key, byte[]... fields) {
+            return this.add(async -> async.hmget(key, fields).thenApply(LettuceConvertor::fromKeyValues));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> hset(byte[] key, byte[] field, byte[] value) {
+            return this.add(async -> async.hset(key, field, value));
+        }
+
+        @Override
+        public CompletableFuture<String> hmset(byte[] key, Map<byte[], byte[]> fieldValues) {
+            return this.add(async -> async.hmset(key, fieldValues));
+        }
+
+        @Override
+        public CompletableFuture<Long> hdel(byte[] key, byte[]... fields) {
+            return this.add(async -> async.hdel(key, fields));
+        }
+
+        @Override
+        public CompletableFuture<Long> zadd(byte[] key, double score, byte[] member) {
+            return this.add(async -> async.zadd(key, score, member));
+        }
+
+        @Override
+        public CompletableFuture<Long> zcard(byte[] key) {
+            return this.add(async -> async.zcard(key));
+        }
+
+        @Override
+        public CompletableFuture<Long> zrem(byte[] key, byte[]... members) {
+            return this.add(async -> async.zrem(key, members));
+        }
+
+        @Override
+        public CompletableFuture<List<byte[]>> zrangebyscore(byte[] key, Range<? extends Number> range) {
+            io.lettuce.core.Range<? extends Number> range1 = LettuceConvertor.toRange(range);
+            return this.add(async -> async.zrangebyscore(key, range1));
+        }
+
+        @Override
+        public CompletableFuture<List<byte[]>> zrangebyscore(byte[] key, Range<? extends Number> range, Limit limit) {
+            io.lettuce.core.Range<? extends Number> range1 = LettuceConvertor.toRange(range);
+            io.lettuce.core.Limit limit1 = LettuceConvertor.toLimit(limit);
+            return this.add(async -> async.zrangebyscore(key, range1, limit1));
+        }
+
+        @Override
+        public int size() {
+            return this.commands.size();
+        }
+
+        @Override
+        public CompletableFuture<Void> executeAsync() {
+            Assert.isTrue(!executed, "RedisBatch has been executed");
+            this.executed = true;
+            if (this.commands.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<?>[] array = this.futures.toArray(new CompletableFuture[0]);
+            CompletableFuture<Void> future = LettuceOperatorProxy.this.execute(this.commands.size(), () -> {
+                if (pipelinePool != null) {
+                    // 借用管道连接：写入所有命令后一次性提交，命令结果完成后归还连接
+                    return pipelinePool.execute(pipeline -> this.apply(pipeline, array));
+                }
+                return this.apply(redisOperator.async(), array);
+            }).orTimeout(timeout, TimeUnit.MILLISECONDS);
+            // 被并发限制器或熔断器拒绝（命令未发送），或超时仍未完成：未完成的各命令结果同样以异常结束
+            return future.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    for (CompletableFuture<?> f : array) {
+                        f.completeExceptionally(error);
+                    }
+                }
+            });
+        }
+
+        private CompletableFuture<Void> apply(RedisAsyncCommands<byte[], byte[]> async, CompletableFuture<?>[] array) {
+            for (Function<RedisAsyncCommands<byte[], byte[]>, CompletionStage<?>> command : this.commands) {
+                command.apply(async);
+            }
+            return CompletableFuture.allOf(array);
+        }
+
+        @Override
+        public void execute() {
+            RedisHelper.get(executeAsync(), timeout, TimeUnit.MILLISECONDS, true, true);
+        }
+
+    }
+
 }
@@ -6,6 +6,8 @@ import io.lettuce.core.RedisAsyncCommandsImpl;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.codec.RedisCodec;
 import io.lettuce.core.json.JsonParser;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.RedisCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +30,7 @@ public class LettucePipeline<K, V> extends RedisAsyncCommandsImpl<K, V> implemen
     private final long timeout;
     private final long quietPeriod;
     private final StatefulRedisConnection<K, V> connection;
+    private final AutoFlusher flusher;
 
     /**
      * Standalone or Sentinel
@@ -43,6 +46,7 @@ public class LettucePipeline<K, V> extends RedisAsyncCommandsImpl<K, V> implemen
         this.timeout = timeout;
         this.quietPeriod = quietPeriod;
         this.connection = connection;
+        this.flusher = null;
     }
 
     /**
@@ -60,10 +64,62 @@ public class LettucePipeline<K, V> extends RedisAsyncCommandsImpl<K, V> implemen
         this.timeout = timeout;
         this.quietPeriod = quietPeriod;
         this.connection = connection;
+        this.flusher = null;
+    }
+
+    /**
+     * Standalone or Sentinel（自动提交）
+     *
+     * @param connection  批量提交命令连接（autoFlush = false）
+     * @param codec       编解码器
+     * @param quietPeriod 优雅关闭 quietPeriod
+     * @param timeout     优雅关闭 timeout
+     * @param policy      自动提交策略
+     */
+    public LettucePipeline(StatefulRedisConnection<K, V> connection, RedisCodec<K, V> codec,
+                           long quietPeriod, long timeout, AutoFlushPolicy policy) {
+        super(connection, codec);
+        this.timeout = timeout;
+        this.quietPeriod = quietPeriod;
+        this.connection = connection;
+        this.flusher = new AutoFlusher(connection, policy);
+    }
+
+    /**
+     * Standalone or Sentinel（自动提交）
+     *
+     * @param connection  批量提交命令连接（autoFlush = false）
+     * @param codec       编解码器
+     * @param quietPeriod 优雅关闭 quietPeriod
+     * @param timeout     优雅关闭 timeout
+     * @param parser      JSON 解析器
+     * @param policy      自动提交策略
+     */
+    public LettucePipeline(StatefulRedisConnection<K, V> connection, RedisCodec<K, V> codec,
+                           long quietPeriod, long timeout, Supplier<JsonParser> parser,
+                           AutoFlushPolicy policy) {
+        super(connection, codec, parser);
+        this.timeout = timeout;
+        this.quietPeriod = quietPeriod;
+        this.connection = connection;
+        this.flusher = new AutoFlusher(connection, policy);
+    }
+
+    @Override
+    public <T> AsyncCommand<K, V, T> dispatch(RedisCommand<K, V, T> cmd) {
+        AsyncCommand<K, V, T> command = super.dispatch(cmd);
+        if (flusher != null) {
+            flusher.onDispatch(command);
+        }
+        return command;
     }
 
     @Override
     public void flushCommands() {
+        if (flusher != null) {
+            flusher.flush();
+            return;
+        }
         connection.flushCommands();
     }
 
@@ -71,7 +127,7 @@ public class LettucePipeline<K, V> extends RedisAsyncCommandsImpl<K, V> implemen
     public void setAutoFlushCommands(boolean autoFlush) {
         throw new UnsupportedOperationException(
                 "Pipeline doesn't support change auto flush mode, it must be false." +
-                        "If you want to flush commands immediately, please use redis-*-operator."
+                        "If you want to flush commands automatically, please use AutoFlushPolicy."
         );
     }
 
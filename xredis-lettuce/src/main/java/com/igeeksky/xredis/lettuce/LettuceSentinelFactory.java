@@ -1,6 +1,7 @@
 package com.igeeksky.xredis.lettuce;
 
 import com.igeeksky.xredis.lettuce.config.LettuceSentinelConfig;
+import com.igeeksky.xtool.core.lang.Assert;
 import io.lettuce.core.AbstractRedisClient;
 import io.lettuce.core.ClientOptions;
 import io.lettuce.core.RedisClient;
@@ -39,6 +40,9 @@ public final class LettuceSentinelFactory extends AbstractLettuceFactory {
         this.uri = redisUri(config);
         this.client = redisClient(options, res);
         this.jsonParser = options.getJsonParser();
+        if (config.isWarmUp()) {
+            this.warmUp();
+        }
     }
 
     @Override
@@ -50,6 +54,16 @@ public final class LettuceSentinelFactory extends AbstractLettuceFactory {
         return new LettucePipeline<>(batchConnection, codec, quietPeriod, timeout);
     }
 
+    @Override
+    public <K, V> LettucePipeline<K, V> pipeline(RedisCodec<K, V> codec, AutoFlushPolicy policy) {
+        Assert.notNull(policy, "policy must not be null");
+        StatefulRedisMasterReplicaConnection<K, V> batchConnection = connect(codec, false);
+        if (jsonParser != null) {
+            return new LettucePipeline<>(batchConnection, codec, quietPeriod, timeout, jsonParser, policy);
+        }
+        return new LettucePipeline<>(batchConnection, codec, quietPeriod, timeout, policy);
+    }
+
     @Override
     public <K, V> LettuceOperator<K, V> redisOperator(RedisCodec<K, V> codec) {
         StatefulRedisMasterReplicaConnection<K, V> connection = connect(codec, true);
@@ -4,6 +4,7 @@ import com.igeeksky.xredis.common.RedisConfigException;
 import com.igeeksky.xredis.lettuce.config.LettuceStandaloneConfig;
 import com.igeeksky.xredis.lettuce.config.RedisNode;
 import com.igeeksky.xtool.core.collection.CollectionUtils;
+import com.igeeksky.xtool.core.lang.Assert;
 import io.lettuce.core.AbstractRedisClient;
 import io.lettuce.core.ClientOptions;
 import io.lettuce.core.RedisClient;
@@ -44,6 +45,9 @@ public final class LettuceStandaloneFactory extends AbstractLettuceFactory {
         this.config = config;
         this.client = redisClient(resources, options);
         this.jsonParser = options.getJsonParser();
+        if (config.isWarmUp()) {
+            this.warmUp();
+        }
     }
 
     @Override
@@ -55,6 +59,16 @@ public final class LettuceStandaloneFactory extends AbstractLettuceFactory {
         return new LettucePipeline<>(batchConnection, codec, quietPeriod, timeout);
     }
 
+    @Override
+    public <K, V> LettucePipeline<K, V> pipeline(RedisCodec<K, V> codec, AutoFlushPolicy policy) {
+        Assert.notNull(policy, "policy must not be null");
+        StatefulRedisMasterReplicaConnection<K, V> batchConnection = connect(codec, false);
+        if (jsonParser != null) {
+            return new LettucePipeline<>(batchConnection, codec, quietPeriod, timeout, jsonParser, policy);
+        }
+        return new LettucePipeline<>(batchConnection, codec, quietPeriod, timeout, policy);
+    }
+
     @Override
     public <K, V> LettuceOperator<K, V> redisOperator(RedisCodec<K, V> codec) {
         StatefulRedisMasterReplicaConnection<K, V> connection = connect(codec, true);
@@ -3,11 +3,23 @@ package com.igeeksky.xredis.lettuce;
 import com.igeeksky.xredis.common.TimeConvertor;
 import com.igeeksky.xredis.common.stream.*;
 import com.igeeksky.xredis.lettuce.api.RedisOperator;
+import io.lettuce.core.AbstractRedisAsyncCommands;
 import io.lettuce.core.Consumer;
 import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.XAutoClaimArgs;
 import io.lettuce.core.XGroupCreateArgs;
 import io.lettuce.core.XReadArgs;
-
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.RedisCommand;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -24,13 +36,29 @@ public class LettuceStreamOperator<K, V> implements StreamOperator<K, V> {
 
     private final RedisOperator<K, V> operator;
 
+    private final RedisCodec<K, V> codec;
+
     /**
      * 使用 {@code RedisOperator} 创建 {@link LettuceStreamOperator}
+     * <p>
+     * 未提供编解码器，无法计算哈希槽，集群模式下多流合并读取的流须位于同一哈希槽。
      *
      * @param operator RedisOperator
      */
     public LettuceStreamOperator(RedisOperator<K, V> operator) {
+        this(operator, null);
+    }
+
+    /**
+     * 使用 {@code RedisOperator} 及编解码器创建 {@link LettuceStreamOperator}
+     *
+     * @param operator RedisOperator
+     * @param codec    编解码器（用于计算流所属的哈希槽）
+     * @since 1.1.0
+     */
+    public LettuceStreamOperator(RedisOperator<K, V> operator, RedisCodec<K, V> codec) {
         this.operator = operator;
+        this.codec = codec;
     }
 
     @Override
@@ -103,6 +131,37 @@ public class LettuceStreamOperator<K, V> implements StreamOperator<K, V> {
         return this.operator.sync().xadd(key, LettuceConvertor.toXAddArgs(options), body);
     }
 
+    /**
+     * 批量发布消息（异步）
+     * <p>
+     * 已提供编解码器时，所有 {@code xadd} 命令通过一次 {@code dispatch} 写入连接（一次网络写入），
+     * 否则逐条发送。
+     */
+    @Override
+    public List<CompletableFuture<String>> xaddAllAsync(K key, XAddOptions options, List<Map<K, V>> bodies) {
+        if (this.codec == null || !(this.operator.async() instanceof AbstractRedisAsyncCommands<K, V> async)) {
+            return StreamOperator.super.xaddAllAsync(key, options, bodies);
+        }
+        XAddArgs xAddArgs = LettuceConvertor.toXAddArgs(options);
+        List<RedisCommand<K, V, ?>> commands = new ArrayList<>(bodies.size());
+        List<CompletableFuture<String>> futures = new ArrayList<>(bodies.size());
+        for (Map<K, V> body : bodies) {
+            CommandArgs<K, V> args = new CommandArgs<>(this.codec).addKey(key);
+            if (xAddArgs != null) {
+                xAddArgs.build(args);
+            } else {
+                args.add("*");
+            }
+            args.add(body);
+            AsyncCommand<K, V, String> command = new AsyncCommand<>(
+                    new Command<>(CommandType.XADD, new StatusOutput<>(this.codec), args));
+            commands.add(command);
+            futures.add(command);
+        }
+        async.getConnection().dispatch(commands);
+        return futures;
+    }
+
     @Override
     public CompletableFuture<List<XStreamMessage<K, V>>> xclaimAsync(K key, XGroupConsumer<K> groupConsumer,
                                                                      long minIdleTime, String... messageIds) {
@@ -119,6 +178,22 @@ public class LettuceStreamOperator<K, V> implements StreamOperator<K, V> {
         return LettuceConvertor.fromStreamMessages(messages);
     }
 
+    @Override
+    public CompletableFuture<XAutoClaimResult<K, V>> xautoclaimAsync(K key, XGroupConsumer<K> groupConsumer,
+                                                                     long minIdleTime, String startId, long count) {
+        return CompletableFuture.completedFuture(groupConsumer)
+                .thenApply(consumer -> LettuceConvertor.toXAutoClaimArgs(consumer, minIdleTime, startId, count))
+                .thenCompose(args -> this.operator.async().xautoclaim(key, args))
+                .thenApply(LettuceConvertor::fromClaimedMessages);
+    }
+
+    @Override
+    public XAutoClaimResult<K, V> xautoclaim(K key, XGroupConsumer<K> groupConsumer,
+                                             long minIdleTime, String startId, long count) {
+        XAutoClaimArgs<K> args = LettuceConvertor.toXAutoClaimArgs(groupConsumer, minIdleTime, startId, count);
+        return LettuceConvertor.fromClaimedMessages(this.operator.sync().xautoclaim(key, args));
+    }
+
     @Override
     public CompletableFuture<Long> xdelAsync(K key, String... messageIds) {
         return this.operator.async().xdel(key, messageIds).toCompletableFuture();
@@ -194,6 +269,17 @@ public class LettuceStreamOperator<K, V> implements StreamOperator<K, V> {
         return this.operator.sync().xgroupDestroy(key, group);
     }
 
+    @Override
+    public CompletableFuture<XPendingSummary> xpendingAsync(K key, K group) {
+        return this.operator.async().xpending(key, group).toCompletableFuture()
+                .thenApply(LettuceConvertor::fromPendingMessages);
+    }
+
+    @Override
+    public XPendingSummary xpending(K key, K group) {
+        return LettuceConvertor.fromPendingMessages(this.operator.sync().xpending(key, group));
+    }
+
     @SafeVarargs
     @Override
     public final CompletableFuture<List<XStreamMessage<K, V>>> xreadAsync(XStreamOffset<K>... streams) {
@@ -281,6 +367,14 @@ public class LettuceStreamOperator<K, V> implements StreamOperator<K, V> {
         return this.operator.isCluster();
     }
 
+    @Override
+    public int slot(K key) {
+        if (this.codec == null || !this.operator.isCluster()) {
+            return 0;
+        }
+        return SlotHash.getSlot(this.codec.encodeKey(key));
+    }
+
     @Override
     public void close() {
         this.operator.close();
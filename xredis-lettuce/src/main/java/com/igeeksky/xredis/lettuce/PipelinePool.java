@@ -0,0 +1,300 @@
+package com.igeeksky.xredis.lettuce;
+
+import com.igeeksky.xredis.common.RedisRejectedException;
+import com.igeeksky.xredis.lettuce.api.Pipeline;
+import com.igeeksky.xtool.core.AsyncCloseable;
+import com.igeeksky.xtool.core.lang.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline 连接池
+ * <p>
+ * 复用手动提交的 Pipeline 连接，避免每次创建连接的握手及认证开销，适用于短时批处理任务。
+ * <p>
+ * 1. 借出时优先使用最近归还的空闲连接（后进先出），连接数已达上限时排队等待；<br>
+ * 2. 归还时先提交该连接缓冲中的命令，然后放入空闲队列；<br>
+ * 3. 批处理中途出现异常时丢弃连接：不提交缓冲中的命令，直接关闭连接，避免部分批次被提交；<br>
+ * 4. 空闲超时的连接在借用或归还时被关闭，无需后台线程。
+ * <p>
+ * <b>注意：</b><br>
+ * 调用 {@link #release(Pipeline)} 归还连接时仅提交命令，不会等待命令结果；连接归还后可能立即被其它线程借用，
+ * 因为 {@link Pipeline} 是线程安全的，所以已提交的命令结果不受影响。<br>
+ * 使用 {@link #execute(Function)} 时，提交命令后待操作结果完成才归还连接，连接数上限即为在途批处理任务数的上限。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class PipelinePool<K, V> implements AsyncCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelinePool.class);
+
+    private final int maxIdle;
+    private final int maxTotal;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutNanos;
+    private final boolean validateOnBorrow;
+
+    private final Executor executor;
+    private final Semaphore semaphore;
+    private final Supplier<? extends Pipeline<K, V>> creator;
+    private final ConcurrentLinkedDeque<IdlePipeline<K, V>> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Pipeline<K, V>> borrowed = ConcurrentHashMap.newKeySet();
+    private final List<CompletableFuture<Void>> closing = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger idleSize = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder validationFailed = new LongAdder();
+    private final LongAdder borrowTimeouts = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * 创建 Pipeline 连接池
+     *
+     * @param creator  Pipeline 创建函数
+     * @param config   连接池配置
+     * @param executor 关闭连接的线程池（关闭 Pipeline 需等待 quietPeriod，因此不在调用线程中关闭）
+     */
+    public PipelinePool(Supplier<? extends Pipeline<K, V>> creator, PipelinePoolConfig config, Executor executor) {
+        Assert.notNull(creator, "creator must not be null");
+        Assert.notNull(config, "config must not be null");
+        Assert.notNull(executor, "executor must not be null");
+        this.creator = creator;
+        this.executor = executor;
+        this.maxIdle = config.getMaxIdle();
+        this.maxTotal = config.getMaxTotal();
+        this.validateOnBorrow = config.isValidateOnBorrow();
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeout());
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeout());
+        this.semaphore = new Semaphore(this.maxTotal);
+    }
+
+    /**
+     * 借用 Pipeline 连接
+     * <p>
+     * 使用完毕后必须调用 {@link #release(Pipeline)} 归还；如写入命令中途出现异常，则调用 {@link #discard(Pipeline)} 丢弃。
+     *
+     * @return {@link Pipeline} – 管道连接
+     * @throws RedisRejectedException 连接池已关闭，或等待超时仍无可用连接
+     */
+    public Pipeline<K, V> borrow() {
+        if (this.closed) {
+            throw new RedisRejectedException("PipelinePool has been closed");
+        }
+        this.evict();
+        this.acquire();
+        try {
+            Pipeline<K, V> pipeline = this.pollIdle();
+            if (pipeline == null) {
+                pipeline = this.creator.get();
+                this.created.increment();
+            }
+            this.borrowed.add(pipeline);
+            this.borrowCount.increment();
+            return pipeline;
+        } catch (Throwable e) {
+            this.semaphore.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还 Pipeline 连接
+     * <p>
+     * 归还前会先提交该连接缓冲中的命令。
+     *
+     * @param pipeline 管道连接（必须是从此连接池借用的连接）
+     */
+    public void release(Pipeline<K, V> pipeline) {
+        if (pipeline == null || !this.borrowed.remove(pipeline)) {
+            return;
+        }
+        try {
+            pipeline.flushCommands();
+            if (this.closed || !pipeline.isOpen() || this.idleSize.get() >= this.maxIdle) {
+                this.destroy(pipeline);
+            } else {
+                this.idle.offerFirst(new IdlePipeline<>(pipeline, System.nanoTime()));
+                this.idleSize.incrementAndGet();
+            }
+        } finally {
+            this.semaphore.release();
+        }
+        this.evict();
+    }
+
+    /**
+     * 丢弃 Pipeline 连接
+     * <p>
+     * 写入命令中途出现异常时调用：不提交该连接缓冲中的命令，直接关闭连接（关闭时取消缓冲中的命令），
+     * 避免仅提交部分批次；连接数额度随即释放，后续借用将创建新连接。
+     *
+     * @param pipeline 管道连接（必须是从此连接池借用的连接）
+     */
+    public void discard(Pipeline<K, V> pipeline) {
+        if (pipeline == null || !this.borrowed.remove(pipeline)) {
+            return;
+        }
+        try {
+            this.destroy(pipeline);
+        } finally {
+            this.semaphore.release();
+        }
+    }
+
+    /**
+     * 借用连接，执行操作并提交命令，操作结果完成后归还连接
+     * <p>
+     * 如操作函数抛出异常，则丢弃该连接（不提交已写入的部分命令）。
+     *
+     * @param function 操作函数
+     * @param <R>      结果类型
+     * @return {@code CompletableFuture<R>} – 操作结果
+     */
+    public <R> CompletableFuture<R> execute(Function<Pipeline<K, V>, ? extends CompletionStage<R>> function) {
+        Pipeline<K, V> pipeline;
+        try {
+            pipeline = this.borrow();
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<R> future;
+        try {
+            future = function.apply(pipeline).toCompletableFuture();
+            // 先提交命令（否则命令结果永远不会完成），待操作结果完成后再归还连接
+            pipeline.flushCommands();
+        } catch (Throwable e) {
+            // 批次未完整写入（或提交失败）：丢弃缓冲中的命令，不提交部分批次
+            this.discard(pipeline);
+            return CompletableFuture.failedFuture(e);
+        }
+        // 独立的结果对象：调用者对结果调用 orTimeout、complete 等方法不影响归还连接
+        CompletableFuture<R> result = new CompletableFuture<>();
+        future.whenComplete((r, t) -> {
+            this.release(pipeline);
+            if (t != null) {
+                result.completeExceptionally(t);
+            } else {
+                result.complete(r);
+            }
+        });
+        return result;
+    }
+
+    private void acquire() {
+        if (this.semaphore.tryAcquire()) {
+            return;
+        }
+        this.waiting.incrementAndGet();
+        try {
+            if (this.semaphore.tryAcquire(this.borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            this.borrowTimeouts.increment();
+            throw new RedisRejectedException("PipelinePool exhausted. maxTotal:[" + maxTotal + "], wait:["
+                    + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos) + "ms]");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisRejectedException("PipelinePool: Interrupted while waiting for connection", e);
+        } finally {
+            this.waiting.decrementAndGet();
+        }
+    }
+
+    private Pipeline<K, V> pollIdle() {
+        IdlePipeline<K, V> entry;
+        while ((entry = this.idle.pollFirst()) != null) {
+            this.idleSize.decrementAndGet();
+            Pipeline<K, V> pipeline = entry.pipeline();
+            if (!this.validateOnBorrow || pipeline.isOpen()) {
+                return pipeline;
+            }
+            this.validationFailed.increment();
+            this.destroy(pipeline);
+        }
+        return null;
+    }
+
+    /**
+     * 关闭空闲超时的连接（空闲队列尾部为最久未使用的连接）
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        IdlePipeline<K, V> last;
+        while ((last = this.idle.peekLast()) != null && now - last.lastUsed() >= this.idleTimeoutNanos) {
+            if (this.idle.removeLastOccurrence(last)) {
+                this.idleSize.decrementAndGet();
+                this.evicted.increment();
+                this.destroy(last.pipeline());
+            }
+        }
+    }
+
+    private void destroy(Pipeline<K, V> pipeline) {
+        this.destroyed.increment();
+        CompletableFuture<Void> future = CompletableFuture.supplyAsync(pipeline::closeAsync, this.executor)
+                .thenCompose(Function.identity())
+                .exceptionally(e -> {
+                    log.error("PipelinePool: Close pipeline has error. {}", e.getMessage(), e);
+                    return null;
+                });
+        this.closing.add(future);
+        future.whenComplete((v, t) -> this.closing.remove(future));
+    }
+
+    /**
+     * 获取统计信息（快照）
+     *
+     * @return {@link PipelinePoolStats} – 统计信息
+     */
+    public PipelinePoolStats stats() {
+        return new PipelinePoolStats(maxTotal, borrowed.size(), idleSize.get(), waiting.get(),
+                created.sum(), destroyed.sum(), borrowCount.sum(),
+                evicted.sum(), validationFailed.sum(), borrowTimeouts.sum());
+    }
+
+    /**
+     * 关闭连接池：关闭所有空闲连接，已借出的连接在归还时关闭
+     *
+     * @return {@code CompletableFuture<Void>} – 所有空闲连接关闭完成
+     */
+    @Override
+    public CompletableFuture<Void> closeAsync() {
+        this.closed = true;
+        IdlePipeline<K, V> entry;
+        while ((entry = this.idle.pollFirst()) != null) {
+            this.idleSize.decrementAndGet();
+            this.destroy(entry.pipeline());
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(this.closing);
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * 空闲连接
+     *
+     * @param pipeline 管道连接
+     * @param lastUsed 最后归还时间（纳秒）
+     * @param <K>      键类型
+     * @param <V>      值类型
+     */
+    private record IdlePipeline<K, V>(Pipeline<K, V> pipeline, long lastUsed) {
+    }
+
+}
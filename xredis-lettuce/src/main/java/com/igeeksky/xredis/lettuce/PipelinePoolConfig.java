@@ -0,0 +1,210 @@
+package com.igeeksky.xredis.lettuce;
+
+import com.igeeksky.xtool.core.json.SimpleJSON;
+import com.igeeksky.xtool.core.lang.Assert;
+
+import java.util.Objects;
+
+/**
+ * Pipeline 连接池配置
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class PipelinePoolConfig {
+
+    private final int maxTotal;
+
+    private final int maxIdle;
+
+    private final long idleTimeout;
+
+    private final long borrowTimeout;
+
+    private final boolean validateOnBorrow;
+
+    /**
+     * 私有构造器
+     *
+     * @param builder {@link Builder}
+     */
+    private PipelinePoolConfig(Builder builder) {
+        this.maxTotal = builder.maxTotal;
+        this.maxIdle = Math.min(builder.maxIdle, builder.maxTotal);
+        this.idleTimeout = builder.idleTimeout;
+        this.borrowTimeout = builder.borrowTimeout;
+        this.validateOnBorrow = builder.validateOnBorrow;
+    }
+
+    /**
+     * 最大连接数（含借出与空闲）
+     *
+     * @return {@code int} – 最大连接数
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * 最大空闲连接数
+     *
+     * @return {@code int} – 最大空闲连接数
+     */
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * 空闲连接存活时长（毫秒）
+     *
+     * @return {@code long} – 空闲连接存活时长
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * 借用连接最大等待时长（毫秒）
+     *
+     * @return {@code long} – 借用连接最大等待时长
+     */
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    /**
+     * 借用连接时是否校验连接有效性
+     *
+     * @return {@code boolean} – 借用连接时是否校验连接有效性
+     */
+    public boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PipelinePoolConfig that)) {
+            return false;
+        }
+        return maxTotal == that.maxTotal && maxIdle == that.maxIdle && idleTimeout == that.idleTimeout
+                && borrowTimeout == that.borrowTimeout && validateOnBorrow == that.validateOnBorrow;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxTotal, maxIdle, idleTimeout, borrowTimeout, validateOnBorrow);
+    }
+
+    @Override
+    public String toString() {
+        return SimpleJSON.toJSONString(this);
+    }
+
+    /**
+     * 创建 PipelinePoolConfig-builder
+     *
+     * @return {@link PipelinePoolConfig.Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * PipelinePoolConfig-builder
+     */
+    public static class Builder {
+
+        private int maxTotal = 8;
+        private int maxIdle = 8;
+        private long idleTimeout = 300000;
+        private long borrowTimeout = 1000;
+        private boolean validateOnBorrow = true;
+
+        /**
+         * 私有构造器
+         */
+        private Builder() {
+        }
+
+        /**
+         * 设置：最大连接数（含借出与空闲），默认值：8
+         *
+         * @param maxTotal 最大连接数，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder maxTotal(int maxTotal) {
+            Assert.isTrue(maxTotal > 0, "maxTotal must be greater than 0");
+            this.maxTotal = maxTotal;
+            return this;
+        }
+
+        /**
+         * 设置：最大空闲连接数，默认值：8
+         * <p>
+         * 归还连接时，如空闲连接数已达此值，则关闭归还的连接。
+         *
+         * @param maxIdle 最大空闲连接数，必须大于等于 0
+         * @return {@link Builder}
+         */
+        public Builder maxIdle(int maxIdle) {
+            Assert.isTrue(maxIdle >= 0, "maxIdle must be greater than or equal to 0");
+            this.maxIdle = maxIdle;
+            return this;
+        }
+
+        /**
+         * 设置：空闲连接存活时长（单位：毫秒），默认值：300000
+         * <p>
+         * 空闲超过此时长的连接，将在借用或归还连接时被关闭。
+         *
+         * @param idleTimeout 空闲连接存活时长，必须大于 0
+         * @return {@link Builder}
+         */
+        public Builder idleTimeout(long idleTimeout) {
+            Assert.isTrue(idleTimeout > 0, "idleTimeout must be greater than 0");
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * 设置：借用连接最大等待时长（单位：毫秒），默认值：1000
+         * <p>
+         * 连接数已达上限且无空闲连接时，借用线程最多等待此时长，超时则抛出异常。
+         *
+         * @param borrowTimeout 借用连接最大等待时长，必须大于等于 0
+         * @return {@link Builder}
+         */
+        public Builder borrowTimeout(long borrowTimeout) {
+            Assert.isTrue(borrowTimeout >= 0, "borrowTimeout must be greater than or equal to 0");
+            this.borrowTimeout = borrowTimeout;
+            return this;
+        }
+
+        /**
+         * 设置：借用连接时是否校验连接有效性，默认值：true
+         * <p>
+         * 校验仅检查连接是否处于打开状态，不会发送命令到 RedisServer。
+         *
+         * @param validateOnBorrow 借用连接时是否校验连接有效性
+         * @return {@link Builder}
+         */
+        public Builder validateOnBorrow(boolean validateOnBorrow) {
+            this.validateOnBorrow = validateOnBorrow;
+            return this;
+        }
+
+        /**
+         * 根据已设置参数创建 {@link PipelinePoolConfig}
+         *
+         * @return {@link PipelinePoolConfig}
+         */
+        public PipelinePoolConfig build() {
+            return new PipelinePoolConfig(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.igeeksky.xredis.lettuce;
+
+/**
+ * Pipeline 连接池统计信息（快照）
+ *
+ * @param maxTotal         最大连接数
+ * @param active           已借出连接数
+ * @param idle             空闲连接数
+ * @param waiting          等待借用连接的线程数
+ * @param created          累计创建连接数
+ * @param destroyed        累计关闭连接数
+ * @param borrowed         累计借用次数
+ * @param evicted          累计因空闲超时而关闭的连接数
+ * @param validationFailed 累计校验失败的连接数
+ * @param borrowTimeouts   累计借用超时次数
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public record PipelinePoolStats(int maxTotal, int active, int idle, int waiting,
+                                long created, long destroyed, long borrowed,
+                                long evicted, long validationFailed, long borrowTimeouts) {
+}
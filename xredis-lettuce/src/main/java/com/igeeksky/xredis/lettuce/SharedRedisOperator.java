@@ -0,0 +1,91 @@
+package com.igeeksky.xredis.lettuce;
+
+import com.igeeksky.xredis.common.RedisHelper;
+import com.igeeksky.xredis.lettuce.api.RedisAsyncOperator;
+import com.igeeksky.xredis.lettuce.api.RedisOperator;
+import com.igeeksky.xredis.lettuce.api.RedisReactiveOperator;
+import com.igeeksky.xredis.lettuce.api.RedisSyncOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 共享连接的 RedisOperator
+ * <p>
+ * 同一工厂中使用相同编解码器获取的 {@link SharedRedisOperator} 共用一条物理连接，连接采用引用计数管理：<br>
+ * 1. 每次获取均返回新的 {@link SharedRedisOperator} 对象，引用计数加一；<br>
+ * 2. 调用 {@link #closeAsync()} 时引用计数减一（重复调用无效），引用计数为零时关闭物理连接；<br>
+ * 3. 工厂关闭时，无论引用计数是否为零，物理连接均会被关闭。
+ * <p>
+ * <b>注意：</b><br>
+ * 共享连接不应执行阻塞命令（如：BLPOP、带 BLOCK 参数的 XREAD），否则会阻塞共用该连接的其它命令。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public final class SharedRedisOperator<K, V> implements RedisOperator<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedRedisOperator.class);
+
+    private final long timeout;
+    private final RedisOperator<K, V> operator;
+    private final Supplier<CompletableFuture<Void>> releaser;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * 构造函数
+     *
+     * @param operator 共用的 RedisOperator
+     * @param timeout  优雅关闭 timeout
+     * @param releaser 引用计数减一（引用计数为零时关闭物理连接）
+     */
+    SharedRedisOperator(RedisOperator<K, V> operator, long timeout, Supplier<CompletableFuture<Void>> releaser) {
+        this.timeout = timeout;
+        this.operator = operator;
+        this.releaser = releaser;
+    }
+
+    @Override
+    public RedisSyncOperator<K, V> sync() {
+        return operator.sync();
+    }
+
+    @Override
+    public RedisAsyncOperator<K, V> async() {
+        return operator.async();
+    }
+
+    @Override
+    public RedisReactiveOperator<K, V> reactive() {
+        return operator.reactive();
+    }
+
+    @Override
+    public boolean isCluster() {
+        return operator.isCluster();
+    }
+
+    @Override
+    public void close() {
+        try {
+            RedisHelper.get(closeAsync(), timeout, TimeUnit.MILLISECONDS, false, false);
+        } catch (Exception e) {
+            log.error("SharedRedisOperator: Close has error. {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> closeAsync() {
+        if (closed.compareAndSet(false, true)) {
+            return releaser.get();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+}
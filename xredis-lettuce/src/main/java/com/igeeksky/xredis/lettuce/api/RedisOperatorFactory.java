@@ -1,12 +1,22 @@
 package com.igeeksky.xredis.lettuce.api;
 
+import com.igeeksky.xredis.common.RedisBatch;
+import com.igeeksky.xredis.common.RedisOperatorProxy;
+import com.igeeksky.xredis.common.RedisScript;
+import com.igeeksky.xredis.common.breaker.CircuitBreaker;
+import com.igeeksky.xredis.common.limiter.CommandLimiter;
 import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.container.AdaptivePollPolicy;
+import com.igeeksky.xredis.common.stream.container.PullMode;
 import com.igeeksky.xredis.common.stream.container.ReadOptions;
 import com.igeeksky.xredis.common.stream.container.StreamContainer;
 import com.igeeksky.xredis.common.stream.container.StreamGenericContainer;
+import com.igeeksky.xredis.common.stream.container.StreamGroupContainer;
 import com.igeeksky.xtool.core.GracefulShutdown;
+import io.lettuce.core.codec.ByteArrayCodec;
 import io.lettuce.core.codec.RedisCodec;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
@@ -44,6 +54,41 @@ public interface RedisOperatorFactory extends GracefulShutdown {
      */
     <K, V> RedisOperator<K, V> redisOperator(RedisCodec<K, V> codec);
 
+    /**
+     * 获取共享连接的 RedisOperator
+     * <p>
+     * 同一编解码器共用一条物理连接，避免每次创建连接的握手、认证及集群拓扑加载开销。<br>
+     * 每次调用均返回新的 {@link RedisOperator} 对象，引用计数加一；
+     * 调用其 {@code closeAsync()} 方法时引用计数减一，引用计数为零时关闭物理连接。
+     * <p>
+     * <b>注意：</b><br>
+     * 共享连接不应执行阻塞命令，需执行阻塞命令时请使用 {@link #redisOperator(RedisCodec)} 创建独立连接。
+     *
+     * @param <K>   键类型
+     * @param <V>   值类型
+     * @param codec 编解码器
+     * @return {@link RedisOperator} – 共享连接的 Redis 客户端
+     */
+    <K, V> RedisOperator<K, V> sharedRedisOperator(RedisCodec<K, V> codec);
+
+    /**
+     * 创建 RedisOperatorProxy
+     * <p>
+     * 使用 {@link ByteArrayCodec} 的共享连接执行命令；{@link RedisBatch} 从该编解码器的 Pipeline 连接池借用连接，
+     * 所有命令写入后一次性提交。
+     * <p>
+     * 共享连接与连接池均随工厂关闭而关闭。
+     *
+     * @param timeout    同步获取结果最大等待时长，单位：毫秒
+     * @param batchSize  单批次提交数据的最大数量
+     * @param compatible 是否为兼容模式，如为 true，则不使用脚本操作数据。
+     * @param limiter    在途命令并发限制器（可以为空，为空则不限制）
+     * @param breaker    熔断器（可以为空，为空则不熔断）
+     * @return {@link RedisOperatorProxy} – Redis 批量操作代理
+     */
+    RedisOperatorProxy redisOperatorProxy(long timeout, int batchSize, boolean compatible,
+                                          CommandLimiter limiter, CircuitBreaker breaker);
+
     /**
      * 创建新的 StreamOperator
      *
@@ -54,6 +99,34 @@ public interface RedisOperatorFactory extends GracefulShutdown {
      */
     <K, V> StreamOperator<K, V> streamOperator(RedisCodec<K, V> codec);
 
+    /**
+     * 获取共享连接的 StreamOperator
+     * <p>
+     * 与 {@link #sharedRedisOperator(RedisCodec)} 共用同一物理连接，引用计数规则相同。<br>
+     * 共享连接不应执行带 BLOCK 参数的读取命令，因此流容器依然使用独立连接。
+     *
+     * @param <K>   键类型
+     * @param <V>   值类型
+     * @param codec 编解码器
+     * @return {@linkplain StreamOperator} – 共享连接的流操作客户端
+     */
+    <K, V> StreamOperator<K, V> sharedStreamOperator(RedisCodec<K, V> codec);
+
+    /**
+     * 预热
+     * <p>
+     * 1. 创建该编解码器的共享连接（首次连接时加载集群拓扑），预热持有的引用保持至工厂关闭；<br>
+     * 2. 并行连接所有节点（集群模式）；<br>
+     * 3. 预加载脚本，并更新脚本的 SHA1 摘要。
+     *
+     * @param <K>     键类型
+     * @param <V>     值类型
+     * @param codec   编解码器
+     * @param scripts 需预加载的脚本
+     * @return {@code CompletableFuture<Void>} – 预热完成
+     */
+    <K, V> CompletableFuture<Void> warmUpAsync(RedisCodec<K, V> codec, RedisScript... scripts);
+
     /**
      * 创建新的 StreamContainer（仅适用于非消费者组）
      * <p>
@@ -70,6 +143,40 @@ public interface RedisOperatorFactory extends GracefulShutdown {
     <K, V> StreamContainer<K, V> streamContainer(RedisCodec<K, V> codec, ScheduledExecutorService scheduler,
                                                  long period, ReadOptions options);
 
+    /**
+     * 创建新的 StreamContainer（仅适用于非消费者组）
+     * <p>
+     * {@link PullMode#BLOCKING_LOOP} 模式下，使用独占连接循环发送带 BLOCK 参数的 xread 命令，
+     * 上一次读取返回后立即发送下一次读取命令。
+     *
+     * @param <K>       键类型
+     * @param <V>       值类型
+     * @param codec     编解码器
+     * @param scheduler 定时任务调度器
+     * @param period    流任务执行间隔，单位毫秒（{@link PullMode#BLOCKING_LOOP} 模式为循环暂停时的最大等待时长）
+     * @param options   拉取流消息时采用的公共参数（{@link PullMode#BLOCKING_LOOP} 模式 block 必须大于 0）
+     * @param mode      拉取模式
+     * @return {@linkplain StreamContainer} – 使用公共读取参数的流容器
+     */
+    <K, V> StreamContainer<K, V> streamContainer(RedisCodec<K, V> codec, ScheduledExecutorService scheduler,
+                                                 long period, ReadOptions options, PullMode mode);
+
+    /**
+     * 创建新的 StreamContainer（仅适用于非消费者组，自适应拉取间隔）
+     * <p>
+     * 流繁忙时缩短拉取间隔，流空闲时指数退避，详见 {@link AdaptivePollPolicy}。
+     *
+     * @param codec     RedisCodec
+     * @param scheduler 定时任务调度器
+     * @param options   拉取流消息时采用的公共参数
+     * @param policy    自适应拉取策略
+     * @param <K>       键类型
+     * @param <V>       值类型
+     * @return {@linkplain StreamContainer} – 使用公共读取参数的流容器
+     */
+    <K, V> StreamContainer<K, V> streamContainer(RedisCodec<K, V> codec, ScheduledExecutorService scheduler,
+                                                 ReadOptions options, AdaptivePollPolicy policy);
+
     /**
      * 创建新的 StreamGenericContainer
      * <p>
@@ -86,4 +193,69 @@ public interface RedisOperatorFactory extends GracefulShutdown {
     <K, V> StreamGenericContainer<K, V> streamGenericContainer(RedisCodec<K, V> codec,
                                                                ScheduledExecutorService scheduler, long period);
 
-}
\ No newline at end of file
+    /**
+     * 创建新的 StreamGenericContainer（自适应拉取间隔）
+     * <p>
+     * 流繁忙时缩短拉取间隔，流空闲时指数退避，详见 {@link AdaptivePollPolicy}。
+     *
+     * @param codec     RedisCodec
+     * @param scheduler 定时任务调度器
+     * @param policy    自适应拉取策略
+     * @param <K>       键类型
+     * @param <V>       值类型
+     * @return {@linkplain StreamGenericContainer} – 使用独立读取参数的流容器
+     */
+    <K, V> StreamGenericContainer<K, V> streamGenericContainer(RedisCodec<K, V> codec,
+                                                               ScheduledExecutorService scheduler,
+                                                               AdaptivePollPolicy policy);
+
+    /**
+     * 创建新的 StreamGroupContainer（仅适用于消费者组）
+     * <p>
+     * 消费组名、消费者名及 {@link ReadOptions} 均相同的流合并到一个 xreadgroup 命令进行读取，以减少命令数量。
+     *
+     * @param codec     RedisCodec
+     * @param scheduler 定时任务调度器
+     * @param period    流任务执行间隔，单位毫秒
+     * @param <K>       键类型
+     * @param <V>       值类型
+     * @return {@linkplain StreamGroupContainer} – 合并读取的消费者组流容器
+     */
+    <K, V> StreamGroupContainer<K, V> streamGroupContainer(RedisCodec<K, V> codec,
+                                                           ScheduledExecutorService scheduler, long period);
+
+    /**
+     * 创建新的 StreamGroupContainer（仅适用于消费者组）
+     * <p>
+     * {@link PullMode#BLOCKING_LOOP} 模式下，使用独占连接循环发送带 BLOCK 参数的 xreadgroup 命令，
+     * 上一次读取返回后立即发送下一次读取命令。
+     *
+     * @param codec     RedisCodec
+     * @param scheduler 定时任务调度器
+     * @param period    流任务执行间隔，单位毫秒（{@link PullMode#BLOCKING_LOOP} 模式为循环暂停时的最大等待时长）
+     * @param mode      拉取模式
+     * @param <K>       键类型
+     * @param <V>       值类型
+     * @return {@linkplain StreamGroupContainer} – 合并读取的消费者组流容器
+     */
+    <K, V> StreamGroupContainer<K, V> streamGroupContainer(RedisCodec<K, V> codec,
+                                                           ScheduledExecutorService scheduler, long period,
+                                                           PullMode mode);
+
+    /**
+     * 创建新的 StreamGroupContainer（仅适用于消费者组，自适应拉取间隔）
+     * <p>
+     * 流繁忙时缩短拉取间隔，流空闲时指数退避，详见 {@link AdaptivePollPolicy}。
+     *
+     * @param codec     RedisCodec
+     * @param scheduler 定时任务调度器
+     * @param policy    自适应拉取策略
+     * @param <K>       键类型
+     * @param <V>       值类型
+     * @return {@linkplain StreamGroupContainer} – 合并读取的消费者组流容器
+     */
+    <K, V> StreamGroupContainer<K, V> streamGroupContainer(RedisCodec<K, V> codec,
+                                                           ScheduledExecutorService scheduler,
+                                                           AdaptivePollPolicy policy);
+
+}
@@ -32,6 +32,8 @@ public sealed class LettuceGenericConfig permits LettuceStandaloneConfig, Lettuc
 
     private SslVerifyMode sslVerifyMode = SslVerifyMode.NONE;
 
+    private boolean warmUp = false;
+
     /**
      * 默认构造函数
      */
@@ -279,4 +281,27 @@ public sealed class LettuceGenericConfig permits LettuceStandaloneConfig, Lettuc
         this.sslVerifyMode = sslVerifyMode;
     }
 
+    /**
+     * 获取：是否在工厂创建后立即预热
+     * <p>
+     * 默认为 false
+     *
+     * @return {@code boolean} – 是否在工厂创建后立即预热
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * 设置：是否在工厂创建后立即预热
+     * <p>
+     * 默认为 false <br>
+     * 如为 true，工厂创建后将异步建立共享连接、连接所有节点并预加载脚本。
+     *
+     * @param warmUp 是否在工厂创建后立即预热
+     */
+    public void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
 }
@@ -173,6 +173,11 @@ public final class LettuceConfigHelper {
         if (shutdownQuietPeriod != null) {
             config.setShutdownQuietPeriod(shutdownQuietPeriod);
         }
+
+        Boolean warmUp = original.getWarmUp();
+        if (warmUp != null) {
+            config.setWarmUp(warmUp);
+        }
     }
 
     /**
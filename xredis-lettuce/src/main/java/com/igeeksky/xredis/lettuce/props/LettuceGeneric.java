@@ -18,6 +18,7 @@ public sealed class LettuceGeneric permits LettuceStandalone, LettuceSentinel, L
     private Long timeout;
     private Long shutdownTimeout;
     private Long shutdownQuietPeriod;
+    private Boolean warmUp;
 
     /**
      * 默认构造器
@@ -249,4 +250,28 @@ public sealed class LettuceGeneric permits LettuceStandalone, LettuceSentinel, L
         this.shutdownQuietPeriod = shutdownQuietPeriod;
     }
 
+    /**
+     * 是否在工厂创建后立即预热
+     * <p>
+     * 默认为 false <br>
+     * 如为 true，工厂创建后将异步建立共享连接、连接所有节点并预加载脚本。
+     *
+     * @return {@link Boolean} – 是否在工厂创建后立即预热
+     */
+    public Boolean getWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * 是否在工厂创建后立即预热
+     * <p>
+     * 默认为 false <br>
+     * 如为 true，工厂创建后将异步建立共享连接、连接所有节点并预加载脚本。
+     *
+     * @param warmUp 是否在工厂创建后立即预热
+     */
+    public void setWarmUp(Boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.igeeksky.xredis.lettuce;
+
+import com.igeeksky.xredis.lettuce.cases.LettuceTestHelper;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class AbstractLettuceFactoryTest {
+
+    @Test
+    void pipelinePoolRejectsDifferentConfig() {
+        // 连接池延迟创建连接：无需连接 RedisServer
+        LettuceStandaloneFactory factory = LettuceTestHelper.createStandaloneFactory();
+        try {
+            ByteArrayCodec codec = new ByteArrayCodec();
+            PipelinePoolConfig config = PipelinePoolConfig.builder().maxTotal(2).build();
+            PipelinePool<byte[], byte[]> pool = factory.pipelinePool(codec, config);
+
+            // 配置相同（不同对象）：返回同一连接池
+            Assertions.assertSame(pool, factory.pipelinePool(codec, PipelinePoolConfig.builder().maxTotal(2).build()));
+            // 未指定配置：返回已有连接池
+            Assertions.assertSame(pool, factory.pipelinePool(codec));
+            // 配置不同：拒绝
+            Assertions.assertThrows(IllegalStateException.class,
+                    () -> factory.pipelinePool(codec, PipelinePoolConfig.builder().maxTotal(4).build()));
+            // 其它编解码器不受影响
+            Assertions.assertNotSame(pool, factory.pipelinePool(new ByteArrayCodec(), PipelinePoolConfig.builder().build()));
+        } finally {
+            factory.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.igeeksky.xredis.lettuce;
+
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.resource.ClientResources;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutorGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class AutoFlusherTest {
+
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    private final EventExecutorGroup group = new DefaultEventExecutorGroup(1);
+
+    @AfterEach
+    void afterEach() {
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void flushWhenMaxCommandsReached() {
+        AutoFlushPolicy policy = AutoFlushPolicy.builder()
+                .maxCommands(3).maxDelay(Duration.ofSeconds(60))
+                .build();
+        AutoFlusher flusher = new AutoFlusher(this.connection(null), policy);
+        // 经集群节点连接发送的命令：结果并非命令对象，仅统计命令数量
+        flusher.onDispatch(null);
+        flusher.onDispatch(null);
+        Assertions.assertEquals(0, flushes.get());
+        flusher.onDispatch(null);
+        Assertions.assertEquals(1, flushes.get());
+    }
+
+    @Test
+    void flushAfterMaxDelay() throws InterruptedException {
+        AutoFlushPolicy policy = AutoFlushPolicy.builder()
+                .maxCommands(100).maxDelay(Duration.ofMillis(10))
+                .build();
+        CountDownLatch flushed = new CountDownLatch(1);
+        AutoFlusher flusher = new AutoFlusher(this.connection(flushed), policy);
+        flusher.onDispatch(null);
+        // 第一个未提交的命令写入时注册延时任务，到期后提交
+        Assertions.assertTrue(flushed.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, flushes.get());
+    }
+
+    /**
+     * 仅支持获取客户端资源及提交命令的连接
+     */
+    private StatefulConnection<?, ?> connection(CountDownLatch flushed) {
+        ClientResources resources = (ClientResources) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ClientResources.class}, (proxy, method, args) -> {
+                    if ("eventExecutorGroup".equals(method.getName())) {
+                        return group;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (StatefulConnection<?, ?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatefulConnection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getResources" -> resources;
+                    case "flushCommands" -> {
+                        flushes.incrementAndGet();
+                        if (flushed != null) {
+                            flushed.countDown();
+                        }
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
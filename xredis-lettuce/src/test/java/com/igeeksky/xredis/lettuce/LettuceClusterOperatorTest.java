@@ -1,13 +1,18 @@
 package com.igeeksky.xredis.lettuce;
 
+import com.igeeksky.xredis.lettuce.api.Pipeline;
 import com.igeeksky.xredis.lettuce.api.RedisOperator;
-import com.igeeksky.xredis.lettuce.api.RedisOperatorFactory;
 import com.igeeksky.xredis.lettuce.cases.LettuceTestHelper;
+import com.igeeksky.xredis.lettuce.cases.RedisOperatorFactoryTestCase;
 import com.igeeksky.xredis.lettuce.cases.RedisOperatorProxyTestCase;
 import com.igeeksky.xredis.lettuce.cases.RedisOperatorTestCase;
+import com.igeeksky.xredis.lettuce.cases.StreamOperatorTestCase;
 import io.lettuce.core.codec.ByteArrayCodec;
 import org.junit.jupiter.api.*;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Lettuce 集群操作测试
  *
@@ -16,10 +21,12 @@ import org.junit.jupiter.api.*;
  */
 class LettuceClusterOperatorTest {
 
-    private static RedisOperatorFactory factory;
+    private static AbstractLettuceFactory factory;
     private static RedisOperator<byte[], byte[]> redisOperator;
     private static RedisOperatorTestCase redisTestCase;
     private static RedisOperatorProxyTestCase redisProxyTestCase;
+    private static RedisOperatorFactoryTestCase factoryTestCase;
+    private static StreamOperatorTestCase streamTestCase;
 
     @BeforeAll
     public static void beforeAll() {
@@ -27,10 +34,13 @@ class LettuceClusterOperatorTest {
         redisOperator = factory.redisOperator(ByteArrayCodec.INSTANCE);
         redisTestCase = new RedisOperatorTestCase(redisOperator);
         redisProxyTestCase = new RedisOperatorProxyTestCase(redisOperator);
+        factoryTestCase = new RedisOperatorFactoryTestCase(factory);
+        streamTestCase = new StreamOperatorTestCase(factory);
     }
 
     @AfterAll
     public static void afterAll() {
+        streamTestCase.close();
         redisOperator.closeAsync().thenAccept(r -> factory.shutdown());
     }
 
@@ -99,6 +109,71 @@ class LettuceClusterOperatorTest {
         // LockSupport.parkNanos(1000 * 1000 * 1000);
     }
 
+    @Test
+    void msetRetry() {
+        redisProxyTestCase.msetRetry();
+    }
+
+    @Test
+    void psetexRetry() {
+        redisProxyTestCase.psetexRetry();
+    }
+
+    /**
+     * 批量命令：使用工厂创建的 RedisOperatorProxy（共享连接 + 管道连接池）
+     */
+    @Test
+    void batch() {
+        LettuceOperatorProxy proxy = factory.redisOperatorProxy(60000, 10000, false, null, null);
+        redisProxyTestCase.batch(proxy, factory.pipelinePool(ByteArrayCodec.INSTANCE));
+        proxy.closeAsync().join();
+    }
+
+    @Test
+    void pipelinePool() {
+        factoryTestCase.pipelinePool();
+    }
+
+    @Test
+    void sharedConnections() {
+        factoryTestCase.sharedConnections();
+    }
+
+    @Test
+    void genericContainerMergedRead() {
+        streamTestCase.genericContainerMergedRead();
+    }
+
+    @Test
+    void slotPartitionedRead() {
+        streamTestCase.slotPartitionedRead();
+    }
+
+    @Test
+    void xpendingXautoclaim() {
+        streamTestCase.xpendingXautoclaim();
+    }
+
+    @Test
+    void xaddAll() {
+        streamTestCase.xaddAll();
+    }
+
+    /**
+     * 自动提交：按节点执行的命令（经节点连接发送）同样被统计，无需手动提交
+     */
+    @Test
+    void autoFlushNodeCommands() {
+        AutoFlushPolicy policy = AutoFlushPolicy.builder()
+                .maxCommands(10000).maxDelay(Duration.ofMillis(10))
+                .build();
+        Pipeline<byte[], byte[]> pipeline = factory.pipeline(ByteArrayCodec.INSTANCE, policy);
+        Long dbsize = pipeline.dbsize().toCompletableFuture().orTimeout(1, TimeUnit.SECONDS).join();
+        Assertions.assertTrue(dbsize >= 0);
+        Assertions.assertNotNull(pipeline.scan().toCompletableFuture().orTimeout(1, TimeUnit.SECONDS).join());
+        pipeline.closeAsync().join();
+    }
+
     @Test
     void mget() {
         redisProxyTestCase.mget();
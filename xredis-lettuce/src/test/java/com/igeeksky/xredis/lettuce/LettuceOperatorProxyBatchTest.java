@@ -0,0 +1,174 @@
+package com.igeeksky.xredis.lettuce;
+
+import com.igeeksky.xredis.common.BatchReport;
+import com.igeeksky.xredis.common.BatchRetryPolicy;
+import com.igeeksky.xredis.common.RedisBatch;
+import com.igeeksky.xredis.common.RedisRejectedException;
+import com.igeeksky.xredis.lettuce.api.Pipeline;
+import com.igeeksky.xredis.lettuce.api.RedisAsyncOperator;
+import com.igeeksky.xredis.lettuce.api.RedisOperator;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class LettuceOperatorProxyBatchTest {
+
+    private final List<String> written = new CopyOnWriteArrayList<>();
+
+    private final PipelinePoolConfig config = PipelinePoolConfig.builder()
+            .maxTotal(1).maxIdle(1).idleTimeout(60000).borrowTimeout(10)
+            .build();
+
+    @Test
+    void batchWritesToPooledPipelineAndFlushesOnce() {
+        PipelinePool<byte[], byte[]> pool = new PipelinePool<>(() -> this.pipeline(true), config, Runnable::run);
+        LettuceOperatorProxy proxy = new LettuceOperatorProxy(1000, 100, false, this.redisOperator(),
+                null, null, pool);
+
+        RedisBatch batch = proxy.batch();
+        CompletableFuture<String> set = batch.set(bytes("a"), bytes("1"));
+        CompletableFuture<byte[]> get = batch.get(bytes("a"));
+        // 添加命令时仅记录，不写入连接
+        Assertions.assertTrue(written.isEmpty());
+
+        batch.executeAsync().join();
+        // 所有命令写入后才提交（归还连接时会再次提交，此时缓冲已为空）
+        Assertions.assertEquals(List.of("set", "get", "flush"), written.subList(0, 3));
+        Assertions.assertEquals("OK", set.join());
+        Assertions.assertEquals("a", new String(get.join(), StandardCharsets.UTF_8));
+        // 命令结果完成后归还连接
+        Assertions.assertEquals(0, pool.stats().active());
+        Assertions.assertEquals(1, pool.stats().idle());
+        pool.closeAsync().join();
+    }
+
+    @Test
+    void timeoutCompletesPendingFutures() {
+        PipelinePool<byte[], byte[]> pool = new PipelinePool<>(() -> this.pipeline(false), config, Runnable::run);
+        LettuceOperatorProxy proxy = new LettuceOperatorProxy(50, 100, false, this.redisOperator(),
+                null, null, pool);
+
+        RedisBatch batch = proxy.batch();
+        CompletableFuture<byte[]> get = batch.get(bytes("a"));
+        CompletionException e = Assertions.assertThrows(CompletionException.class, batch.executeAsync()::join);
+        Assertions.assertInstanceOf(TimeoutException.class, e.getCause());
+        // 汇总结果超时，各命令结果同样以异常结束，而非一直等待
+        CompletionException e2 = Assertions.assertThrows(CompletionException.class, get::join);
+        Assertions.assertInstanceOf(TimeoutException.class, e2.getCause());
+        Assertions.assertEquals(0, pool.stats().active());
+        pool.closeAsync().join();
+    }
+
+    @Test
+    void closeCancelsPendingRetries() {
+        LettuceOperatorProxy proxy = new LettuceOperatorProxy(1000, 100, false, this.timeoutOperator(),
+                null, null, null);
+        BatchRetryPolicy policy = BatchRetryPolicy.builder()
+                .maxRetries(3).backoffMillis(60000).maxBackoffMillis(60000)
+                .build();
+        CompletableFuture<BatchReport> future = proxy.msetAsync(Map.of(bytes("a"), bytes("1")), policy);
+        // 首次提交失败，等待退避后重试
+        Assertions.assertFalse(future.isDone());
+
+        // 关闭代理：停止重试线程，退避中的子批次记为失败，而非一直等待
+        proxy.closeAsync().join();
+        BatchReport report = future.orTimeout(1, TimeUnit.SECONDS).join();
+        Assertions.assertEquals(1, report.failures().size());
+        Assertions.assertInstanceOf(RedisRejectedException.class, report.failures().getFirst().error());
+
+        // 关闭后不再创建重试线程
+        BatchReport rejected = proxy.msetAsync(Map.of(bytes("b"), bytes("2")), policy)
+                .orTimeout(1, TimeUnit.SECONDS).join();
+        Assertions.assertInstanceOf(RedisRejectedException.class, rejected.failures().getFirst().error());
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 仅支持 get 与 set 命令的 Pipeline：记录写入的命令及提交操作；complete 为 false 时命令结果永不完成
+     */
+    @SuppressWarnings("unchecked")
+    private Pipeline<byte[], byte[]> pipeline(boolean complete) {
+        return (Pipeline<byte[], byte[]>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Pipeline.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "set" -> {
+                        written.add("set");
+                        yield future(CommandType.SET, complete ? "OK" : null);
+                    }
+                    case "get" -> {
+                        written.add("get");
+                        yield future(CommandType.GET, complete ? args[0] : null);
+                    }
+                    case "flushCommands" -> {
+                        written.add("flush");
+                        yield null;
+                    }
+                    case "isOpen" -> true;
+                    case "closeAsync" -> CompletableFuture.completedFuture(null);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static <T> AsyncCommand<byte[], byte[], T> future(CommandType type, T result) {
+        AsyncCommand<byte[], byte[], T> command = new AsyncCommand<>(new Command<>(type, null));
+        if (result != null) {
+            command.complete(result);
+        }
+        return command;
+    }
+
+    /**
+     * 仅支持 mset 命令的 RedisOperator：命令结果均为超时异常
+     */
+    @SuppressWarnings("unchecked")
+    private RedisOperator<byte[], byte[]> timeoutOperator() {
+        RedisAsyncOperator<byte[], byte[]> async = (RedisAsyncOperator<byte[], byte[]>) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{RedisAsyncOperator.class}, (proxy, method, args) -> {
+                    if ("mset".equals(method.getName())) {
+                        AsyncCommand<byte[], byte[], String> command = future(CommandType.MSET, null);
+                        command.completeExceptionally(new RedisCommandTimeoutException("timeout"));
+                        return command;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (RedisOperator<byte[], byte[]>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RedisOperator.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "async" -> async;
+                    case "closeAsync" -> CompletableFuture.completedFuture(null);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * 批量命令使用管道连接池，不应调用 RedisOperator
+     */
+    @SuppressWarnings("unchecked")
+    private RedisOperator<byte[], byte[]> redisOperator() {
+        return (RedisOperator<byte[], byte[]>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RedisOperator.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
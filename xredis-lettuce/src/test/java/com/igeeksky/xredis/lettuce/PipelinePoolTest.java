@@ -0,0 +1,118 @@
+package com.igeeksky.xredis.lettuce;
+
+import com.igeeksky.xredis.common.RedisRejectedException;
+import com.igeeksky.xredis.lettuce.api.Pipeline;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+class PipelinePoolTest {
+
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    private final AtomicInteger closes = new AtomicInteger();
+
+    private final PipelinePoolConfig config = PipelinePoolConfig.builder()
+            .maxTotal(1).maxIdle(1).idleTimeout(60000).borrowTimeout(10)
+            .build();
+
+    @Test
+    void executeReleasesAfterCompletion() {
+        PipelinePool<String, String> pool = new PipelinePool<>(this::pipeline, config, Runnable::run);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = pool.execute(pipeline -> pending);
+        // 提交命令后，操作结果完成前不归还连接
+        Assertions.assertEquals(1, flushes.get());
+        Assertions.assertEquals(1, pool.stats().active());
+
+        CompletableFuture<String> second = pool.execute(pipeline -> CompletableFuture.completedFuture("OK"));
+        CompletionException e = Assertions.assertThrows(CompletionException.class, second::join);
+        Assertions.assertInstanceOf(RedisRejectedException.class, e.getCause());
+
+        pending.complete("OK");
+        Assertions.assertEquals("OK", first.join());
+        Assertions.assertEquals(0, pool.stats().active());
+        Assertions.assertEquals(1, pool.stats().idle());
+        Assertions.assertEquals("OK", pool.execute(pipeline -> CompletableFuture.completedFuture("OK")).join());
+        Assertions.assertEquals(1, pool.stats().created());
+        pool.closeAsync().join();
+    }
+
+    @Test
+    void releaseOnFunctionError() {
+        PipelinePool<String, String> pool = new PipelinePool<>(this::pipeline, config, Runnable::run);
+        CompletableFuture<String> failed = pool.execute(pipeline -> {
+            throw new IllegalStateException("error");
+        });
+        Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertEquals(0, pool.stats().active());
+        pool.closeAsync().join();
+    }
+
+    @Test
+    void discardPartialBatchOnFunctionError() {
+        PipelinePool<String, String> pool = new PipelinePool<>(this::pipeline, config, Runnable::run);
+        Assertions.assertEquals("OK", pool.execute(pipeline -> CompletableFuture.completedFuture("OK")).join());
+        // 提交命令及归还连接各提交一次
+        Assertions.assertEquals(2, flushes.get());
+
+        // 操作函数中途抛出异常：不提交已写入的命令，且连接不再放回空闲队列
+        CompletableFuture<String> failed = pool.execute(pipeline -> {
+            throw new IllegalStateException("error");
+        });
+        Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertEquals(2, flushes.get());
+        Assertions.assertEquals(1, closes.get());
+        PipelinePoolStats stats = pool.stats();
+        Assertions.assertEquals(0, stats.active());
+        Assertions.assertEquals(0, stats.idle());
+        Assertions.assertEquals(1, stats.destroyed());
+
+        // 丢弃后释放连接数额度，再次借用时创建新连接
+        Assertions.assertEquals("OK", pool.execute(pipeline -> CompletableFuture.completedFuture("OK")).join());
+        Assertions.assertEquals(2, pool.stats().created());
+        Assertions.assertEquals(4, flushes.get());
+        pool.closeAsync().join();
+    }
+
+    @Test
+    void borrowAfterCloseRejected() {
+        PipelinePool<String, String> pool = new PipelinePool<>(this::pipeline, config, Runnable::run);
+        pool.closeAsync().join();
+        Assertions.assertThrows(RedisRejectedException.class, pool::borrow);
+        CompletableFuture<String> rejected = pool.execute(pipeline -> CompletableFuture.completedFuture("OK"));
+        CompletionException e = Assertions.assertThrows(CompletionException.class, rejected::join);
+        Assertions.assertInstanceOf(RedisRejectedException.class, e.getCause());
+    }
+
+    /**
+     * 仅支持提交命令、检查连接及关闭连接的 Pipeline
+     */
+    @SuppressWarnings("unchecked")
+    private Pipeline<String, String> pipeline() {
+        return (Pipeline<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Pipeline.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "flushCommands" -> {
+                        flushes.incrementAndGet();
+                        yield null;
+                    }
+                    case "isOpen" -> true;
+                    case "closeAsync" -> {
+                        closes.incrementAndGet();
+                        yield CompletableFuture.completedFuture(null);
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
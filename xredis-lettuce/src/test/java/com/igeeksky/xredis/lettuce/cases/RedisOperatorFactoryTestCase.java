@@ -0,0 +1,120 @@
+package com.igeeksky.xredis.lettuce.cases;
+
+import com.igeeksky.xredis.common.RedisOperatorProxy;
+import com.igeeksky.xredis.common.RedisRejectedException;
+import com.igeeksky.xredis.lettuce.PipelinePool;
+import com.igeeksky.xredis.lettuce.PipelinePoolConfig;
+import com.igeeksky.xredis.lettuce.PipelinePoolStats;
+import com.igeeksky.xredis.lettuce.api.RedisOperator;
+import com.igeeksky.xredis.lettuce.api.RedisOperatorFactory;
+import com.igeeksky.xtool.core.lang.codec.StringCodec;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.junit.jupiter.api.Assertions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * RedisOperatorFactory 测试用例
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class RedisOperatorFactoryTestCase {
+
+    private final StringCodec codec = StringCodec.getInstance(StandardCharsets.UTF_8);
+
+    private final RedisOperatorFactory factory;
+
+    /**
+     * 构造方法
+     *
+     * @param factory RedisOperatorFactory
+     */
+    public RedisOperatorFactoryTestCase(RedisOperatorFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * 管道连接池：多线程并发执行批处理任务，连接数不超过上限且连接被复用；关闭后拒绝借用
+     */
+    public void pipelinePool() {
+        PipelinePoolConfig config = PipelinePoolConfig.builder()
+                .maxTotal(2).maxIdle(2).idleTimeout(60000).borrowTimeout(5000)
+                .build();
+        int size = 20;
+        byte[][] keys = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            keys[i] = codec.encode("test-pipeline-pool:" + i);
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            PipelinePool<byte[], byte[]> pool = new PipelinePool<>(() -> factory.pipeline(ByteArrayCodec.INSTANCE),
+                    config, executor);
+
+            List<CompletableFuture<String>> futures = new ArrayList<>(size);
+            for (byte[] key : keys) {
+                futures.add(CompletableFuture.supplyAsync(() -> pool.execute(p -> p.set(key, key)), executor)
+                        .thenCompose(f -> f));
+            }
+            for (CompletableFuture<String> future : futures) {
+                Assertions.assertEquals(RedisOperatorProxy.OK, future.join());
+            }
+
+            for (byte[] key : keys) {
+                Assertions.assertArrayEquals(key, pool.execute(p -> p.get(key)).join());
+            }
+            Assertions.assertEquals(size, (long) pool.execute(p -> p.del(keys)).join());
+
+            PipelinePoolStats stats = pool.stats();
+            Assertions.assertEquals(0, stats.active());
+            Assertions.assertEquals(size * 2 + 1, stats.borrowed());
+            Assertions.assertTrue(stats.created() <= 2);
+            Assertions.assertEquals(stats.created(), stats.idle());
+
+            pool.closeAsync().join();
+            Assertions.assertEquals(0, pool.stats().idle());
+            Assertions.assertThrows(RedisRejectedException.class, pool::borrow);
+        }
+    }
+
+    /**
+     * 共享连接：同一编解码器共用一条物理连接，引用计数为零时关闭；预热持有的引用保持至工厂关闭
+     */
+    public void sharedConnections() {
+        // 使用新的编解码器对象，避免与工厂默认预热的共享连接混用
+        ByteArrayCodec byteArrayCodec = new ByteArrayCodec();
+        RedisOperator<byte[], byte[]> shared1 = factory.sharedRedisOperator(byteArrayCodec);
+        RedisOperator<byte[], byte[]> shared2 = factory.sharedRedisOperator(byteArrayCodec);
+        RedisOperator<byte[], byte[]> single = factory.redisOperator(byteArrayCodec);
+
+        Long clientId = shared1.sync().clientId();
+        Assertions.assertEquals(clientId, shared2.sync().clientId());
+        Assertions.assertNotEquals(clientId, single.sync().clientId());
+
+        // 引用计数未归零，连接保持可用；重复关闭无效
+        shared1.closeAsync().join();
+        shared1.closeAsync().join();
+        Assertions.assertEquals(clientId, shared2.sync().clientId());
+
+        // 引用计数归零后关闭物理连接，再次获取时创建新连接
+        shared2.closeAsync().join();
+        RedisOperator<byte[], byte[]> shared3 = factory.sharedRedisOperator(byteArrayCodec);
+        Long clientId3 = shared3.sync().clientId();
+        Assertions.assertNotEquals(clientId, clientId3);
+
+        // 预热持有引用：使用者全部关闭后，连接依然保留
+        factory.warmUpAsync(byteArrayCodec).join();
+        shared3.closeAsync().join();
+        RedisOperator<byte[], byte[]> shared4 = factory.sharedRedisOperator(byteArrayCodec);
+        Assertions.assertEquals(clientId3, shared4.sync().clientId());
+
+        shared4.closeAsync().join();
+        single.closeAsync().join();
+    }
+
+}
@@ -1,10 +1,17 @@
 package com.igeeksky.xredis.lettuce.cases;
 
+import com.igeeksky.xredis.common.BatchFailure;
+import com.igeeksky.xredis.common.BatchReport;
+import com.igeeksky.xredis.common.BatchRetryPolicy;
 import com.igeeksky.xredis.common.Limit;
 import com.igeeksky.xredis.common.Range;
+import com.igeeksky.xredis.common.RedisBatch;
 import com.igeeksky.xredis.common.RedisOperatorProxy;
 import com.igeeksky.xredis.common.ScoredValue;
+import com.igeeksky.xredis.common.limiter.CommandLimiter;
+import com.igeeksky.xredis.common.limiter.LimitPolicy;
 import com.igeeksky.xredis.lettuce.LettuceOperatorProxy;
+import com.igeeksky.xredis.lettuce.PipelinePool;
 import com.igeeksky.xredis.lettuce.api.RedisOperator;
 import com.igeeksky.xtool.core.ExpiryKeyValue;
 import com.igeeksky.xtool.core.KeyValue;
@@ -18,6 +25,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -216,6 +224,95 @@ public class RedisOperatorProxyTestCase {
         Assertions.assertEquals(size, (long) operatorProxy.del(keysArray));
     }
 
+    /**
+     * 子批次重试：全部成功时无重试，同步调用返回执行报告
+     */
+    public void msetRetry() {
+        CommandLimiter limiter = new CommandLimiter(1, LimitPolicy.WAIT, 60000);
+        LettuceOperatorProxy proxy = new LettuceOperatorProxy(1000, 10, false, redisOperator, limiter);
+        BatchRetryPolicy policy = BatchRetryPolicy.builder().maxRetries(2).backoffMillis(10).build();
+
+        String[] keys = LettuceTestHelper.createKeys(25, "test-mset-retry:");
+        byte[][] keysArray = LettuceTestHelper.toKeysArray(keys.length, keys);
+        Map<byte[], byte[]> keyValues = LettuceTestHelper.createKeyValues(25, keysArray);
+
+        BatchReport report = proxy.mset(keyValues, policy);
+        Assertions.assertTrue(report.isSuccess());
+        Assertions.assertEquals(3, report.batches());
+        Assertions.assertEquals(25, report.entries());
+        Assertions.assertEquals(0, report.retries());
+
+        LettuceTestHelper.validateValues(keys, LettuceTestHelper.fromKeyValues(proxy.mget(keysArray)), 25);
+        Assertions.assertEquals(25, (long) proxy.del(keysArray));
+    }
+
+    /**
+     * 子批次重试：WAIT 模式的并发限制器下，退避后重新提交不阻塞，重试耗尽后记录失败的子批次
+     * <p>
+     * 兼容模式下逐条发送 PSETEX，过期时间非法时命令失败；测试时将所有异常视为可重试。
+     */
+    public void psetexRetry() {
+        CommandLimiter limiter = new CommandLimiter(1, LimitPolicy.WAIT, 60000);
+        LettuceOperatorProxy proxy = new LettuceOperatorProxy(1000, 10, true, redisOperator, limiter);
+        BatchRetryPolicy policy = BatchRetryPolicy.builder()
+                .maxRetries(2).backoffMillis(10).retryable(e -> true)
+                .build();
+
+        String[] keys = LettuceTestHelper.createKeys(25, "test-psetex-retry:");
+        byte[][] keysArray = LettuceTestHelper.toKeysArray(keys.length, keys);
+        List<KeyValue<byte[], byte[]>> keyValues = new ArrayList<>(keys.length);
+        for (byte[] key : keysArray) {
+            keyValues.add(new KeyValue<>(key, key));
+        }
+
+        BatchReport report = proxy.psetex(keyValues, -1, policy);
+        Assertions.assertFalse(report.isSuccess());
+        Assertions.assertEquals(3, report.batches());
+        Assertions.assertEquals(6, report.retries());
+        Assertions.assertEquals(3, report.failures().size());
+        for (BatchFailure failure : report.failures()) {
+            Assertions.assertEquals(3, failure.attempts());
+        }
+        Assertions.assertEquals(25, report.failedKeys().size());
+        Assertions.assertEquals(0, limiter.stats().inFlight());
+    }
+
+    /**
+     * 批量命令：不同类型的命令写入借用的管道连接，一次提交；执行完成后各命令结果均已完成，且连接已归还
+     *
+     * @param proxy 使用管道连接池的 RedisOperatorProxy
+     * @param pool  proxy 使用的管道连接池
+     */
+    public void batch(LettuceOperatorProxy proxy, PipelinePool<byte[], byte[]> pool) {
+        byte[] key = codec.encode("test-batch:string");
+        byte[] hkey = codec.encode("test-batch:hash");
+        byte[] zkey = codec.encode("test-batch:zset");
+        byte[] field = codec.encode("field");
+        byte[] value = codec.encode("value");
+        proxy.del(key, hkey, zkey);
+
+        RedisBatch batch = proxy.batch();
+        CompletableFuture<String> set = batch.set(key, value);
+        CompletableFuture<byte[]> get = batch.get(key);
+        CompletableFuture<Boolean> hset = batch.hset(hkey, field, value);
+        CompletableFuture<byte[]> hget = batch.hget(hkey, field);
+        CompletableFuture<Long> zadd = batch.zadd(zkey, 1.0, value);
+        CompletableFuture<Long> zcard = batch.zcard(zkey);
+        // 执行之前仅记录命令
+        Assertions.assertFalse(set.isDone());
+
+        batch.execute();
+        Assertions.assertEquals(RedisOperatorProxy.OK, set.join());
+        Assertions.assertArrayEquals(value, get.join());
+        Assertions.assertTrue(hset.join());
+        Assertions.assertArrayEquals(value, hget.join());
+        Assertions.assertEquals(1L, zadd.join());
+        Assertions.assertEquals(1L, zcard.join());
+        Assertions.assertEquals(0, pool.stats().active());
+
+        Assertions.assertEquals(3L, (long) proxy.del(key, hkey, zkey));
+    }
+
     public void psetex() {
         byte[] key = codec.encode("test-psetex");
         byte[] value = codec.encode("test-psetex-value");
@@ -0,0 +1,302 @@
+package com.igeeksky.xredis.lettuce.cases;
+
+import com.igeeksky.xredis.common.flow.RetrySubscription;
+import com.igeeksky.xredis.common.flow.Subscriber;
+import com.igeeksky.xredis.common.flow.Subscription;
+import com.igeeksky.xredis.common.stream.StreamOperator;
+import com.igeeksky.xredis.common.stream.XAddOptions;
+import com.igeeksky.xredis.common.stream.XAutoClaimResult;
+import com.igeeksky.xredis.common.stream.XGroupConsumer;
+import com.igeeksky.xredis.common.stream.XPendingSummary;
+import com.igeeksky.xredis.common.stream.XStreamMessage;
+import com.igeeksky.xredis.common.stream.XStreamOffset;
+import com.igeeksky.xredis.common.stream.container.ReadOptions;
+import com.igeeksky.xredis.common.stream.container.StreamContainer;
+import com.igeeksky.xredis.common.stream.container.StreamGenericContainer;
+import com.igeeksky.xredis.common.stream.container.StreamGroupContainer;
+import com.igeeksky.xredis.lettuce.LettuceStreamOperator;
+import com.igeeksky.xredis.lettuce.api.RedisOperator;
+import com.igeeksky.xredis.lettuce.api.RedisOperatorFactory;
+import io.lettuce.core.codec.StringCodec;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StreamOperator 及流容器测试用例
+ *
+ * @author Patrick.Lau
+ * @since 1.1.0
+ */
+public class StreamOperatorTestCase {
+
+    private final RedisOperatorFactory factory;
+    private final RedisOperator<String, String> redisOperator;
+    private final StreamOperator<String, String> streamOperator;
+
+    /**
+     * 构造方法
+     *
+     * @param factory RedisOperatorFactory
+     */
+    public StreamOperatorTestCase(RedisOperatorFactory factory) {
+        this.factory = factory;
+        this.redisOperator = factory.redisOperator(StringCodec.UTF8);
+        this.streamOperator = factory.streamOperator(StringCodec.UTF8);
+    }
+
+    /**
+     * 关闭测试用例创建的连接
+     */
+    public void close() {
+        this.streamOperator.closeAsync().join();
+        this.redisOperator.closeAsync().join();
+    }
+
+    /**
+     * 合并读取：读取选项相同的多个流合并为一条 xread 命令，读取结果按所属流分发；读取选项不同的流单独读取
+     */
+    public void genericContainerMergedRead() {
+        // 使用相同的 hash tag，使合并读取的流位于同一槽位（集群模式下不因槽位不同而拆分）
+        List<String> merged = List.of("test-generic:{merge}:1", "test-generic:{merge}:2", "test-generic:{merge}:3");
+        String single = "test-generic:{merge}:single";
+        List<String> keys = new ArrayList<>(merged);
+        keys.add(single);
+        Map<String, List<String>> published = this.publish(keys, 2);
+
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            StreamGenericContainer<String, String> container = factory.streamGenericContainer(StringCodec.UTF8,
+                    scheduler, 10);
+            Collector collector = new Collector();
+            for (String key : merged) {
+                container.subscribe(XStreamOffset.first(key), ReadOptions.from(10)).subscribe(collector, 1);
+            }
+            container.subscribe(XStreamOffset.first(single), ReadOptions.from(1)).subscribe(collector, 1);
+
+            Assertions.assertEquals(published, collector.await(8, 5000));
+            container.shutdown();
+        }
+        this.delete(keys);
+    }
+
+    /**
+     * 按槽位分组读取：集群模式下位于不同槽位的流分别发送读取命令（否则报 CROSSSLOT 错误）；非集群模式槽位均为 0
+     */
+    public void slotPartitionedRead() {
+        List<String> keys = List.of("test-slot:a", "test-slot:b", "test-slot:c", "test-slot:d", "test-slot:e");
+        Set<Integer> slots = new HashSet<>();
+        for (String key : keys) {
+            slots.add(streamOperator.slot(key));
+        }
+        if (streamOperator.isCluster()) {
+            Assertions.assertTrue(slots.size() > 1);
+        } else {
+            Assertions.assertEquals(Set.of(0), slots);
+        }
+
+        Map<String, List<String>> published = this.publish(keys, 2);
+        try (ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()) {
+            // 公共读取选项：所有流合并读取，集群模式下按槽位拆分
+            StreamContainer<String, String> container = factory.streamContainer(StringCodec.UTF8, scheduler,
+                    10, ReadOptions.from(10));
+            Collector collector = new Collector();
+            for (String key : keys) {
+                container.subscribe(XStreamOffset.first(key)).subscribe(collector, 1);
+            }
+            Assertions.assertEquals(published, collector.await(10, 5000));
+            container.shutdown();
+
+            // 消费者组：消费组、消费者及读取选项均相同的流合并读取，集群模式下同样按槽位拆分
+            XGroupConsumer<String> consumer = new XGroupConsumer<>("test-slot-group", "consumer1");
+            for (String key : keys) {
+                streamOperator.xgroupCreate(XStreamOffset.first(key), consumer.group());
+            }
+            StreamGroupContainer<String, String> groupContainer = factory.streamGroupContainer(StringCodec.UTF8,
+                    scheduler, 10);
+            Collector groupCollector = new Collector();
+            for (String key : keys) {
+                groupContainer.subscribe(XStreamOffset.lastConsumed(key), ReadOptions.from(10), consumer)
+                        .subscribe(groupCollector, 1);
+            }
+            Assertions.assertEquals(published, groupCollector.await(10, 5000));
+            groupContainer.shutdown();
+        }
+        this.delete(keys);
+    }
+
+    /**
+     * 待处理消息：XPENDING 汇总信息及 XAUTOCLAIM 分页认领结果的转换
+     */
+    public void xpendingXautoclaim() {
+        String key = "test-pending";
+        XGroupConsumer<String> consumer1 = new XGroupConsumer<>("test-pending-group", "consumer1");
+        XGroupConsumer<String> consumer2 = new XGroupConsumer<>("test-pending-group", "consumer2");
+        List<String> ids = this.publish(List.of(key), 3).get(key);
+        streamOperator.xgroupCreate(XStreamOffset.first(key), consumer1.group());
+
+        // 无待处理消息
+        XPendingSummary empty = streamOperator.xpending(key, consumer1.group());
+        Assertions.assertEquals(0, empty.count());
+        Assertions.assertNull(empty.lowestId());
+        Assertions.assertNull(empty.highestId());
+        Assertions.assertTrue(empty.consumers().isEmpty());
+
+        // 读取但不确认：消息进入待处理列表
+        Assertions.assertEquals(3, streamOperator.xreadgroup(consumer1, XStreamOffset.lastConsumed(key)).size());
+        XPendingSummary pending = streamOperator.xpending(key, consumer1.group());
+        Assertions.assertEquals(3, pending.count());
+        Assertions.assertEquals(ids.getFirst(), pending.lowestId());
+        Assertions.assertEquals(ids.getLast(), pending.highestId());
+        Assertions.assertEquals(Map.of("consumer1", 3L), pending.consumers());
+
+        // 分页认领：未扫描完毕时返回下一次扫描的起始 ID
+        XAutoClaimResult<String, String> first = streamOperator.xautoclaim(key, consumer2, 0,
+                XAutoClaimResult.START_ID, 2);
+        Assertions.assertFalse(first.finished());
+        Assertions.assertEquals(ids.getLast(), first.nextId());
+        Assertions.assertEquals(ids.subList(0, 2), first.messages().stream().map(XStreamMessage::id).toList());
+        XStreamMessage<String, String> message = first.messages().getFirst();
+        Assertions.assertEquals(key, message.stream());
+        Assertions.assertEquals(Map.of("value", key + ":0"), message.body());
+
+        XAutoClaimResult<String, String> second = streamOperator.xautoclaim(key, consumer2, 0, first.nextId(), 2);
+        Assertions.assertTrue(second.finished());
+        Assertions.assertEquals(ids.subList(2, 3), second.messages().stream().map(XStreamMessage::id).toList());
+        Assertions.assertEquals(Map.of("consumer2", 3L), streamOperator.xpending(key, consumer1.group()).consumers());
+
+        Assertions.assertEquals(3, streamOperator.xack(key, consumer1.group(), ids.toArray(new String[0])));
+        Assertions.assertEquals(0, streamOperator.xpending(key, consumer1.group()).count());
+        this.delete(List.of(key));
+    }
+
+    /**
+     * 批量发布：已提供编解码器时所有 xadd 命令一次写入连接；未提供编解码器时逐条发送，两者结果一致
+     */
+    public void xaddAll() {
+        String key = "test-xadd-all";
+        String fallbackKey = "test-xadd-all:fallback";
+        List<Map<String, String>> bodies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bodies.add(Map.of("value", String.valueOf(i)));
+        }
+        this.delete(List.of(key, fallbackKey));
+
+        // 一次写入：默认自动生成消息 ID
+        List<String> ids = this.join(streamOperator.xaddAllAsync(key, null, bodies));
+        Assertions.assertEquals(10, ids.size());
+        List<XStreamMessage<String, String>> messages = streamOperator.xread(XStreamOffset.first(key));
+        Assertions.assertEquals(ids, messages.stream().map(XStreamMessage::id).toList());
+        Assertions.assertEquals(bodies, messages.stream().map(XStreamMessage::body).toList());
+
+        // 一次写入：携带裁剪参数
+        XAddOptions options = XAddOptions.builder().maxLen(5).exactTrimming().build();
+        Assertions.assertEquals(10, this.join(streamOperator.xaddAllAsync(key, options, bodies)).size());
+        Assertions.assertEquals(5L, redisOperator.sync().xlen(key));
+
+        // 未提供编解码器：逐条发送
+        StreamOperator<String, String> fallback = new LettuceStreamOperator<>(redisOperator);
+        List<String> fallbackIds = this.join(fallback.xaddAllAsync(fallbackKey, options, bodies));
+        Assertions.assertEquals(10, fallbackIds.size());
+        Assertions.assertEquals(5L, redisOperator.sync().xlen(fallbackKey));
+        List<XStreamMessage<String, String>> fallbackMessages = streamOperator.xread(XStreamOffset.first(fallbackKey));
+        Assertions.assertEquals(fallbackIds.subList(5, 10),
+                fallbackMessages.stream().map(XStreamMessage::id).toList());
+        Assertions.assertEquals(bodies.subList(5, 10), fallbackMessages.stream().map(XStreamMessage::body).toList());
+
+        this.delete(List.of(key, fallbackKey));
+    }
+
+    private List<String> join(List<CompletableFuture<String>> futures) {
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * 向每个流发布消息
+     *
+     * @param keys 流名称
+     * @param size 每个流发布的消息数量
+     * @return {@code Map<String, List<String>>} – 流名称 – 按发布顺序排列的消息 ID
+     */
+    private Map<String, List<String>> publish(List<String> keys, int size) {
+        this.delete(keys);
+        Map<String, List<String>> published = new LinkedHashMap<>();
+        for (String key : keys) {
+            List<String> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(streamOperator.xadd(key, Map.of("value", key + ":" + i)));
+            }
+            published.put(key, ids);
+        }
+        return published;
+    }
+
+    private void delete(List<String> keys) {
+        for (String key : keys) {
+            redisOperator.sync().del(key);
+        }
+    }
+
+    /**
+     * 收集消息的订阅者
+     */
+    private static final class Collector implements Subscriber<XStreamMessage<String, String>> {
+
+        private final BlockingQueue<XStreamMessage<String, String>> messages = new LinkedBlockingQueue<>();
+        private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onNext(XStreamMessage<String, String> element) {
+            messages.add(element);
+        }
+
+        @Override
+        public void onError(Throwable t, Subscription s) {
+            errors.add(t);
+        }
+
+        @Override
+        public void onError(Throwable t, XStreamMessage<String, String> element, int attempts,
+                            RetrySubscription<XStreamMessage<String, String>> s) {
+            errors.add(t);
+        }
+
+        /**
+         * 等待接收指定数量的消息
+         *
+         * @param size    消息数量
+         * @param timeout 最大等待时长，单位：毫秒
+         * @return {@code Map<String, List<String>>} – 流名称 – 按接收顺序排列的消息 ID
+         */
+        Map<String, List<String>> await(int size, long timeout) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            Map<String, List<String>> received = new LinkedHashMap<>();
+            try {
+                for (int i = 0; i < size; i++) {
+                    long nanos = deadline - System.nanoTime();
+                    XStreamMessage<String, String> message = messages.poll(nanos, TimeUnit.NANOSECONDS);
+                    Assertions.assertNotNull(message, "received " + i + " of " + size + " messages");
+                    received.computeIfAbsent(message.stream(), ignored -> new ArrayList<>()).add(message.id());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Assertions.fail(e);
+            }
+            Assertions.assertTrue(errors.isEmpty(), () -> "unexpected errors: " + errors);
+            return received;
+        }
+
+    }
+
+}